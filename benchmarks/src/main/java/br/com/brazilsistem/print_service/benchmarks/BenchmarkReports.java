@@ -0,0 +1,91 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.Style;
+import br.com.brazilsistem.print_service.util.SyntheticReportGenerator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Relatórios sintéticos e determinísticos usados pelos benchmarks.
+ */
+public final class BenchmarkReports {
+
+    private BenchmarkReports() {
+        // Classe utilitária - construtor privado
+    }
+
+    /**
+     * Especificação padrão dos benchmarks: tabela de 5 colunas e, opcionalmente,
+     * uma seção aninhada com 3 itens por linha.
+     */
+    public static SyntheticReportGenerator.Spec spec(int rows, boolean nested) {
+        SyntheticReportGenerator.Spec spec = new SyntheticReportGenerator.Spec();
+        spec.setReportType("benchmark");
+        spec.setRows(rows);
+        spec.setNestedSections(nested ? 1 : 0);
+        return spec;
+    }
+
+    public static Section tableSection(int rows, boolean nested) {
+        return report(rows, nested).getSections().get(0);
+    }
+
+    /**
+     * Tabela com uma seção aninhada de {@code nestedRows} itens por linha, renderizada em uma
+     * tabela por célula ou, com {@code flatRows}, como linhas da tabela principal.
+     */
+    public static Section nestedTableSection(int rows, int nestedRows, boolean flatRows) {
+        SyntheticReportGenerator.Spec spec = spec(rows, true);
+        spec.setNestedRows(nestedRows);
+        spec.setFlatNestedRows(flatRows);
+        return SyntheticReportGenerator.generate(spec).getSections().get(0);
+    }
+
+    public static ReportData report(int rows, boolean nested) {
+        return SyntheticReportGenerator.generate(spec(rows, nested));
+    }
+
+    /**
+     * Seção de gráfico com eixo x numérico e duas séries (senoide com ruído e tendência),
+     * com {@code points} pontos.
+     */
+    public static Section chartSection(int points, String chartType) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("t", "Tempo");
+        columns.put("sinal", "Sinal");
+        columns.put("tendencia", "Tendência");
+
+        List<Map<String, Object>> data = new ArrayList<>(points);
+        long seed = 42;
+        for (int i = 0; i < points; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            double noise = ((seed >>> 11) / (double) (1L << 53)) - 0.5;
+            Map<String, Object> row = new HashMap<>();
+            row.put("t", i);
+            row.put("sinal", 100 * Math.sin(i * 20 * Math.PI / points) + 20 * noise);
+            row.put("tendencia", 50.0 * i / points);
+            data.add(row);
+        }
+
+        Section section = new Section();
+        section.setType("chart");
+        section.setChartType(chartType);
+        section.setColumns(columns);
+        section.setData(data);
+        return section;
+    }
+
+    static Style style(Float width, String format, String alignment) {
+        Style style = new Style();
+        style.setWidth(width);
+        style.setFormat(format);
+        style.setAlignment(alignment);
+        return style;
+    }
+}
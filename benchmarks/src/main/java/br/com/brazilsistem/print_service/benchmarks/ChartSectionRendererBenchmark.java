@@ -0,0 +1,59 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.interfaces.impl.ChartSectionRenderer;
+import br.com.brazilsistem.print_service.model.Section;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderização de uma seção de gráfico vetorial, incluindo a serialização do documento.
+ * Com a redução das séries à resolução de impressão, o tempo de desenho e o tamanho do PDF
+ * devem ficar estáveis com o aumento do número de pontos; o que cresce é apenas a leitura
+ * dos valores. O tamanho do PDF gerado é impresso ao final de cada configuração.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ChartSectionRendererBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int points;
+
+    @Param({"line", "bar"})
+    public String chartType;
+
+    private Section section;
+    private ChartSectionRenderer renderer;
+    private long outputBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        section = BenchmarkReports.chartSection(points, chartType);
+        renderer = new ChartSectionRenderer(2f);
+    }
+
+    @Benchmark
+    public long renderChart() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(output));
+        Document document = new Document(pdfDoc, PageSize.A4, false);
+        renderer.renderSectionContent(document, section);
+        document.close();
+        outputBytes = output.getCount();
+        return outputBytes;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s com %d pontos: %d bytes%n", chartType, points, outputBytes);
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.interfaces.SectionTypeRenderer;
+import br.com.brazilsistem.print_service.interfaces.impl.FastTableSectionRenderer;
+import br.com.brazilsistem.print_service.interfaces.impl.TableSectionRenderer;
+import br.com.brazilsistem.print_service.model.CompressionProfile;
+import br.com.brazilsistem.print_service.model.Section;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.layout.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matriz de tempo de CPU contra tamanho do PDF para os perfis de compressão, em relatórios de
+ * tabela típicos. LEGACY é o comportamento anterior aos perfis (compressContent: nível 9, sem
+ * compressão completa nem modo inteligente). Ao final de cada configuração são impressos o
+ * tamanho do PDF e o tempo de CPU médio por documento, para escolher o perfil de cada reportType.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class CompressionProfileBenchmark {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"table", "fasttable"})
+    public String sectionType;
+
+    @Param({"LEGACY", "FAST", "BALANCED", "SMALLEST"})
+    public String profile;
+
+    private Section section;
+    private SectionTypeRenderer renderer;
+    private long outputBytes;
+    private long cpuNanos;
+    private long documents;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        section = BenchmarkReports.tableSection(rows, false);
+        TableSectionRenderer tableRenderer = new TableSectionRenderer();
+        renderer = "fasttable".equals(sectionType) ? new FastTableSectionRenderer(tableRenderer) : tableRenderer;
+    }
+
+    @Benchmark
+    public long render() throws IOException {
+        long cpuStart = THREADS.getCurrentThreadCpuTime();
+        CountingOutputStream output = new CountingOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(output, writerProperties()));
+        Document document = new Document(pdfDoc, PageSize.A4, false);
+        renderer.renderSectionContent(document, section);
+        document.close();
+
+        cpuNanos += THREADS.getCurrentThreadCpuTime() - cpuStart;
+        documents++;
+        outputBytes = output.getCount();
+        return outputBytes;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.printf("%n%s %d linhas, %s: %d bytes, %.1f ms de CPU por documento%n",
+                sectionType, rows, profile, outputBytes, documents > 0 ? cpuNanos / 1e6 / documents : 0);
+    }
+
+    private WriterProperties writerProperties() {
+        if ("LEGACY".equals(profile)) {
+            return new WriterProperties().setCompressionLevel(9);
+        }
+        return CompressionProfile.valueOf(profile).apply(new WriterProperties());
+    }
+}
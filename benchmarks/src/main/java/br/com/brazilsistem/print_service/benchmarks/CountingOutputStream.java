@@ -0,0 +1,25 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import java.io.OutputStream;
+
+/**
+ * Saída que descarta os bytes e conta quantos foram escritos.
+ */
+final class CountingOutputStream extends OutputStream {
+
+    private long count;
+
+    @Override
+    public void write(int b) {
+        count++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        count += len;
+    }
+
+    long getCount() {
+        return count;
+    }
+}
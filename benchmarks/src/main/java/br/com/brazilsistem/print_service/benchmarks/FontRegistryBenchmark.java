@@ -0,0 +1,104 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.font.FontRegistry;
+import br.com.brazilsistem.print_service.model.Style;
+import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Paragraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de uma fonte TrueType embutida: interpretação do arquivo (primeiro uso, ou toda requisição
+ * sem o registro) e documento com a fonte já registrada (regime permanente), comparado ao documento
+ * que interpreta o arquivo a cada requisição.
+ * <p>
+ * A fonte é lida de {@code -Dbenchmark.font=<arquivo.ttf>}; sem a propriedade, usa a DejaVu Sans
+ * das distribuições Linux.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class FontRegistryBenchmark {
+
+    private static final String FONT_NAME = "benchmark";
+    private static final String TEXT = "Relatório de vendas — São Paulo, 1.234,56 (ação, função, Ωmega)";
+
+    @Param({"10", "200"})
+    public int paragraphs;
+
+    private byte[] fontBytes;
+    private FontRegistry fontRegistry;
+    private Style style;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        fontBytes = Files.readAllBytes(Path.of(System.getProperty("benchmark.font",
+                "/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf")));
+        fontRegistry = new FontRegistry("");
+        fontRegistry.register(FONT_NAME, fontBytes);
+
+        style = new Style();
+        style.setFontFamily(FONT_NAME);
+        style.setFontSize(10f);
+    }
+
+    /**
+     * Interpretação do arquivo da fonte: custo do primeiro uso no registro.
+     */
+    @Benchmark
+    public FontProgram parseFontProgram() throws IOException {
+        return FontProgramFactory.createFont(fontBytes, false);
+    }
+
+    /**
+     * Documento com a fonte resolvida pelo registro, a partir do programa já interpretado.
+     */
+    @Benchmark
+    public int documentWithRegisteredFont() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(OutputStream.nullOutputStream()));
+        Document document = new Document(pdfDoc, PageSize.A4, false);
+        fontRegistry.apply(document);
+        for (int i = 0; i < paragraphs; i++) {
+            Paragraph paragraph = new Paragraph(TEXT);
+            PdfStyleUtils.applyParagraphStyle(paragraph, style);
+            document.add(paragraph);
+        }
+        int pages = pdfDoc.getNumberOfPages();
+        document.close();
+        return pages;
+    }
+
+    /**
+     * Documento que interpreta o arquivo da fonte a cada requisição.
+     */
+    @Benchmark
+    public int documentParsingFontPerRequest() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(OutputStream.nullOutputStream()));
+        Document document = new Document(pdfDoc, PageSize.A4, false);
+        PdfFont font = PdfFontFactory.createFont(FontProgramFactory.createFont(fontBytes, false), PdfEncodings.IDENTITY_H,
+                PdfFontFactory.EmbeddingStrategy.PREFER_EMBEDDED);
+        for (int i = 0; i < paragraphs; i++) {
+            document.add(new Paragraph(TEXT).setFont(font).setFontSize(10f));
+        }
+        int pages = pdfDoc.getNumberOfPages();
+        document.close();
+        return pages;
+    }
+}
@@ -0,0 +1,474 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.PrintServiceApplication;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.util.SyntheticReportGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga em processo: sobe o print-service em um servidor embarcado (porta aleatória)
+ * e dispara requisições HTTP reais contra os endpoints, com concorrência fixa (laço fechado)
+ * ou taxa de chegada fixa (laço aberto).
+ * <p>
+ * Para cada combinação de tamanho de relatório e concorrência/taxa informa vazão,
+ * latências p50/p99/p999, tempo e quantidade de coletas de GC, alocação e CPU por requisição,
+ * pico de heap e pico de RSS do processo, gravando uma linha CSV por combinação para montar gráficos entre versões.
+ * <p>
+ * Exemplo:
+ * <pre>
+ * mvn -f benchmarks/pom.xml compile exec:exec@load \
+ *     -Dload.args="--endpoint=/pdf/generate --rows=100,1000,10000 --concurrency=1,4,16 --duration=30"
+ * </pre>
+ * Opções: --endpoint, --rows, --concurrency, --rate (req/s; quando informado usa laço aberto),
+ * --duration e --warmup (segundos), --sections, --section-type, --groups, --columns, --nested, --string-length,
+ * --unique-bodies, --output (arquivo CSV). Opções no formato {@code --app.<propriedade>=<valor>} são repassadas
+ * à aplicação (ex: {@code --app.print-service.output.spool-threshold-bytes=0} ou
+ * {@code --app.print-service.output.pool.enabled=false} para comparar com o buffer contíguo).
+ * <p>
+ * Por padrão ({@code --unique-bodies=true}) cada requisição leva um número de sequência no campo
+ * "Número" do cabeçalho: sem isso, requisições simultâneas idênticas seriam agrupadas pelo
+ * {@code RenderCoalescer} em uma única renderização e os documentos repetidos reaproveitados pelo
+ * {@code ArtifactStore}, e a medição passaria a medir o cache. Use {@code --unique-bodies=false} para
+ * medir justamente o agrupamento.
+ */
+public class LoadHarness {
+
+    private static final String CONTEXT_PATH = "/print-service";
+    private static final String CSV_HEADER = "timestamp,endpoint,rows,sections,columns,nested,mode,concurrency,rate,"
+            + "requests,errors,throughput_rps,p50_ms,p99_ms,p999_ms,max_ms,gc_count,gc_time_ms,"
+            + "alloc_mb_per_req,cpu_ms_per_req,peak_heap_mb,peak_rss_mb";
+    private static final String APP_OPTION_PREFIX = "app.";
+    // Marcador substituído pelo número de sequência da requisição; fora do alfabeto do gerador sintético
+    private static final String SEQUENCE_PLACEHOLDER = "@@sequencia@@";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+
+        String endpoint = options.getOrDefault("endpoint", "/pdf/generate");
+        int[] rowsList = parseInts(options.getOrDefault("rows", "100,1000"));
+        int[] concurrencyList = parseInts(options.getOrDefault("concurrency", "1,4"));
+        int[] rateList = parseInts(options.getOrDefault("rate", "0"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "20"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        boolean uniqueBodies = Boolean.parseBoolean(options.getOrDefault("unique-bodies", "true"));
+        Path output = Path.of(options.getOrDefault("output", "results/load-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".csv"));
+
+        // Argumentos de linha de comando têm precedência sobre o application.yml
+        List<String> appArgs = new ArrayList<>(List.of("--server.port=0",
+                "--logging.level.root=WARN",
+                "--logging.level.br.com.brazilsistem.print_service=WARN",
+                // O harness executa o próprio aquecimento (--warmup) antes de cada medição
+                "--print-service.warmup.enabled=false"));
+        options.forEach((key, value) -> {
+            if (key.startsWith(APP_OPTION_PREFIX)) {
+                appArgs.add("--" + key.substring(APP_OPTION_PREFIX.length()) + "=" + value);
+            }
+        });
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PrintServiceApplication.class)
+                .run(appArgs.toArray(String[]::new));
+
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + CONTEXT_PATH + endpoint);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            Files.createDirectories(output.toAbsolutePath().getParent());
+            boolean writeHeader = !Files.exists(output);
+
+            try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(output, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+                if (writeHeader) {
+                    csv.println(CSV_HEADER);
+                }
+
+                for (int rows : rowsList) {
+                    SyntheticReportGenerator.Spec spec = new SyntheticReportGenerator.Spec();
+                    spec.setReportType("load-test");
+                    spec.setRows(rows);
+                    spec.setSections(Integer.parseInt(options.getOrDefault("sections", "1")));
+                    spec.setSectionType(options.getOrDefault("section-type", "table"));
+                    spec.setGroups(Integer.parseInt(options.getOrDefault("groups", "0")));
+                    spec.setColumns(Integer.parseInt(options.getOrDefault("columns", "5")));
+                    spec.setNestedSections(Integer.parseInt(options.getOrDefault("nested", "0")));
+                    spec.setStringLength(Integer.parseInt(options.getOrDefault("string-length", "16")));
+                    ReportData reportData = SyntheticReportGenerator.generate(spec);
+                    if (uniqueBodies) {
+                        reportData.getHeaderConfig().getData().put("Número", SEQUENCE_PLACEHOLDER);
+                    }
+                    RequestSource request = new RequestSource(uri, objectMapper.writeValueAsBytes(reportData));
+
+                    for (int rate : rateList) {
+                        for (int concurrency : concurrencyList) {
+                            LoadResult result;
+                            if (rate > 0) {
+                                runOpenLoop(client, request, rate, warmup);
+                                result = measure(() -> runOpenLoop(client, request, rate, duration));
+                            } else {
+                                runClosedLoop(client, request, concurrency, warmup);
+                                result = measure(() -> runClosedLoop(client, request, concurrency, duration));
+                            }
+
+                            String line = String.join(",",
+                                    LocalDateTime.now().toString(), endpoint, String.valueOf(rows),
+                                    String.valueOf(spec.getSections()), String.valueOf(spec.getColumns()),
+                                    String.valueOf(spec.getNestedSections()), rate > 0 ? "open" : "closed",
+                                    rate > 0 ? "" : String.valueOf(concurrency), rate > 0 ? String.valueOf(rate) : "",
+                                    result.csv());
+                            csv.println(line);
+                            csv.flush();
+                            System.out.println(line);
+
+                            if (rate > 0) {
+                                break; // Em laço aberto a concorrência não se aplica
+                            }
+                        }
+                    }
+                }
+            }
+            System.out.println("Resultados gravados em " + output.toAbsolutePath());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Latências coletadas em uma execução, em nanossegundos.
+     */
+    private static class Latencies {
+        private final List<long[]> chunks = new ArrayList<>();
+        private long[] current = new long[4096];
+        private int size;
+        private long errors;
+
+        synchronized void add(long nanos, boolean success) {
+            if (!success) {
+                errors++;
+            }
+            if (size == current.length) {
+                chunks.add(current);
+                current = new long[current.length];
+                size = 0;
+            }
+            current[size++] = nanos;
+        }
+
+        synchronized long[] toSortedArray() {
+            int total = chunks.size() * current.length + size;
+            long[] all = new long[total];
+            int offset = 0;
+            for (long[] chunk : chunks) {
+                System.arraycopy(chunk, 0, all, offset, chunk.length);
+                offset += chunk.length;
+            }
+            System.arraycopy(current, 0, all, offset, size);
+            Arrays.sort(all);
+            return all;
+        }
+    }
+
+    /**
+     * Requisições enviadas ao endpoint. Quando o corpo contém o marcador de sequência, cada requisição
+     * recebe um número diferente no lugar dele, sem serializar o relatório de novo.
+     */
+    private static final class RequestSource {
+        private final URI uri;
+        private final byte[] prefix;
+        private final byte[] suffix;
+        private final HttpRequest fixed;
+        private final AtomicLong sequence = new AtomicLong();
+
+        RequestSource(URI uri, byte[] body) {
+            this.uri = uri;
+            int marker = indexOf(body, SEQUENCE_PLACEHOLDER.getBytes(StandardCharsets.UTF_8));
+            if (marker < 0) {
+                this.prefix = body;
+                this.suffix = null;
+                this.fixed = build(HttpRequest.BodyPublishers.ofByteArray(body));
+            } else {
+                this.prefix = Arrays.copyOfRange(body, 0, marker);
+                this.suffix = Arrays.copyOfRange(body, marker + SEQUENCE_PLACEHOLDER.length(), body.length);
+                this.fixed = null;
+            }
+        }
+
+        HttpRequest next() {
+            if (fixed != null) {
+                return fixed;
+            }
+            return build(HttpRequest.BodyPublishers.concat(
+                    HttpRequest.BodyPublishers.ofByteArray(prefix),
+                    HttpRequest.BodyPublishers.ofString(String.valueOf(sequence.incrementAndGet())),
+                    HttpRequest.BodyPublishers.ofByteArray(suffix)));
+        }
+
+        private HttpRequest build(HttpRequest.BodyPublisher body) {
+            return HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(body)
+                    .build();
+        }
+
+        private static int indexOf(byte[] data, byte[] pattern) {
+            for (int i = 0; i + pattern.length <= data.length; i++) {
+                if (Arrays.equals(data, i, i + pattern.length, pattern, 0, pattern.length)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    private record LoadRun(Latencies latencies, long elapsedNanos) {
+    }
+
+    private record LoadResult(long requests, long errors, double throughput, double p50, double p99, double p999,
+                              double max, long gcCount, long gcTimeMillis, double allocMbPerRequest,
+                              double cpuMillisPerRequest, double peakHeapMb, double peakRssMb) {
+        String csv() {
+            return String.format(Locale.ROOT, "%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%d,%d,%.2f,%.2f,%.1f,%.1f",
+                    requests, errors, throughput, p50, p99, p999, max, gcCount, gcTimeMillis,
+                    allocMbPerRequest, cpuMillisPerRequest, peakHeapMb, peakRssMb);
+        }
+    }
+
+    @FunctionalInterface
+    private interface LoadRunner {
+        LoadRun run() throws Exception;
+    }
+
+    /**
+     * Executa a carga medindo GC, alocação, CPU e picos de memória apenas durante a execução.
+     * Alocação e CPU são do processo inteiro, incluindo o cliente HTTP do próprio harness.
+     */
+    private static LoadResult measure(LoadRunner runner) throws Exception {
+        resetPeakRss();
+        resetPeakHeap();
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTimeMillis();
+        long allocatedBefore = allocatedBytes();
+        long cpuBefore = processCpuNanos();
+
+        LoadRun run = runner.run();
+
+        long[] sorted = run.latencies().toSortedArray();
+        double seconds = run.elapsedNanos() / 1e9;
+        long requests = Math.max(1, sorted.length);
+        return new LoadResult(sorted.length, run.latencies().errors, sorted.length / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0,
+                gcCount() - gcCountBefore, gcTimeMillis() - gcTimeBefore,
+                (allocatedBytes() - allocatedBefore) / 1048576.0 / requests,
+                (processCpuNanos() - cpuBefore) / 1e6 / requests,
+                peakHeapMb(), peakRssMb());
+    }
+
+    /**
+     * Laço fechado: {@code concurrency} clientes enviando requisições em sequência.
+     */
+    private static LoadRun runClosedLoop(HttpClient client, RequestSource request, int concurrency, int seconds)
+            throws InterruptedException {
+        Latencies latencies = new Latencies();
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+
+        try (ExecutorService workers = Executors.newFixedThreadPool(concurrency)) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        long sent = System.nanoTime();
+                        boolean success = send(client, request.next());
+                        latencies.add(System.nanoTime() - sent, success);
+                    }
+                });
+            }
+        }
+        return new LoadRun(latencies, System.nanoTime() - start);
+    }
+
+    /**
+     * Laço aberto: requisições disparadas em taxa fixa, independentemente das respostas.
+     * A latência é medida a partir do instante planejado de envio, evitando omissão coordenada.
+     */
+    private static LoadRun runOpenLoop(HttpClient client, RequestSource request, int rate, int seconds)
+            throws InterruptedException {
+        Latencies latencies = new Latencies();
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * seconds;
+        long start = System.nanoTime();
+
+        try (ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < total; i++) {
+                long planned = start + i * interval;
+                long wait = planned - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                HttpRequest next = request.next();
+                senders.submit(() -> {
+                    boolean success = send(client, next);
+                    latencies.add(System.nanoTime() - planned, success);
+                });
+            }
+        }
+        return new LoadRun(latencies, System.nanoTime() - start);
+    }
+
+    private static boolean send(HttpClient client, HttpRequest request) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() >= 200 && response.statusCode() < 300;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+
+    /**
+     * Total de bytes alocados por todas as threads da JVM, ou 0 quando indisponível.
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadBean
+                && threadBean.isThreadAllocatedMemorySupported()) {
+            return threadBean.getTotalThreadAllocatedBytes();
+        }
+        return 0;
+    }
+
+    /**
+     * Tempo de CPU consumido pelo processo, ou 0 quando indisponível.
+     */
+    private static long processCpuNanos() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean osBean) {
+            return Math.max(0, osBean.getProcessCpuTime());
+        }
+        return 0;
+    }
+
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Soma dos picos de uso dos pools do heap desde o último reset, em MB.
+     */
+    private static double peakHeapMb() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak / 1048576.0;
+    }
+
+    /**
+     * Zera o pico de RSS (VmHWM) do processo. Disponível apenas no Linux.
+     */
+    private static void resetPeakRss() {
+        try {
+            Files.writeString(Path.of("/proc/self/clear_refs"), "5");
+        } catch (IOException | UnsupportedOperationException e) {
+            // Sem suporte: o pico reportado será desde o início do processo
+        }
+    }
+
+    /**
+     * Lê o pico de RSS (VmHWM) do processo em MB, ou -1 quando indisponível.
+     */
+    private static double peakRssMb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmHWM:")) {
+                    String kb = line.substring("VmHWM:".length()).replace("kB", "").trim();
+                    return Long.parseLong(kb) / 1024.0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Sem suporte ao /proc
+        }
+        return -1;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+
+    private static int[] parseInts(String value) {
+        return Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                .mapToInt(Integer::parseInt).toArray();
+    }
+}
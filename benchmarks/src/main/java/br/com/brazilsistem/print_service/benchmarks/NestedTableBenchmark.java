@@ -0,0 +1,54 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.interfaces.impl.TableSectionRenderer;
+import br.com.brazilsistem.print_service.model.Section;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tabela com muitos itens aninhados por linha (pedidos com milhares de itens), com os itens em
+ * uma tabela dentro de uma única célula ou como linhas da própria tabela principal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class NestedTableBenchmark {
+
+    @Param({"10"})
+    public int rows;
+
+    @Param({"100", "1000", "5000"})
+    public int nestedRows;
+
+    @Param({"false", "true"})
+    public boolean flatRows;
+
+    private Section section;
+    private TableSectionRenderer renderer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        section = BenchmarkReports.nestedTableSection(rows, nestedRows, flatRows);
+        renderer = new TableSectionRenderer();
+    }
+
+    @Benchmark
+    public int renderTable() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(OutputStream.nullOutputStream()));
+        Document document = new Document(pdfDoc, PageSize.A4, false);
+        renderer.renderSectionContent(document, section);
+        int pages = pdfDoc.getNumberOfPages();
+        document.close();
+        return pages;
+    }
+}
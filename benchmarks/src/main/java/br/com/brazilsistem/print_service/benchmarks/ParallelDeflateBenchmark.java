@@ -0,0 +1,81 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.interfaces.SectionTypeRenderer;
+import br.com.brazilsistem.print_service.interfaces.impl.FastTableSectionRenderer;
+import br.com.brazilsistem.print_service.interfaces.impl.TableSectionRenderer;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.output.ParallelDeflater;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.layout.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tempo total (wall-clock) de geração, com gravação imediata das páginas, com a compressão dos
+ * content streams serial, na gravação de cada página, e em paralelo com {@link ParallelDeflater}. {@code threads = 0} usa o número de
+ * processadores; para comparar máquinas de 8 e 16 núcleos, rode com {@code -p threads=8,16} em cada
+ * uma. O tamanho do PDF é impresso ao final de cada configuração e deve ser o mesmo nos dois modos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ParallelDeflateBenchmark {
+
+    @Param({"10000", "50000"})
+    public int rows;
+
+    @Param({"table", "fasttable"})
+    public String sectionType;
+
+    @Param({"1", "9"})
+    public int compressionLevel;
+
+    @Param({"SERIAL", "PARALLEL"})
+    public String mode;
+
+    @Param({"0"})
+    public int threads;
+
+    private Section section;
+    private SectionTypeRenderer renderer;
+    private ParallelDeflater deflater;
+    private long outputBytes;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        section = BenchmarkReports.tableSection(rows, false);
+        TableSectionRenderer tableRenderer = new TableSectionRenderer();
+        renderer = "fasttable".equals(sectionType) ? new FastTableSectionRenderer(tableRenderer) : tableRenderer;
+        deflater = new ParallelDeflater("PARALLEL".equals(mode), threads, 0, 4096);
+    }
+
+    @Benchmark
+    public long render() throws IOException {
+        CountingOutputStream output = new CountingOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(output,
+                new WriterProperties().setCompressionLevel(compressionLevel)));
+        Document document = new Document(pdfDoc, PageSize.A4, true);
+        deflater.attach(document);
+        renderer.renderSectionContent(document, section);
+        deflater.finish(document);
+        document.close();
+
+        outputBytes = output.getCount();
+        return outputBytes;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        deflater.shutdown();
+        System.out.printf("%n%s %d linhas, nível %d, %s: %d bytes%n",
+                sectionType, rows, compressionLevel, mode, outputBytes);
+    }
+}
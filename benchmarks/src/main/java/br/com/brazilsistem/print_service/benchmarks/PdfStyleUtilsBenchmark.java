@@ -0,0 +1,47 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.model.Style;
+import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import com.itextpdf.layout.element.Cell;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Formatação e aplicação de estilos de células, executadas uma vez por célula renderizada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PdfStyleUtilsBenchmark {
+
+    @Param({"NONE", "CURRENCY", "NUMBER", "INTEGER"})
+    public String format;
+
+    private Style style;
+    private final Double value = 12345.678;
+
+    @Setup
+    public void setup() {
+        style = BenchmarkReports.style(25f, "NONE".equals(format) ? null : format, "RIGHT");
+        style.setBold(false);
+        style.setFontColor("#333333");
+        style.setBackgroundColor("#F5F5F5");
+    }
+
+    @Benchmark
+    public String formatCellValue() {
+        return PdfStyleUtils.formatCellValue(value, style);
+    }
+
+    @Benchmark
+    public Cell applyCellStyle() throws IOException {
+        Cell cell = new Cell();
+        PdfStyleUtils.applyCellStyle(cell, style);
+        return cell;
+    }
+}
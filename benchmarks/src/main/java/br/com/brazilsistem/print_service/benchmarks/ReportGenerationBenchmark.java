@@ -0,0 +1,63 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.PrintServiceApplication;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.service.ExcelGenerationService;
+import br.com.brazilsistem.print_service.service.PdfGenerationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração completa de PDF e Excel pelos serviços reais, obtidos de um contexto Spring sem servidor web.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class ReportGenerationBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean nested;
+
+    private ConfigurableApplicationContext context;
+    private PdfGenerationService pdfGenerationService;
+    private ExcelGenerationService excelGenerationService;
+    private ReportData reportData;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(PrintServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.root=WARN", "logging.level.br.com.brazilsistem.print_service=WARN",
+                        "print-service.warmup.enabled=false")
+                .run();
+        pdfGenerationService = context.getBean(PdfGenerationService.class);
+        excelGenerationService = context.getBean(ExcelGenerationService.class);
+        reportData = BenchmarkReports.report(rows, nested);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] generatePdf() throws IOException {
+        return pdfGenerationService.generatePdf(reportData);
+    }
+
+    @Benchmark
+    public byte[] generateExcel() throws IOException {
+        return excelGenerationService.generateExcel(reportData);
+    }
+}
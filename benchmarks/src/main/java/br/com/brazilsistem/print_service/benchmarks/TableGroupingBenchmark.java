@@ -0,0 +1,100 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.util.TableGrouping;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Subtotais em dois níveis (cliente e mês) com soma e média, calculados pelo {@link TableGrouping}
+ * em uma passagem com acumuladores primitivos e, para comparação, com {@code Collectors.groupingBy}
+ * aninhado sobre as mesmas linhas, como os clientes faziam antes de enviar as linhas de subtotal.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TableGroupingBenchmark {
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    @Param({"10", "1000"})
+    public int clients;
+
+    private Section section;
+
+    @Setup
+    public void setup() {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("cliente", "Cliente");
+        columns.put("mes", "Mês");
+        columns.put("quantidade", "Quantidade");
+        columns.put("valor", "Valor");
+
+        // Linhas ordenadas por cliente e mês, como exigido pelo groupBy
+        Random random = new Random(42);
+        List<Map<String, Object>> data = new ArrayList<>(rows);
+        int rowsPerClient = Math.max(1, rows / clients);
+        for (int i = 0; i < rows; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("cliente", "Cliente " + (i / rowsPerClient));
+            row.put("mes", "Mês " + ((i % rowsPerClient) * 12 / rowsPerClient));
+            row.put("quantidade", random.nextInt(100));
+            row.put("valor", random.nextDouble() * 1_000);
+            data.add(row);
+        }
+
+        Map<String, String> aggregates = new LinkedHashMap<>();
+        aggregates.put("quantidade", "sum");
+        aggregates.put("valor", "avg");
+
+        section = new Section();
+        section.setType("table");
+        section.setColumns(columns);
+        section.setData(data);
+        section.setGroupBy(List.of("cliente", "mes"));
+        section.setAggregates(aggregates);
+    }
+
+    @Benchmark
+    public void streamingPass(Blackhole blackhole) {
+        for (TableGrouping.GroupedRow row : TableGrouping.rows(section)) {
+            blackhole.consume(row);
+        }
+    }
+
+    @Benchmark
+    public void groupingByCollector(Blackhole blackhole) {
+        Map<Object, Map<Object, List<Map<String, Object>>>> groups = section.getData().stream()
+                .collect(Collectors.groupingBy(row -> row.get("cliente"), LinkedHashMap::new,
+                        Collectors.groupingBy(row -> row.get("mes"), LinkedHashMap::new, Collectors.toList())));
+
+        for (Map<Object, List<Map<String, Object>>> months : groups.values()) {
+            for (List<Map<String, Object>> monthRows : months.values()) {
+                long quantity = monthRows.stream().mapToLong(row -> ((Number) row.get("quantidade")).longValue()).sum();
+                DoubleSummaryStatistics value = monthRows.stream()
+                        .collect(Collectors.summarizingDouble(row -> ((Number) row.get("valor")).doubleValue()));
+                monthRows.forEach(blackhole::consume);
+                blackhole.consume(quantity);
+                blackhole.consume(value.getAverage());
+            }
+            List<Map<String, Object>> clientRows = months.values().stream().flatMap(List::stream).toList();
+            blackhole.consume(clientRows.stream().mapToLong(row -> ((Number) row.get("quantidade")).longValue()).sum());
+            blackhole.consume(clientRows.stream().mapToDouble(row -> ((Number) row.get("valor")).doubleValue()).average());
+        }
+        blackhole.consume(section.getData().stream().mapToLong(row -> ((Number) row.get("quantidade")).longValue()).sum());
+        blackhole.consume(section.getData().stream().mapToDouble(row -> ((Number) row.get("valor")).doubleValue()).average());
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.interfaces.impl.FastTableSectionRenderer;
+import br.com.brazilsistem.print_service.interfaces.impl.TableSectionRenderer;
+import br.com.brazilsistem.print_service.model.Section;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.layout.Document;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renderização de uma seção de tabela, incluindo layout e serialização do documento,
+ * pelo renderizador "table" (layout do iText) e pelo "fasttable" (desenho direto no canvas;
+ * com seções aninhadas ele delega ao "table").
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class TableSectionRendererBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int rows;
+
+    @Param({"false", "true"})
+    public boolean nested;
+
+    private Section section;
+    private TableSectionRenderer renderer;
+    private FastTableSectionRenderer fastRenderer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        section = BenchmarkReports.tableSection(rows, nested);
+        renderer = new TableSectionRenderer();
+        fastRenderer = new FastTableSectionRenderer(renderer);
+    }
+
+    @Benchmark
+    public int renderTable() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(OutputStream.nullOutputStream()));
+        Document document = new Document(pdfDoc, PageSize.A4, false);
+        renderer.renderSectionContent(document, section);
+        int pages = pdfDoc.getNumberOfPages();
+        document.close();
+        return pages;
+    }
+
+    @Benchmark
+    public int renderFastTable() throws IOException {
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(OutputStream.nullOutputStream()));
+        Document document = new Document(pdfDoc, PageSize.A4, false);
+        fastRenderer.renderSectionContent(document, section);
+        int pages = pdfDoc.getNumberOfPages();
+        document.close();
+        return pages;
+    }
+}
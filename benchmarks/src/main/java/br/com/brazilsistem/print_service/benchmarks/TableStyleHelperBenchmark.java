@@ -0,0 +1,48 @@
+package br.com.brazilsistem.print_service.benchmarks;
+
+import br.com.brazilsistem.print_service.model.Style;
+import br.com.brazilsistem.print_service.util.TableStyleHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Organização das colunas em linhas, hoje executada a cada tabela renderizada.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TableStyleHelperBenchmark {
+
+    @Param({"4", "12", "40"})
+    public int columns;
+
+    private List<String> columnIds;
+    private Map<String, Style> columnStyles;
+
+    @Setup
+    public void setup() {
+        columnIds = new ArrayList<>(columns);
+        columnStyles = new HashMap<>();
+        for (int i = 0; i < columns; i++) {
+            String columnId = "coluna" + i;
+            columnIds.add(columnId);
+            // Metade das colunas com largura explícita, forçando quebras em múltiplas linhas
+            if (i % 2 == 0) {
+                columnStyles.put(columnId, BenchmarkReports.style(20f, null, "LEFT"));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<String[]> organizeColumnsInRows() {
+        return TableStyleHelper.organizeColumnsInRows(columnIds, columnStyles);
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.brazilsistem.print_service.config;
+
+import br.com.brazilsistem.print_service.jobs.InMemoryJobQueue;
+import br.com.brazilsistem.print_service.jobs.JobQueue;
+import br.com.brazilsistem.print_service.jobs.SharedDirectoryJobQueue;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Configuração da fila dos jobs de renderização assíncrona.
+ */
+@Configuration
+public class JobQueueConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobQueueConfig.class);
+
+    /**
+     * Cria a fila indicada em {@code print-service.jobs.queue}: {@code memory} (um único nó) ou
+     * {@code directory} (diretório compartilhado entre as réplicas).
+     *
+     * @param queue Tipo da fila
+     * @param directory Diretório compartilhado (fila {@code directory})
+     * @param leaseMillis Duração do lease sem heartbeat
+     * @param maxAttempts Execuções antes de o job ser dado como falho
+     * @param resultTtlSeconds Permanência dos jobs concluídos ou com falha
+     * @param objectMapper Serialização dos jobs
+     * @return A fila
+     */
+    @Bean
+    public JobQueue jobQueue(
+            @Value("${print-service.jobs.queue:memory}") String queue,
+            @Value("${print-service.jobs.directory:${java.io.tmpdir}/print-service-jobs}") String directory,
+            @Value("${print-service.jobs.lease-ms:30000}") long leaseMillis,
+            @Value("${print-service.jobs.max-attempts:3}") int maxAttempts,
+            @Value("${print-service.jobs.result-ttl-seconds:3600}") long resultTtlSeconds,
+            ObjectMapper objectMapper) throws IOException {
+        long resultTtlMillis = resultTtlSeconds * 1000;
+        return switch (queue.trim().toLowerCase(Locale.ROOT)) {
+            case "memory" -> new InMemoryJobQueue(leaseMillis, maxAttempts, resultTtlMillis);
+            case "directory" -> {
+                logger.info("Fila de jobs no diretório compartilhado {}", directory);
+                yield new SharedDirectoryJobQueue(Path.of(directory), leaseMillis, maxAttempts, resultTtlMillis,
+                        objectMapper);
+            }
+            default -> throw new IllegalArgumentException(
+                    "print-service.jobs.queue inválido: " + queue + " (valores aceitos: memory, directory)");
+        };
+    }
+}
@@ -0,0 +1,66 @@
+package br.com.brazilsistem.print_service.config;
+
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Configuração das métricas de geração de relatórios.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsConfig.class);
+
+    static final String REPORT_TYPE_TAG = "reportType";
+    static final String OTHER_REPORT_TYPE = "other";
+
+    /**
+     * Limita a quantidade de valores distintos da tag reportType, que é informada
+     * pelo cliente, para evitar explosão de cardinalidade nas séries do Prometheus.
+     * <p>
+     * Vale para todas as métricas de renderização (print.render*). Atingido o limite, os novos
+     * tipos de relatório passam a ser registrados com reportType=other, em vez de descartados:
+     * as renderizações continuam contadas e os tipos já vistos mantêm as suas séries.
+     *
+     * @param maxReportTypes Número máximo de tipos de relatório distintos
+     * @return Filtro aplicado às métricas de renderização
+     */
+    @Bean
+    public MeterFilter reportTypeCardinalityFilter(
+            @Value("${print-service.metrics.max-report-types:100}") int maxReportTypes) {
+        Set<String> reportTypes = ConcurrentHashMap.newKeySet();
+        AtomicBoolean warned = new AtomicBoolean();
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                String reportType = id.getTag(REPORT_TYPE_TAG);
+                if (reportType == null || !id.getName().startsWith(RenderMetrics.RENDER_TIMER)
+                        || reportTypes.contains(reportType)) {
+                    return id;
+                }
+                synchronized (reportTypes) {
+                    if (reportTypes.contains(reportType) || reportTypes.size() < maxReportTypes) {
+                        reportTypes.add(reportType);
+                        return id;
+                    }
+                }
+                if (warned.compareAndSet(false, true)) {
+                    logger.warn("Limite de {} tipos de relatório nas métricas atingido; novos tipos serão "
+                            + "registrados como reportType={}", maxReportTypes, OTHER_REPORT_TYPE);
+                }
+                return id.withTag(Tag.of(REPORT_TYPE_TAG, OTHER_REPORT_TYPE));
+            }
+        };
+    }
+}
@@ -19,6 +19,7 @@ public class PdfServiceConfig {
      * automaticamente detectados pelo componente scan do Spring.
      *
      * @param tableSectionRenderer Renderizador de tabelas
+     * @param fastTableSectionRenderer Renderizador de tabelas simples por desenho direto
      * @param textSectionRenderer Renderizador de texto
      * @param chartSectionRenderer Renderizador de gráficos
      * @param imageSectionRenderer Renderizador de imagens
@@ -27,12 +28,14 @@ public class PdfServiceConfig {
     @Bean
     public Map<String, SectionTypeRenderer> sectionTypeRenderers(
             TableSectionRenderer tableSectionRenderer,
+            FastTableSectionRenderer fastTableSectionRenderer,
             TextSectionRenderer textSectionRenderer,
             ChartSectionRenderer chartSectionRenderer,
             ImageSectionRenderer imageSectionRenderer) {
 
         Map<String, SectionTypeRenderer> renderers = new HashMap<>();
         renderers.put("table", tableSectionRenderer);
+        renderers.put("fasttable", fastTableSectionRenderer);
         renderers.put("text", textSectionRenderer);
         renderers.put("chart", chartSectionRenderer);
         renderers.put("image", imageSectionRenderer);
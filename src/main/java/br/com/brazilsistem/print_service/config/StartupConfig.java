@@ -0,0 +1,70 @@
+package br.com.brazilsistem.print_service.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configurações destinadas a reduzir o tempo de inicialização da aplicação.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    /**
+     * Marca os beans do springdoc como lazy quando {@code print-service.startup.lazy-springdoc}
+     * está ativo (perfil prod). A documentação da API passa a ser montada apenas no primeiro
+     * acesso ao Swagger/api-docs, em vez de atrasar a prontidão de cada réplica.
+     * <p>
+     * A propriedade é lida em tempo de execução para funcionar também com o processamento AOT,
+     * em que as definições de beans são geradas no build.
+     *
+     * @param environment Ambiente da aplicação
+     * @return Pós-processador das definições de beans
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazySpringdocPostProcessor(Environment environment) {
+        return beanFactory -> {
+            if (!environment.getProperty("print-service.startup.lazy-springdoc", Boolean.class, false)) {
+                return;
+            }
+
+            int lazyBeans = 0;
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                if (definition.isAbstract() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE) {
+                    continue;
+                }
+                String typeName = declaringTypeName(definition);
+                if (typeName != null && typeName.startsWith(SPRINGDOC_PACKAGE)) {
+                    definition.setLazyInit(true);
+                    lazyBeans++;
+                }
+            }
+            logger.debug("{} beans do springdoc configurados com inicialização lazy", lazyBeans);
+        };
+    }
+
+    /**
+     * Obtém a classe que declara o bean: a configuração que contém o método @Bean
+     * ou, para beans registrados diretamente, a própria classe do bean.
+     */
+    private static String declaringTypeName(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null) {
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        }
+        if (definition.getBeanClassName() != null) {
+            return definition.getBeanClassName();
+        }
+        Class<?> resolved = definition.getResolvableType().resolve();
+        return resolved != null ? resolved.getName() : null;
+    }
+}
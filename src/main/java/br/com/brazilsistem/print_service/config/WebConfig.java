@@ -0,0 +1,41 @@
+package br.com.brazilsistem.print_service.config;
+
+import br.com.brazilsistem.print_service.metrics.RenderProfileInterceptor;
+import br.com.brazilsistem.print_service.output.RenderOutputCleanupInterceptor;
+import br.com.brazilsistem.print_service.output.RenderOutputHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuração do Spring MVC (interceptadores e conversores de mensagens).
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RenderProfileInterceptor renderProfileInterceptor;
+    private final RenderOutputCleanupInterceptor renderOutputCleanupInterceptor;
+
+    @Autowired
+    public WebConfig(RenderProfileInterceptor renderProfileInterceptor,
+                     RenderOutputCleanupInterceptor renderOutputCleanupInterceptor) {
+        this.renderProfileInterceptor = renderProfileInterceptor;
+        this.renderOutputCleanupInterceptor = renderOutputCleanupInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(renderProfileInterceptor).addPathPatterns("/pdf/**", "/excel/**");
+        registry.addInterceptor(renderOutputCleanupInterceptor).addPathPatterns("/pdf/**", "/excel/**", "/artifacts/**");
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Antes do ResourceHttpMessageConverter, que copiaria o documento por um buffer no heap
+        converters.add(0, new RenderOutputHttpMessageConverter());
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.brazilsistem.print_service.exception;
+
+public class FontException extends RuntimeException {
+
+    public FontException(String message) {
+        super(message);
+    }
+
+    public FontException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
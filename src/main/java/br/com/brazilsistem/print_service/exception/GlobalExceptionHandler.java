@@ -3,6 +3,7 @@ package br.com.brazilsistem.print_service.exception;
 import br.com.brazilsistem.print_service.model.ResourceResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -50,6 +51,39 @@ public class GlobalExceptionHandler {
                 .body(ResourceResponse.error("Erro na geração do PDF: " + ex.getMessage()));
     }
 
+    @ExceptionHandler(TemplateNotFoundException.class)
+    public ResponseEntity<ResourceResponse> handleTemplateNotFoundException(TemplateNotFoundException ex) {
+        logger.warn("Template não encontrado: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ResourceResponse.error(ex.getMessage()));
+    }
+
+    @ExceptionHandler(TemplateException.class)
+    public ResponseEntity<ResourceResponse> handleTemplateException(TemplateException ex) {
+        logger.error("Erro no template do relatório", ex);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ResourceResponse.error("Erro no template do relatório: " + ex.getMessage()));
+    }
+
+    @ExceptionHandler(FontException.class)
+    public ResponseEntity<ResourceResponse> handleFontException(FontException ex) {
+        logger.error("Erro na fonte", ex);
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ResourceResponse.error("Erro na fonte: " + ex.getMessage()));
+    }
+
+    @ExceptionHandler(RenderRejectedException.class)
+    public ResponseEntity<ResourceResponse> handleRenderRejectedException(RenderRejectedException ex) {
+        logger.warn("Renderização recusada: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ResourceResponse.error(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ResourceResponse> handleAllExceptions(Exception ex) {
         logger.error("Erro inesperado", ex);
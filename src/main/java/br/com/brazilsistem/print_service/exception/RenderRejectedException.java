@@ -0,0 +1,19 @@
+package br.com.brazilsistem.print_service.exception;
+
+/**
+ * Requisição de renderização recusada pelo escalonador: fila cheia ou tempo máximo de espera
+ * por uma vaga esgotado.
+ */
+public class RenderRejectedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RenderRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
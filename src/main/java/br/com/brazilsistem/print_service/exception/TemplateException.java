@@ -0,0 +1,12 @@
+package br.com.brazilsistem.print_service.exception;
+
+public class TemplateException extends RuntimeException {
+
+    public TemplateException(String message) {
+        super(message);
+    }
+
+    public TemplateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
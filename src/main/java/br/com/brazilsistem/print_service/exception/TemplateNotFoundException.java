@@ -0,0 +1,8 @@
+package br.com.brazilsistem.print_service.exception;
+
+public class TemplateNotFoundException extends TemplateException {
+
+    public TemplateNotFoundException(String message) {
+        super(message);
+    }
+}
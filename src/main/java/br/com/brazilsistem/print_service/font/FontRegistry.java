@@ -0,0 +1,227 @@
+package br.com.brazilsistem.print_service.font;
+
+import br.com.brazilsistem.print_service.exception.FontException;
+import com.itextpdf.io.font.FontNames;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.font.FontInfo;
+import com.itextpdf.layout.font.FontProvider;
+import com.itextpdf.layout.font.FontSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Registro de fontes TrueType/OpenType do processo, referenciadas pelos estilos por família
+ * ({@code Style.fontFamily}).
+ * <p>
+ * Cada fonte é interpretada uma única vez, no registro, e o {@link FontProgram} resultante é
+ * compartilhado entre todas as requisições e threads. Cada documento recebe o seu próprio
+ * {@link FontProvider} sobre o conjunto de fontes registradas, que cria os {@link PdfFont} do
+ * documento a partir dos programas já interpretados, embutindo apenas os glifos usados (subconjunto).
+ * Além das fontes registradas, as 14 fontes padrão do PDF também podem ser usadas por família
+ * (Helvetica, Times, Courier); famílias desconhecidas usam Helvetica.
+ */
+@Component
+public class FontRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(FontRegistry.class);
+
+    private static final String DEFAULT_FAMILY = StandardFonts.HELVETICA;
+    private static final String[] STANDARD_FONTS = {
+            StandardFonts.HELVETICA, StandardFonts.HELVETICA_BOLD, StandardFonts.HELVETICA_OBLIQUE, StandardFonts.HELVETICA_BOLDOBLIQUE,
+            StandardFonts.TIMES_ROMAN, StandardFonts.TIMES_BOLD, StandardFonts.TIMES_ITALIC, StandardFonts.TIMES_BOLDITALIC,
+            StandardFonts.COURIER, StandardFonts.COURIER_BOLD, StandardFonts.COURIER_OBLIQUE, StandardFonts.COURIER_BOLDOBLIQUE
+    };
+
+    private final Path directory;
+    private final Map<String, RegisteredFont> fonts = new ConcurrentHashMap<>();
+
+    // Conjunto imutável após a publicação; cada registro publica um novo
+    private volatile FontSet fontSet;
+
+    /**
+     * Fonte registrada, com o programa já interpretado.
+     */
+    public record RegisteredFont(String name, String family, boolean bold, boolean italic, int sizeBytes,
+                                 FontProgram program) {
+
+        public Summary summary() {
+            return new Summary(name, family, bold, italic, sizeBytes);
+        }
+
+        public record Summary(String name, String family, boolean bold, boolean italic, int sizeBytes) {
+        }
+    }
+
+    @Autowired
+    public FontRegistry(@Value("${print-service.fonts.directory:}") String directory) {
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        reload();
+    }
+
+    /**
+     * Recarrega as fontes ({@code *.ttf}, {@code *.otf}) do diretório configurado, registradas
+     * pelo nome do arquivo sem extensão. Fontes registradas pelo endpoint são mantidas.
+     *
+     * @return Número de fontes carregadas do diretório
+     */
+    public synchronized int reload() {
+        int loaded = 0;
+        if (directory != null && Files.isDirectory(directory)) {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : files.filter(FontRegistry::isFontFile).sorted().toList()) {
+                    String fileName = file.getFileName().toString();
+                    String name = fileName.substring(0, fileName.lastIndexOf('.'));
+                    try {
+                        RegisteredFont font = parse(name, Files.readAllBytes(file));
+                        fonts.put(key(name), font);
+                        loaded++;
+                    } catch (IOException | FontException e) {
+                        logger.error("Fonte inválida ignorada: {}", file, e);
+                    }
+                }
+            } catch (IOException e) {
+                logger.error("Erro ao listar fontes em {}", directory, e);
+            }
+            logger.info("{} fonte(s) carregada(s) de {}", loaded, directory);
+        }
+
+        publish();
+        return loaded;
+    }
+
+    /**
+     * Registra (ou substitui) uma fonte pelo nome. O nome pode ser usado como família nos estilos,
+     * além da família declarada na própria fonte.
+     *
+     * @param name Nome de registro
+     * @param program Conteúdo do arquivo TTF/OTF
+     * @return Fonte registrada
+     */
+    public synchronized RegisteredFont register(String name, byte[] program) {
+        if (name == null || name.isBlank()) {
+            throw new FontException("Nome da fonte não informado");
+        }
+        RegisteredFont font = parse(name.trim(), program);
+        fonts.put(key(name), font);
+        publish();
+        logger.info("Fonte {} registrada (família {}, {} bytes)", font.name(), font.family(), font.sizeBytes());
+        return font;
+    }
+
+    public List<RegisteredFont.Summary> list() {
+        return fonts.values().stream()
+                .map(RegisteredFont::summary)
+                .sorted(Comparator.comparing(RegisteredFont.Summary::name))
+                .toList();
+    }
+
+    /**
+     * Verifica se a família corresponde a alguma fonte registrada, pelo nome de registro ou
+     * pela família declarada na fonte.
+     */
+    public boolean contains(String family) {
+        if (family == null) {
+            return false;
+        }
+        String wanted = key(family);
+        for (RegisteredFont font : fonts.values()) {
+            if (key(font.name()).equals(wanted) || (font.family() != null && key(font.family()).equals(wanted))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Configura o documento para resolver as famílias de fonte dos estilos pelas fontes registradas.
+     */
+    public void apply(Document document) {
+        document.setFontProvider(createFontProvider());
+    }
+
+    /**
+     * Cria um provedor de fontes para um único documento. Os {@link PdfFont} criados por ele
+     * pertencem ao documento e não podem ser compartilhados com outros.
+     */
+    public FontProvider createFontProvider() {
+        return new SubsettingFontProvider(fontSet);
+    }
+
+    private RegisteredFont parse(String name, byte[] program) {
+        if (program == null || program.length == 0) {
+            throw new FontException("Arquivo da fonte " + name + " vazio");
+        }
+        try {
+            // Sem o cache interno do iText: o programa é mantido aqui, pelo nome de registro
+            FontProgram fontProgram = FontProgramFactory.createFont(program, false);
+            FontNames names = fontProgram.getFontNames();
+            return new RegisteredFont(name, familyName(names), names.isBold(), names.isItalic(), program.length, fontProgram);
+        } catch (IOException | RuntimeException e) {
+            throw new FontException("Não foi possível ler a fonte " + name + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publica um novo conjunto com as fontes padrão e as registradas.
+     */
+    private void publish() {
+        FontSet set = new FontSet();
+        for (String standardFont : STANDARD_FONTS) {
+            set.addFont(standardFont);
+        }
+        for (RegisteredFont font : fonts.values()) {
+            set.addFont(font.program(), PdfEncodings.IDENTITY_H, font.name());
+        }
+        fontSet = set;
+    }
+
+    private static String familyName(FontNames names) {
+        String[][] familyName = names.getFamilyName();
+        if (familyName != null && familyName.length > 0 && familyName[0].length > 3) {
+            return familyName[0][3];
+        }
+        return names.getFontName();
+    }
+
+    private static boolean isFontFile(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".ttf") || name.endsWith(".otf");
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Provedor de fontes de um documento: cria cada {@link PdfFont} uma vez por documento,
+     * a partir do programa compartilhado, sempre como subconjunto.
+     */
+    private static class SubsettingFontProvider extends FontProvider {
+
+        SubsettingFontProvider(FontSet fontSet) {
+            super(fontSet, DEFAULT_FAMILY);
+        }
+
+        @Override
+        public PdfFont getPdfFont(FontInfo fontInfo, FontSet additionalFonts) {
+            PdfFont font = super.getPdfFont(fontInfo, additionalFonts);
+            font.setSubset(true);
+            return font;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package br.com.brazilsistem.print_service.image;
+
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.io.image.ImageDataFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Carrega as imagens das seções do tipo "image", reduzidas à resolução de impressão.
+ * <p>
+ * A imagem é informada em base64 (com ou sem o prefixo {@code data:image/...;base64,}) ou como
+ * {@code asset:<id>}, um arquivo do diretório de imagens configurado. O base64 é decodificado em
+ * fluxo, sem cópia intermediária do texto. Imagens mais largas que a largura de exibição na
+ * resolução configurada são decodificadas linha a linha, reduzidas por média de área e recodificadas
+ * em JPEG (ou PNG, quando há transparência); JPEGs com orientação EXIF são girados. A decodificação
+ * e a codificação são feitas em Java puro ({@link JpegDecoder}, {@link PngDecoder}), sem AWT nem
+ * ImageIO, que não estão disponíveis na imagem nativa. O resultado fica em um cache LRU limitado em
+ * bytes, indexado pelo hash do conteúdo e pela largura alvo, de modo que a mesma foto enviada em
+ * várias requisições é processada uma única vez.
+ */
+@Component
+public class ImageLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageLoader.class);
+
+    public static final String ASSET_PREFIX = "asset:";
+
+    private static final String BASE64_MARKER = ";base64,";
+
+    private final float dpi;
+    private final float jpegQuality;
+    private final long reencodeMinBytes;
+    private final long maxPixels;
+    private final Path assetDirectory;
+    private final long maxCacheBytes;
+    private final LinkedHashMap<String, ProcessedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    @Autowired
+    public ImageLoader(
+            @Value("${print-service.images.dpi:150}") float dpi,
+            @Value("${print-service.images.jpeg-quality:0.8}") float jpegQuality,
+            @Value("${print-service.images.reencode-min-bytes:65536}") long reencodeMinBytes,
+            @Value("${print-service.images.max-pixels:50000000}") long maxPixels,
+            @Value("${print-service.images.asset-directory:}") String assetDirectory,
+            @Value("${print-service.images.cache-max-bytes:67108864}") long maxCacheBytes) {
+        this.dpi = Math.max(36f, dpi);
+        this.jpegQuality = Math.min(1f, Math.max(0.1f, jpegQuality));
+        this.reencodeMinBytes = reencodeMinBytes;
+        this.maxPixels = maxPixels;
+        this.assetDirectory = assetDirectory == null || assetDirectory.isBlank()
+                ? null : Path.of(assetDirectory).toAbsolutePath().normalize();
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * Resolução de impressão, em pontos por polegada, usada na redução das imagens.
+     */
+    public float getDpi() {
+        return dpi;
+    }
+
+    /**
+     * Carrega a imagem reduzida para a largura de exibição informada.
+     *
+     * @param source Imagem em base64, data URI ou {@code asset:<id>}
+     * @param targetWidth Largura máxima de exibição, em pontos
+     * @return Imagem processada
+     * @throws IOException Se a imagem não puder ser lida
+     */
+    public ProcessedImage load(String source, float targetWidth) throws IOException {
+        int targetPixels = Math.max(1, Math.round(targetWidth / 72f * dpi));
+
+        Path asset = null;
+        int base64Start = 0;
+        String contentKey;
+        if (source.startsWith(ASSET_PREFIX)) {
+            asset = resolveAsset(source.substring(ASSET_PREFIX.length()).trim());
+            contentKey = source + "@" + Files.getLastModifiedTime(asset).toMillis();
+        } else {
+            int marker = source.startsWith("data:") ? source.indexOf(BASE64_MARKER) : -1;
+            base64Start = marker >= 0 ? marker + BASE64_MARKER.length() : 0;
+            contentKey = hash(source, base64Start);
+        }
+
+        String key = contentKey + ":" + targetPixels;
+        ProcessedImage cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        byte[] original = asset != null ? Files.readAllBytes(asset) : decodeBase64(source, base64Start);
+        ProcessedImage processed = process(key, original, targetPixels);
+        put(processed);
+        return processed;
+    }
+
+    /**
+     * Reduz e recodifica a imagem quando necessário. Imagens que já cabem na largura alvo e são
+     * JPEG sem rotação EXIF, ou pequenas, são mantidas como recebidas, sem decodificação.
+     */
+    private ProcessedImage process(String key, byte[] original, int targetPixels) throws IOException {
+        try {
+            if (JpegDecoder.isJpeg(original)) {
+                return processJpeg(key, original, targetPixels);
+            }
+            if (PngDecoder.isPng(original)) {
+                return processPng(key, original, targetPixels);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException("Imagem inválida: " + e.getMessage(), e);
+        }
+
+        // Demais formatos (GIF, BMP, TIFF) seguem sem redução; o iText os decodifica sem AWT
+        ImageData image;
+        try {
+            image = ImageDataFactory.create(original);
+        } catch (RuntimeException e) {
+            throw new IOException("Formato de imagem não suportado", e);
+        }
+        int width = Math.round(image.getWidth());
+        int height = Math.round(image.getHeight());
+        checkPixels(width, height);
+        return new ProcessedImage(key, original, width, height);
+    }
+
+    private ProcessedImage processJpeg(String key, byte[] original, int targetPixels) throws IOException {
+        JpegDecoder jpeg = new JpegDecoder(original);
+        int width = jpeg.getWidth();
+        int height = jpeg.getHeight();
+        checkPixels(width, height);
+
+        int orientation = jpeg.getOrientation();
+        int displayWidth = orientation >= 5 ? height : width;
+        if (displayWidth <= targetPixels && orientation == 1) {
+            return new ProcessedImage(key, original, width, height);
+        }
+        if (jpeg.getUnsupportedReason() != null) {
+            // Progressivo, CMYK etc.: incluído como recebido, sem redução nem rotação
+            logger.warn("Imagem {}x{} incluída sem redução: {}", width, height, jpeg.getUnsupportedReason());
+            return new ProcessedImage(key, original, width, height);
+        }
+
+        double ratio = Math.min(1.0, (double) targetPixels / displayWidth);
+        // Reduções de 8x ou mais usam apenas o coeficiente DC de cada bloco (a média do bloco)
+        int scale = ratio <= 1.0 / 8 ? 8 : 1;
+        ImageScaler scaler = new ImageScaler(jpeg.decodedWidth(scale), jpeg.decodedHeight(scale), jpeg.getComponents(),
+                Math.max(1, (int) Math.round(width * ratio)), Math.max(1, (int) Math.round(height * ratio)));
+        jpeg.decode(scale, scaler);
+        RasterImage image = scaler.result().oriented(orientation);
+
+        byte[] encoded = JpegEncoder.encode(image, jpegQuality);
+        return new ProcessedImage(key, encoded, image.width(), image.height());
+    }
+
+    private ProcessedImage processPng(String key, byte[] original, int targetPixels) throws IOException {
+        PngDecoder png = new PngDecoder(original);
+        int width = png.getWidth();
+        int height = png.getHeight();
+        checkPixels(width, height);
+
+        if (width <= targetPixels && original.length < reencodeMinBytes) {
+            return new ProcessedImage(key, original, width, height);
+        }
+        if (png.isInterlaced()) {
+            logger.warn("Imagem {}x{} incluída sem redução: PNG entrelaçado", width, height);
+            return new ProcessedImage(key, original, width, height);
+        }
+
+        double ratio = Math.min(1.0, (double) targetPixels / width);
+        ImageScaler scaler = new ImageScaler(width, height, png.getComponents(),
+                Math.max(1, (int) Math.round(width * ratio)), Math.max(1, (int) Math.round(height * ratio)));
+        png.decode(scaler);
+        RasterImage image = scaler.result();
+
+        byte[] encoded = image.hasAlpha() ? PngEncoder.encode(image) : JpegEncoder.encode(image, jpegQuality);
+        if (width <= targetPixels && encoded.length >= original.length) {
+            return new ProcessedImage(key, original, width, height);
+        }
+        return new ProcessedImage(key, encoded, image.width(), image.height());
+    }
+
+    /**
+     * Limita as dimensões da imagem original, antes de qualquer decodificação.
+     */
+    private void checkPixels(int width, int height) throws IOException {
+        if (width <= 0 || height <= 0 || (long) width * height > maxPixels) {
+            throw new IOException(String.format("Imagem muito grande: %dx%d pixels", width, height));
+        }
+    }
+
+    private Path resolveAsset(String id) throws IOException {
+        if (assetDirectory == null) {
+            throw new IOException("Diretório de imagens não configurado (print-service.images.asset-directory)");
+        }
+        Path file = assetDirectory.resolve(id).normalize();
+        if (id.isEmpty() || !file.startsWith(assetDirectory) || !Files.isRegularFile(file)) {
+            throw new IOException("Imagem não encontrada: " + id);
+        }
+        return file;
+    }
+
+    private static byte[] decodeBase64(String source, int start) throws IOException {
+        try (InputStream input = Base64.getMimeDecoder().wrap(new CharSequenceInputStream(source, start))) {
+            return input.readAllBytes();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Imagem em base64 inválida", e);
+        }
+    }
+
+    /**
+     * SHA-256 do texto em base64, calculado sem copiar o texto para um array de bytes.
+     */
+    private static String hash(String source, int start) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int length = 0;
+            for (int i = start; i < source.length(); i++) {
+                buffer[length++] = (byte) source.charAt(i);
+                if (length == buffer.length) {
+                    digest.update(buffer, 0, length);
+                    length = 0;
+                }
+            }
+            digest.update(buffer, 0, length);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private synchronized ProcessedImage get(String key) {
+        return cache.get(key);
+    }
+
+    private synchronized void put(ProcessedImage image) {
+        // Imagens que ocupariam mais de um quarto do cache não são guardadas
+        if (image.bytes().length > maxCacheBytes / 4 || cache.containsKey(image.key())) {
+            return;
+        }
+        cache.put(image.key(), image);
+        cachedBytes += image.bytes().length;
+
+        Iterator<Map.Entry<String, ProcessedImage>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+            cachedBytes -= eldest.next().getValue().bytes().length;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Lê os caracteres de uma string como bytes ASCII, para a decodificação do base64 em fluxo.
+     */
+    private static class CharSequenceInputStream extends InputStream {
+
+        private final CharSequence text;
+        private int position;
+
+        CharSequenceInputStream(CharSequence text, int start) {
+            this.text = text;
+            this.position = start;
+        }
+
+        @Override
+        public int read() {
+            return position < text.length() ? text.charAt(position++) & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            int remaining = text.length() - position;
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = Math.min(length, remaining);
+            for (int i = 0; i < count; i++) {
+                buffer[offset + i] = (byte) text.charAt(position++);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package br.com.brazilsistem.print_service.image;
+
+/**
+ * Redução por média de área, alimentada linha a linha pelos decodificadores.
+ * <p>
+ * Cada pixel de destino é a média dos pixels de origem que caem nele, de modo que a imagem original
+ * nunca fica inteira em memória: apenas a linha de origem atual, os acumuladores de uma linha de
+ * destino e a imagem reduzida.
+ */
+final class ImageScaler {
+
+    private final int sourceWidth;
+    private final int sourceHeight;
+    private final int components;
+    private final int targetWidth;
+    private final int targetHeight;
+    private final int[] targetColumn;
+    private final int[] columnCount;
+    private final int[] sums;
+    private final byte[] pixels;
+    private int sourceRow;
+    private int targetRow;
+    private int rowsInBin;
+
+    /**
+     * @throws IllegalArgumentException Se o destino for maior que a origem
+     */
+    ImageScaler(int sourceWidth, int sourceHeight, int components, int targetWidth, int targetHeight) {
+        if (targetWidth < 1 || targetHeight < 1 || targetWidth > sourceWidth || targetHeight > sourceHeight) {
+            throw new IllegalArgumentException(String.format("Redução inválida: %dx%d para %dx%d",
+                    sourceWidth, sourceHeight, targetWidth, targetHeight));
+        }
+        this.sourceWidth = sourceWidth;
+        this.sourceHeight = sourceHeight;
+        this.components = components;
+        this.targetWidth = targetWidth;
+        this.targetHeight = targetHeight;
+        this.targetColumn = new int[sourceWidth];
+        this.columnCount = new int[targetWidth];
+        for (int x = 0; x < sourceWidth; x++) {
+            targetColumn[x] = (int) ((long) x * targetWidth / sourceWidth);
+            columnCount[targetColumn[x]]++;
+        }
+        this.sums = new int[targetWidth * components];
+        this.pixels = new byte[targetWidth * targetHeight * components];
+    }
+
+    /**
+     * Largura das linhas de origem, em pixels.
+     */
+    int sourceWidth() {
+        return sourceWidth;
+    }
+
+    /**
+     * Componentes por pixel das linhas de origem e da imagem reduzida.
+     */
+    int components() {
+        return components;
+    }
+
+    /**
+     * Acumula a próxima linha de origem ({@code sourceWidth * components} bytes). Linhas além da
+     * altura de origem são ignoradas.
+     */
+    void accept(byte[] row) {
+        if (sourceRow >= sourceHeight) {
+            return;
+        }
+        int rowTarget = (int) ((long) sourceRow * targetHeight / sourceHeight);
+        if (rowTarget != targetRow) {
+            flush();
+            targetRow = rowTarget;
+        }
+
+        int source = 0;
+        for (int x = 0; x < sourceWidth; x++) {
+            int target = targetColumn[x] * components;
+            for (int c = 0; c < components; c++) {
+                sums[target + c] += row[source++] & 0xFF;
+            }
+        }
+        rowsInBin++;
+        if (++sourceRow == sourceHeight) {
+            flush();
+        }
+    }
+
+    /**
+     * Imagem reduzida. Linhas não recebidas (imagem truncada) ficam em preto.
+     */
+    RasterImage result() {
+        flush();
+        return new RasterImage(targetWidth, targetHeight, components, pixels);
+    }
+
+    private void flush() {
+        if (rowsInBin == 0) {
+            return;
+        }
+        int offset = targetRow * targetWidth * components;
+        for (int x = 0; x < targetWidth; x++) {
+            int count = columnCount[x] * rowsInBin;
+            for (int c = 0; c < components; c++) {
+                int index = x * components + c;
+                pixels[offset + index] = (byte) ((sums[index] + count / 2) / count);
+                sums[index] = 0;
+            }
+        }
+        rowsInBin = 0;
+    }
+}
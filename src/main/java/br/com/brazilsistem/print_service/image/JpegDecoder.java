@@ -0,0 +1,692 @@
+package br.com.brazilsistem.print_service.image;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Decodificador JPEG em Java puro, sem AWT nem ImageIO, para funcionar na imagem nativa.
+ * <p>
+ * Suporta JPEG baseline e sequencial estendido com Huffman, 8 bits, 1 ou 3 componentes (YCbCr ou
+ * RGB) em uma varredura intercalada, com intervalos de reinício e qualquer subamostragem de
+ * crominância. JPEG progressivo, aritmético, sem perdas e CMYK são apenas lidos no cabeçalho
+ * (dimensões e orientação) e ficam marcados como não suportados, para serem incluídos como recebidos.
+ * <p>
+ * A decodificação é feita por linha de MCUs e entregue linha a linha a um {@link ImageScaler}.
+ * Na escala 1/8, apenas o coeficiente DC de cada bloco é usado: ele é exatamente a média do bloco,
+ * e a IDCT é dispensada.
+ */
+final class JpegDecoder {
+
+    // Posição natural (linha a linha) do k-ésimo coeficiente em zigue-zague
+    static final int[] ZIGZAG = {
+            0, 1, 8, 16, 9, 2, 3, 10, 17, 24, 32, 25, 18, 11, 4, 5,
+            12, 19, 26, 33, 40, 48, 41, 34, 27, 20, 13, 6, 7, 14, 21, 28,
+            35, 42, 49, 56, 57, 50, 43, 36, 29, 22, 15, 23, 30, 37, 44, 51,
+            58, 59, 52, 45, 38, 31, 39, 46, 53, 60, 61, 54, 47, 55, 62, 63
+    };
+
+    // COS[x * 8 + u] = C(u) * cos((2x + 1) * u * PI / 16) / 2, usado na IDCT e na FDCT
+    static final float[] COS = new float[64];
+
+    static {
+        for (int x = 0; x < 8; x++) {
+            for (int u = 0; u < 8; u++) {
+                double c = u == 0 ? 1 / Math.sqrt(2) : 1;
+                COS[x * 8 + u] = (float) (c * Math.cos((2 * x + 1) * u * Math.PI / 16) / 2);
+            }
+        }
+    }
+
+    private final byte[] data;
+    private final int[][] quantTables = new int[4][];
+    private final HuffmanTable[] dcTables = new HuffmanTable[4];
+    private final HuffmanTable[] acTables = new HuffmanTable[4];
+    private Component[] components;
+    private int width;
+    private int height;
+    private int restartInterval;
+    private int orientation = 1;
+    private int adobeTransform = -1;
+    private String unsupported;
+    private int scanStart = -1;
+
+    // Leitor de bits da varredura
+    private int position;
+    private long bitBuffer;
+    private int bitCount;
+    private boolean markerReached;
+
+    /**
+     * Lê os cabeçalhos até o início da primeira varredura.
+     *
+     * @throws IOException Se os dados não forem um JPEG válido
+     */
+    JpegDecoder(byte[] data) throws IOException {
+        this.data = data;
+        try {
+            readHeaders();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("JPEG truncado", e);
+        }
+        if (components == null || width == 0) {
+            throw new IOException("JPEG sem cabeçalho de quadro");
+        }
+    }
+
+    /**
+     * Verifica a assinatura do JPEG.
+     */
+    static boolean isJpeg(byte[] data) {
+        return data.length > 3 && (data[0] & 0xFF) == 0xFF && (data[1] & 0xFF) == 0xD8 && (data[2] & 0xFF) == 0xFF;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Orientação EXIF (1 a 8); 1 quando ausente.
+     */
+    int getOrientation() {
+        return orientation;
+    }
+
+    /**
+     * Motivo pelo qual a imagem não pode ser decodificada, ou null se puder.
+     */
+    String getUnsupportedReason() {
+        return unsupported;
+    }
+
+    /**
+     * Componentes por pixel das linhas decodificadas: 1 (cinza) ou 3 (RGB).
+     */
+    int getComponents() {
+        return components.length == 1 ? 1 : 3;
+    }
+
+    /**
+     * Largura decodificada na escala informada (1 ou 8).
+     */
+    int decodedWidth(int scale) {
+        return (width + scale - 1) / scale;
+    }
+
+    /**
+     * Altura decodificada na escala informada (1 ou 8).
+     */
+    int decodedHeight(int scale) {
+        return (height + scale - 1) / scale;
+    }
+
+    /**
+     * Decodifica a imagem, entregando as linhas ao redutor.
+     *
+     * @param scale 1 para a resolução original ou 8 para 1/8 (apenas DC)
+     * @param scaler Redutor com origem de {@link #decodedWidth(int)} x {@link #decodedHeight(int)}
+     * @throws IOException Se a imagem não for suportada ou os dados estiverem corrompidos
+     */
+    void decode(int scale, ImageScaler scaler) throws IOException {
+        if (unsupported != null) {
+            throw new IOException(unsupported);
+        }
+        if (scale != 1 && scale != 8) {
+            throw new IllegalArgumentException("Escala não suportada: " + scale);
+        }
+        try {
+            decodeScan(scale == 8, scaler);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("JPEG corrompido", e);
+        }
+    }
+
+    private void readHeaders() throws IOException {
+        if (!isJpeg(data)) {
+            throw new IOException("Dados não são um JPEG");
+        }
+        position = 2;
+        while (position < data.length) {
+            int marker = nextMarker();
+            if (marker == 0xD9) {
+                break;
+            }
+            if ((marker >= 0xD0 && marker <= 0xD7) || marker == 0x01) {
+                continue;
+            }
+            int length = u16(position);
+            int segment = position + 2;
+            int end = position + length;
+            if (length < 2 || end > data.length) {
+                throw new IOException("JPEG truncado");
+            }
+            switch (marker) {
+                case 0xDB -> readQuantTables(segment, end);
+                case 0xC4 -> readHuffmanTables(segment, end);
+                case 0xC0, 0xC1 -> readFrame(segment, null);
+                case 0xC2, 0xC6, 0xCA, 0xCE -> readFrame(segment, "JPEG progressivo");
+                case 0xC3, 0xC5, 0xC7, 0xC9, 0xCB, 0xCD, 0xCF -> readFrame(segment, "JPEG sem perdas ou aritmético");
+                case 0xDD -> restartInterval = u16(segment);
+                case 0xE1 -> readExif(segment, end);
+                case 0xEE -> readAdobe(segment, end);
+                case 0xDA -> {
+                    readScanHeader(segment);
+                    scanStart = end;
+                    return;
+                }
+                default -> {
+                    // Demais segmentos (comentários, ICC, JFIF) não afetam a decodificação
+                }
+            }
+            position = end;
+        }
+        if (unsupported == null) {
+            unsupported = "JPEG sem varredura";
+        }
+    }
+
+    private int nextMarker() throws IOException {
+        while (position < data.length && (data[position] & 0xFF) != 0xFF) {
+            position++;
+        }
+        while (position < data.length && (data[position] & 0xFF) == 0xFF) {
+            position++;
+        }
+        if (position >= data.length) {
+            throw new IOException("JPEG truncado");
+        }
+        return data[position++] & 0xFF;
+    }
+
+    private void readQuantTables(int offset, int end) throws IOException {
+        while (offset < end) {
+            int precision = (data[offset] & 0xFF) >> 4;
+            int id = data[offset] & 0x0F;
+            offset++;
+            if (id > 3) {
+                throw new IOException("Tabela de quantização inválida");
+            }
+            int[] table = new int[64];
+            for (int k = 0; k < 64; k++) {
+                if (precision == 0) {
+                    table[k] = data[offset++] & 0xFF;
+                } else {
+                    table[k] = u16(offset);
+                    offset += 2;
+                }
+            }
+            quantTables[id] = table;
+        }
+    }
+
+    private void readHuffmanTables(int offset, int end) throws IOException {
+        while (offset < end) {
+            int tableClass = (data[offset] & 0xFF) >> 4;
+            int id = data[offset] & 0x0F;
+            offset++;
+            if (id > 3 || tableClass > 1) {
+                throw new IOException("Tabela de Huffman inválida");
+            }
+            int[] counts = new int[16];
+            int total = 0;
+            for (int i = 0; i < 16; i++) {
+                counts[i] = data[offset++] & 0xFF;
+                total += counts[i];
+            }
+            int[] values = new int[total];
+            for (int i = 0; i < total; i++) {
+                values[i] = data[offset++] & 0xFF;
+            }
+            (tableClass == 0 ? dcTables : acTables)[id] = new HuffmanTable(counts, values);
+        }
+    }
+
+    private void readFrame(int offset, String reason) {
+        int precision = data[offset] & 0xFF;
+        height = u16(offset + 1);
+        width = u16(offset + 3);
+        int count = data[offset + 5] & 0xFF;
+        components = new Component[count];
+        for (int i = 0; i < count; i++) {
+            int base = offset + 6 + i * 3;
+            components[i] = new Component(data[base] & 0xFF, (data[base + 1] & 0xFF) >> 4,
+                    data[base + 1] & 0x0F, data[base + 2] & 0x0F);
+        }
+
+        if (reason != null) {
+            unsupported = reason;
+        } else if (precision != 8) {
+            unsupported = "JPEG de " + precision + " bits";
+        } else if (count != 1 && count != 3) {
+            unsupported = "JPEG com " + count + " componentes (CMYK)";
+        } else if (height == 0) {
+            unsupported = "JPEG com altura definida no fim da varredura (DNL)";
+        } else {
+            for (Component component : components) {
+                if (component.h < 1 || component.h > 4 || component.v < 1 || component.v > 4) {
+                    unsupported = "Amostragem inválida no JPEG";
+                }
+            }
+        }
+        if (count == 1) {
+            // Varredura de um componente não é intercalada: cada MCU é um bloco
+            components[0].h = 1;
+            components[0].v = 1;
+        }
+    }
+
+    private void readScanHeader(int offset) {
+        if (unsupported != null) {
+            return;
+        }
+        int count = data[offset] & 0xFF;
+        if (components == null || count != components.length) {
+            unsupported = "JPEG com varreduras não intercaladas";
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int id = data[offset + 1 + i * 2] & 0xFF;
+            int tables = data[offset + 2 + i * 2] & 0xFF;
+            Component component = Arrays.stream(components).filter(c -> c.id == id).findFirst().orElse(null);
+            if (component == null) {
+                unsupported = "Componente desconhecido na varredura do JPEG";
+                return;
+            }
+            component.dcTable = tables >> 4;
+            component.acTable = tables & 0x0F;
+            if (component.dcTable > 3 || component.acTable > 3
+                    || dcTables[component.dcTable] == null || acTables[component.acTable] == null
+                    || quantTables[component.quantTable] == null) {
+                unsupported = "Tabelas ausentes no JPEG";
+                return;
+            }
+        }
+    }
+
+    /**
+     * Lê a orientação do bloco EXIF (TIFF, tag 0x0112 do IFD0).
+     */
+    private void readExif(int offset, int end) {
+        if (end - offset < 14 || data[offset] != 'E' || data[offset + 1] != 'x' || data[offset + 2] != 'i'
+                || data[offset + 3] != 'f' || data[offset + 4] != 0 || data[offset + 5] != 0) {
+            return;
+        }
+        int tiff = offset + 6;
+        boolean little = data[tiff] == 'I' && data[tiff + 1] == 'I';
+        if (!little && !(data[tiff] == 'M' && data[tiff + 1] == 'M')) {
+            return;
+        }
+        long ifd = tiff + exifInt(tiff + 4, little);
+        if (ifd + 2 > end) {
+            return;
+        }
+        int entries = exifShort((int) ifd, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                return;
+            }
+            if (exifShort(entry, little) == 0x0112) {
+                int value = exifShort(entry + 8, little);
+                if (value >= 1 && value <= 8) {
+                    orientation = value;
+                }
+                return;
+            }
+        }
+    }
+
+    private void readAdobe(int offset, int end) {
+        if (end - offset >= 12 && data[offset] == 'A' && data[offset + 1] == 'd' && data[offset + 2] == 'o'
+                && data[offset + 3] == 'b' && data[offset + 4] == 'e') {
+            adobeTransform = data[offset + 11] & 0xFF;
+        }
+    }
+
+    private void decodeScan(boolean dcOnly, ImageScaler scaler) throws IOException {
+        int blockSize = dcOnly ? 1 : 8;
+        int hMax = 1;
+        int vMax = 1;
+        for (Component component : components) {
+            hMax = Math.max(hMax, component.h);
+            vMax = Math.max(vMax, component.v);
+        }
+        int mcusX = (width + 8 * hMax - 1) / (8 * hMax);
+        int mcusY = (height + 8 * vMax - 1) / (8 * vMax);
+        for (Component component : components) {
+            component.bufferWidth = mcusX * component.h * blockSize;
+            component.buffer = new byte[component.bufferWidth * component.v * blockSize];
+            component.dcPrediction = 0;
+        }
+
+        int outWidth = dcOnly ? decodedWidth(8) : width;
+        int outHeight = dcOnly ? decodedHeight(8) : height;
+        int outComponents = getComponents();
+        if (scaler.sourceWidth() != outWidth || scaler.components() != outComponents) {
+            throw new IllegalArgumentException("Redutor incompatível com a imagem decodificada");
+        }
+        boolean rgb = components.length == 3 && (adobeTransform == 0
+                || (components[0].id == 'R' && components[1].id == 'G' && components[2].id == 'B'));
+
+        position = scanStart;
+        bitBuffer = 0;
+        bitCount = 0;
+        markerReached = false;
+
+        int[] block = new int[64];
+        float[] work = new float[64];
+        byte[] row = new byte[outWidth * outComponents];
+        int mcu = 0;
+        int rowsDone = 0;
+        for (int mcuY = 0; mcuY < mcusY; mcuY++) {
+            for (int mcuX = 0; mcuX < mcusX; mcuX++) {
+                if (restartInterval > 0 && mcu > 0 && mcu % restartInterval == 0) {
+                    restart();
+                }
+                for (Component component : components) {
+                    for (int by = 0; by < component.v; by++) {
+                        for (int bx = 0; bx < component.h; bx++) {
+                            decodeBlock(component, block, dcOnly);
+                            int x = (mcuX * component.h + bx) * blockSize;
+                            int y = by * blockSize;
+                            if (dcOnly) {
+                                component.buffer[y * component.bufferWidth + x] =
+                                        clamp(Math.round(block[0] / 8f) + 128);
+                            } else {
+                                idct(block, work, component.buffer, y * component.bufferWidth + x,
+                                        component.bufferWidth);
+                            }
+                        }
+                    }
+                }
+                mcu++;
+            }
+
+            int rows = vMax * blockSize;
+            for (int y = 0; y < rows && rowsDone < outHeight; y++, rowsDone++) {
+                if (outComponents == 1) {
+                    Component gray = components[0];
+                    System.arraycopy(gray.buffer, y * gray.bufferWidth, row, 0, outWidth);
+                } else {
+                    toRgb(row, outWidth, y, hMax, vMax, rgb);
+                }
+                scaler.accept(row);
+            }
+        }
+    }
+
+    private void toRgb(byte[] row, int outWidth, int y, int hMax, int vMax, boolean rgb) {
+        Component c0 = components[0];
+        Component c1 = components[1];
+        Component c2 = components[2];
+        int row0 = (y * c0.v / vMax) * c0.bufferWidth;
+        int row1 = (y * c1.v / vMax) * c1.bufferWidth;
+        int row2 = (y * c2.v / vMax) * c2.bufferWidth;
+        for (int x = 0, out = 0; x < outWidth; x++) {
+            int a = c0.buffer[row0 + x * c0.h / hMax] & 0xFF;
+            int b = c1.buffer[row1 + x * c1.h / hMax] & 0xFF;
+            int c = c2.buffer[row2 + x * c2.h / hMax] & 0xFF;
+            if (rgb) {
+                row[out++] = (byte) a;
+                row[out++] = (byte) b;
+                row[out++] = (byte) c;
+            } else {
+                // YCbCr (JFIF) para RGB
+                float cb = b - 128f;
+                float cr = c - 128f;
+                row[out++] = clamp(Math.round(a + 1.402f * cr));
+                row[out++] = clamp(Math.round(a - 0.344136f * cb - 0.714136f * cr));
+                row[out++] = clamp(Math.round(a + 1.772f * cb));
+            }
+        }
+    }
+
+    private void decodeBlock(Component component, int[] block, boolean dcOnly) throws IOException {
+        int[] quant = quantTables[component.quantTable];
+        int category = decodeHuffman(dcTables[component.dcTable]);
+        component.dcPrediction += receiveExtend(category);
+
+        HuffmanTable ac = acTables[component.acTable];
+        if (dcOnly) {
+            block[0] = component.dcPrediction * quant[0];
+            // Os coeficientes AC são lidos apenas para avançar na varredura
+            for (int k = 1; k < 64; k++) {
+                int symbol = decodeHuffman(ac);
+                int run = symbol >> 4;
+                int size = symbol & 0x0F;
+                if (size == 0) {
+                    if (run != 15) {
+                        break;
+                    }
+                    k += 15;
+                } else {
+                    k += run;
+                    bits(size);
+                }
+            }
+            return;
+        }
+
+        Arrays.fill(block, 0);
+        block[0] = component.dcPrediction * quant[0];
+        for (int k = 1; k < 64; k++) {
+            int symbol = decodeHuffman(ac);
+            int run = symbol >> 4;
+            int size = symbol & 0x0F;
+            if (size == 0) {
+                if (run != 15) {
+                    break;
+                }
+                k += 15;
+                continue;
+            }
+            k += run;
+            if (k > 63) {
+                throw new IOException("Coeficiente fora do bloco no JPEG");
+            }
+            block[ZIGZAG[k]] = receiveExtend(size) * quant[k];
+        }
+    }
+
+    /**
+     * IDCT 8x8 separável em ponto flutuante, com saída deslocada em 128 e limitada a 0-255.
+     */
+    private static void idct(int[] block, float[] work, byte[] out, int offset, int stride) {
+        for (int y = 0; y < 8; y++) {
+            int line = y * 8;
+            boolean acZero = true;
+            for (int u = 1; u < 8 && acZero; u++) {
+                acZero = block[line + u] == 0;
+            }
+            if (acZero) {
+                float value = block[line] * COS[0];
+                Arrays.fill(work, line, line + 8, value);
+                continue;
+            }
+            for (int x = 0; x < 8; x++) {
+                float sum = 0;
+                int cos = x * 8;
+                for (int u = 0; u < 8; u++) {
+                    sum += COS[cos + u] * block[line + u];
+                }
+                work[line + x] = sum;
+            }
+        }
+        for (int x = 0; x < 8; x++) {
+            for (int y = 0; y < 8; y++) {
+                float sum = 0;
+                int cos = y * 8;
+                for (int v = 0; v < 8; v++) {
+                    sum += COS[cos + v] * work[v * 8 + x];
+                }
+                out[offset + y * stride + x] = clamp(Math.round(sum) + 128);
+            }
+        }
+    }
+
+    private void restart() {
+        bitBuffer = 0;
+        bitCount = 0;
+        markerReached = false;
+        while (position + 1 < data.length) {
+            if ((data[position] & 0xFF) == 0xFF && (data[position + 1] & 0xFF) >= 0xD0
+                    && (data[position + 1] & 0xFF) <= 0xD7) {
+                position += 2;
+                break;
+            }
+            position++;
+        }
+        for (Component component : components) {
+            component.dcPrediction = 0;
+        }
+    }
+
+    private void fill() {
+        while (bitCount <= 48) {
+            int value = 0;
+            if (!markerReached && position < data.length) {
+                value = data[position] & 0xFF;
+                if (value == 0xFF) {
+                    int next = position + 1 < data.length ? data[position + 1] & 0xFF : 0xD9;
+                    if (next == 0x00) {
+                        position += 2;
+                    } else {
+                        // Marcador (RSTn ou EOI): o restante da varredura é completado com zeros
+                        markerReached = true;
+                        value = 0;
+                    }
+                } else {
+                    position++;
+                }
+            }
+            bitBuffer = (bitBuffer << 8) | value;
+            bitCount += 8;
+        }
+    }
+
+    private int peek(int count) {
+        return (int) (bitBuffer >>> (bitCount - count)) & ((1 << count) - 1);
+    }
+
+    private int bits(int count) {
+        if (bitCount < count) {
+            fill();
+        }
+        int value = peek(count);
+        bitCount -= count;
+        return value;
+    }
+
+    private int receiveExtend(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        int value = bits(size);
+        return value < (1 << (size - 1)) ? value - (1 << size) + 1 : value;
+    }
+
+    private int decodeHuffman(HuffmanTable table) throws IOException {
+        if (bitCount < 16) {
+            fill();
+        }
+        int entry = table.lookup[peek(HuffmanTable.LOOKUP_BITS)];
+        if (entry != 0) {
+            bitCount -= entry >> 8;
+            return entry & 0xFF;
+        }
+        for (int length = HuffmanTable.LOOKUP_BITS + 1; length <= 16; length++) {
+            int code = peek(length);
+            if (code <= table.maxCode[length]) {
+                bitCount -= length;
+                return table.values[table.valuePointer[length] + code - table.minCode[length]];
+            }
+        }
+        throw new IOException("Código de Huffman inválido no JPEG");
+    }
+
+    private int u16(int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    private int exifShort(int offset, boolean little) {
+        return little
+                ? (data[offset] & 0xFF) | ((data[offset + 1] & 0xFF) << 8)
+                : ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    private long exifInt(int offset, boolean little) {
+        long value = 0;
+        for (int i = 0; i < 4; i++) {
+            int shift = little ? i * 8 : (3 - i) * 8;
+            value |= (long) (data[offset + i] & 0xFF) << shift;
+        }
+        return value;
+    }
+
+    private static byte clamp(int value) {
+        return (byte) (value < 0 ? 0 : Math.min(value, 255));
+    }
+
+    private static final class Component {
+        final int id;
+        int h;
+        int v;
+        final int quantTable;
+        int dcTable;
+        int acTable;
+        int dcPrediction;
+        byte[] buffer;
+        int bufferWidth;
+
+        Component(int id, int h, int v, int quantTable) {
+            this.id = id;
+            this.h = h;
+            this.v = v;
+            this.quantTable = quantTable;
+        }
+    }
+
+    /**
+     * Tabela de Huffman canônica, com consulta direta dos códigos de até {@link #LOOKUP_BITS} bits.
+     */
+    static final class HuffmanTable {
+        static final int LOOKUP_BITS = 9;
+
+        final int[] values;
+        final int[] maxCode = new int[17];
+        final int[] minCode = new int[17];
+        final int[] valuePointer = new int[17];
+        // (comprimento << 8) | símbolo; 0 para códigos mais longos que LOOKUP_BITS
+        final int[] lookup = new int[1 << LOOKUP_BITS];
+        // Código e comprimento de cada símbolo, usados pelo codificador
+        final int[] codeOf = new int[256];
+        final int[] lengthOf = new int[256];
+
+        HuffmanTable(int[] counts, int[] values) throws IOException {
+            this.values = values;
+            int code = 0;
+            int k = 0;
+            for (int length = 1; length <= 16; length++) {
+                valuePointer[length] = k;
+                minCode[length] = code;
+                for (int i = 0; i < counts[length - 1]; i++, code++, k++) {
+                    if (code >= (1 << length)) {
+                        throw new IOException("Tabela de Huffman inválida");
+                    }
+                    codeOf[values[k]] = code;
+                    lengthOf[values[k]] = length;
+                    if (length <= LOOKUP_BITS) {
+                        int shift = LOOKUP_BITS - length;
+                        int entry = (length << 8) | values[k];
+                        Arrays.fill(lookup, code << shift, (code + 1) << shift, entry);
+                    }
+                }
+                maxCode[length] = counts[length - 1] > 0 ? code - 1 : -1;
+                code <<= 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package br.com.brazilsistem.print_service.image;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Codificador JPEG baseline em Java puro, sem AWT nem ImageIO, para funcionar na imagem nativa.
+ * <p>
+ * Usa as tabelas de quantização e de Huffman do anexo K da norma, com a qualidade aplicada como no
+ * IJG. Imagens em cinza têm um componente; as coloridas são convertidas para YCbCr com crominância
+ * subamostrada em 4:2:0.
+ */
+final class JpegEncoder {
+
+    private static final int[] LUMINANCE_QUANT = {
+            16, 11, 10, 16, 24, 40, 51, 61,
+            12, 12, 14, 19, 26, 58, 60, 55,
+            14, 13, 16, 24, 40, 57, 69, 56,
+            14, 17, 22, 29, 51, 87, 80, 62,
+            18, 22, 37, 56, 68, 109, 103, 77,
+            24, 35, 55, 64, 81, 104, 113, 92,
+            49, 64, 78, 87, 103, 121, 120, 101,
+            72, 92, 95, 98, 112, 100, 103, 99
+    };
+
+    private static final int[] CHROMINANCE_QUANT = {
+            17, 18, 24, 47, 99, 99, 99, 99,
+            18, 21, 26, 66, 99, 99, 99, 99,
+            24, 26, 56, 99, 99, 99, 99, 99,
+            47, 66, 99, 99, 99, 99, 99, 99,
+            99, 99, 99, 99, 99, 99, 99, 99,
+            99, 99, 99, 99, 99, 99, 99, 99,
+            99, 99, 99, 99, 99, 99, 99, 99,
+            99, 99, 99, 99, 99, 99, 99, 99
+    };
+
+    private static final int[] DC_LUMINANCE_COUNTS = {0, 1, 5, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0};
+    private static final int[] DC_CHROMINANCE_COUNTS = {0, 3, 1, 1, 1, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0, 0};
+    private static final int[] DC_VALUES = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
+
+    private static final int[] AC_LUMINANCE_COUNTS = {0, 2, 1, 3, 3, 2, 4, 3, 5, 5, 4, 4, 0, 0, 1, 0x7d};
+    private static final int[] AC_LUMINANCE_VALUES = {
+            0x01, 0x02, 0x03, 0x00, 0x04, 0x11, 0x05, 0x12, 0x21, 0x31, 0x41, 0x06, 0x13, 0x51, 0x61, 0x07,
+            0x22, 0x71, 0x14, 0x32, 0x81, 0x91, 0xa1, 0x08, 0x23, 0x42, 0xb1, 0xc1, 0x15, 0x52, 0xd1, 0xf0,
+            0x24, 0x33, 0x62, 0x72, 0x82, 0x09, 0x0a, 0x16, 0x17, 0x18, 0x19, 0x1a, 0x25, 0x26, 0x27, 0x28,
+            0x29, 0x2a, 0x34, 0x35, 0x36, 0x37, 0x38, 0x39, 0x3a, 0x43, 0x44, 0x45, 0x46, 0x47, 0x48, 0x49,
+            0x4a, 0x53, 0x54, 0x55, 0x56, 0x57, 0x58, 0x59, 0x5a, 0x63, 0x64, 0x65, 0x66, 0x67, 0x68, 0x69,
+            0x6a, 0x73, 0x74, 0x75, 0x76, 0x77, 0x78, 0x79, 0x7a, 0x83, 0x84, 0x85, 0x86, 0x87, 0x88, 0x89,
+            0x8a, 0x92, 0x93, 0x94, 0x95, 0x96, 0x97, 0x98, 0x99, 0x9a, 0xa2, 0xa3, 0xa4, 0xa5, 0xa6, 0xa7,
+            0xa8, 0xa9, 0xaa, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xb9, 0xba, 0xc2, 0xc3, 0xc4, 0xc5,
+            0xc6, 0xc7, 0xc8, 0xc9, 0xca, 0xd2, 0xd3, 0xd4, 0xd5, 0xd6, 0xd7, 0xd8, 0xd9, 0xda, 0xe1, 0xe2,
+            0xe3, 0xe4, 0xe5, 0xe6, 0xe7, 0xe8, 0xe9, 0xea, 0xf1, 0xf2, 0xf3, 0xf4, 0xf5, 0xf6, 0xf7, 0xf8,
+            0xf9, 0xfa
+    };
+
+    private static final int[] AC_CHROMINANCE_COUNTS = {0, 2, 1, 2, 4, 4, 3, 4, 7, 5, 4, 4, 0, 1, 2, 0x77};
+    private static final int[] AC_CHROMINANCE_VALUES = {
+            0x00, 0x01, 0x02, 0x03, 0x11, 0x04, 0x05, 0x21, 0x31, 0x06, 0x12, 0x41, 0x51, 0x07, 0x61, 0x71,
+            0x13, 0x22, 0x32, 0x81, 0x08, 0x14, 0x42, 0x91, 0xa1, 0xb1, 0xc1, 0x09, 0x23, 0x33, 0x52, 0xf0,
+            0x15, 0x62, 0x72, 0xd1, 0x0a, 0x16, 0x24, 0x34, 0xe1, 0x25, 0xf1, 0x17, 0x18, 0x19, 0x1a, 0x26,
+            0x27, 0x28, 0x29, 0x2a, 0x35, 0x36, 0x37, 0x38, 0x39, 0x3a, 0x43, 0x44, 0x45, 0x46, 0x47, 0x48,
+            0x49, 0x4a, 0x53, 0x54, 0x55, 0x56, 0x57, 0x58, 0x59, 0x5a, 0x63, 0x64, 0x65, 0x66, 0x67, 0x68,
+            0x69, 0x6a, 0x73, 0x74, 0x75, 0x76, 0x77, 0x78, 0x79, 0x7a, 0x82, 0x83, 0x84, 0x85, 0x86, 0x87,
+            0x88, 0x89, 0x8a, 0x92, 0x93, 0x94, 0x95, 0x96, 0x97, 0x98, 0x99, 0x9a, 0xa2, 0xa3, 0xa4, 0xa5,
+            0xa6, 0xa7, 0xa8, 0xa9, 0xaa, 0xb2, 0xb3, 0xb4, 0xb5, 0xb6, 0xb7, 0xb8, 0xb9, 0xba, 0xc2, 0xc3,
+            0xc4, 0xc5, 0xc6, 0xc7, 0xc8, 0xc9, 0xca, 0xd2, 0xd3, 0xd4, 0xd5, 0xd6, 0xd7, 0xd8, 0xd9, 0xda,
+            0xe2, 0xe3, 0xe4, 0xe5, 0xe6, 0xe7, 0xe8, 0xe9, 0xea, 0xf2, 0xf3, 0xf4, 0xf5, 0xf6, 0xf7, 0xf8,
+            0xf9, 0xfa
+    };
+
+    private static final JpegDecoder.HuffmanTable DC_LUMINANCE = table(DC_LUMINANCE_COUNTS, DC_VALUES);
+    private static final JpegDecoder.HuffmanTable DC_CHROMINANCE = table(DC_CHROMINANCE_COUNTS, DC_VALUES);
+    private static final JpegDecoder.HuffmanTable AC_LUMINANCE = table(AC_LUMINANCE_COUNTS, AC_LUMINANCE_VALUES);
+    private static final JpegDecoder.HuffmanTable AC_CHROMINANCE = table(AC_CHROMINANCE_COUNTS, AC_CHROMINANCE_VALUES);
+
+    private final ByteArrayOutputStream out;
+    private int bitBuffer;
+    private int bitCount;
+
+    private JpegEncoder(int capacity) {
+        this.out = new ByteArrayOutputStream(capacity);
+    }
+
+    /**
+     * Codifica a imagem em JPEG.
+     *
+     * @param image Imagem com 1 (cinza) ou 3 (RGB) componentes
+     * @param quality Qualidade, de 0.01 a 1.0
+     * @return JPEG baseline com cabeçalho JFIF
+     */
+    static byte[] encode(RasterImage image, float quality) {
+        if (image.components() != 1 && image.components() != 3) {
+            throw new IllegalArgumentException("JPEG aceita apenas imagens em cinza ou RGB");
+        }
+        int scale = scale(quality);
+        int[] luminance = quantTable(LUMINANCE_QUANT, scale);
+        int[] chrominance = quantTable(CHROMINANCE_QUANT, scale);
+
+        JpegEncoder encoder = new JpegEncoder(image.width() * image.height() / 4 + 1024);
+        encoder.writeHeaders(image, luminance, chrominance);
+        if (image.components() == 1) {
+            encoder.encodeGray(image, luminance);
+        } else {
+            encoder.encodeColor(image, luminance, chrominance);
+        }
+        encoder.flushBits();
+        encoder.marker(0xD9);
+        return encoder.out.toByteArray();
+    }
+
+    private void writeHeaders(RasterImage image, int[] luminance, int[] chrominance) {
+        boolean color = image.components() == 3;
+        marker(0xD8);
+
+        // JFIF: indica YCbCr aos leitores
+        marker(0xE0);
+        u16(16);
+        out.writeBytes(new byte[]{'J', 'F', 'I', 'F', 0, 1, 1, 0, 0, 1, 0, 1, 0, 0});
+
+        marker(0xDB);
+        u16(2 + (color ? 2 : 1) * 65);
+        writeQuantTable(0, luminance);
+        if (color) {
+            writeQuantTable(1, chrominance);
+        }
+
+        marker(0xC0);
+        u16(8 + image.components() * 3);
+        out.write(8);
+        u16(image.height());
+        u16(image.width());
+        out.write(image.components());
+        if (color) {
+            out.writeBytes(new byte[]{1, 0x22, 0, 2, 0x11, 1, 3, 0x11, 1});
+        } else {
+            out.writeBytes(new byte[]{1, 0x11, 0});
+        }
+
+        marker(0xC4);
+        int length = 2 + 2 * 17 + DC_VALUES.length + AC_LUMINANCE_VALUES.length;
+        if (color) {
+            length += 2 * 17 + DC_VALUES.length + AC_CHROMINANCE_VALUES.length;
+        }
+        u16(length);
+        writeHuffmanTable(0x00, DC_LUMINANCE_COUNTS, DC_VALUES);
+        writeHuffmanTable(0x10, AC_LUMINANCE_COUNTS, AC_LUMINANCE_VALUES);
+        if (color) {
+            writeHuffmanTable(0x01, DC_CHROMINANCE_COUNTS, DC_VALUES);
+            writeHuffmanTable(0x11, AC_CHROMINANCE_COUNTS, AC_CHROMINANCE_VALUES);
+        }
+
+        marker(0xDA);
+        u16(6 + image.components() * 2);
+        out.write(image.components());
+        if (color) {
+            out.writeBytes(new byte[]{1, 0x00, 2, 0x11, 3, 0x11});
+        } else {
+            out.writeBytes(new byte[]{1, 0x00});
+        }
+        out.writeBytes(new byte[]{0, 63, 0});
+    }
+
+    private void encodeGray(RasterImage image, int[] quant) {
+        float[] samples = new float[64];
+        int[] coefficients = new int[64];
+        int[] prediction = new int[1];
+        for (int y = 0; y < image.height(); y += 8) {
+            for (int x = 0; x < image.width(); x += 8) {
+                for (int i = 0; i < 64; i++) {
+                    samples[i] = sample(image, x + (i & 7), y + (i >> 3), 0) - 128f;
+                }
+                encodeBlock(samples, coefficients, quant, prediction, DC_LUMINANCE, AC_LUMINANCE);
+            }
+        }
+    }
+
+    private void encodeColor(RasterImage image, int[] luminance, int[] chrominance) {
+        float[] samples = new float[64];
+        int[] coefficients = new int[64];
+        int[] yPrediction = new int[1];
+        int[] cbPrediction = new int[1];
+        int[] crPrediction = new int[1];
+        float[] cb = new float[64];
+        float[] cr = new float[64];
+        for (int mcuY = 0; mcuY < image.height(); mcuY += 16) {
+            for (int mcuX = 0; mcuX < image.width(); mcuX += 16) {
+                for (int block = 0; block < 4; block++) {
+                    int blockX = mcuX + (block & 1) * 8;
+                    int blockY = mcuY + (block >> 1) * 8;
+                    for (int i = 0; i < 64; i++) {
+                        int x = blockX + (i & 7);
+                        int y = blockY + (i >> 3);
+                        samples[i] = 0.299f * sample(image, x, y, 0) + 0.587f * sample(image, x, y, 1)
+                                + 0.114f * sample(image, x, y, 2) - 128f;
+                    }
+                    encodeBlock(samples, coefficients, luminance, yPrediction, DC_LUMINANCE, AC_LUMINANCE);
+                }
+
+                // Crominância: média de cada 2x2 pixels do MCU
+                for (int i = 0; i < 64; i++) {
+                    int x = mcuX + (i & 7) * 2;
+                    int y = mcuY + (i >> 3) * 2;
+                    float r = 0;
+                    float g = 0;
+                    float b = 0;
+                    for (int d = 0; d < 4; d++) {
+                        r += sample(image, x + (d & 1), y + (d >> 1), 0);
+                        g += sample(image, x + (d & 1), y + (d >> 1), 1);
+                        b += sample(image, x + (d & 1), y + (d >> 1), 2);
+                    }
+                    r /= 4;
+                    g /= 4;
+                    b /= 4;
+                    cb[i] = -0.168736f * r - 0.331264f * g + 0.5f * b;
+                    cr[i] = 0.5f * r - 0.418688f * g - 0.081312f * b;
+                }
+                encodeBlock(cb, coefficients, chrominance, cbPrediction, DC_CHROMINANCE, AC_CHROMINANCE);
+                encodeBlock(cr, coefficients, chrominance, crPrediction, DC_CHROMINANCE, AC_CHROMINANCE);
+            }
+        }
+    }
+
+    /**
+     * Amostra com as bordas replicadas, para completar os blocos da borda direita e inferior.
+     */
+    private static int sample(RasterImage image, int x, int y, int component) {
+        int clampedX = Math.min(x, image.width() - 1);
+        int clampedY = Math.min(y, image.height() - 1);
+        return image.pixels()[(clampedY * image.width() + clampedX) * image.components() + component] & 0xFF;
+    }
+
+    private void encodeBlock(float[] samples, int[] coefficients, int[] quant, int[] prediction,
+                             JpegDecoder.HuffmanTable dc, JpegDecoder.HuffmanTable ac) {
+        fdct(samples, coefficients, quant);
+
+        int diff = coefficients[0] - prediction[0];
+        prediction[0] = coefficients[0];
+        int category = category(diff);
+        writeBits(dc.codeOf[category], dc.lengthOf[category]);
+        writeBits(diff < 0 ? diff + (1 << category) - 1 : diff, category);
+
+        int run = 0;
+        for (int k = 1; k < 64; k++) {
+            int value = coefficients[JpegDecoder.ZIGZAG[k]];
+            if (value == 0) {
+                run++;
+                continue;
+            }
+            while (run > 15) {
+                writeBits(ac.codeOf[0xF0], ac.lengthOf[0xF0]);
+                run -= 16;
+            }
+            int size = category(value);
+            int symbol = (run << 4) | size;
+            writeBits(ac.codeOf[symbol], ac.lengthOf[symbol]);
+            writeBits(value < 0 ? value + (1 << size) - 1 : value, size);
+            run = 0;
+        }
+        if (run > 0) {
+            writeBits(ac.codeOf[0x00], ac.lengthOf[0x00]);
+        }
+    }
+
+    /**
+     * FDCT 8x8 separável em ponto flutuante seguida da quantização; saída em ordem natural.
+     */
+    private static void fdct(float[] samples, int[] coefficients, int[] quant) {
+        float[] work = new float[64];
+        for (int y = 0; y < 8; y++) {
+            for (int u = 0; u < 8; u++) {
+                float sum = 0;
+                for (int x = 0; x < 8; x++) {
+                    sum += JpegDecoder.COS[x * 8 + u] * samples[y * 8 + x];
+                }
+                work[y * 8 + u] = sum;
+            }
+        }
+        for (int u = 0; u < 8; u++) {
+            for (int v = 0; v < 8; v++) {
+                float sum = 0;
+                for (int y = 0; y < 8; y++) {
+                    sum += JpegDecoder.COS[y * 8 + v] * work[y * 8 + u];
+                }
+                coefficients[v * 8 + u] = Math.round(sum / quant[v * 8 + u]);
+            }
+        }
+    }
+
+    private static int category(int value) {
+        return 32 - Integer.numberOfLeadingZeros(Math.abs(value));
+    }
+
+    private void writeBits(int value, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            bitBuffer = (bitBuffer << 1) | ((value >> i) & 1);
+            if (++bitCount == 8) {
+                writeEntropyByte(bitBuffer);
+                bitBuffer = 0;
+                bitCount = 0;
+            }
+        }
+    }
+
+    private void flushBits() {
+        // Bits restantes completados com 1, como exige a norma
+        while (bitCount != 0) {
+            writeBits(1, 1);
+        }
+    }
+
+    private void writeEntropyByte(int value) {
+        out.write(value);
+        if (value == 0xFF) {
+            out.write(0);
+        }
+    }
+
+    private void writeQuantTable(int id, int[] table) {
+        out.write(id);
+        for (int k = 0; k < 64; k++) {
+            out.write(table[JpegDecoder.ZIGZAG[k]]);
+        }
+    }
+
+    private void writeHuffmanTable(int classAndId, int[] counts, int[] values) {
+        out.write(classAndId);
+        for (int count : counts) {
+            out.write(count);
+        }
+        for (int value : values) {
+            out.write(value);
+        }
+    }
+
+    private void marker(int marker) {
+        out.write(0xFF);
+        out.write(marker);
+    }
+
+    private void u16(int value) {
+        out.write(value >> 8);
+        out.write(value & 0xFF);
+    }
+
+    private static int scale(float quality) {
+        int percent = Math.max(1, Math.min(100, Math.round(quality * 100)));
+        return percent < 50 ? 5000 / percent : 200 - percent * 2;
+    }
+
+    private static int[] quantTable(int[] base, int scale) {
+        int[] table = new int[64];
+        for (int i = 0; i < 64; i++) {
+            table[i] = Math.max(1, Math.min(255, (base[i] * scale + 50) / 100));
+        }
+        return table;
+    }
+
+    private static JpegDecoder.HuffmanTable table(int[] counts, int[] values) {
+        try {
+            return new JpegDecoder.HuffmanTable(counts, values);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
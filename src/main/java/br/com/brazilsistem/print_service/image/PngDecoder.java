@@ -0,0 +1,363 @@
+package br.com.brazilsistem.print_service.image;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodificador PNG em Java puro, sem AWT nem ImageIO, para funcionar na imagem nativa.
+ * <p>
+ * Suporta todos os tipos de cor e profundidades (amostras de 16 bits são reduzidas a 8) e a
+ * transparência de {@code tRNS}. As linhas são descompactadas e desfiltradas uma a uma e entregues
+ * a um {@link ImageScaler}. Imagens entrelaçadas (Adam7) são apenas lidas no cabeçalho e ficam
+ * marcadas como não suportadas, para serem incluídas como recebidas.
+ */
+final class PngDecoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private final byte[] data;
+    private final List<int[]> idat = new ArrayList<>();
+    private int width;
+    private int height;
+    private int bitDepth;
+    private int colorType;
+    private boolean interlaced;
+    private byte[] palette;
+    private byte[] transparency;
+
+    /**
+     * Lê os blocos da imagem.
+     *
+     * @throws IOException Se os dados não forem um PNG válido
+     */
+    PngDecoder(byte[] data) throws IOException {
+        this.data = data;
+        if (!isPng(data)) {
+            throw new IOException("Dados não são um PNG");
+        }
+        try {
+            readChunks();
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("PNG truncado", e);
+        }
+    }
+
+    /**
+     * Verifica a assinatura do PNG.
+     */
+    static boolean isPng(byte[] data) {
+        if (data.length < SIGNATURE.length) {
+            return false;
+        }
+        for (int i = 0; i < SIGNATURE.length; i++) {
+            if (data[i] != SIGNATURE[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    boolean isInterlaced() {
+        return interlaced;
+    }
+
+    /**
+     * Componentes por pixel das linhas decodificadas: 1 (cinza), 2 (cinza e alfa), 3 (RGB) ou 4 (RGBA).
+     */
+    int getComponents() {
+        boolean alpha = transparency != null;
+        return switch (colorType) {
+            case 0 -> alpha ? 2 : 1;
+            case 2, 3 -> alpha ? 4 : 3;
+            case 4 -> 2;
+            default -> 4;
+        };
+    }
+
+    /**
+     * Decodifica a imagem, entregando as linhas ao redutor.
+     *
+     * @param scaler Redutor com origem de {@link #getWidth()} x {@link #getHeight()} e {@link #getComponents()}
+     * @throws IOException Se a imagem for entrelaçada ou os dados estiverem corrompidos
+     */
+    void decode(ImageScaler scaler) throws IOException {
+        if (interlaced) {
+            throw new IOException("PNG entrelaçado");
+        }
+        if (scaler.sourceWidth() != width || scaler.components() != getComponents()) {
+            throw new IllegalArgumentException("Redutor incompatível com a imagem decodificada");
+        }
+
+        int channels = switch (colorType) {
+            case 0, 3 -> 1;
+            case 2 -> 3;
+            case 4 -> 2;
+            default -> 4;
+        };
+        int bitsPerPixel = channels * bitDepth;
+        int rowBytes = (width * bitsPerPixel + 7) / 8;
+        int filterStride = Math.max(1, bitsPerPixel / 8);
+
+        byte[] previous = new byte[rowBytes];
+        byte[] current = new byte[rowBytes];
+        byte[] row = new byte[width * getComponents()];
+        Inflater inflater = new Inflater();
+        try (InputStream input = new InflatingStream(inflater)) {
+            for (int y = 0; y < height; y++) {
+                int filter = input.read();
+                readFully(input, current);
+                unfilter(filter, current, previous, filterStride);
+                convert(current, row);
+                scaler.accept(row);
+
+                byte[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("PNG corrompido", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private void readChunks() throws IOException {
+        int offset = SIGNATURE.length;
+        while (offset + 8 <= data.length) {
+            int length = u32(offset);
+            String type = new String(data, offset + 4, 4, StandardCharsets.ISO_8859_1);
+            int start = offset + 8;
+            if (length < 0 || start + length > data.length) {
+                throw new IOException("PNG truncado");
+            }
+            switch (type) {
+                case "IHDR" -> {
+                    width = u32(start);
+                    height = u32(start + 4);
+                    bitDepth = data[start + 8] & 0xFF;
+                    colorType = data[start + 9] & 0xFF;
+                    interlaced = data[start + 12] != 0;
+                }
+                case "PLTE" -> palette = Arrays.copyOfRange(data, start, start + length);
+                case "tRNS" -> transparency = Arrays.copyOfRange(data, start, start + length);
+                case "IDAT" -> idat.add(new int[]{start, length});
+                default -> {
+                    // Demais blocos (texto, gama, ICC) não afetam a decodificação
+                }
+            }
+            if (type.equals("IEND")) {
+                break;
+            }
+            offset = start + length + 4;
+        }
+
+        if (width <= 0 || height <= 0) {
+            throw new IOException("PNG sem cabeçalho");
+        }
+        boolean validDepth = switch (colorType) {
+            case 0 -> bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8 || bitDepth == 16;
+            case 3 -> bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8;
+            case 2, 4, 6 -> bitDepth == 8 || bitDepth == 16;
+            default -> false;
+        };
+        if (!validDepth) {
+            throw new IOException("PNG com tipo de cor " + colorType + " e " + bitDepth + " bits não suportado");
+        }
+        if (colorType == 3 && palette == null) {
+            throw new IOException("PNG indexado sem paleta");
+        }
+        if (colorType >= 4) {
+            // Imagens com canal alfa ignoram tRNS
+            transparency = null;
+        }
+        if (idat.isEmpty()) {
+            throw new IOException("PNG sem dados de imagem");
+        }
+    }
+
+    private static void unfilter(int filter, byte[] current, byte[] previous, int stride) throws IOException {
+        switch (filter) {
+            case 0 -> {
+            }
+            case 1 -> {
+                for (int i = stride; i < current.length; i++) {
+                    current[i] += current[i - stride];
+                }
+            }
+            case 2 -> {
+                for (int i = 0; i < current.length; i++) {
+                    current[i] += previous[i];
+                }
+            }
+            case 3 -> {
+                for (int i = 0; i < current.length; i++) {
+                    int left = i >= stride ? current[i - stride] & 0xFF : 0;
+                    current[i] += (byte) ((left + (previous[i] & 0xFF)) >> 1);
+                }
+            }
+            case 4 -> {
+                for (int i = 0; i < current.length; i++) {
+                    int a = i >= stride ? current[i - stride] & 0xFF : 0;
+                    int b = previous[i] & 0xFF;
+                    int c = i >= stride ? previous[i - stride] & 0xFF : 0;
+                    int p = a + b - c;
+                    int pa = Math.abs(p - a);
+                    int pb = Math.abs(p - b);
+                    int pc = Math.abs(p - c);
+                    current[i] += (byte) (pa <= pb && pa <= pc ? a : pb <= pc ? b : c);
+                }
+            }
+            default -> throw new IOException("Filtro PNG inválido: " + filter);
+        }
+    }
+
+    /**
+     * Converte a linha desfiltrada em amostras de 8 bits, expandindo paleta e transparência.
+     */
+    private void convert(byte[] source, byte[] row) {
+        int out = 0;
+        switch (colorType) {
+            case 0 -> {
+                int max = (1 << bitDepth) - 1;
+                for (int x = 0; x < width; x++) {
+                    int raw = sample(source, x);
+                    row[out++] = (byte) (bitDepth == 16 ? raw >> 8 : raw * 255 / max);
+                    if (transparency != null) {
+                        row[out++] = (byte) (raw == u16(transparency, 0) ? 0 : 255);
+                    }
+                }
+            }
+            case 2 -> {
+                for (int x = 0; x < width; x++) {
+                    int r = sample(source, x * 3);
+                    int g = sample(source, x * 3 + 1);
+                    int b = sample(source, x * 3 + 2);
+                    int shift = bitDepth == 16 ? 8 : 0;
+                    row[out++] = (byte) (r >> shift);
+                    row[out++] = (byte) (g >> shift);
+                    row[out++] = (byte) (b >> shift);
+                    if (transparency != null) {
+                        boolean key = r == u16(transparency, 0) && g == u16(transparency, 2) && b == u16(transparency, 4);
+                        row[out++] = (byte) (key ? 0 : 255);
+                    }
+                }
+            }
+            case 3 -> {
+                for (int x = 0; x < width; x++) {
+                    int index = sample(source, x);
+                    int entry = index * 3;
+                    boolean valid = entry + 2 < palette.length;
+                    row[out++] = valid ? palette[entry] : 0;
+                    row[out++] = valid ? palette[entry + 1] : 0;
+                    row[out++] = valid ? palette[entry + 2] : 0;
+                    if (transparency != null) {
+                        row[out++] = index < transparency.length ? transparency[index] : (byte) 255;
+                    }
+                }
+            }
+            default -> {
+                // Cinza com alfa (4) e RGBA (6): 8 bits copiados, 16 bits reduzidos ao byte alto
+                if (bitDepth == 8) {
+                    System.arraycopy(source, 0, row, 0, row.length);
+                } else {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = source[i * 2];
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Amostra de índice {@code index} da linha, na profundidade original.
+     */
+    private int sample(byte[] source, int index) {
+        return switch (bitDepth) {
+            case 16 -> ((source[index * 2] & 0xFF) << 8) | (source[index * 2 + 1] & 0xFF);
+            case 8 -> source[index] & 0xFF;
+            default -> {
+                int bit = index * bitDepth;
+                int shift = 8 - bitDepth - (bit & 7);
+                yield ((source[bit >> 3] & 0xFF) >> shift) & ((1 << bitDepth) - 1);
+            }
+        };
+    }
+
+    private static void readFully(InputStream input, byte[] buffer) throws IOException {
+        int read = 0;
+        while (read < buffer.length) {
+            int count = input.read(buffer, read, buffer.length - read);
+            if (count < 0) {
+                throw new EOFException("PNG truncado");
+            }
+            read += count;
+        }
+    }
+
+    private int u32(int offset) {
+        return ((data[offset] & 0xFF) << 24) | ((data[offset + 1] & 0xFF) << 16)
+                | ((data[offset + 2] & 0xFF) << 8) | (data[offset + 3] & 0xFF);
+    }
+
+    private static int u16(byte[] bytes, int offset) {
+        return offset + 1 < bytes.length ? ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF) : -1;
+    }
+
+    /**
+     * Descompacta os blocos IDAT em sequência, sem concatená-los em memória.
+     */
+    private final class InflatingStream extends InputStream {
+
+        private final Inflater inflater;
+        private int chunk;
+
+        InflatingStream(Inflater inflater) {
+            this.inflater = inflater;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            try {
+                while (true) {
+                    int count = inflater.inflate(buffer, offset, length);
+                    if (count > 0) {
+                        return count;
+                    }
+                    if (inflater.finished() || inflater.needsDictionary()) {
+                        return -1;
+                    }
+                    if (inflater.needsInput()) {
+                        if (chunk >= idat.size()) {
+                            return -1;
+                        }
+                        int[] next = idat.get(chunk++);
+                        inflater.setInput(data, next[0], next[1]);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("PNG corrompido", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.brazilsistem.print_service.image;
+
+/**
+ * Imagem já decodificada, reduzida à resolução de impressão e recodificada, pronta para ser
+ * incluída nos documentos.
+ *
+ * @param key Chave do cache: hash do conteúdo original e largura alvo em pixels
+ * @param bytes Imagem codificada (JPEG, ou PNG quando há transparência)
+ * @param width Largura em pixels
+ * @param height Altura em pixels
+ */
+public record ProcessedImage(String key, byte[] bytes, int width, int height) {
+}
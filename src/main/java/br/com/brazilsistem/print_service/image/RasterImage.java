@@ -0,0 +1,53 @@
+package br.com.brazilsistem.print_service.image;
+
+/**
+ * Imagem decodificada em memória: amostras de 8 bits intercaladas por pixel, linha a linha.
+ * <p>
+ * Os componentes seguem a ordem do PNG: 1 (cinza), 2 (cinza e alfa), 3 (RGB) ou 4 (RGBA).
+ *
+ * @param width Largura em pixels
+ * @param height Altura em pixels
+ * @param components Componentes por pixel
+ * @param pixels Amostras, {@code width * height * components} bytes
+ */
+record RasterImage(int width, int height, int components, byte[] pixels) {
+
+    /**
+     * Verifica se a imagem tem canal alfa.
+     */
+    boolean hasAlpha() {
+        return components == 2 || components == 4;
+    }
+
+    /**
+     * Aplica a orientação EXIF (1 a 8), devolvendo a imagem como deve ser exibida.
+     */
+    RasterImage oriented(int orientation) {
+        if (orientation < 2 || orientation > 8) {
+            return this;
+        }
+        boolean swap = orientation >= 5;
+        int outWidth = swap ? height : width;
+        int outHeight = swap ? width : height;
+        byte[] out = new byte[pixels.length];
+
+        for (int y = 0; y < outHeight; y++) {
+            for (int x = 0; x < outWidth; x++) {
+                int sourceX;
+                int sourceY;
+                switch (orientation) {
+                    case 2 -> { sourceX = width - 1 - x; sourceY = y; }
+                    case 3 -> { sourceX = width - 1 - x; sourceY = height - 1 - y; }
+                    case 4 -> { sourceX = x; sourceY = height - 1 - y; }
+                    case 5 -> { sourceX = y; sourceY = x; }
+                    case 6 -> { sourceX = y; sourceY = height - 1 - x; }
+                    case 7 -> { sourceX = width - 1 - y; sourceY = height - 1 - x; }
+                    default -> { sourceX = width - 1 - y; sourceY = x; }
+                }
+                System.arraycopy(pixels, (sourceY * width + sourceX) * components,
+                        out, (y * outWidth + x) * components, components);
+            }
+        }
+        return new RasterImage(outWidth, outHeight, components, out);
+    }
+}
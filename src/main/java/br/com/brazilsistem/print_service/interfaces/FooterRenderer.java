@@ -7,5 +7,29 @@ import java.util.Map; /**
  * Interface para renderização de rodapés de relatório.
  */
 public interface FooterRenderer {
+
+    /**
+     * Registra o rodapé de página (número da página, data/hora, sistema). Cada página o recebe ao ser
+     * concluída, de modo que o documento pode gravar as páginas durante a renderização. Deve ser
+     * chamado antes do conteúdo do documento.
+     */
+    void startPageFooter(Document document) throws IOException;
+
+    /**
+     * Registra o rodapé de página de uma pré-visualização, que contém apenas as primeiras páginas do
+     * relatório. Deve ser chamado antes do conteúdo do documento.
+     *
+     * @param document Documento da pré-visualização
+     * @param estimatedTotalPages Total estimado de páginas do relatório completo
+     */
+    default void startPreviewPageFooter(Document document, int estimatedTotalPages) throws IOException {
+        startPageFooter(document);
+    }
+
+    /**
+     * Renderiza o rodapé de dados no fim do relatório.
+     *
+     * @param footerData Dados do rodapé, ou null quando não há (ou o relatório foi interrompido antes do fim)
+     */
     void renderFooter(Document document, Map<String, String> footerData) throws IOException;
 }
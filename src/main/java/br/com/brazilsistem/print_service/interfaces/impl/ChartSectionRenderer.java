@@ -2,36 +2,541 @@ package br.com.brazilsistem.print_service.interfaces.impl;
 
 import br.com.brazilsistem.print_service.interfaces.SectionTypeRenderer;
 import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.Style;
+import br.com.brazilsistem.print_service.util.HelveticaMetrics;
+import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import br.com.brazilsistem.print_service.util.SeriesDecimation;
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvasConstants;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.IBlockElement;
 import com.itextpdf.layout.element.Paragraph;
-import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.renderer.DivRenderer;
+import com.itextpdf.layout.renderer.DrawContext;
+import com.itextpdf.layout.renderer.IRenderer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.*;
 
+/**
+ * Renderizador de gráficos de linha, barras e pizza desenhados como caminhos vetoriais no PDF,
+ * sem AWT e sem imagens.
+ * <p>
+ * A primeira coluna da seção é a categoria (eixo x; numérica ou texto) e as demais são as séries.
+ * O gráfico ocupa um bloco de altura fixa no fluxo do documento, e o desenho é feito pelo renderer
+ * do bloco, já com a área final conhecida. Séries com mais pontos do que a largura do gráfico
+ * comporta são reduzidas antes do desenho (LTTB nas linhas, mín/máx por intervalo nas barras),
+ * de modo que o tempo de desenho e o tamanho do PDF não crescem com o número de pontos.
+ */
 @Component("chart")
 public class ChartSectionRenderer implements SectionTypeRenderer {
 
+    public static final String LINE = "line";
+    public static final String BAR = "bar";
+    public static final String PIE = "pie";
+
+    private static final float DEFAULT_HEIGHT = 200f;
+    private static final float FONT_SIZE = 6f;
+    private static final float LEGEND_HEIGHT = 12f;
+    private static final float X_LABELS_HEIGHT = 10f;
+    private static final int MAX_PIE_SLICES = 12;
+    private static final Color AXIS_COLOR = new DeviceRgb(120, 120, 120);
+    private static final Color GRID_COLOR = new DeviceRgb(225, 225, 225);
+    private static final Color TEXT_COLOR = new DeviceRgb(60, 60, 60);
+    private static final Color[] PALETTE = {
+            new DeviceRgb(8, 130, 65), new DeviceRgb(31, 119, 180), new DeviceRgb(255, 127, 14),
+            new DeviceRgb(214, 39, 40), new DeviceRgb(148, 103, 189), new DeviceRgb(140, 86, 75),
+            new DeviceRgb(227, 119, 194), new DeviceRgb(127, 127, 127), new DeviceRgb(188, 189, 34),
+            new DeviceRgb(23, 190, 207), new DeviceRgb(174, 199, 232), new DeviceRgb(255, 187, 120)
+    };
+
+    private final float samplesPerPoint;
+
+    /**
+     * @param samplesPerPoint Pontos desenhados por ponto tipográfico de largura do gráfico
+     *                        (2 equivale a 144 pontos por polegada)
+     */
+    @Autowired
+    public ChartSectionRenderer(@Value("${print-service.charts.samples-per-point:2}") float samplesPerPoint) {
+        this.samplesPerPoint = Math.max(0.5f, samplesPerPoint);
+    }
+
     @Override
     public void renderSectionContent(Document document, Section section) throws IOException {
-        Paragraph chartPlaceholder = new Paragraph("[Representação gráfica seria exibida aqui]")
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(10)
-                .setMarginBottom(10);
-
-        document.add(chartPlaceholder);
-        document.add(new Paragraph("Nota: A geração de gráficos requer bibliotecas adicionais como JFreeChart").setFontSize(10));
+        document.add(createChart(section));
     }
 
     @Override
     public void renderSectionContent(Cell cell, Section section) throws IOException {
-        Paragraph chartPlaceholder = new Paragraph("[Representação gráfica seria exibida aqui]")
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(5)
-                .setMarginBottom(5);
+        cell.add(createChart(section));
+    }
+
+    private IBlockElement createChart(Section section) {
+        ChartData data = ChartData.of(section);
+        if (data == null) {
+            return new Paragraph("Dados do gráfico não fornecidos.").setFontSize(10);
+        }
+
+        float height = section.getChartHeight() != null && section.getChartHeight() > 0
+                ? section.getChartHeight() : DEFAULT_HEIGHT;
+        String type = section.getChartType() != null ? section.getChartType().toLowerCase() : BAR;
+
+        Div chart = new Div();
+        chart.setHeight(height).setMarginTop(5).setMarginBottom(5).setKeepTogether(true);
+        chart.setNextRenderer(new ChartRenderer(chart, data, type, samplesPerPoint));
+        return chart;
+    }
+
+    /**
+     * Valores do gráfico extraídos das linhas da seção.
+     */
+    private static class ChartData {
+        List<Map<String, Object>> rows;
+        String categoryId;
+        boolean numericX;
+        double[] x;
+        String[] seriesNames;
+        double[][] values;
+        Color[] colors;
+
+        static ChartData of(Section section) {
+            List<String> columnIds = section.getColumnIds();
+            if (section.getData() == null || section.getData().isEmpty() || columnIds.isEmpty()) {
+                return null;
+            }
+
+            ChartData data = new ChartData();
+            data.rows = section.getData();
+            int size = data.rows.size();
+
+            // Com uma única coluna, ela é a série e as categorias são as posições
+            List<String> seriesIds = columnIds.size() > 1 ? columnIds.subList(1, columnIds.size()) : columnIds;
+            data.categoryId = columnIds.size() > 1 ? columnIds.get(0) : null;
+
+            data.x = new double[size];
+            data.numericX = data.categoryId != null;
+            for (int i = 0; i < size; i++) {
+                double value = data.categoryId != null ? toDouble(value(data.rows.get(i), data.categoryId)) : Double.NaN;
+                if (Double.isNaN(value) || (i > 0 && value < data.x[i - 1])) {
+                    data.numericX = false;
+                }
+                data.x[i] = value;
+            }
+            if (!data.numericX) {
+                for (int i = 0; i < size; i++) {
+                    data.x[i] = i;
+                }
+            }
+
+            data.seriesNames = new String[seriesIds.size()];
+            data.values = new double[seriesIds.size()][size];
+            data.colors = new Color[seriesIds.size()];
+            for (int s = 0; s < seriesIds.size(); s++) {
+                String id = seriesIds.get(s);
+                data.seriesNames[s] = section.getColumnTitle(id);
+                for (int i = 0; i < size; i++) {
+                    data.values[s][i] = toDouble(value(data.rows.get(i), id));
+                }
+                Style style = section.getColumnStyles() != null ? section.getColumnStyles().get(id) : null;
+                Color color = style != null ? PdfStyleUtils.parseColor(style.getBackgroundColor()) : null;
+                data.colors[s] = color != null ? color : PALETTE[s % PALETTE.length];
+            }
+            return data;
+        }
+
+        String label(int index) {
+            Object value = categoryId != null ? value(rows.get(index), categoryId) : null;
+            return value != null ? value.toString() : String.valueOf(index + 1);
+        }
+
+        private static Object value(Map<String, Object> row, String id) {
+            return row != null ? row.get(id) : null;
+        }
+
+        private static double toDouble(Object value) {
+            if (value instanceof Number number) {
+                return number.doubleValue();
+            }
+            if (value instanceof String text && !text.isBlank()) {
+                try {
+                    return Double.parseDouble(text.trim());
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Renderer do bloco do gráfico: desenha o gráfico na área ocupada pelo bloco.
+     */
+    private static class ChartRenderer extends DivRenderer {
+
+        private final ChartData data;
+        private final String type;
+        private final float samplesPerPoint;
+
+        ChartRenderer(Div modelElement, ChartData data, String type, float samplesPerPoint) {
+            super(modelElement);
+            this.data = data;
+            this.type = type;
+            this.samplesPerPoint = samplesPerPoint;
+        }
+
+        @Override
+        public IRenderer getNextRenderer() {
+            return new ChartRenderer((Div) modelElement, data, type, samplesPerPoint);
+        }
+
+        @Override
+        public void draw(DrawContext drawContext) {
+            super.draw(drawContext);
+            PdfCanvas canvas = drawContext.getCanvas();
+            canvas.saveState();
+            try {
+                new ChartPainter(canvas, getInnerAreaBBox(), data, samplesPerPoint).paint(type);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao desenhar o gráfico", e);
+            } finally {
+                canvas.restoreState();
+            }
+        }
+    }
+
+    /**
+     * Desenho de um gráfico em uma área do canvas.
+     */
+    private static class ChartPainter {
+
+        private final PdfCanvas canvas;
+        private final Rectangle area;
+        private final ChartData data;
+        private final float samplesPerPoint;
+        private final PdfFont font;
+        private final DecimalFormat numberFormat = new DecimalFormat("#,##0.##", new DecimalFormatSymbols(Locale.of("pt", "BR")));
+
+        ChartPainter(PdfCanvas canvas, Rectangle area, ChartData data, float samplesPerPoint) throws IOException {
+            this.canvas = canvas;
+            this.area = area;
+            this.data = data;
+            this.samplesPerPoint = samplesPerPoint;
+            this.font = PdfStyleUtils.determineFont(false, false);
+        }
+
+        void paint(String type) {
+            if (PIE.equals(type)) {
+                paintPie();
+                return;
+            }
+
+            drawLegend(data.seriesNames, data.colors, area.getLeft(), area.getTop() - FONT_SIZE);
+
+            // Faixa do eixo y, com o zero sempre visível nas barras
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (double[] series : data.values) {
+                for (double value : series) {
+                    if (!Double.isNaN(value)) {
+                        min = Math.min(min, value);
+                        max = Math.max(max, value);
+                    }
+                }
+            }
+            if (min > max) {
+                return;
+            }
+            if (!LINE.equals(type)) {
+                min = Math.min(0, min);
+                max = Math.max(0, max);
+            }
+            double[] ticks = ticks(min, max);
+            min = Math.min(min, ticks[0]);
+            max = Math.max(max, ticks[ticks.length - 1]);
+            if (max == min) {
+                max = min + 1;
+            }
+
+            float labelWidth = 0;
+            for (double tick : ticks) {
+                labelWidth = Math.max(labelWidth, HelveticaMetrics.getWidth(numberFormat.format(tick), false, FONT_SIZE));
+            }
+            Rectangle plot = new Rectangle(area.getLeft() + labelWidth + 4, area.getBottom() + X_LABELS_HEIGHT,
+                    area.getWidth() - labelWidth - 4, area.getHeight() - X_LABELS_HEIGHT - LEGEND_HEIGHT);
+            if (plot.getWidth() <= 0 || plot.getHeight() <= 0) {
+                return;
+            }
+
+            drawYAxis(plot, ticks, min, max);
+            if (LINE.equals(type)) {
+                paintLines(plot, min, max);
+            } else {
+                paintBars(plot, min, max);
+            }
+            drawXLabels(plot);
+
+            float axisY = y(plot, min <= 0 && max >= 0 ? 0 : min, min, max);
+            canvas.setStrokeColor(AXIS_COLOR).setLineWidth(0.5f)
+                    .moveTo(plot.getLeft(), plot.getBottom()).lineTo(plot.getLeft(), plot.getTop())
+                    .moveTo(plot.getLeft(), axisY).lineTo(plot.getRight(), axisY)
+                    .stroke();
+        }
+
+        private void paintLines(Rectangle plot, double min, double max) {
+            double xMin = data.x[0];
+            double xMax = data.x[data.x.length - 1];
+            double xRange = xMax > xMin ? xMax - xMin : 1;
+            int threshold = Math.max(3, Math.round(plot.getWidth() * samplesPerPoint));
+
+            canvas.setLineWidth(1f).setLineJoinStyle(PdfCanvasConstants.LineJoinStyle.ROUND);
+            for (int s = 0; s < data.values.length; s++) {
+                int[] points = SeriesDecimation.lttb(data.x, data.values[s], threshold);
+                if (points.length == 0) {
+                    continue;
+                }
+                canvas.setStrokeColor(data.colors[s]);
+                for (int i = 0; i < points.length; i++) {
+                    int index = points[i];
+                    float px = (float) (plot.getLeft() + (data.x[index] - xMin) / xRange * plot.getWidth());
+                    float py = y(plot, data.values[s][index], min, max);
+                    if (i == 0) {
+                        canvas.moveTo(px, py);
+                    } else {
+                        canvas.lineTo(px, py);
+                    }
+                }
+                canvas.stroke();
+            }
+        }
+
+        private void paintBars(Rectangle plot, double min, double max) {
+            int categories = data.x.length;
+            int seriesCount = data.values.length;
+            int buckets = Math.max(1, Math.round(plot.getWidth() * samplesPerPoint / seriesCount));
+            float zero = y(plot, 0, min, max);
+
+            if (categories <= buckets) {
+                // Barras agrupadas por categoria
+                float groupWidth = plot.getWidth() / categories;
+                float barWidth = groupWidth * 0.8f / seriesCount;
+                for (int s = 0; s < seriesCount; s++) {
+                    canvas.setFillColor(data.colors[s]);
+                    for (int i = 0; i < categories; i++) {
+                        double value = data.values[s][i];
+                        if (Double.isNaN(value)) {
+                            continue;
+                        }
+                        float left = plot.getLeft() + i * groupWidth + groupWidth * 0.1f + s * barWidth;
+                        float top = y(plot, value, min, max);
+                        canvas.rectangle(left, Math.min(zero, top), barWidth, Math.abs(top - zero));
+                    }
+                    canvas.fill();
+                }
+                return;
+            }
+
+            // Mais categorias do que a resolução comporta: cada barra cobre um intervalo, do mínimo ao máximo
+            float bucketWidth = plot.getWidth() / buckets;
+            for (int s = 0; s < seriesCount; s++) {
+                double[][] minMax = SeriesDecimation.minMax(data.values[s], buckets);
+                float barWidth = bucketWidth / seriesCount;
+                canvas.setFillColor(data.colors[s]);
+                for (int b = 0; b < minMax[0].length; b++) {
+                    if (Double.isNaN(minMax[0][b])) {
+                        continue;
+                    }
+                    float low = y(plot, Math.min(0, minMax[0][b]), min, max);
+                    float high = y(plot, Math.max(0, minMax[1][b]), min, max);
+                    canvas.rectangle(plot.getLeft() + b * bucketWidth + s * barWidth, low, barWidth, high - low);
+                }
+                canvas.fill();
+            }
+        }
+
+        private void paintPie() {
+            double[] values = data.values[0];
+            Integer[] order = new Integer[values.length];
+            double total = 0;
+            for (int i = 0; i < values.length; i++) {
+                order[i] = i;
+                if (values[i] > 0) {
+                    total += values[i];
+                }
+            }
+            if (total <= 0) {
+                return;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(positive(values[b]), positive(values[a])));
+
+            // Fatias pequenas além do limite são somadas em "Outros"
+            int slices = Math.min(values.length, MAX_PIE_SLICES);
+            double[] sliceValues = new double[slices];
+            String[] sliceLabels = new String[slices];
+            Color[] sliceColors = new Color[slices];
+            for (int i = 0; i < slices; i++) {
+                boolean others = i == slices - 1 && values.length > MAX_PIE_SLICES;
+                sliceValues[i] = others ? 0 : positive(values[order[i]]);
+                sliceLabels[i] = others ? "Outros" : data.label(order[i]);
+                sliceColors[i] = PALETTE[i % PALETTE.length];
+            }
+            if (values.length > MAX_PIE_SLICES) {
+                for (int i = slices - 1; i < values.length; i++) {
+                    sliceValues[slices - 1] += positive(values[order[i]]);
+                }
+            }
+
+            float legendWidth = area.getWidth() * 0.35f;
+            float size = Math.min(area.getWidth() - legendWidth, area.getHeight()) - 4;
+            if (size <= 0) {
+                return;
+            }
+            float cx = area.getLeft() + (area.getWidth() - legendWidth) / 2;
+            float cy = area.getBottom() + area.getHeight() / 2;
+            float radius = size / 2;
+
+            double start = 90;
+            for (int i = 0; i < slices; i++) {
+                double extent = -360 * sliceValues[i] / total;
+                if (extent == 0) {
+                    continue;
+                }
+                List<double[]> curves = PdfCanvas.bezierArc(cx - radius, cy - radius, cx + radius, cy + radius, start, extent);
+                canvas.setFillColor(sliceColors[i]).moveTo(cx, cy).lineTo(curves.get(0)[0], curves.get(0)[1]);
+                for (double[] curve : curves) {
+                    canvas.curveTo(curve[2], curve[3], curve[4], curve[5], curve[6], curve[7]);
+                }
+                canvas.closePath().fill();
+                start += extent;
+            }
+
+            String[] legend = new String[slices];
+            for (int i = 0; i < slices; i++) {
+                legend[i] = sliceLabels[i] + " (" + numberFormat.format(100 * sliceValues[i] / total) + "%)";
+            }
+            float legendLeft = area.getRight() - legendWidth + 4;
+            float lineHeight = FONT_SIZE + 3;
+            float top = cy + slices * lineHeight / 2;
+            for (int i = 0; i < slices; i++) {
+                drawLegendEntry(legend[i], sliceColors[i], legendLeft, top - i * lineHeight, legendWidth - 4);
+            }
+        }
+
+        private void drawYAxis(Rectangle plot, double[] ticks, double min, double max) {
+            canvas.setStrokeColor(GRID_COLOR).setLineWidth(0.25f);
+            for (double tick : ticks) {
+                float py = y(plot, tick, min, max);
+                canvas.moveTo(plot.getLeft(), py).lineTo(plot.getRight(), py);
+            }
+            canvas.stroke();
+
+            canvas.setFillColor(TEXT_COLOR).beginText().setFontAndSize(font, FONT_SIZE);
+            for (double tick : ticks) {
+                String label = numberFormat.format(tick);
+                float width = HelveticaMetrics.getWidth(label, false, FONT_SIZE);
+                canvas.setTextMatrix(plot.getLeft() - width - 3, y(plot, tick, min, max) - FONT_SIZE / 3);
+                canvas.showText(label);
+            }
+            canvas.endText();
+        }
+
+        /**
+         * Rótulos do eixo x: marcas numéricas ou categorias espaçadas para não se sobreporem.
+         */
+        private void drawXLabels(Rectangle plot) {
+            int count = data.x.length;
+            int maxLabels = Math.max(1, (int) (plot.getWidth() / 40));
+            float labelY = plot.getBottom() - FONT_SIZE - 2;
+            canvas.setFillColor(TEXT_COLOR).beginText().setFontAndSize(font, FONT_SIZE);
+
+            if (data.numericX) {
+                double xMin = data.x[0];
+                double xMax = data.x[count - 1];
+                for (double tick : ticks(xMin, xMax)) {
+                    if (tick < xMin || tick > xMax) {
+                        continue;
+                    }
+                    float px = (float) (plot.getLeft() + (xMax > xMin ? (tick - xMin) / (xMax - xMin) : 0) * plot.getWidth());
+                    String label = numberFormat.format(tick);
+                    canvas.setTextMatrix(px - HelveticaMetrics.getWidth(label, false, FONT_SIZE) / 2, labelY);
+                    canvas.showText(label);
+                }
+            } else {
+                int step = (int) Math.ceil((double) count / maxLabels);
+                float slot = plot.getWidth() / count;
+                for (int i = 0; i < count; i += step) {
+                    String label = HelveticaMetrics.truncate(data.label(i), false, FONT_SIZE, Math.max(slot * step - 2, 1));
+                    if (label.isEmpty()) {
+                        continue;
+                    }
+                    float center = plot.getLeft() + (i + 0.5f) * slot;
+                    canvas.setTextMatrix(center - HelveticaMetrics.getWidth(label, false, FONT_SIZE) / 2, labelY);
+                    canvas.showText(label);
+                }
+            }
+            canvas.endText();
+        }
+
+        private void drawLegend(String[] names, Color[] colors, float left, float baseline) {
+            float x = left;
+            for (int i = 0; i < names.length && x < area.getRight(); i++) {
+                float available = area.getRight() - x;
+                x += drawLegendEntry(names[i], colors[i], x, baseline, available) + 8;
+            }
+        }
+
+        /**
+         * Desenha um quadrado da cor da série seguido do nome.
+         *
+         * @return Largura ocupada
+         */
+        private float drawLegendEntry(String name, Color color, float left, float baseline, float available) {
+            String label = HelveticaMetrics.truncate(name != null ? name : "", false, FONT_SIZE, Math.max(available - FONT_SIZE - 2, 1));
+            canvas.setFillColor(color).rectangle(left, baseline - 0.5f, FONT_SIZE, FONT_SIZE).fill();
+            canvas.setFillColor(TEXT_COLOR).beginText().setFontAndSize(font, FONT_SIZE)
+                    .moveText(left + FONT_SIZE + 2, baseline).showText(label).endText();
+            return FONT_SIZE + 2 + HelveticaMetrics.getWidth(label, false, FONT_SIZE);
+        }
+
+        private static float y(Rectangle plot, double value, double min, double max) {
+            return (float) (plot.getBottom() + (value - min) / (max - min) * plot.getHeight());
+        }
+
+        private static double positive(double value) {
+            return Double.isNaN(value) || value < 0 ? 0 : value;
+        }
 
-        cell.add(chartPlaceholder);
-        cell.add(new Paragraph("Nota: A geração de gráficos requer bibliotecas adicionais.").setFontSize(8));
+        /**
+         * Marcas "redondas" (1, 2 ou 5 x 10^n) que cobrem o intervalo, em torno de 5 divisões.
+         */
+        private static double[] ticks(double min, double max) {
+            double range = max - min;
+            if (range <= 0) {
+                return new double[]{min};
+            }
+            double rough = range / 5;
+            double magnitude = Math.pow(10, Math.floor(Math.log10(rough)));
+            double normalized = rough / magnitude;
+            double step = (normalized < 1.5 ? 1 : normalized < 3 ? 2 : normalized < 7 ? 5 : 10) * magnitude;
+            double first = Math.floor(min / step) * step;
+            double last = Math.ceil(max / step) * step;
+            int count = (int) Math.round((last - first) / step) + 1;
+            double[] ticks = new double[count];
+            for (int i = 0; i < count; i++) {
+                ticks[i] = first + i * step;
+            }
+            return ticks;
+        }
     }
-}
\ No newline at end of file
+}
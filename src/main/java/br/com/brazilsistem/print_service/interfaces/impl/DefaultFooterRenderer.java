@@ -4,9 +4,15 @@ import br.com.brazilsistem.print_service.interfaces.FooterRenderer;
 import br.com.brazilsistem.print_service.util.PdfStyleUtils;
 import com.itextpdf.io.image.ImageData;
 import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfPage;
 import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.event.AbstractPdfDocumentEvent;
+import com.itextpdf.kernel.pdf.event.AbstractPdfDocumentEventHandler;
+import com.itextpdf.kernel.pdf.event.PdfDocumentEvent;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
@@ -21,7 +27,9 @@ import org.springframework.stereotype.Component;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.IntFunction;
 
 @Component
 public class DefaultFooterRenderer implements FooterRenderer {
@@ -36,15 +44,31 @@ public class DefaultFooterRenderer implements FooterRenderer {
     // Tamanho do logo no rodapé
     private static final float LOGO_HEIGHT = 14f;
 
+    // Posições do rodapé de página: linha de base do texto e margens esquerda (número da página)
+    // e direita (data/hora)
+    private static final float FOOTER_Y = 15f;
+    private static final float FOOTER_LEFT_MARGIN = 30f;
+    private static final float FOOTER_RIGHT_MARGIN = 30f;
+    private static final float FOOTER_BAND_HEIGHT = FOOTER_Y + LOGO_HEIGHT;
+    private static final float FOOTER_FONT_SIZE = 6f;
+
+    @Override
+    public void startPageFooter(Document document) throws IOException {
+        addPageNumbersFooter(document, "Página %d de ", String::valueOf);
+    }
+
+    @Override
+    public void startPreviewPageFooter(Document document, int estimatedTotalPages) throws IOException {
+        // O total de páginas é o do relatório completo, não o da pré-visualização
+        addPageNumbersFooter(document, "Pré-visualização - Página %d de ",
+                total -> "~" + Math.max(total, estimatedTotalPages));
+    }
+
     @Override
     public void renderFooter(Document document, Map<String, String> footerData) throws IOException {
-        // Primeiro adiciona o rodapé de dados (se houver)
         if (footerData != null && !footerData.isEmpty()) {
             renderDataFooter(document, footerData);
         }
-
-        // Adiciona os rodapés de página para todas as páginas
-        addPageNumbersFooter(document);
     }
 
     /**
@@ -79,114 +103,169 @@ public class DefaultFooterRenderer implements FooterRenderer {
     }
 
     /**
-     * Adiciona números de página e rodapés para todas as páginas
+     * Registra o desenho do número da página e da faixa fixa do rodapé em cada página, quando ela é
+     * concluída. O total de páginas só é conhecido no fim do documento: o texto do número termina em
+     * um Form XObject comum a todas as páginas, preenchido quando a última página é concluída.
+     *
+     * @param pageLabel Formato do texto do número da página, antes do total (recebe a página atual)
+     * @param totalLabel Texto do total, a partir do total de páginas do documento
      */
-    private void addPageNumbersFooter(Document document) {
-        try {
-            // Tenta carregar a imagem do logo
-            byte[] logoBytes = loadLogoImage();
-
-            // Obtém o documento PDF
-            PdfDocument pdfDoc = document.getPdfDocument();
-            int numberOfPages = pdfDoc.getNumberOfPages();
+    private void addPageNumbersFooter(Document document, String pageLabel, IntFunction<String> totalLabel)
+            throws IOException {
+        PdfDocument pdfDoc = document.getPdfDocument();
+        pdfDoc.addEventHandler(PdfDocumentEvent.END_PAGE, new PageFooterHandler(pdfDoc, pageLabel, totalLabel,
+                PdfStyleUtils.determineFont(true, false), loadLogoImage()));
+    }
 
-            // Data e hora formatada
-            String dateTime = LocalDateTime.now().format(
-                    DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
+    /**
+     * Desenha o rodapé de cada página concluída: número da página à esquerda e, reaproveitando um
+     * Form XObject por largura de página, data/hora, sistema e logo.
+     */
+    private class PageFooterHandler extends AbstractPdfDocumentEventHandler {
+
+        private final PdfDocument pdfDoc;
+        private final String pageLabel;
+        private final IntFunction<String> totalLabel;
+        private final PdfFont font;
+        private final byte[] logoBytes;
+        private final String dateTime;
+        private final PdfFormXObject total;
+
+        // Logo, nome do sistema e data/hora são iguais em todas as páginas de mesma largura:
+        // desenhados uma vez em um Form XObject por largura e reutilizados
+        private final Map<Float, PdfFormXObject> staticBands = new HashMap<>();
+
+        PageFooterHandler(PdfDocument pdfDoc, String pageLabel, IntFunction<String> totalLabel,
+                          PdfFont font, byte[] logoBytes) {
+            this.pdfDoc = pdfDoc;
+            this.pageLabel = pageLabel;
+            this.totalLabel = totalLabel;
+            this.font = font;
+            this.logoBytes = logoBytes;
+            this.dateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss"));
+            // Espaço para o maior total exibido; o texto tem a linha de base em y = 0
+            float width = font.getWidth("~99999", FOOTER_FONT_SIZE);
+            this.total = new PdfFormXObject(new Rectangle(0, -FOOTER_FONT_SIZE / 2, width, FOOTER_FONT_SIZE * 1.5f));
+        }
 
-            // Para cada página do documento
-            for (int i = 1; i <= numberOfPages; i++) {
-                PdfPage page = pdfDoc.getPage(i);
+        @Override
+        protected void onAcceptedEvent(AbstractPdfDocumentEvent event) {
+            try {
+                PdfPage page = ((PdfDocumentEvent) event).getPage();
+                int pageNumber = pdfDoc.getPageNumber(page);
                 float pageWidth = page.getPageSize().getWidth();
 
                 // Cria um canvas para desenhar na página
                 PdfCanvas canvas = new PdfCanvas(page);
 
-                // Configurações de posição para o rodapé
-                float y = 15; // Posição vertical mais próxima da borda inferior
-                float leftMargin = 30; // Margem esquerda para o número da página
-                float rightMargin = 30; // Margem direita para a data/hora
-
-                // 1. Número da página (à esquerda)
-                String pageText = String.format("Página %d de %d", i, numberOfPages);
+                // 1. Número da página (à esquerda), seguido do total
+                String pageText = String.format(pageLabel, pageNumber);
                 canvas.beginText()
-                        .setFontAndSize(PdfStyleUtils.determineFont(true, false), 6)
-                        .moveText(leftMargin, y)
+                        .setFontAndSize(font, FOOTER_FONT_SIZE)
+                        .moveText(FOOTER_LEFT_MARGIN, FOOTER_Y)
                         .showText(pageText)
                         .endText();
+                canvas.addXObjectAt(total, FOOTER_LEFT_MARGIN + font.getWidth(pageText, FOOTER_FONT_SIZE), FOOTER_Y);
 
-                // 2. Data e hora (à direita)
-                String dateTimeText = dateTime;
-                float dateTimeWidth = PdfStyleUtils.determineFont(true, false).getWidth(dateTimeText, 6);
-                float dateTimeX = pageWidth - rightMargin - dateTimeWidth;
-                canvas.beginText()
-                        .setFontAndSize(PdfStyleUtils.determineFont(true, false), 6)
-                        .moveText(dateTimeX, y)
-                        .showText(dateTimeText)
-                        .endText();
+                // 2 e 3. Data/hora e nome do sistema com logo
+                PdfFormXObject band = staticBands.get(pageWidth);
+                if (band == null) {
+                    band = createStaticBand(pdfDoc, pageWidth, dateTime, logoBytes, font);
+                    staticBands.put(pageWidth, band);
+                }
+                canvas.addXObjectAt(band, 0, 0);
 
-                // 3. Nome do sistema (centralizado)
-                float systemNameWidth = PdfStyleUtils.determineFont(true, false).getWidth(SYSTEM_NAME, 6);
-
-                // Tentamos carregar a imagem do logo
-                float logoWidth = 0;
-                float iconMargin = 5; // Espaço entre logotipo e texto
-
-                if (logoBytes != null) {
-                    try {
-                        // Criar a imagem com os bytes
-                        ImageData imageData = ImageDataFactory.create(logoBytes);
-
-                        // Calcular tamanho proporcional
-                        float aspectRatio = imageData.getWidth() / imageData.getHeight();
-                        logoWidth = LOGO_HEIGHT * aspectRatio;
-
-                        // Calcular posição para o texto e logo
-                        float totalWidth = systemNameWidth + logoWidth + iconMargin;
-                        float centerX = (pageWidth - totalWidth) / 2;
-                        float textX = centerX + logoWidth + iconMargin;
-
-                        // Ajustar posição y do logo para alinhar com o texto
-                        float logoY = y - 4; // ajuste fino para alinhar com o texto
-
-                        // Versão simplificada para gerar um XObject com a imagem
-                        canvas.addImageFittedIntoRectangle(imageData,
-                                new com.itextpdf.kernel.geom.Rectangle(
-                                        centerX, logoY, logoWidth, LOGO_HEIGHT),
-                                false);
-
-                        // Desenhar o texto do sistema
-                        canvas.beginText()
-                                .setFontAndSize(PdfStyleUtils.determineFont(true, false), 6)
-                                .moveText(textX, y)
-                                .showText(SYSTEM_NAME)
-                                .endText();
-                    } catch (Exception ex) {
-                        // Se falhar, tenta a abordagem simples com texto centralizado
-                        System.err.println("Erro ao adicionar logo: " + ex.getMessage());
-                        drawCenteredSystemName(canvas, pageWidth, y);
-                    }
-                } else {
-                    // Sem logo, apenas texto centralizado
-                    drawCenteredSystemName(canvas, pageWidth, y);
+                // As páginas anteriores são concluídas assim que a seguinte começa: a última só no fechamento
+                if (pageNumber == pdfDoc.getNumberOfPages()) {
+                    writeTotal(pdfDoc.getNumberOfPages());
                 }
+            } catch (Exception e) {
+                // Registra o erro sem interromper o processamento
+                System.err.println("Erro ao adicionar rodapés de página: " + e.getMessage());
+                e.printStackTrace();
             }
-        } catch (Exception e) {
-            // Registra o erro sem interromper o processamento
-            System.err.println("Erro ao adicionar rodapés de página: " + e.getMessage());
-            e.printStackTrace();
         }
+
+        private void writeTotal(int numberOfPages) {
+            total.getPdfObject().setData(new byte[0]);
+            new PdfCanvas(total, pdfDoc).beginText()
+                    .setFontAndSize(font, FOOTER_FONT_SIZE)
+                    .moveText(0, 0)
+                    .showText(totalLabel.apply(numberOfPages))
+                    .endText();
+        }
+    }
+
+    /**
+     * Desenha a parte do rodapé que não muda entre as páginas: data/hora à direita e o nome
+     * do sistema com o logo, centralizados. A imagem do logo é incluída uma única vez no documento.
+     */
+    private PdfFormXObject createStaticBand(PdfDocument pdfDoc, float pageWidth, String dateTime,
+                                            byte[] logoBytes, PdfFont font) throws IOException {
+        PdfFormXObject band = new PdfFormXObject(new Rectangle(0, 0, pageWidth, FOOTER_BAND_HEIGHT));
+        PdfCanvas canvas = new PdfCanvas(band, pdfDoc);
+        float y = FOOTER_Y;
+
+        // Data e hora (à direita)
+        float dateTimeWidth = font.getWidth(dateTime, FOOTER_FONT_SIZE);
+        float dateTimeX = pageWidth - FOOTER_RIGHT_MARGIN - dateTimeWidth;
+        canvas.beginText()
+                .setFontAndSize(font, FOOTER_FONT_SIZE)
+                .moveText(dateTimeX, y)
+                .showText(dateTime)
+                .endText();
+
+        // Nome do sistema (centralizado)
+        float systemNameWidth = font.getWidth(SYSTEM_NAME, FOOTER_FONT_SIZE);
+        float iconMargin = 5; // Espaço entre logotipo e texto
+
+        if (logoBytes != null) {
+            try {
+                // Criar a imagem com os bytes
+                ImageData imageData = ImageDataFactory.create(logoBytes);
+
+                // Calcular tamanho proporcional
+                float aspectRatio = imageData.getWidth() / imageData.getHeight();
+                float logoWidth = LOGO_HEIGHT * aspectRatio;
+
+                // Calcular posição para o texto e logo
+                float totalWidth = systemNameWidth + logoWidth + iconMargin;
+                float centerX = (pageWidth - totalWidth) / 2;
+                float textX = centerX + logoWidth + iconMargin;
+
+                // Ajustar posição y do logo para alinhar com o texto
+                float logoY = y - 4; // ajuste fino para alinhar com o texto
+
+                canvas.addImageFittedIntoRectangle(imageData,
+                        new Rectangle(centerX, logoY, logoWidth, LOGO_HEIGHT), false);
+
+                // Desenhar o texto do sistema
+                canvas.beginText()
+                        .setFontAndSize(font, FOOTER_FONT_SIZE)
+                        .moveText(textX, y)
+                        .showText(SYSTEM_NAME)
+                        .endText();
+            } catch (Exception ex) {
+                // Se falhar, tenta a abordagem simples com texto centralizado
+                System.err.println("Erro ao adicionar logo: " + ex.getMessage());
+                drawCenteredSystemName(canvas, pageWidth, y);
+            }
+        } else {
+            // Sem logo, apenas texto centralizado
+            drawCenteredSystemName(canvas, pageWidth, y);
+        }
+        return band;
     }
 
     /**
      * Desenha o nome do sistema centralizado quando não há logo
      */
     private void drawCenteredSystemName(PdfCanvas canvas, float pageWidth, float y) throws IOException {
-        float systemNameWidth = PdfStyleUtils.determineFont(false, false).getWidth(SYSTEM_NAME, 6);
+        float systemNameWidth = PdfStyleUtils.determineFont(false, false).getWidth(SYSTEM_NAME, FOOTER_FONT_SIZE);
         float centerX = (pageWidth - systemNameWidth) / 2;
 
         canvas.beginText()
-                .setFontAndSize(PdfStyleUtils.determineFont(false, false), 6)
+                .setFontAndSize(PdfStyleUtils.determineFont(false, false), FOOTER_FONT_SIZE)
                 .moveText(centerX, y)
                 .showText(SYSTEM_NAME)
                 .endText();
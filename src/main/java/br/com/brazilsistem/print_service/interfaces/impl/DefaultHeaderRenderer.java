@@ -1,5 +1,6 @@
 package br.com.brazilsistem.print_service.interfaces.impl;
 
+import br.com.brazilsistem.print_service.font.FontRegistry;
 import br.com.brazilsistem.print_service.interfaces.HeaderRenderer;
 import br.com.brazilsistem.print_service.model.HeaderConfig;
 import br.com.brazilsistem.print_service.model.ReportData;
@@ -8,45 +9,149 @@ import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
-import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.itextpdf.layout.element.Text;
 import com.itextpdf.layout.properties.TextAlignment;
+import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.properties.UnitValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-
+import java.util.*;
+
+/**
+ * Renderizador do cabeçalho padrão: faixa de título e tabela de etiquetas (chave e valor).
+ * <p>
+ * A faixa de título depende apenas do título e da largura da página, que se repetem entre os
+ * documentos de um mesmo tipo de relatório. Com o cache ativo, ela é diagramada uma única vez em um
+ * PDF de uma página do tamanho da faixa, e os documentos seguintes apenas copiam essa página como um
+ * Form XObject. A tabela de etiquetas traz os valores de cada documento (número, data, cliente) e é
+ * sempre diagramada no próprio documento.
+ */
 @Component
 public class DefaultHeaderRenderer implements HeaderRenderer {
 
     public static final DeviceRgb GREEN_CUSTOM = new DeviceRgb(8, 130, 65);
 
+    // Altura da página usada para diagramar a faixa; títulos maiores são renderizados sem cache
+    private static final float BAND_MAX_HEIGHT = 2000f;
+    private static final byte[] NOT_CACHEABLE = new byte[0];
+
+    private final FontRegistry fontRegistry;
+    private final boolean cacheEnabled;
+    private final Map<BandKey, byte[]> bands;
+
+    /**
+     * Entradas que determinam o conteúdo da faixa de título.
+     */
+    private record BandKey(String title, float width) {
+    }
+
+    @Autowired
+    public DefaultHeaderRenderer(
+            FontRegistry fontRegistry,
+            @Value("${print-service.header-cache.enabled:true}") boolean cacheEnabled,
+            @Value("${print-service.header-cache.max-entries:256}") int maxEntries) {
+        this.fontRegistry = fontRegistry;
+        this.cacheEnabled = cacheEnabled;
+        this.bands = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BandKey, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
     @Override
     public void renderHeader(Document document, ReportData reportData) throws IOException {
+        renderTitle(document, reportData.getTitle());
+
+        // Processa o cabeçalho usando a configuração flexível
+        if (reportData.getHeaderConfig() != null) {
+            addLabelStyleHeader(document, reportData.getHeaderConfig());
+        }
+    }
+
+    /**
+     * Adiciona a faixa de título, copiada do cache quando ativo.
+     */
+    private void renderTitle(Document document, String title) throws IOException {
+        if (!cacheEnabled) {
+            document.add(createTitle(title));
+            return;
+        }
+
+        PdfDocument pdfDoc = document.getPdfDocument();
+        float width = pdfDoc.getDefaultPageSize().getWidth() - document.getLeftMargin() - document.getRightMargin();
+        BandKey key = new BandKey(title, width);
+        byte[] band = bands.get(key);
+        if (band == null) {
+            band = layoutBand(title, width);
+            bands.put(key, band);
+        }
+
+        if (band == NOT_CACHEABLE) {
+            document.add(createTitle(title));
+            return;
+        }
+
+        try (PdfDocument bandDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(band)))) {
+            PdfFormXObject form = bandDoc.getFirstPage().copyAsFormXObject(pdfDoc);
+            document.add(new Image(form).setMargins(0, 0, 0, 0));
+        }
+    }
+
+    /**
+     * Diagrama a faixa de título em um PDF de uma página com a altura exata do conteúdo.
+     *
+     * @return PDF da faixa, ou {@link #NOT_CACHEABLE} se ela não couber em uma página
+     */
+    private byte[] layoutBand(String title, float width) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PdfDocument bandDoc = new PdfDocument(new PdfWriter(out))) {
+            Document bandDocument = new Document(bandDoc, new PageSize(width, BAND_MAX_HEIGHT), false);
+            bandDocument.setMargins(0, 0, 0, 0);
+            fontRegistry.apply(bandDocument);
+            bandDocument.add(createTitle(title));
+
+            LayoutArea area = bandDocument.getRenderer().getCurrentArea();
+            if (bandDoc.getNumberOfPages() != 1 || area == null || area.getPageNumber() != 1) {
+                return NOT_CACHEABLE;
+            }
+            float height = BAND_MAX_HEIGHT - area.getBBox().getTop();
+            bandDoc.getFirstPage().setMediaBox(new Rectangle(0, BAND_MAX_HEIGHT - height, width, height));
+            bandDocument.close();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Cria o parágrafo do título do relatório.
+     */
+    private Paragraph createTitle(String title) throws IOException {
         PdfFont boldFont = PdfStyleUtils.getFontBold();
 
-        // Adiciona o título do relatório
-        Paragraph title = new Paragraph(reportData.getTitle())
+        return new Paragraph(title)
                 .setFont(boldFont)
                 .setFontSize(22)
                 .setFontColor(PdfStyleUtils.COLOR_FONT_TITLE)
                 .setTextAlignment(TextAlignment.CENTER)
                 .setBackgroundColor(GREEN_CUSTOM);
-
-        document.add(title);
-
-        // Processa o cabeçalho usando a configuração flexível
-        if (reportData.getHeaderConfig() != null) {
-            addLabelStyleHeader(document, reportData.getHeaderConfig());
-        }
     }
 
     // Método para processar o cabeçalho com o estilo de etiqueta (chave e valor juntos)
@@ -0,0 +1,399 @@
+package br.com.brazilsistem.print_service.interfaces.impl;
+
+import br.com.brazilsistem.print_service.interfaces.SectionTypeRenderer;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.Style;
+import br.com.brazilsistem.print_service.util.ColorUtils;
+import br.com.brazilsistem.print_service.util.HelveticaMetrics;
+import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import br.com.brazilsistem.print_service.util.TableGrouping;
+import br.com.brazilsistem.print_service.util.TableStyleHelper;
+import com.itextpdf.kernel.colors.Color;
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
+import com.itextpdf.kernel.pdf.xobject.PdfFormXObject;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.properties.AreaBreakType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renderizador de tabelas simples ("fasttable") por desenho direto no canvas.
+ * <p>
+ * Em vez de montar uma {@code Table} do iText, pagina as linhas por conta própria e desenha fundos,
+ * bordas e textos diretamente com {@link PdfCanvas}, com o cabeçalho repetido em cada página.
+ * Cada célula ocupa uma única linha: textos maiores que a coluna são truncados com reticências,
+ * medidos pelas tabelas de largura de {@link HelveticaMetrics}.
+ * <p>
+ * Usa a mesma {@link Section} e os mesmos {@link Style}s de coluna do renderizador "table". Seções
+ * com seções aninhadas ou agrupamento ({@code groupBy}/{@code aggregates}), com colunas que
+ * ultrapassam 100% da largura (várias linhas de colunas), com famílias de fonte nos estilos ou
+ * renderizadas dentro de células são delegadas ao {@link TableSectionRenderer}.
+ * <p>
+ * A diferença de tempo e de alocação em relação ao "table" não foi medida; os benchmarks
+ * {@code CompressionProfileBenchmark} e {@code ParallelDeflateBenchmark} comparam os dois tipos.
+ */
+@Component("fasttable")
+public class FastTableSectionRenderer implements SectionTypeRenderer {
+
+    // Mesmos espaçamentos do TableSectionRenderer
+    private static final float HORIZONTAL_CELL_PADDING = 2f;
+    private static final float VERTICAL_CELL_PADDING = 1f;
+    private static final float TABLE_MARGIN_BOTTOM = 5f;
+    private static final float EMPTY_ROW_HEIGHT = 10f;
+    private static final float LEADING = 1.2f;
+
+    // Métricas verticais da Helvetica (em fração do tamanho da fonte)
+    private static final float ASCENT = 0.718f;
+    private static final float DESCENT = 0.207f;
+
+    private final TableSectionRenderer tableSectionRenderer;
+
+    @Autowired
+    public FastTableSectionRenderer(TableSectionRenderer tableSectionRenderer) {
+        this.tableSectionRenderer = tableSectionRenderer;
+    }
+
+    @Override
+    public void renderSectionContent(Document document, Section section) throws IOException {
+        if (!supportsDirectRendering(section)) {
+            tableSectionRenderer.renderSectionContent(document, section);
+            return;
+        }
+        new TableDrawer(document, section).draw();
+    }
+
+    @Override
+    public void renderSectionContent(Cell cell, Section section) throws IOException {
+        // Dentro de uma célula a posição só é conhecida após o layout do iText
+        tableSectionRenderer.renderSectionContent(cell, section);
+    }
+
+    /**
+     * Verifica se a seção é uma tabela simples: com dados, sem seções aninhadas nem agrupamento, com
+     * todas as colunas em uma única linha e sem famílias de fonte além da Helvetica.
+     */
+    private boolean supportsDirectRendering(Section section) {
+        List<String> columnIds = section.getColumnIds();
+        if (columnIds.isEmpty() || section.getData() == null || section.getData().isEmpty()) {
+            return false;
+        }
+        if (section.getNestedSections() != null && !section.getNestedSections().isEmpty()) {
+            return false;
+        }
+        // Cabeçalhos de grupo e subtotais são montados pelo TableSectionRenderer
+        if (TableGrouping.isGrouped(section)) {
+            return false;
+        }
+        if (section.getColumnStyles() != null) {
+            // As larguras dos textos são medidas com as métricas da Helvetica
+            for (Style style : section.getColumnStyles().values()) {
+                if (PdfStyleUtils.hasFontFamily(style)) {
+                    return false;
+                }
+            }
+        }
+        return TableStyleHelper.organizeColumnsInRows(columnIds, section.getColumnStyles()).size() == 1;
+    }
+
+    /**
+     * Estilo de uma coluna já resolvido para o desenho.
+     */
+    private static class Column {
+        String id;
+        String title;
+        Style style;
+        float x;
+        float width;
+        String alignment;
+        float fontSize;
+        boolean bold;
+        boolean italic;
+        Color fontColor;
+        Color backgroundColor;
+        boolean border;
+    }
+
+    /**
+     * Estado do desenho de uma seção: página atual, posição vertical e estado gráfico do canvas.
+     */
+    private static class TableDrawer {
+
+        private final Document document;
+        private final PdfDocument pdfDoc;
+        private final Section section;
+        private final Column[] columns;
+        private final PdfFont[] fonts = new PdfFont[4];
+        private final Color headerColor = ColorUtils.getHeaderColorForLevel(0);
+        private final Color alternateRowColor;
+        private final float rowHeight;
+        private final float headerHeight;
+
+        private PdfCanvas canvas;
+        private PdfFormXObject headerForm;
+        private float top;
+        private float bottom;
+        private float y;
+
+        // Estado atual do canvas, para evitar operadores repetidos
+        private PdfFont currentFont;
+        private float currentFontSize;
+        private Color currentFillColor;
+
+        TableDrawer(Document document, Section section) throws IOException {
+            this.document = document;
+            this.pdfDoc = document.getPdfDocument();
+            this.section = section;
+            this.alternateRowColor = Boolean.TRUE.equals(section.getUseAlternateRowColor())
+                    ? PdfStyleUtils.parseColor(section.getAlternateRowColor() != null ? section.getAlternateRowColor() : "#F5F5F5")
+                    : null;
+
+            List<String> columnIds = section.getColumnIds();
+            this.columns = new Column[columnIds.size()];
+            float maxFontSize = 0;
+            for (int i = 0; i < columns.length; i++) {
+                Column column = new Column();
+                column.id = columnIds.get(i);
+                column.title = section.getColumnTitle(column.id);
+                column.style = TableStyleHelper.getColumnStyle(section.getColumnStyles(), column.id);
+                Style style = column.style != null ? column.style : PdfStyleUtils.getDefaultColumnStyle();
+                column.alignment = style.getAlignment() != null ? style.getAlignment().toUpperCase() : PdfStyleUtils.DEFAULT_ALIGNMENT;
+                column.fontSize = style.getFontSize() != null ? style.getFontSize() : PdfStyleUtils.DEFAULT_FONT_SIZE;
+                column.bold = Boolean.TRUE.equals(style.getBold());
+                column.italic = Boolean.TRUE.equals(style.getItalic());
+                Color fontColor = PdfStyleUtils.parseColor(style.getFontColor());
+                column.fontColor = fontColor != null ? fontColor : ColorConstants.BLACK;
+                column.backgroundColor = PdfStyleUtils.parseColor(style.getBackgroundColor());
+                column.border = "SOLID".equalsIgnoreCase(style.getBorder());
+                columns[i] = column;
+                maxFontSize = Math.max(maxFontSize, column.fontSize);
+            }
+            this.rowHeight = maxFontSize * LEADING + 2 * VERTICAL_CELL_PADDING;
+            this.headerHeight = rowHeight;
+        }
+
+        void draw() throws IOException {
+            startPage(false);
+            float tableLeft = columns[0].x;
+
+            List<Map<String, Object>> data = section.getData();
+            for (int rowIndex = 0; rowIndex < data.size(); rowIndex++) {
+                Map<String, Object> rowData = data.get(rowIndex);
+                float height = rowData == null ? EMPTY_ROW_HEIGHT : rowHeight;
+                if (y - height < bottom) {
+                    finishPage();
+                    startPage(true);
+                    tableLeft = columns[0].x;
+                }
+
+                Color rowColor = alternateRowColor != null && rowIndex % 2 == 1 ? alternateRowColor : null;
+                if (rowData == null) {
+                    if (rowColor != null) {
+                        fillRect(tableLeft, y - height, tableWidth(), height, rowColor);
+                    }
+                } else {
+                    drawDataRow(rowData, rowColor);
+                }
+                y -= height;
+            }
+
+            finishPage();
+            reserveUsedSpace();
+        }
+
+        /**
+         * Posiciona o desenho na área atual do documento, ou na próxima página quando
+         * não houver espaço para o cabeçalho e uma linha, e desenha o cabeçalho.
+         */
+        private void startPage(boolean forceNewPage) throws IOException {
+            LayoutArea area = currentArea();
+            if (forceNewPage || area.getBBox().getHeight() < headerHeight + rowHeight) {
+                document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                area = currentArea();
+            }
+
+            Rectangle box = area.getBBox();
+            top = box.getTop();
+            bottom = box.getBottom();
+            y = top;
+            layoutColumns(box.getLeft(), box.getWidth());
+
+            canvas = new PdfCanvas(pdfDoc.getPage(area.getPageNumber()));
+            canvas.saveState();
+            currentFont = null;
+            currentFillColor = null;
+
+            drawHeader();
+        }
+
+        private void finishPage() {
+            canvas.restoreState();
+        }
+
+        /**
+         * Ocupa no fluxo do documento o espaço usado pela tabela na última página,
+         * para que os elementos seguintes sejam posicionados abaixo dela.
+         */
+        private void reserveUsedSpace() {
+            LayoutArea area = currentArea();
+            float used = top - y;
+            float height = Math.min(used + TABLE_MARGIN_BOTTOM, area.getBBox().getHeight());
+            document.add(new Div().setHeight(height).setMargin(0).setPadding(0));
+        }
+
+        private LayoutArea currentArea() {
+            LayoutArea area = document.getRenderer().getCurrentArea();
+            if (area == null) {
+                // Nenhum elemento adicionado ainda: força a criação da primeira área
+                document.add(new Div().setHeight(0).setMargin(0).setPadding(0));
+                area = document.getRenderer().getCurrentArea();
+            }
+            return area;
+        }
+
+        private void layoutColumns(float left, float width) {
+            float[] widths = TableStyleHelper.calculateColumnWidths(section);
+            float x = left;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i].x = x;
+                columns[i].width = widths[i] * width;
+                x += columns[i].width;
+            }
+        }
+
+        private float tableWidth() {
+            Column last = columns[columns.length - 1];
+            return last.x + last.width - columns[0].x;
+        }
+
+        private void drawHeader() throws IOException {
+            if (headerForm == null) {
+                headerForm = recordHeader();
+            }
+            canvas.addXObjectAt(headerForm, columns[0].x, y - headerHeight);
+            y -= headerHeight;
+        }
+
+        /**
+         * Desenha o cabeçalho uma única vez em um Form XObject, reutilizado em todas as páginas da tabela.
+         */
+        private PdfFormXObject recordHeader() throws IOException {
+            float left = columns[0].x;
+            PdfFormXObject form = new PdfFormXObject(new Rectangle(left, 0, tableWidth(), headerHeight));
+
+            PdfCanvas pageCanvas = canvas;
+            PdfFont pageFont = currentFont;
+            float pageFontSize = currentFontSize;
+            Color pageFillColor = currentFillColor;
+            canvas = new PdfCanvas(form, pdfDoc);
+            currentFont = null;
+            currentFillColor = null;
+            try {
+                fillRect(left, 0, tableWidth(), headerHeight, headerColor);
+                canvas.beginText();
+                for (Column column : columns) {
+                    drawText(column, column.title, true, column.italic, PdfStyleUtils.COLOR_FONT_TITLE, 0, headerHeight);
+                }
+                canvas.endText();
+            } finally {
+                canvas = pageCanvas;
+                currentFont = pageFont;
+                currentFontSize = pageFontSize;
+                currentFillColor = pageFillColor;
+            }
+            return form;
+        }
+
+        private void drawDataRow(Map<String, Object> rowData, Color rowColor) throws IOException {
+            float rowBottom = y - rowHeight;
+            if (rowColor != null) {
+                fillRect(columns[0].x, rowBottom, tableWidth(), rowHeight, rowColor);
+            }
+            for (Column column : columns) {
+                if (column.backgroundColor != null) {
+                    fillRect(column.x, rowBottom, column.width, rowHeight, column.backgroundColor);
+                }
+                if (column.border) {
+                    canvas.setLineWidth(0.5f).rectangle(column.x, rowBottom, column.width, rowHeight).stroke();
+                }
+            }
+
+            canvas.beginText();
+            for (Column column : columns) {
+                Object value = rowData.getOrDefault(column.id, "");
+                String text = PdfStyleUtils.formatCellValue(value, column.style);
+                drawText(column, text, column.bold, column.italic, column.fontColor, rowBottom, rowHeight);
+            }
+            canvas.endText();
+        }
+
+        /**
+         * Escreve o texto de uma célula dentro de um objeto de texto já aberto,
+         * truncando-o à largura da coluna e alinhando-o conforme o estilo.
+         */
+        private void drawText(Column column, String text, boolean bold, boolean italic, Color color,
+                              float cellBottom, float cellHeight) throws IOException {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            float available = column.width - 2 * HORIZONTAL_CELL_PADDING;
+            String visible = HelveticaMetrics.truncate(text, bold, column.fontSize, available);
+            if (visible.isEmpty()) {
+                return;
+            }
+
+            float textWidth = HelveticaMetrics.getWidth(visible, bold, column.fontSize);
+            float x = switch (column.alignment) {
+                case "RIGHT" -> column.x + column.width - HORIZONTAL_CELL_PADDING - textWidth;
+                case "CENTER" -> column.x + (column.width - textWidth) / 2;
+                default -> column.x + HORIZONTAL_CELL_PADDING;
+            };
+            float baseline = cellBottom + (cellHeight - (ASCENT + DESCENT) * column.fontSize) / 2
+                    + DESCENT * column.fontSize;
+
+            PdfFont font = font(bold, italic);
+            if (font != currentFont || column.fontSize != currentFontSize) {
+                canvas.setFontAndSize(font, column.fontSize);
+                currentFont = font;
+                currentFontSize = column.fontSize;
+            }
+            setFillColor(color);
+            canvas.setTextMatrix(x, baseline);
+            canvas.showText(visible);
+        }
+
+        private void fillRect(float x, float y, float width, float height, Color color) {
+            setFillColor(color);
+            canvas.rectangle(x, y, width, height).fill();
+        }
+
+        private void setFillColor(Color color) {
+            if (!color.equals(currentFillColor)) {
+                canvas.setFillColor(color);
+                currentFillColor = color;
+            }
+        }
+
+        /**
+         * Fontes do documento, criadas uma vez por seção para cada combinação de negrito e itálico.
+         */
+        private PdfFont font(boolean bold, boolean italic) throws IOException {
+            int index = (bold ? 1 : 0) + (italic ? 2 : 0);
+            if (fonts[index] == null) {
+                fonts[index] = PdfStyleUtils.determineFont(bold, italic);
+            }
+            return fonts[index];
+        }
+    }
+}
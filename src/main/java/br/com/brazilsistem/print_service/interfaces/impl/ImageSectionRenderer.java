@@ -1,35 +1,136 @@
 package br.com.brazilsistem.print_service.interfaces.impl;
 
+import br.com.brazilsistem.print_service.image.ImageLoader;
+import br.com.brazilsistem.print_service.image.ProcessedImage;
 import br.com.brazilsistem.print_service.interfaces.SectionTypeRenderer;
 import br.com.brazilsistem.print_service.model.Section;
+import com.itextpdf.io.image.ImageDataFactory;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
+import com.itextpdf.layout.element.Image;
 import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.properties.HorizontalAlignment;
 import com.itextpdf.layout.properties.TextAlignment;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.*;
 
+/**
+ * Renderizador de seções de imagem (fotos de produtos, assinaturas).
+ * <p>
+ * A imagem vem de {@code content} ou, para várias imagens, das linhas de {@code data} com os campos
+ * {@code image} e, opcionalmente, {@code caption}. Cada imagem é exibida na largura que ocuparia na
+ * resolução de impressão configurada, limitada à largura da seção, e imagens iguais no mesmo
+ * documento são incluídas uma única vez (um único XObject).
+ */
 @Component("image")
 public class ImageSectionRenderer implements SectionTypeRenderer {
 
+    public static final String IMAGE_FIELD = "image";
+    public static final String CAPTION_FIELD = "caption";
+
+    // Largura usada quando a seção é renderizada em uma célula, sem acesso ao documento
+    private static final float DEFAULT_PAGE_WIDTH = PageSize.A4.getWidth();
+
+    private final ImageLoader imageLoader;
+
+    // Imagens já incluídas em cada documento. Os valores são referências fracas ao stream da imagem,
+    // que é mantido pelos recursos das páginas enquanto o documento existir
+    private final Map<PdfDocument, Map<String, WeakReference<PdfStream>>> documentImages =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    @Autowired
+    public ImageSectionRenderer(ImageLoader imageLoader) {
+        this.imageLoader = imageLoader;
+    }
+
     @Override
     public void renderSectionContent(Document document, Section section) throws IOException {
-        Paragraph imagePlaceholder = new Paragraph("[Imagem seria exibida aqui]")
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(10)
-                .setMarginBottom(10);
+        PdfDocument pdfDoc = document.getPdfDocument();
+        float width = pdfDoc.getDefaultPageSize().getWidth() - document.getLeftMargin() - document.getRightMargin();
+        Map<String, WeakReference<PdfStream>> images = documentImages.computeIfAbsent(pdfDoc, d -> new HashMap<>());
 
-        document.add(imagePlaceholder);
+        for (Div element : createElements(section, width, images)) {
+            document.add(element);
+        }
     }
 
     @Override
     public void renderSectionContent(Cell cell, Section section) throws IOException {
-        Paragraph imagePlaceholder = new Paragraph("[Imagem seria exibida aqui]")
-                .setTextAlignment(TextAlignment.CENTER)
-                .setMarginTop(5)
-                .setMarginBottom(5);
+        float width = DEFAULT_PAGE_WIDTH * (section.getWidth() != null && section.getWidth() > 0
+                ? Math.min(100f, section.getWidth()) / 100f : 1f);
+
+        // Sem acesso ao documento, as imagens são compartilhadas apenas dentro da seção
+        for (Div element : createElements(section, width, new HashMap<>())) {
+            cell.add(element);
+        }
+    }
+
+    private List<Div> createElements(Section section, float width, Map<String, WeakReference<PdfStream>> images) {
+        List<Div> elements = new ArrayList<>();
+        if (section.getContent() != null && !section.getContent().isBlank()) {
+            elements.add(createImage(section.getContent().trim(), null, width, images));
+        }
+        if (section.getData() != null) {
+            for (Map<String, Object> row : section.getData()) {
+                Object source = row != null ? row.get(IMAGE_FIELD) : null;
+                if (source instanceof String text && !text.isBlank()) {
+                    Object caption = row.get(CAPTION_FIELD);
+                    elements.add(createImage(text.trim(), caption != null ? caption.toString() : null, width, images));
+                }
+            }
+        }
+
+        if (elements.isEmpty()) {
+            elements.add(new Div().add(new Paragraph("Imagem não fornecida.").setFontSize(10)));
+        }
+        return elements;
+    }
+
+    private Div createImage(String source, String caption, float width, Map<String, WeakReference<PdfStream>> images) {
+        Div container = new Div().setMarginTop(5).setMarginBottom(5);
+        try {
+            ProcessedImage processed = imageLoader.load(source, width);
+            Image image = new Image(xObject(processed, images))
+                    .setWidth(Math.min(width, processed.width() * 72f / imageLoader.getDpi()))
+                    .setHorizontalAlignment(HorizontalAlignment.CENTER);
+            container.add(image);
+        } catch (IOException | RuntimeException e) {
+            container.add(new Paragraph("[Imagem não disponível: " + e.getMessage() + "]")
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setFontSize(8));
+        }
+
+        if (caption != null && !caption.isEmpty()) {
+            container.add(new Paragraph(caption)
+                    .setTextAlignment(TextAlignment.CENTER)
+                    .setFontSize(8)
+                    .setMarginTop(2));
+        }
+        return container;
+    }
 
-        cell.add(imagePlaceholder);
+    /**
+     * Obtém o XObject da imagem no documento, reutilizando o já criado para o mesmo conteúdo.
+     */
+    private static PdfImageXObject xObject(ProcessedImage processed, Map<String, WeakReference<PdfStream>> images) {
+        synchronized (images) {
+            WeakReference<PdfStream> reference = images.get(processed.key());
+            PdfStream stream = reference != null ? reference.get() : null;
+            if (stream != null) {
+                return new PdfImageXObject(stream);
+            }
+            PdfImageXObject xObject = new PdfImageXObject(ImageDataFactory.create(processed.bytes()));
+            images.put(processed.key(), new WeakReference<>(xObject.getPdfObject()));
+            return xObject;
+        }
     }
-}
\ No newline at end of file
+}
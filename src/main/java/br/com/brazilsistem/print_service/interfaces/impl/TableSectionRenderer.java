@@ -6,14 +6,17 @@ import br.com.brazilsistem.print_service.model.NestedSection;
 import br.com.brazilsistem.print_service.model.Section;
 import br.com.brazilsistem.print_service.util.ColorUtils;
 import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import br.com.brazilsistem.print_service.util.TableGrouping;
 import br.com.brazilsistem.print_service.util.TableStyleHelper;
 import com.itextpdf.kernel.colors.Color;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
+import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.Property;
 import com.itextpdf.layout.properties.UnitValue;
 import com.itextpdf.layout.properties.VerticalAlignment;
 import org.apache.commons.lang3.ObjectUtils;
@@ -21,14 +24,21 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 /**
  * Renderizador de seções de tabela em documentos PDF.
  * Responsável por renderizar tabelas, incluindo cabeçalhos e seções aninhadas.
  * Esta versão suporta o novo formato de colunas como mapa (chave-valor).
+ * <p>
+ * Seções aninhadas com {@code flatRows} têm os itens emitidos como células da própria tabela
+ * principal, em vez de uma tabela inteira dentro de uma única célula: as colunas da tabela principal
+ * formam uma grade com as fronteiras das colunas aninhadas, e cada coluna aninhada ocupa as colunas da
+ * grade entre as suas fronteiras. Nesse caso, quando renderizada no documento, a tabela principal é uma
+ * tabela grande do iText, descarregada em blocos de linhas à medida que é montada.
  */
 @Component("table")
 public class TableSectionRenderer implements SectionTypeRenderer {
@@ -37,6 +47,13 @@ public class TableSectionRenderer implements SectionTypeRenderer {
     private static final float HORIZONTAL_CELL_PADDING = 2f;   // Espaçamento lateral (esquerda e direita)
     private static final float VERTICAL_CELL_PADDING = 0f;      // Mantém o padrão para topo e base
 
+    // Linhas adicionadas à tabela grande entre cada descarga para o documento
+    private static final int LARGE_TABLE_FLUSH_ROWS = 50;
+
+    // Recuo dos cabeçalhos de grupo por nível e borda das linhas de subtotal
+    private static final float GROUP_INDENTATION = 10f;
+    private static final float SUMMARY_BORDER_WIDTH = 0.5f;
+
     @Override
     public void renderSectionContent(Document document, Section section) throws IOException {
         renderTableToTarget(document, section);
@@ -58,7 +75,10 @@ public class TableSectionRenderer implements SectionTypeRenderer {
         List<NestedSection> nestedSections;
         List<NestedHeaderInfo> nestedHeadersInfo;
         int totalColumns; // Total de colunas para seções aninhadas
+        int[][] flatColumnSpans; // Colunas da grade ocupadas por cada coluna das seções aninhadas planas
         List<String[]> columnRows; // Colunas organizadas em linhas
+        boolean largeTable; // Tabela adicionada ao documento antes das linhas e descarregada aos poucos
+        int pendingRows; // Linhas adicionadas desde a última descarga
     }
 
     /**
@@ -68,6 +88,7 @@ public class TableSectionRenderer implements SectionTypeRenderer {
         NestedSection section;
         int level;
         Color headerColor;
+        int[] flatColumnSpans; // Colunas da grade de cada coluna, quando a seção é plana
     }
 
     /**
@@ -92,14 +113,23 @@ public class TableSectionRenderer implements SectionTypeRenderer {
 
         // Organizar colunas em linhas quando necessário
         context.columnRows = TableStyleHelper.organizeColumnsInRows(columnIds, section.getColumnStyles());
-        context.totalColumns = getMaxColumnsPerRow(context.columnRows);
 
-        // Criamos a tabela principal com base no número total de colunas
-        float[] columnWidths = new float[context.totalColumns];
-        for (int i = 0; i < context.totalColumns; i++) {
-            columnWidths[i] = 1f; // Todas as colunas têm peso igual
+        float[] columnWidths;
+        boolean flatNestedSections = hasFlatNestedSections(section);
+        if (flatNestedSections) {
+            // Grade com as fronteiras das colunas aninhadas; as linhas da seção ocupam a grade inteira
+            context.flatColumnSpans = new int[section.getNestedSections().size()][];
+            columnWidths = flatColumnPlan(section.getNestedSections(), context.flatColumnSpans);
+        } else {
+            // Criamos a tabela principal com base no número total de colunas
+            columnWidths = new float[getMaxColumnsPerRow(context.columnRows)];
+            Arrays.fill(columnWidths, 1f); // Todas as colunas têm peso igual
         }
-        context.mainTable = createBaseTable(columnWidths);
+        context.totalColumns = columnWidths.length;
+
+        // Linhas aninhadas planas só são descarregadas aos poucos quando o alvo é o documento
+        context.largeTable = target instanceof Document && flatNestedSections;
+        context.mainTable = createBaseTable(columnWidths, context.largeTable);
 
         context.headerFont = PdfStyleUtils.getFontBold();
         context.useAlternateRowColor = Boolean.TRUE.equals(section.getUseAlternateRowColor());
@@ -109,11 +139,131 @@ public class TableSectionRenderer implements SectionTypeRenderer {
         // Adicionar cabeçalhos para cada linha de colunas
         renderMultiRowHeaders(context, section);
 
+        // A tabela grande entra no documento com os cabeçalhos e recebe as linhas depois
+        if (context.largeTable) {
+            ((Document) target).add(context.mainTable);
+        }
+
         // Processar dados e renderizar em uma única passagem
         renderDataWithMultipleRows(context, section);
 
         // Adicionar tabela ao alvo apropriado
-        addTableToTarget(target, context.mainTable);
+        if (context.largeTable) {
+            context.mainTable.complete();
+        } else {
+            addTableToTarget(target, context.mainTable);
+        }
+    }
+
+    /**
+     * Verifica se alguma seção aninhada deve ser renderizada como linhas da tabela principal.
+     */
+    private boolean hasFlatNestedSections(Section section) {
+        if (section.getNestedSections() == null) {
+            return false;
+        }
+        for (NestedSection nestedSection : section.getNestedSections()) {
+            if (isFlat(nestedSection)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Monta a grade de colunas da tabela principal a partir das seções aninhadas planas. As fronteiras
+     * das colunas de cada seção, em percentual da largura, formam a grade; para cada coluna aninhada é
+     * registrado quantas colunas da grade ela ocupa.
+     *
+     * @param nestedSections Seções aninhadas da tabela
+     * @param spans Saída: colunas da grade ocupadas por cada coluna, por índice da seção aninhada (null se não plana)
+     * @return Larguras das colunas da grade, em percentual
+     */
+    private float[] flatColumnPlan(List<NestedSection> nestedSections, int[][] spans) {
+        TreeSet<Float> boundaries = new TreeSet<>(List.of(0f, 100f));
+        for (NestedSection nestedSection : nestedSections) {
+            if (isFlat(nestedSection)) {
+                boundaries.addAll(columnBoundaries(nestedSection));
+            }
+        }
+
+        float[] grid = new float[boundaries.size()];
+        int index = 0;
+        for (Float boundary : boundaries) {
+            grid[index++] = boundary;
+        }
+
+        for (int i = 0; i < nestedSections.size(); i++) {
+            NestedSection nestedSection = nestedSections.get(i);
+            if (!isFlat(nestedSection)) {
+                continue;
+            }
+            List<Float> sectionBoundaries = columnBoundaries(nestedSection);
+            int[] sectionSpans = new int[sectionBoundaries.size() - 1];
+            int start = Arrays.binarySearch(grid, sectionBoundaries.get(0));
+            for (int j = 0; j < sectionSpans.length; j++) {
+                int end = Arrays.binarySearch(grid, sectionBoundaries.get(j + 1));
+                sectionSpans[j] = end - start;
+                start = end;
+            }
+            spans[i] = sectionSpans;
+        }
+
+        float[] widths = new float[grid.length - 1];
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = grid[i + 1] - grid[i];
+        }
+        return widths;
+    }
+
+    /**
+     * Fronteiras das colunas da seção aninhada, de 0 a 100, arredondadas a centésimos para que
+     * fronteiras iguais de seções diferentes coincidam na grade. Toda coluna recebe uma largura
+     * mínima, para ocupar ao menos uma coluna da grade.
+     */
+    private List<Float> columnBoundaries(NestedSection nestedSection) {
+        float[] widths = TableStyleHelper.calculateNestedSectionWidths(nestedSection);
+        float minWidth = Math.min(0.5f, 50f / widths.length);
+        float[] percents = new float[widths.length];
+        float total = 0;
+        for (float width : widths) {
+            total += width;
+        }
+        float clampedTotal = 0;
+        for (int j = 0; j < widths.length; j++) {
+            percents[j] = Math.max(minWidth, total > 0 ? widths[j] / total * 100f : 100f / widths.length);
+            clampedTotal += percents[j];
+        }
+
+        List<Float> boundaries = new ArrayList<>(widths.length + 1);
+        boundaries.add(0f);
+        float position = 0;
+        for (int j = 0; j < widths.length - 1; j++) {
+            position += percents[j] / clampedTotal * 100f;
+            boundaries.add(Math.round(position * 100f) / 100f);
+        }
+        boundaries.add(100f);
+        return boundaries;
+    }
+
+    /**
+     * Seção aninhada com itens como linhas da tabela principal e ao menos uma coluna.
+     */
+    private boolean isFlat(NestedSection nestedSection) {
+        return Boolean.TRUE.equals(nestedSection.getFlatRows())
+                && nestedSection.getColumnIds() != null && !nestedSection.getColumnIds().isEmpty();
+    }
+
+    /**
+     * Conta uma linha adicionada à tabela principal e, na tabela grande, descarrega
+     * as linhas pendentes a cada {@link #LARGE_TABLE_FLUSH_ROWS} linhas.
+     */
+    private void rowAdded(TableRenderingContext context) {
+        context.pendingRows++;
+        if (context.largeTable && context.pendingRows >= LARGE_TABLE_FLUSH_ROWS) {
+            context.mainTable.flush();
+            context.pendingRows = 0;
+        }
     }
 
     /**
@@ -203,6 +353,7 @@ public class TableSectionRenderer implements SectionTypeRenderer {
                     headerInfo.section = nestedSection;
                     headerInfo.level = i + 1;
                     headerInfo.headerColor = ColorUtils.getHeaderColorForLevel(headerInfo.level);
+                    headerInfo.flatColumnSpans = context.flatColumnSpans != null ? context.flatColumnSpans[i] : null;
                     context.nestedHeadersInfo.add(headerInfo);
                 }
             }
@@ -217,18 +368,29 @@ public class TableSectionRenderer implements SectionTypeRenderer {
     /**
      * Renderiza dados para múltiplas linhas de colunas
      * Modificado para tratar linhas nulas (rowData == null)
+     * <p>
+     * Com {@code groupBy} ou {@code aggregates}, as linhas vêm do {@link TableGrouping}, que insere os
+     * cabeçalhos de grupo, os subtotais e o total geral na mesma passagem pelos dados; as cores
+     * alternadas recomeçam em cada grupo.
      */
     private void renderDataWithMultipleRows(TableRenderingContext context, Section section) throws IOException {
         int rowIndex = 0;
-        List<Map<String, Object>> data = section.getData();
 
-        for (int i = 0; i < data.size(); i++) {
-            Map<String, Object> rowData = data.get(i);
+        for (TableGrouping.GroupedRow groupedRow : TableGrouping.rows(section)) {
+            if (groupedRow.kind() == TableGrouping.RowKind.GROUP_HEADER) {
+                renderGroupHeader(context, groupedRow);
+                rowIndex = 0;
+                continue;
+            }
+
+            Map<String, Object> rowData = groupedRow.values();
             boolean isEmptyRow = (rowData == null);
+            // Subtotal ou total geral
+            boolean summary = groupedRow.kind() != TableGrouping.RowKind.DATA;
 
             // Determinar cor para linha atual (alternando se necessário)
             Color rowColor = null;
-            if (context.useAlternateRowColor && rowIndex % 2 == 1) {
+            if (context.useAlternateRowColor && rowIndex % 2 == 1 && !summary) {
                 rowColor = context.alternateRowColor;
             }
 
@@ -250,6 +412,7 @@ public class TableSectionRenderer implements SectionTypeRenderer {
 
                 // Adicionar a célula vazia diretamente à tabela principal
                 context.mainTable.addCell(emptyRowCell);
+                rowAdded(context);
             } else {
                 // Para cada grupo de colunas (linha na definição de colunas)
                 for (String[] rowColumnIds : context.columnRows) {
@@ -307,6 +470,11 @@ public class TableSectionRenderer implements SectionTypeRenderer {
                             // Aplicar estilos de célula
                             PdfStyleUtils.applyCellStyle(dataCell, columnStyle);
 
+                            // Subtotais e total geral em negrito, separados das linhas de dados
+                            if (summary) {
+                                applySummaryStyle(dataCell, columnStyle, context.headerFont);
+                            }
+
                             // Aplicar apenas espaçamento lateral, mantendo o vertical original
                             dataCell.setPaddingLeft(HORIZONTAL_CELL_PADDING);
                             dataCell.setPaddingRight(HORIZONTAL_CELL_PADDING);
@@ -321,12 +489,14 @@ public class TableSectionRenderer implements SectionTypeRenderer {
 
                         // Adicionar a célula contêiner à tabela principal
                         context.mainTable.addCell(rowContainer);
+                        rowAdded(context);
                     }
                 }
 
                 // Processar seções aninhadas para esta linha
                 if (context.nestedSections != null && !context.nestedSections.isEmpty()) {
-                    for (NestedSection nestedSection : context.nestedSections) {
+                    for (int i = 0; i < context.nestedSections.size(); i++) {
+                        NestedSection nestedSection = context.nestedSections.get(i);
                         if (rowData.containsKey(nestedSection.getSourceField()) &&
                                 rowData.get(nestedSection.getSourceField()) instanceof List) {
 
@@ -335,8 +505,14 @@ public class TableSectionRenderer implements SectionTypeRenderer {
                                     (List<Map<String, Object>>) rowData.get(nestedSection.getSourceField());
 
                             if (nestedData != null && !nestedData.isEmpty()) {
-                                renderNestedSectionData(context.mainTable, nestedSection,
-                                        nestedData, context.totalColumns);
+                                int[] flatColumnSpans = context.flatColumnSpans != null ? context.flatColumnSpans[i] : null;
+                                if (flatColumnSpans != null) {
+                                    renderNestedSectionRows(context, nestedSection, flatColumnSpans, nestedData);
+                                } else {
+                                    renderNestedSectionData(context.mainTable, nestedSection,
+                                            nestedData, context.totalColumns);
+                                    rowAdded(context);
+                                }
                             }
                         }
                     }
@@ -347,11 +523,44 @@ public class TableSectionRenderer implements SectionTypeRenderer {
         }
     }
 
+    /**
+     * Adiciona o cabeçalho de um grupo, ocupando toda a largura, recuado pelo nível do grupo.
+     */
+    private void renderGroupHeader(TableRenderingContext context, TableGrouping.GroupedRow row) {
+        Cell headerCell = new Cell(1, context.totalColumns)
+                .add(new Paragraph(row.label()))
+                .setFont(context.headerFont)
+                .setBorder(Border.NO_BORDER)
+                .setBackgroundColor(ColorUtils.getHeaderColorForLevel(row.level()))
+                .setFontColor(PdfStyleUtils.COLOR_FONT_TITLE)
+                .setPaddingLeft(HORIZONTAL_CELL_PADDING + GROUP_INDENTATION * (row.level() - 1))
+                .setPaddingRight(HORIZONTAL_CELL_PADDING);
+
+        context.mainTable.addCell(headerCell);
+        rowAdded(context);
+    }
+
+    /**
+     * Aplica o negrito e a borda superior das linhas de subtotal.
+     */
+    private void applySummaryStyle(Cell cell, Style style, PdfFont boldFont) {
+        if (PdfStyleUtils.hasFontFamily(style)) {
+            cell.setProperty(Property.FONT_WEIGHT, "bold");
+        } else {
+            cell.setFont(boldFont);
+        }
+        cell.setBorderTop(new SolidBorder(SUMMARY_BORDER_WIDTH));
+    }
+
     /**
      * Adiciona os cabeçalhos aninhados à tabela principal
      */
     private void addNestedHeadersToTable(TableRenderingContext context) throws IOException {
         for (NestedHeaderInfo headerInfo : context.nestedHeadersInfo) {
+            if (headerInfo.flatColumnSpans != null) {
+                addFlatNestedHeaders(context, headerInfo);
+                continue;
+            }
             NestedSection nestedSection = headerInfo.section;
             int indentation = nestedSection.getIndentation() != null ? nestedSection.getIndentation() : 20;
 
@@ -410,6 +619,48 @@ public class TableSectionRenderer implements SectionTypeRenderer {
         }
     }
 
+    /**
+     * Adiciona o título e os cabeçalhos de uma seção aninhada plana diretamente na grade da tabela
+     * principal, alinhados com as células das linhas da seção.
+     */
+    private void addFlatNestedHeaders(TableRenderingContext context, NestedHeaderInfo headerInfo) throws IOException {
+        NestedSection nestedSection = headerInfo.section;
+        int indentation = nestedSection.getIndentation() != null ? nestedSection.getIndentation() : 20;
+        float halfGap = flatColumnGap(nestedSection) / 2;
+
+        if (nestedSection.getTitle() != null && !nestedSection.getTitle().isEmpty()) {
+            Cell titleCell = new Cell(1, context.totalColumns)
+                    .add(new Paragraph(nestedSection.getTitle()))
+                    .setFont(context.headerFont)
+                    .setFontSize(14)
+                    .setBorder(Border.NO_BORDER)
+                    .setBackgroundColor(headerInfo.headerColor)
+                    .setFontColor(PdfStyleUtils.COLOR_FONT_TITLE)
+                    .setPaddingLeft(indentation + HORIZONTAL_CELL_PADDING)
+                    .setPaddingRight(HORIZONTAL_CELL_PADDING);
+            context.mainTable.addHeaderCell(titleCell);
+        }
+
+        List<String> columnIds = nestedSection.getColumnIds();
+        for (int j = 0; j < columnIds.size(); j++) {
+            String columnId = columnIds.get(j);
+            Cell headerCell = createHeaderCell(nestedSection.getColumnTitle(columnId),
+                    TableStyleHelper.getColumnStyle(nestedSection.getColumnStyles(), columnId),
+                    context.headerFont, headerInfo.flatColumnSpans[j]);
+            headerCell.setBackgroundColor(headerInfo.headerColor);
+            headerCell.setPaddingLeft(HORIZONTAL_CELL_PADDING + halfGap + (j == 0 ? indentation : 0));
+            headerCell.setPaddingRight(HORIZONTAL_CELL_PADDING + halfGap);
+            context.mainTable.addHeaderCell(headerCell);
+        }
+    }
+
+    /**
+     * Espaçamento entre as colunas de uma seção aninhada.
+     */
+    private float flatColumnGap(NestedSection nestedSection) {
+        return nestedSection.getColumnGap() != null ? nestedSection.getColumnGap() : TableStyleHelper.DEFAULT_COLUMN_GAP;
+    }
+
     /**
      * Renderiza os dados da seção aninhada.
      */
@@ -495,6 +746,59 @@ public class TableSectionRenderer implements SectionTypeRenderer {
         parentTable.addCell(nestedTableCell);
     }
 
+    /**
+     * Renderiza os dados da seção aninhada como linhas da tabela principal: cada valor é uma célula da
+     * própria tabela, ocupando as colunas da grade da sua coluna ({@link #flatColumnPlan}), sem tabela
+     * ou célula contêiner por item. O recuo vira espaçamento da primeira célula e o espaçamento entre
+     * colunas é dividido entre as células vizinhas; as linhas podem ser quebradas entre páginas e
+     * descarregadas como qualquer outra linha.
+     */
+    private void renderNestedSectionRows(TableRenderingContext context, NestedSection nestedSection,
+                                         int[] columnSpans, List<Map<String, Object>> nestedData) throws IOException {
+        List<String> columnIds = nestedSection.getColumnIds();
+        int indentation = nestedSection.getIndentation() != null ? nestedSection.getIndentation() : 20;
+        float halfGap = flatColumnGap(nestedSection) / 2;
+
+        boolean useAlternateRowColor = Boolean.TRUE.equals(nestedSection.getUseAlternateRowColor());
+        Color alternateRowColor = useAlternateRowColor
+                ? PdfStyleUtils.parseColor(nestedSection.getAlternateRowColor() != null ? nestedSection.getAlternateRowColor() : "#F5F5F5")
+                : null;
+
+        // Estilos resolvidos uma vez para todas as linhas
+        Style[] columnStyles = new Style[columnIds.size()];
+        for (int j = 0; j < columnStyles.length; j++) {
+            columnStyles[j] = TableStyleHelper.getColumnStyle(nestedSection.getColumnStyles(), columnIds.get(j));
+        }
+
+        for (int rowIndex = 0; rowIndex < nestedData.size(); rowIndex++) {
+            Map<String, Object> nestedRow = nestedData.get(rowIndex);
+            Color rowColor = alternateRowColor != null && rowIndex % 2 == 1 ? alternateRowColor : null;
+
+            for (int j = 0; j < columnStyles.length; j++) {
+                Object value = nestedRow != null ? nestedRow.getOrDefault(columnIds.get(j), "") : "";
+                String formattedValue = PdfStyleUtils.formatCellValue(value, columnStyles[j]);
+
+                Cell cell = new Cell(1, columnSpans[j])
+                        .add(new Paragraph(formattedValue))
+                        .setBorder(Border.NO_BORDER);
+
+                if (rowColor != null) {
+                    cell.setBackgroundColor(rowColor);
+                }
+
+                PdfStyleUtils.applyCellStyle(cell, columnStyles[j]);
+
+                cell.setPaddingLeft(HORIZONTAL_CELL_PADDING + halfGap + (j == 0 ? indentation : 0));
+                cell.setPaddingRight(HORIZONTAL_CELL_PADDING + halfGap);
+                cell.setPaddingTop(VERTICAL_CELL_PADDING);
+                cell.setPaddingBottom(VERTICAL_CELL_PADDING);
+
+                context.mainTable.addCell(cell);
+            }
+            rowAdded(context);
+        }
+    }
+
     /**
      * Verifica se a seção contém dados válidos para uma tabela.
      */
@@ -507,8 +811,8 @@ public class TableSectionRenderer implements SectionTypeRenderer {
     /**
      * Cria a estrutura base da tabela.
      */
-    private Table createBaseTable(float[] columnWidths) {
-        return new Table(UnitValue.createPercentArray(columnWidths))
+    private Table createBaseTable(float[] columnWidths, boolean largeTable) {
+        return new Table(UnitValue.createPercentArray(columnWidths), largeTable)
                 .setWidth(UnitValue.createPercentValue(100))
                 .setBorder(Border.NO_BORDER)
                 .setMargins(0, 0, 5, 0)
@@ -542,18 +846,31 @@ public class TableSectionRenderer implements SectionTypeRenderer {
      * Cria uma célula de cabeçalho formatada.
      */
     private Cell createHeaderCell(String content, Style style, PdfFont boldFont) throws IOException {
-        Cell headerCell = new Cell()
+        return createHeaderCell(content, style, boldFont, 1);
+    }
+
+    /**
+     * Cria uma célula de cabeçalho formatada que ocupa {@code colspan} colunas.
+     */
+    private Cell createHeaderCell(String content, Style style, PdfFont boldFont, int colspan) throws IOException {
+        Cell headerCell = new Cell(1, colspan)
                 .add(new Paragraph(content));
 
         PdfStyleUtils.applyCellStyle(headerCell, style);
 
         headerCell.setBorder(Border.NO_BORDER)
                 .setFontColor(PdfStyleUtils.COLOR_FONT_TITLE)
-                .setFont(boldFont)
                 .setPaddingLeft(HORIZONTAL_CELL_PADDING)
                 .setPaddingRight(HORIZONTAL_CELL_PADDING)
                 .setVerticalAlignment(VerticalAlignment.MIDDLE);
 
+        // Com família de fonte no estilo, o cabeçalho usa a variante negrito da mesma família
+        if (PdfStyleUtils.hasFontFamily(style)) {
+            headerCell.setProperty(Property.FONT_WEIGHT, "bold");
+        } else {
+            headerCell.setFont(boldFont);
+        }
+
         return headerCell;
     }
 
@@ -2,37 +2,354 @@ package br.com.brazilsistem.print_service.interfaces.impl;
 
 import br.com.brazilsistem.print_service.interfaces.SectionTypeRenderer;
 import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.util.HelveticaMetrics;
+import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+import com.itextpdf.kernel.geom.Rectangle;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.canvas.PdfCanvas;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.AreaBreak;
 import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Div;
 import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.properties.AreaBreakType;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 
+/**
+ * Renderizador de seções de texto.
+ * <p>
+ * Textos curtos viram um único {@code Paragraph}. Textos longos (contratos, logs) e textos
+ * pré-formatados são quebrados em linhas aqui mesmo, percorrendo o conteúdo linha a linha, e
+ * desenhados diretamente com {@link PdfCanvas}, com a paginação feita pelo próprio renderizador:
+ * a memória usada no layout não depende do tamanho do texto. Dentro de células, onde a posição só
+ * é conhecida após o layout do iText, o texto é dividido em blocos limitados, em fins de parágrafo
+ * ou de linha, adicionados como parágrafos separados.
+ */
 @Component("text")
 public class TextSectionRenderer implements SectionTypeRenderer {
 
+    private static final float MARGIN = 5f;
+
+    // Tamanho e entrelinha padrão de um Paragraph do iText
+    private static final float FONT_SIZE = 12f;
+    private static final float LEADING = 1.35f;
+
+    // Texto pré-formatado: Courier, em que todos os caracteres têm 0,6 do tamanho da fonte
+    private static final float PREFORMATTED_FONT_SIZE = 8f;
+    private static final float PREFORMATTED_LEADING = 1.2f;
+    private static final float COURIER_CHAR_WIDTH = 0.6f;
+    private static final int TAB_SIZE = 4;
+
+    // Métricas verticais da Helvetica (em fração do tamanho da fonte)
+    private static final float ASCENT = 0.718f;
+    private static final float DESCENT = 0.207f;
+
+    private final int streamingThreshold;
+    private final int chunkChars;
+
+    /**
+     * @param streamingThreshold Tamanho, em caracteres, a partir do qual o texto é desenhado linha a linha
+     * @param chunkChars Tamanho máximo, em caracteres, de cada bloco de texto adicionado a uma célula
+     */
+    @Autowired
+    public TextSectionRenderer(@Value("${print-service.text.streaming-threshold:20000}") int streamingThreshold,
+                               @Value("${print-service.text.chunk-chars:4000}") int chunkChars) {
+        this.streamingThreshold = streamingThreshold;
+        this.chunkChars = Math.max(100, chunkChars);
+    }
+
     @Override
-    public void renderSectionContent(Document document, Section section) {
-        if (section.getContent() != null && !section.getContent().isEmpty()) {
-            Paragraph paragraph = new Paragraph(section.getContent())
-                    .setMarginTop(5)
-                    .setMarginBottom(5);
-            document.add(paragraph);
-        } else {
+    public void renderSectionContent(Document document, Section section) throws IOException {
+        String content = section.getContent();
+        if (content == null || content.isEmpty()) {
             document.add(new Paragraph("Conteúdo de texto não fornecido.").setFontSize(10));
+            return;
         }
+
+        boolean preformatted = Boolean.TRUE.equals(section.getPreformatted());
+        if (preformatted || content.length() > streamingThreshold) {
+            new TextDrawer(document, content, preformatted).draw();
+            return;
+        }
+
+        Paragraph paragraph = new Paragraph(content)
+                .setMarginTop(5)
+                .setMarginBottom(5);
+        document.add(paragraph);
     }
 
     @Override
     public void renderSectionContent(Cell cell, Section section) throws IOException {
-        if (section.getContent() != null && !section.getContent().isEmpty()) {
-            Paragraph paragraph = new Paragraph(section.getContent())
-                    .setMarginTop(5)
-                    .setMarginBottom(5);
-            cell.add(paragraph);
-        } else {
+        String content = section.getContent();
+        if (content == null || content.isEmpty()) {
             cell.add(new Paragraph("Conteúdo de texto não fornecido.").setFontSize(10));
+            return;
+        }
+
+        boolean preformatted = Boolean.TRUE.equals(section.getPreformatted());
+        PdfFont courier = preformatted ? PdfFontFactory.createFont(StandardFonts.COURIER) : null;
+
+        int start = 0;
+        while (start < content.length()) {
+            int end = chunkEnd(content, start);
+            String chunk = content.substring(start, end);
+            if (preformatted) {
+                // Espaços não separáveis para que o iText não descarte a indentação
+                chunk = expandTabs(chunk).replace(' ', '\u00A0');
+            }
+
+            Paragraph paragraph = new Paragraph(chunk.replace("\r", ""))
+                    .setMarginTop(start == 0 ? MARGIN : 0)
+                    .setMarginBottom(end >= content.length() ? MARGIN : 0);
+            if (preformatted) {
+                paragraph.setFont(courier).setFontSize(PREFORMATTED_FONT_SIZE).setMultipliedLeading(PREFORMATTED_LEADING);
+            }
+            cell.add(paragraph);
+
+            // O separador (quebra de linha ou, fora do texto pré-formatado, espaço) não faz parte de nenhum bloco
+            boolean separator = end < content.length()
+                    && (content.charAt(end) == '\n' || (!preformatted && content.charAt(end) == ' '));
+            start = separator ? end + 1 : end;
+        }
+    }
+
+    /**
+     * Fim do bloco que começa em {@code start}: de preferência um fim de parágrafo (linha em branco),
+     * depois um fim de linha, um espaço ou, em último caso, o limite de caracteres.
+     */
+    private int chunkEnd(String content, int start) {
+        if (content.length() - start <= chunkChars) {
+            return content.length();
+        }
+        int limit = start + chunkChars;
+        int paragraph = content.lastIndexOf("\n\n", limit - 1);
+        if (paragraph > start + chunkChars / 2) {
+            return paragraph;
+        }
+        int line = content.lastIndexOf('\n', limit - 1);
+        if (line > start) {
+            return line;
+        }
+        int space = content.lastIndexOf(' ', limit - 1);
+        return space > start ? space : limit;
+    }
+
+    private static String expandTabs(String text) {
+        if (text.indexOf('\t') < 0) {
+            return text;
+        }
+        StringBuilder expanded = new StringBuilder(text.length() + 16);
+        int column = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\t') {
+                do {
+                    expanded.append(' ');
+                    column++;
+                } while (column % TAB_SIZE != 0);
+            } else {
+                expanded.append(c);
+                column = c == '\n' ? 0 : column + 1;
+            }
+        }
+        return expanded.toString();
+    }
+
+    /**
+     * Estado do desenho de um texto: página atual e posição vertical. Apenas a linha em
+     * montagem fica em memória; cada linha é escrita no canvas assim que é quebrada.
+     */
+    private static class TextDrawer {
+
+        private final Document document;
+        private final PdfDocument pdfDoc;
+        private final String content;
+        private final boolean preformatted;
+        private final PdfFont font;
+        private final float fontSize;
+        private final float lineHeight;
+        private final StringBuilder line = new StringBuilder();
+
+        private PdfCanvas canvas;
+        private float left;
+        private float width;
+        private float top;
+        private float bottom;
+        private float y;
+
+        TextDrawer(Document document, String content, boolean preformatted) throws IOException {
+            this.document = document;
+            this.pdfDoc = document.getPdfDocument();
+            this.content = content;
+            this.preformatted = preformatted;
+            this.font = preformatted
+                    ? PdfFontFactory.createFont(StandardFonts.COURIER)
+                    : PdfStyleUtils.determineFont(false, false);
+            this.fontSize = preformatted ? PREFORMATTED_FONT_SIZE : FONT_SIZE;
+            this.lineHeight = fontSize * (preformatted ? PREFORMATTED_LEADING : LEADING);
+        }
+
+        void draw() {
+            startPage(false);
+            y -= MARGIN;
+
+            int length = content.length();
+            int position = 0;
+            while (true) {
+                int lineEnd = content.indexOf('\n', position);
+                if (lineEnd < 0) {
+                    lineEnd = length;
+                }
+                int end = lineEnd > position && content.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                if (preformatted) {
+                    drawPreformattedLine(position, end);
+                } else {
+                    drawWrappedLine(position, end);
+                }
+                if (lineEnd >= length) {
+                    break;
+                }
+                position = lineEnd + 1;
+            }
+
+            finishPage();
+            reserveUsedSpace();
+        }
+
+        /**
+         * Quebra uma linha do texto em palavras para caber na largura disponível;
+         * palavras maiores que a largura são quebradas em qualquer caractere.
+         */
+        private void drawWrappedLine(int start, int end) {
+            int lineStart = start;
+            int lastSpace = -1;
+            float lineWidth = 0;
+            boolean emitted = false;
+
+            for (int i = start; i < end; i++) {
+                char c = content.charAt(i);
+                float charWidth = HelveticaMetrics.getWidth(c, false, fontSize);
+                if (lineWidth + charWidth > width && i > lineStart) {
+                    int breakAt = lastSpace > lineStart ? lastSpace : i;
+                    emit(content.substring(lineStart, breakAt));
+                    emitted = true;
+
+                    lineStart = breakAt;
+                    while (lineStart < end && content.charAt(lineStart) == ' ') {
+                        lineStart++;
+                    }
+                    i = lineStart - 1;
+                    lastSpace = -1;
+                    lineWidth = 0;
+                    continue;
+                }
+                if (c == ' ') {
+                    lastSpace = i;
+                }
+                lineWidth += charWidth;
+            }
+
+            if (lineStart < end || !emitted) {
+                emit(content.substring(lineStart, end));
+            }
+        }
+
+        /**
+         * Escreve uma linha pré-formatada, com tabulações expandidas e quebrada no número
+         * de caracteres que cabe na largura.
+         */
+        private void drawPreformattedLine(int start, int end) {
+            int maxChars = Math.max(1, (int) (width / (COURIER_CHAR_WIDTH * fontSize)));
+            boolean emitted = false;
+            line.setLength(0);
+
+            for (int i = start; i < end; i++) {
+                char c = content.charAt(i);
+                int repeat = c == '\t' ? TAB_SIZE - line.length() % TAB_SIZE : 1;
+                for (int r = 0; r < repeat; r++) {
+                    line.append(c == '\t' ? ' ' : c);
+                    if (line.length() >= maxChars) {
+                        emit(line.toString());
+                        emitted = true;
+                        line.setLength(0);
+                    }
+                }
+            }
+
+            if (!line.isEmpty() || !emitted) {
+                emit(line.toString());
+            }
+        }
+
+        private void emit(String text) {
+            if (y - lineHeight < bottom) {
+                finishPage();
+                startPage(true);
+            }
+            if (!text.isEmpty()) {
+                float baseline = y - lineHeight + (lineHeight - (ASCENT + DESCENT) * fontSize) / 2 + DESCENT * fontSize;
+                canvas.setTextMatrix(left, baseline);
+                canvas.showText(text);
+            }
+            y -= lineHeight;
+        }
+
+        /**
+         * Posiciona o desenho na área atual do documento, ou na próxima página quando
+         * não houver espaço para uma linha.
+         */
+        private void startPage(boolean forceNewPage) {
+            LayoutArea area = currentArea();
+            if (forceNewPage || area.getBBox().getHeight() < lineHeight + MARGIN) {
+                document.add(new AreaBreak(AreaBreakType.NEXT_PAGE));
+                area = currentArea();
+            }
+
+            Rectangle box = area.getBBox();
+            left = box.getLeft();
+            width = box.getWidth();
+            top = box.getTop();
+            bottom = box.getBottom();
+            y = top;
+
+            canvas = new PdfCanvas(pdfDoc.getPage(area.getPageNumber()));
+            canvas.saveState();
+            canvas.beginText();
+            canvas.setFontAndSize(font, fontSize);
+        }
+
+        private void finishPage() {
+            canvas.endText();
+            canvas.restoreState();
+        }
+
+        /**
+         * Ocupa no fluxo do documento o espaço usado pelo texto na última página,
+         * para que os elementos seguintes sejam posicionados abaixo dele.
+         */
+        private void reserveUsedSpace() {
+            LayoutArea area = currentArea();
+            float used = top - y;
+            float height = Math.min(used + MARGIN, area.getBBox().getHeight());
+            document.add(new Div().setHeight(height).setMargin(0).setPadding(0));
+        }
+
+        private LayoutArea currentArea() {
+            LayoutArea area = document.getRenderer().getCurrentArea();
+            if (area == null) {
+                // Nenhum elemento adicionado ainda: força a criação da primeira área
+                document.add(new Div().setHeight(0).setMargin(0).setPadding(0));
+                area = document.getRenderer().getCurrentArea();
+            }
+            return area;
         }
     }
-}
\ No newline at end of file
+}
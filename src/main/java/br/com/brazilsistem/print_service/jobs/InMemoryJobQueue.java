@@ -0,0 +1,191 @@
+package br.com.brazilsistem.print_service.jobs;
+
+import br.com.brazilsistem.print_service.model.RenderJob;
+import br.com.brazilsistem.print_service.model.RenderJobState;
+import br.com.brazilsistem.print_service.model.RenderJobStatus;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Fila em memória, para um único nó e para testes. Os jobs e os documentos gerados se perdem
+ * quando a aplicação reinicia; os documentos ficam em memória até {@code result-ttl-seconds}.
+ */
+public class InMemoryJobQueue implements JobQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryJobQueue.class);
+
+    private final long leaseMillis;
+    private final int maxAttempts;
+    private final long resultTtlMillis;
+
+    private final ArrayDeque<String> pending = new ArrayDeque<>();
+    private final Map<String, Entry> jobs = new HashMap<>();
+
+    private static final class Entry {
+        private final RenderJob job;
+        private RenderJobStatus status = RenderJobStatus.QUEUED;
+        private String token;
+        private long leaseExpiresAt;
+        private byte[] result;
+        private long finishedAt;
+
+        private Entry(RenderJob job) {
+            this.job = job;
+        }
+    }
+
+    /**
+     * @param leaseMillis Duração do lease sem heartbeat
+     * @param maxAttempts Execuções antes de o job ser dado como falho
+     * @param resultTtlMillis Permanência dos jobs concluídos ou com falha
+     */
+    public InMemoryJobQueue(long leaseMillis, int maxAttempts, long resultTtlMillis) {
+        this.leaseMillis = Math.max(1, leaseMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.resultTtlMillis = Math.max(0, resultTtlMillis);
+    }
+
+    @Override
+    public synchronized void submit(RenderJob job) {
+        jobs.put(job.getId(), new Entry(job));
+        pending.addLast(job.getId());
+    }
+
+    @Override
+    public synchronized JobLease claim(String owner) {
+        recoverExpired(System.currentTimeMillis());
+
+        String id = pending.pollFirst();
+        if (id == null) {
+            return null;
+        }
+        Entry entry = jobs.get(id);
+        entry.job.setAttempts(entry.job.getAttempts() + 1);
+        JobLease lease = JobLease.create(entry.job, owner);
+        entry.status = RenderJobStatus.RUNNING;
+        entry.token = lease.token();
+        entry.leaseExpiresAt = System.currentTimeMillis() + leaseMillis;
+        return lease;
+    }
+
+    @Override
+    public synchronized boolean heartbeat(JobLease lease) {
+        Entry entry = owned(lease);
+        if (entry == null) {
+            return false;
+        }
+        entry.leaseExpiresAt = System.currentTimeMillis() + leaseMillis;
+        return true;
+    }
+
+    @Override
+    public boolean complete(JobLease lease, RenderOutput result) throws IOException {
+        // Cópia feita fora do lock: o documento pode ter vários megabytes
+        byte[] content = result.toByteArray();
+        synchronized (this) {
+            Entry entry = owned(lease);
+            if (entry == null) {
+                return false;
+            }
+            entry.job.setLastError(null);
+            finish(entry, RenderJobStatus.DONE);
+            entry.result = content;
+            return true;
+        }
+    }
+
+    @Override
+    public synchronized void fail(JobLease lease, String error) {
+        Entry entry = owned(lease);
+        if (entry != null) {
+            entry.job.setLastError(error);
+            retryOrFail(entry);
+        }
+    }
+
+    @Override
+    public synchronized void requeue(JobLease lease) {
+        Entry entry = owned(lease);
+        if (entry != null) {
+            entry.job.setAttempts(entry.job.getAttempts() - 1);
+            entry.status = RenderJobStatus.QUEUED;
+            entry.token = null;
+            pending.addFirst(entry.job.getId());
+        }
+    }
+
+    @Override
+    public synchronized RenderJobState state(String id) {
+        Entry entry = jobs.get(id);
+        if (entry == null) {
+            return null;
+        }
+        return RenderJobState.of(entry.job, entry.status, entry.result != null ? (long) entry.result.length : null);
+    }
+
+    @Override
+    public synchronized Resource openResult(String id) {
+        Entry entry = jobs.get(id);
+        return entry != null && entry.result != null ? new ByteArrayResource(entry.result) : null;
+    }
+
+    @Override
+    public synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        Iterator<Entry> iterator = jobs.values().iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if ((entry.status == RenderJobStatus.DONE || entry.status == RenderJobStatus.FAILED)
+                    && now - entry.finishedAt >= resultTtlMillis) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public Duration leaseDuration() {
+        return Duration.ofMillis(leaseMillis);
+    }
+
+    private Entry owned(JobLease lease) {
+        Entry entry = jobs.get(lease.job().getId());
+        return entry != null && entry.status == RenderJobStatus.RUNNING && lease.token().equals(entry.token)
+                ? entry : null;
+    }
+
+    private void recoverExpired(long now) {
+        for (Entry entry : jobs.values()) {
+            if (entry.status == RenderJobStatus.RUNNING && now - entry.leaseExpiresAt >= 0) {
+                logger.warn("Lease do job {} expirado na tentativa {}", entry.job.getId(), entry.job.getAttempts());
+                entry.job.setLastError("Lease expirado sem heartbeat");
+                retryOrFail(entry);
+            }
+        }
+    }
+
+    private void retryOrFail(Entry entry) {
+        entry.token = null;
+        if (entry.job.getAttempts() >= maxAttempts) {
+            finish(entry, RenderJobStatus.FAILED);
+        } else {
+            entry.status = RenderJobStatus.QUEUED;
+            pending.addLast(entry.job.getId());
+        }
+    }
+
+    private void finish(Entry entry, RenderJobStatus status) {
+        entry.status = status;
+        entry.token = null;
+        entry.finishedAt = System.currentTimeMillis();
+    }
+}
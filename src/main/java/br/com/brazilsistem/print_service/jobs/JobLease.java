@@ -0,0 +1,19 @@
+package br.com.brazilsistem.print_service.jobs;
+
+import br.com.brazilsistem.print_service.model.RenderJob;
+
+import java.util.UUID;
+
+/**
+ * Job retirado da fila por um worker. O token identifica esta execução: se o lease expira e o job é
+ * retomado por outro nó, as operações feitas com o token antigo são recusadas.
+ *
+ * @param job Job, com {@code attempts} já contando esta execução
+ * @param token Identificador da execução (worker e valor aleatório)
+ */
+public record JobLease(RenderJob job, String token) {
+
+    static JobLease create(RenderJob job, String owner) {
+        return new JobLease(job, owner + ":" + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,78 @@
+package br.com.brazilsistem.print_service.jobs;
+
+import br.com.brazilsistem.print_service.model.RenderJob;
+import br.com.brazilsistem.print_service.model.RenderJobState;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Fila dos jobs de renderização assíncrona.
+ * <p>
+ * Um job é retirado da fila por um worker com um lease, renovado por {@link #heartbeat(JobLease)}
+ * enquanto a renderização não termina. Se o lease expira (nó parado ou travado), o job volta para a
+ * fila e outro worker o executa, até {@code max-attempts} execuções. Implementações:
+ * {@link InMemoryJobQueue} (um único nó) e {@link SharedDirectoryJobQueue} (vários nós sobre um
+ * diretório compartilhado).
+ */
+public interface JobQueue {
+
+    /**
+     * Enfileira um job com identificador já preenchido ({@link RenderJob#newId()}).
+     */
+    void submit(RenderJob job) throws IOException;
+
+    /**
+     * Retira o próximo job da fila, pela ordem de chegada.
+     *
+     * @param owner Identificador do worker (nó e thread)
+     * @return O lease do job, ou {@code null} quando a fila está vazia
+     */
+    JobLease claim(String owner) throws IOException;
+
+    /**
+     * Renova o lease.
+     *
+     * @return {@code false} quando o lease foi perdido (expirou e o job foi retomado)
+     */
+    boolean heartbeat(JobLease lease) throws IOException;
+
+    /**
+     * Grava o documento gerado e conclui o job.
+     *
+     * @return {@code false} quando o lease foi perdido; o documento é descartado
+     */
+    boolean complete(JobLease lease, RenderOutput result) throws IOException;
+
+    /**
+     * Registra a falha da execução. O job volta para a fila enquanto houver tentativas.
+     */
+    void fail(JobLease lease, String error) throws IOException;
+
+    /**
+     * Devolve o job à fila sem contar a execução (ex.: renderização recusada por falta de vaga).
+     */
+    void requeue(JobLease lease) throws IOException;
+
+    /**
+     * @return A situação do job, ou {@code null} quando não existe ou já foi descartado
+     */
+    RenderJobState state(String id) throws IOException;
+
+    /**
+     * @return O documento gerado, ou {@code null} quando o job não está concluído
+     */
+    Resource openResult(String id) throws IOException;
+
+    /**
+     * Descarta os jobs concluídos ou com falha há mais de {@code result-ttl-seconds}.
+     */
+    void purgeExpired() throws IOException;
+
+    /**
+     * Duração do lease sem heartbeat.
+     */
+    Duration leaseDuration();
+}
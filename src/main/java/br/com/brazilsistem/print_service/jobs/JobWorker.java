@@ -0,0 +1,233 @@
+package br.com.brazilsistem.print_service.jobs;
+
+import br.com.brazilsistem.print_service.exception.RenderRejectedException;
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
+import br.com.brazilsistem.print_service.model.RenderJob;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import br.com.brazilsistem.print_service.scheduling.RenderPriority;
+import br.com.brazilsistem.print_service.scheduling.RenderScheduler;
+import br.com.brazilsistem.print_service.service.ExcelGenerationService;
+import br.com.brazilsistem.print_service.service.PdfGenerationService;
+import br.com.brazilsistem.print_service.startup.WarmupRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Workers que retiram os jobs de renderização da {@link JobQueue} e os executam.
+ * <p>
+ * Cada nó executa {@code workers} threads que disputam os jobs da fila: com a fila em diretório
+ * compartilhado, uma rajada de jobs recebida por um nó é distribuída entre todas as réplicas. A
+ * renderização ocupa uma vaga do {@link RenderScheduler} (classe BULK, salvo indicação no envio), de
+ * modo que os jobs não tiram capacidade das requisições interativas do nó. Os workers começam depois
+ * do aquecimento ({@link WarmupRunner}).
+ */
+@Component
+@Order(JobWorker.ORDER)
+public class JobWorker implements ApplicationRunner {
+
+    public static final int ORDER = WarmupRunner.ORDER + 100;
+
+    public static final String PROCESSED_COUNTER = "print.jobs.processed";
+
+    private static final Logger logger = LoggerFactory.getLogger(JobWorker.class);
+
+    private static final long PURGE_INTERVAL_MILLIS = 60_000;
+
+    private final JobQueue jobQueue;
+    private final PdfGenerationService pdfGenerationService;
+    private final ExcelGenerationService excelGenerationService;
+    private final RenderScheduler renderScheduler;
+    private final MeterRegistry registry;
+    private final int workers;
+    private final long pollIntervalMillis;
+    private final long shutdownWaitMillis;
+    private final String nodeId;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final List<Thread> threads = new ArrayList<>();
+    private ScheduledExecutorService heartbeats;
+
+    /**
+     * @param workers Threads que executam jobs neste nó (0 apenas enfileira)
+     * @param pollIntervalMillis Intervalo entre consultas à fila vazia
+     * @param shutdownWaitMillis Espera pelos jobs em execução no desligamento
+     * @param nodeId Identificador do nó nos leases (vazio usa host e PID)
+     */
+    @Autowired
+    public JobWorker(
+            JobQueue jobQueue,
+            PdfGenerationService pdfGenerationService,
+            ExcelGenerationService excelGenerationService,
+            RenderScheduler renderScheduler,
+            MeterRegistry registry,
+            @Value("${print-service.jobs.workers:2}") int workers,
+            @Value("${print-service.jobs.poll-interval-ms:1000}") long pollIntervalMillis,
+            @Value("${print-service.jobs.shutdown-wait-ms:30000}") long shutdownWaitMillis,
+            @Value("${print-service.jobs.node-id:}") String nodeId) {
+        this.jobQueue = jobQueue;
+        this.pdfGenerationService = pdfGenerationService;
+        this.excelGenerationService = excelGenerationService;
+        this.renderScheduler = renderScheduler;
+        this.registry = registry;
+        this.workers = Math.max(0, workers);
+        this.pollIntervalMillis = Math.max(10, pollIntervalMillis);
+        this.shutdownWaitMillis = Math.max(0, shutdownWaitMillis);
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId.trim();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (workers == 0 || !running.compareAndSet(false, true)) {
+            return;
+        }
+
+        heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "render-job-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleWithFixedDelay(this::purge, 0, PURGE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+
+        for (int i = 1; i <= workers; i++) {
+            String owner = nodeId + "/" + i;
+            Thread thread = new Thread(() -> poll(owner), "render-job-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+        logger.info("{} workers de jobs iniciados no nó {}", workers, nodeId);
+    }
+
+    private void poll(String owner) {
+        while (running.get()) {
+            try {
+                JobLease lease = jobQueue.claim(owner);
+                if (lease == null) {
+                    Thread.sleep(pollIntervalMillis);
+                } else {
+                    process(lease);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                logger.error("Erro ao consultar a fila de jobs", e);
+                try {
+                    Thread.sleep(pollIntervalMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Executa um job, renovando o lease durante a renderização.
+     */
+    void process(JobLease lease) throws IOException, InterruptedException {
+        RenderJob job = lease.job();
+        long heartbeatMillis = Math.max(1, jobQueue.leaseDuration().toMillis() / 3);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(() -> {
+            try {
+                if (!jobQueue.heartbeat(lease)) {
+                    logger.warn("Lease do job {} perdido durante a renderização", job.getId());
+                }
+            } catch (IOException e) {
+                logger.warn("Falha no heartbeat do job {}: {}", job.getId(), e.getMessage());
+            }
+        }, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        logger.info("Executando job {} ({}, tentativa {})", job.getId(), job.getFormat(), job.getAttempts());
+        String outcome;
+        try {
+            RenderPriority priority = renderScheduler.resolve(job.getPriority(), job.getReportData().getReportType(),
+                    RenderPriority.BULK);
+            try (RenderScheduler.Permit permit = renderScheduler.acquire(priority, job.getTenant());
+                 RenderOutput output = render(job)) {
+                outcome = jobQueue.complete(lease, output) ? "done" : "lost";
+            }
+        } catch (RenderRejectedException e) {
+            // Sem vaga neste nó: o job volta para a fila, para este ou outro nó
+            jobQueue.requeue(lease);
+            outcome = "requeued";
+            Thread.sleep(pollIntervalMillis);
+        } catch (Exception e) {
+            logger.error("Erro ao executar o job {}", job.getId(), e);
+            jobQueue.fail(lease, e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            outcome = "failed";
+        } finally {
+            heartbeat.cancel(false);
+        }
+
+        Counter.builder(PROCESSED_COUNTER)
+                .description("Execuções de jobs de renderização assíncrona por resultado")
+                .tag("format", job.getFormat())
+                .tag("outcome", outcome)
+                .register(registry)
+                .increment();
+    }
+
+    private RenderOutput render(RenderJob job) throws IOException {
+        return RenderMetrics.FORMAT_EXCEL.equals(job.getFormat())
+                ? excelGenerationService.generateExcelOutput(job.getReportData())
+                : pdfGenerationService.generatePdfOutput(job.getReportData());
+    }
+
+    private void purge() {
+        try {
+            jobQueue.purgeExpired();
+        } catch (Exception e) {
+            logger.warn("Falha ao descartar jobs expirados: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Para de retirar jobs e aguarda os que estão em execução. Os que não terminarem a tempo têm o
+     * lease expirado e são retomados por outro nó.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (!running.compareAndSet(true, false)) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(shutdownWaitMillis);
+        for (Thread thread : threads) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining > 0) {
+                thread.join(remaining);
+            }
+        }
+        heartbeats.shutdownNow();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (IOException e) {
+            host = "localhost";
+        }
+        // PID distingue várias instâncias na mesma máquina
+        return host + "-" + ProcessHandle.current().pid();
+    }
+}
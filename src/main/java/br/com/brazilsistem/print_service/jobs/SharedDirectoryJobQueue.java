@@ -0,0 +1,411 @@
+package br.com.brazilsistem.print_service.jobs;
+
+import br.com.brazilsistem.print_service.model.RenderJob;
+import br.com.brazilsistem.print_service.model.RenderJobState;
+import br.com.brazilsistem.print_service.model.RenderJobStatus;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila sobre um diretório compartilhado entre os nós (volume NFS, EFS ou, em testes, um diretório
+ * local com várias instâncias na mesma máquina).
+ * <p>
+ * Cada job é um arquivo JSON que passa entre os subdiretórios {@code pending}, {@code running},
+ * {@code done} e {@code failed}. As transições são feitas por {@code rename} atômico: quando dois nós
+ * tentam retirar o mesmo job, só um {@code rename} encontra o arquivo, e o outro passa ao próximo.
+ * <p>
+ * O lease de um job em execução é o arquivo {@code running/<id>.lease}, com o token da execução; o
+ * heartbeat atualiza a data de modificação dele. Um job cujo lease não é atualizado há mais de
+ * {@code lease-ms} é retomado por qualquer nó. Como a expiração compara datas gravadas por nós
+ * diferentes, os relógios devem estar sincronizados (NTP) com folga bem menor que o lease.
+ * <p>
+ * Os documentos gerados são gravados em {@code results/<id>}, de modo que qualquer nó atende
+ * {@code GET /jobs/{id}/result}.
+ */
+public class SharedDirectoryJobQueue implements JobQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(SharedDirectoryJobQueue.class);
+
+    private static final String JOB_SUFFIX = ".json";
+    private static final String LEASE_SUFFIX = ".lease";
+    private static final String CLAIMED_SUFFIX = ".claimed";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path pendingDir;
+    private final Path runningDir;
+    private final Path doneDir;
+    private final Path failedDir;
+    private final Path resultsDir;
+    private final Path tempDir;
+    private final long leaseMillis;
+    private final int maxAttempts;
+    private final long resultTtlMillis;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong lastRecovery = new AtomicLong();
+
+    /**
+     * @param directory Diretório compartilhado (criado se não existir)
+     * @param leaseMillis Duração do lease sem heartbeat
+     * @param maxAttempts Execuções antes de o job ser dado como falho
+     * @param resultTtlMillis Permanência dos jobs concluídos ou com falha
+     * @param objectMapper Serialização dos jobs
+     */
+    public SharedDirectoryJobQueue(Path directory, long leaseMillis, int maxAttempts, long resultTtlMillis,
+                                   ObjectMapper objectMapper) throws IOException {
+        this.pendingDir = Files.createDirectories(directory.resolve("pending"));
+        this.runningDir = Files.createDirectories(directory.resolve("running"));
+        this.doneDir = Files.createDirectories(directory.resolve("done"));
+        this.failedDir = Files.createDirectories(directory.resolve("failed"));
+        this.resultsDir = Files.createDirectories(directory.resolve("results"));
+        this.tempDir = Files.createDirectories(directory.resolve("tmp"));
+        this.leaseMillis = Math.max(1, leaseMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.resultTtlMillis = Math.max(0, resultTtlMillis);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void submit(RenderJob job) throws IOException {
+        write(pendingDir.resolve(job.getId() + JOB_SUFFIX), job);
+    }
+
+    @Override
+    public JobLease claim(String owner) throws IOException {
+        long now = System.currentTimeMillis();
+        long last = lastRecovery.get();
+        if (now - last >= leaseMillis / 2 && lastRecovery.compareAndSet(last, now)) {
+            recoverExpired(now);
+        }
+
+        for (Path source : list(pendingDir, "*" + JOB_SUFFIX)) {
+            Path target = runningDir.resolve(source.getFileName());
+            try {
+                // A data de modificação marca o início do lease até o arquivo de lease ser gravado
+                Files.setLastModifiedTime(source, FileTime.fromMillis(System.currentTimeMillis()));
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                // Retirado por outro nó
+                continue;
+            }
+
+            RenderJob job = read(target);
+            job.setAttempts(job.getAttempts() + 1);
+            JobLease lease = JobLease.create(job, owner);
+            writeBytes(leaseFile(job.getId()), lease.token().getBytes(StandardCharsets.UTF_8));
+            write(target, job);
+            return lease;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean heartbeat(JobLease lease) throws IOException {
+        Path leaseFile = leaseFile(lease.job().getId());
+        try {
+            if (!lease.token().equals(Files.readString(leaseFile, StandardCharsets.UTF_8))) {
+                return false;
+            }
+            Files.setLastModifiedTime(leaseFile, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean complete(JobLease lease, RenderOutput result) throws IOException {
+        String id = lease.job().getId();
+        Path tempResult = tempFile();
+        try {
+            try (OutputStream output = Files.newOutputStream(tempResult)) {
+                result.transferTo(output);
+            }
+
+            Path claimed = take(lease);
+            if (claimed == null) {
+                logger.warn("Lease do job {} perdido; documento gerado descartado", id);
+                return false;
+            }
+            // O resultado é publicado antes do JSON em done: um job DONE sempre tem o documento
+            Files.move(tempResult, resultsDir.resolve(id), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            lease.job().setLastError(null);
+            write(doneDir.resolve(id + JOB_SUFFIX), lease.job());
+            Files.deleteIfExists(claimed);
+            return true;
+        } finally {
+            Files.deleteIfExists(tempResult);
+        }
+    }
+
+    @Override
+    public void fail(JobLease lease, String error) throws IOException {
+        Path claimed = take(lease);
+        if (claimed != null) {
+            lease.job().setLastError(error);
+            retryOrFail(lease.job());
+            Files.deleteIfExists(claimed);
+        }
+    }
+
+    @Override
+    public void requeue(JobLease lease) throws IOException {
+        Path claimed = take(lease);
+        if (claimed != null) {
+            lease.job().setAttempts(lease.job().getAttempts() - 1);
+            write(pendingDir.resolve(lease.job().getId() + JOB_SUFFIX), lease.job());
+            Files.deleteIfExists(claimed);
+        }
+    }
+
+    @Override
+    public RenderJobState state(String id) throws IOException {
+        if (!RenderJob.isValidId(id)) {
+            return null;
+        }
+        // Segunda passada para o job que mudou de diretório durante a primeira
+        for (int pass = 0; pass < 2; pass++) {
+            RenderJobState state = find(id);
+            if (state != null) {
+                return state;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Resource openResult(String id) {
+        if (!RenderJob.isValidId(id) || !Files.exists(doneDir.resolve(id + JOB_SUFFIX))) {
+            return null;
+        }
+        Path result = resultsDir.resolve(id);
+        return Files.exists(result) ? new FileSystemResource(result) : null;
+    }
+
+    @Override
+    public void purgeExpired() throws IOException {
+        long now = System.currentTimeMillis();
+        for (Path dir : List.of(doneDir, failedDir)) {
+            for (Path file : list(dir, "*" + JOB_SUFFIX)) {
+                if (isOlderThan(file, now, resultTtlMillis)) {
+                    Files.deleteIfExists(resultsDir.resolve(jobId(file)));
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        // Escritas interrompidas e leases de jobs que já saíram de running
+        for (Path file : list(tempDir, "*" + TEMP_SUFFIX)) {
+            if (isOlderThan(file, now, Math.max(resultTtlMillis, leaseMillis))) {
+                Files.deleteIfExists(file);
+            }
+        }
+        for (Path file : list(runningDir, "*" + LEASE_SUFFIX)) {
+            if (!Files.exists(runningDir.resolve(jobId(file) + JOB_SUFFIX)) && isOlderThan(file, now, leaseMillis)) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Override
+    public Duration leaseDuration() {
+        return Duration.ofMillis(leaseMillis);
+    }
+
+    /**
+     * Retoma os jobs com lease expirado e os que ficaram em transição em um nó que parou.
+     */
+    private void recoverExpired(long now) throws IOException {
+        for (Path file : list(runningDir, "*" + JOB_SUFFIX)) {
+            String id = jobId(file);
+            long leaseTime = lastModified(leaseFile(id));
+            if (leaseTime < 0) {
+                leaseTime = lastModified(file);
+            }
+            if (leaseTime < 0 || now - leaseTime < leaseMillis) {
+                continue;
+            }
+
+            Path claimed = moveToTemp(file, id);
+            if (claimed == null) {
+                continue;
+            }
+            Files.deleteIfExists(leaseFile(id));
+            RenderJob job = read(claimed);
+            logger.warn("Lease do job {} expirado na tentativa {}; retomando", id, job.getAttempts());
+            job.setLastError("Lease expirado sem heartbeat");
+            retryOrFail(job);
+            Files.deleteIfExists(claimed);
+        }
+
+        for (Path file : list(tempDir, "*" + CLAIMED_SUFFIX)) {
+            if (!isOlderThan(file, now, leaseMillis)) {
+                continue;
+            }
+            String id = jobId(file);
+            Path claimed = moveToTemp(file, id);
+            if (claimed == null) {
+                continue;
+            }
+            RenderJob job = read(claimed);
+            if (Files.exists(resultsDir.resolve(id))) {
+                // Parou depois de publicar o documento
+                write(doneDir.resolve(id + JOB_SUFFIX), job);
+            } else {
+                logger.warn("Job {} interrompido durante uma transição; retomando", id);
+                job.setLastError("Nó interrompido durante a atualização do job");
+                retryOrFail(job);
+            }
+            Files.deleteIfExists(claimed);
+        }
+    }
+
+    private void retryOrFail(RenderJob job) throws IOException {
+        Path dir = job.getAttempts() >= maxAttempts ? failedDir : pendingDir;
+        write(dir.resolve(job.getId() + JOB_SUFFIX), job);
+    }
+
+    /**
+     * Confirma o lease e retira o job de running para atualizá-lo.
+     *
+     * @return O arquivo do job fora de running, ou {@code null} quando o lease foi perdido
+     */
+    private Path take(JobLease lease) throws IOException {
+        if (!heartbeat(lease)) {
+            return null;
+        }
+        String id = lease.job().getId();
+        Path claimed = moveToTemp(runningDir.resolve(id + JOB_SUFFIX), id);
+        if (claimed != null) {
+            Files.deleteIfExists(leaseFile(id));
+        }
+        return claimed;
+    }
+
+    /**
+     * Retira o arquivo do job para atualizá-lo; só um nó consegue retirar cada arquivo. A data de
+     * modificação é renovada antes, para que a recuperação de {@code *.claimed} não o retome.
+     */
+    private Path moveToTemp(Path file, String id) throws IOException {
+        Path claimed = tempDir.resolve(id + "." + UUID.randomUUID() + CLAIMED_SUFFIX);
+        try {
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            Files.move(file, claimed, StandardCopyOption.ATOMIC_MOVE);
+            return claimed;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private RenderJobState find(String id) throws IOException {
+        String name = id + JOB_SUFFIX;
+        RenderJob job;
+        if ((job = readIfExists(pendingDir.resolve(name))) != null) {
+            return RenderJobState.of(job, RenderJobStatus.QUEUED, null);
+        }
+        if ((job = readIfExists(runningDir.resolve(name))) != null) {
+            return RenderJobState.of(job, RenderJobStatus.RUNNING, null);
+        }
+        if ((job = readIfExists(doneDir.resolve(name))) != null) {
+            long size = lastModified(resultsDir.resolve(id)) < 0 ? -1 : Files.size(resultsDir.resolve(id));
+            return size < 0 ? null : RenderJobState.of(job, RenderJobStatus.DONE, size);
+        }
+        if ((job = readIfExists(failedDir.resolve(name))) != null) {
+            return RenderJobState.of(job, RenderJobStatus.FAILED, null);
+        }
+        for (Path claimed : list(tempDir, id + ".*" + CLAIMED_SUFFIX)) {
+            if ((job = readIfExists(claimed)) != null) {
+                return RenderJobState.of(job, RenderJobStatus.RUNNING, null);
+            }
+        }
+        return null;
+    }
+
+    private Path leaseFile(String id) {
+        return runningDir.resolve(id + LEASE_SUFFIX);
+    }
+
+    private RenderJob read(Path file) throws IOException {
+        return objectMapper.readValue(file.toFile(), RenderJob.class);
+    }
+
+    private RenderJob readIfExists(Path file) throws IOException {
+        try {
+            return objectMapper.readValue(Files.readAllBytes(file), RenderJob.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void write(Path target, RenderJob job) throws IOException {
+        writeBytes(target, objectMapper.writeValueAsBytes(job));
+    }
+
+    /**
+     * Grava em um arquivo temporário e o renomeia sobre o destino: os outros nós nunca leem um
+     * arquivo pela metade.
+     */
+    private void writeBytes(Path target, byte[] content) throws IOException {
+        Path temp = tempFile();
+        try {
+            Files.write(temp, content);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path tempFile() {
+        return tempDir.resolve(UUID.randomUUID() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Arquivos do diretório pela ordem dos nomes (ordem de chegada dos jobs).
+     */
+    private static List<Path> list(Path dir, String glob) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, glob)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static String jobId(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.indexOf('.');
+        return dot < 0 ? name : name.substring(0, dot);
+    }
+
+    private static long lastModified(Path file) throws IOException {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (NoSuchFileException e) {
+            return -1;
+        }
+    }
+
+    private static boolean isOlderThan(Path file, long now, long millis) throws IOException {
+        long modified = lastModified(file);
+        return modified >= 0 && now - modified >= millis;
+    }
+}
@@ -0,0 +1,53 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Mede o tempo de desserialização (bind) do JSON de {@link ReportData} recebido pelos endpoints.
+ */
+@ControllerAdvice
+public class BindTimingAdvice extends RequestBodyAdviceAdapter {
+
+    private final RenderMetrics renderMetrics;
+
+    // Início da leitura do corpo (a leitura ocorre na mesma thread da requisição)
+    private final ThreadLocal<RenderMetrics.PhaseSample> bindStart = new ThreadLocal<>();
+
+    @Autowired
+    public BindTimingAdvice(RenderMetrics renderMetrics) {
+        this.renderMetrics = renderMetrics;
+    }
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return ReportData.class.equals(targetType);
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+        bindStart.set(renderMetrics.startPhase());
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        RenderMetrics.PhaseSample sample = bindStart.get();
+        bindStart.remove();
+        if (sample != null && body instanceof ReportData reportData) {
+            renderMetrics.stopPhase(sample, reportData.getReportType(), RenderMetrics.PHASE_BIND, null, true);
+        }
+        return body;
+    }
+}
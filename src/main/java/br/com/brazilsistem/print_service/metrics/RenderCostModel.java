@@ -0,0 +1,118 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modelo de custo das renderizações de PDF, usado nas estimativas de tamanho e tempo.
+ * <p>
+ * O tamanho é estimado por {@code páginas x bytesPorPágina + células x bytesPorCélula}, corrigido por
+ * um fator aprendido com as renderizações reais de cada tipo de relatório. O tempo usa o custo por
+ * célula observado nas renderizações reais; sem histórico, quem estima informa o tempo de layout
+ * medido e o modelo o converte com uma razão fixa entre renderização completa e layout.
+ */
+@Component
+public class RenderCostModel {
+
+    private final double bytesPerCell;
+    private final double bytesPerPage;
+    private final double renderToLayoutRatio;
+    private final double weight;
+    private final int maxReportTypes;
+    private final Map<String, Calibration> calibrations = new ConcurrentHashMap<>();
+
+    /**
+     * Médias móveis de um tipo de relatório.
+     */
+    private static class Calibration {
+        volatile double bytesCorrection = -1;
+        volatile double nanosPerCell = -1;
+    }
+
+    @Autowired
+    public RenderCostModel(
+            @Value("${print-service.estimate.bytes-per-cell:${print-service.output.estimated-bytes-per-cell:48}}") double bytesPerCell,
+            @Value("${print-service.estimate.bytes-per-page:2048}") double bytesPerPage,
+            @Value("${print-service.estimate.render-to-layout-ratio:1.5}") double renderToLayoutRatio,
+            @Value("${print-service.estimate.calibration-weight:0.2}") double weight,
+            @Value("${print-service.metrics.max-report-types:100}") int maxReportTypes) {
+        this.bytesPerCell = bytesPerCell;
+        this.bytesPerPage = bytesPerPage;
+        this.renderToLayoutRatio = renderToLayoutRatio;
+        this.weight = Math.min(1.0, Math.max(0.01, weight));
+        this.maxReportTypes = maxReportTypes;
+    }
+
+    /**
+     * Estima o tamanho do PDF em bytes.
+     */
+    public long estimateBytes(String reportType, long pages, long cells) {
+        double predicted = predictBytes(pages, cells);
+        Calibration calibration = calibrations.get(key(reportType));
+        double correction = calibration != null ? calibration.bytesCorrection : -1;
+        return Math.round(correction > 0 ? predicted * correction : predicted);
+    }
+
+    /**
+     * Estima o tempo de renderização completa em milissegundos.
+     *
+     * @param reportType Tipo do relatório
+     * @param cells Total de células de tabela do relatório
+     * @param layoutNanos Tempo de layout medido (ou extrapolado) para o relatório inteiro
+     */
+    public long estimateMillis(String reportType, long cells, long layoutNanos) {
+        Calibration calibration = calibrations.get(key(reportType));
+        double nanosPerCell = calibration != null ? calibration.nanosPerCell : -1;
+        if (nanosPerCell > 0 && cells > 0) {
+            return Math.round(cells * nanosPerCell / 1_000_000.0);
+        }
+        return Math.round(layoutNanos * renderToLayoutRatio / 1_000_000.0);
+    }
+
+    /**
+     * Indica se já há renderizações reais registradas para o tipo de relatório.
+     */
+    public boolean isCalibrated(String reportType) {
+        return calibrations.containsKey(key(reportType));
+    }
+
+    /**
+     * Registra uma renderização real, atualizando as médias do tipo de relatório.
+     */
+    public void record(String reportType, long pages, long cells, long bytes, long nanos) {
+        if (bytes <= 0) {
+            return;
+        }
+        String key = key(reportType);
+        Calibration calibration = calibrations.get(key);
+        if (calibration == null) {
+            if (calibrations.size() >= maxReportTypes) {
+                return;
+            }
+            calibration = calibrations.computeIfAbsent(key, k -> new Calibration());
+        }
+
+        synchronized (calibration) {
+            calibration.bytesCorrection = average(calibration.bytesCorrection, bytes / predictBytes(pages, cells));
+            if (cells > 0) {
+                calibration.nanosPerCell = average(calibration.nanosPerCell, (double) nanos / cells);
+            }
+        }
+    }
+
+    private double predictBytes(long pages, long cells) {
+        return Math.max(1.0, pages * bytesPerPage + cells * bytesPerCell);
+    }
+
+    private double average(double current, double sample) {
+        return current < 0 ? sample : current + weight * (sample - current);
+    }
+
+    private static String key(String reportType) {
+        return reportType != null ? reportType : "";
+    }
+}
@@ -0,0 +1,223 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import br.com.brazilsistem.print_service.model.Section;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Centraliza a instrumentação (Micrometer) da geração de relatórios.
+ * Todas as métricas são marcadas com endpoint, reportType e resultado, permitindo
+ * montar painéis de SLO por tipo de relatório a partir do endpoint Prometheus.
+ */
+@Component
+public class RenderMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderMetrics.class);
+
+    public static final String RENDER_TIMER = "print.render";
+    public static final String PHASE_TIMER = "print.render.phase";
+    public static final String OUTPUT_BYTES = "print.render.output.bytes";
+    public static final String OUTPUT_PAGES = "print.render.output.pages";
+    public static final String TABLE_ROWS = "print.render.table.rows";
+    public static final String TABLE_CELLS = "print.render.table.cells";
+    public static final String FIRST_PDF_GAUGE = "print.startup.first.pdf";
+
+    public static final String FORMAT_PDF = "pdf";
+    public static final String FORMAT_EXCEL = "xlsx";
+
+    public static final String PHASE_BIND = "bind";
+    public static final String PHASE_HEADER = "header";
+    public static final String PHASE_SECTION = "section";
+    public static final String PHASE_FOOTER = "footer";
+    public static final String PHASE_CLOSE = "close";
+    public static final String PHASE_EXCEL_BUILD = "excel.build";
+    public static final String PHASE_EXCEL_WRITE = "excel.write";
+
+    private static final String UNKNOWN = "unknown";
+    private static final String NONE = "none";
+
+    private final MeterRegistry registry;
+    private final RenderProfiler profiler;
+
+    // Tempo (ms desde o início da JVM) até o primeiro PDF entregue a um cliente; -1 enquanto não houver
+    private final AtomicLong firstPdfUptimeMillis = new AtomicLong(-1);
+
+    @Autowired
+    public RenderMetrics(MeterRegistry registry, RenderProfiler profiler) {
+        this.registry = registry;
+        this.profiler = profiler;
+
+        Gauge.builder(FIRST_PDF_GAUGE, firstPdfUptimeMillis, value -> value.get() < 0 ? Double.NaN : value.get() / 1000.0)
+                .description("Tempo desde o início da JVM até o primeiro PDF gerado com sucesso para uma requisição")
+                .baseUnit("seconds")
+                .register(registry);
+    }
+
+    /**
+     * Etapa de renderização que pode lançar IOException, permitindo medir
+     * chamadas aos renderizadores sem duplicar blocos try/finally.
+     */
+    @FunctionalInterface
+    public interface RenderStep {
+        void run() throws IOException;
+    }
+
+    /**
+     * Início de uma fase medida, incluindo a marca do perfilador quando a requisição é perfilada.
+     */
+    public record PhaseSample(long startNanos, RenderProfiler.Mark profileMark) {
+    }
+
+    /**
+     * Executa uma etapa medindo seu tempo e registrando o resultado (sucesso ou erro).
+     *
+     * @param reportType Tipo do relatório
+     * @param phase Nome da fase (header, section, footer, close...)
+     * @param sectionType Tipo da seção, quando a fase for de seção
+     * @param step Etapa a ser executada
+     * @throws IOException Se a etapa lançar erro de E/S
+     */
+    public void timePhase(String reportType, String phase, String sectionType, RenderStep step) throws IOException {
+        PhaseSample sample = startPhase();
+        boolean success = false;
+        try {
+            step.run();
+            success = true;
+        } finally {
+            stopPhase(sample, reportType, phase, sectionType, success);
+        }
+    }
+
+    /**
+     * Inicia a medição de uma fase que não pode ser expressa como {@link RenderStep}.
+     */
+    public PhaseSample startPhase() {
+        return new PhaseSample(System.nanoTime(), profiler.start());
+    }
+
+    /**
+     * Finaliza a medição iniciada por {@link #startPhase()}, registrando a métrica e,
+     * se houver perfil ativo, a entrada correspondente no perfil.
+     */
+    public void stopPhase(PhaseSample sample, String reportType, String phase, String sectionType, boolean success) {
+        recordPhase(reportType, phase, sectionType, System.nanoTime() - sample.startNanos(), success);
+        if (sample.profileMark() != null) {
+            profiler.record(sample.profileMark(), reportType,
+                    sectionType != null ? phase + "." + sectionType.toLowerCase() : phase);
+        }
+    }
+
+    public void recordPhase(String reportType, String phase, String sectionType, long nanos, boolean success) {
+        Timer.builder(PHASE_TIMER)
+                .description("Tempo de cada fase da geração de relatórios")
+                .tags(baseTags(reportType, success))
+                .tag("phase", phase)
+                .tag("sectionType", sectionType != null ? sectionType.toLowerCase() : NONE)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Registra o tempo total de geração de um documento.
+     */
+    public void recordRender(String reportType, String format, long nanos, boolean success) {
+        Timer.builder(RENDER_TIMER)
+                .description("Tempo total de geração de relatórios")
+                .tags(baseTags(reportType, success))
+                .tag("format", format)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+
+        if (success && FORMAT_PDF.equals(format) && firstPdfUptimeMillis.get() < 0
+                && !NONE.equals(currentEndpoint())) {
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            if (firstPdfUptimeMillis.compareAndSet(-1, uptime)) {
+                logger.info("Primeiro PDF entregue {} ms após o início da JVM", uptime);
+            }
+        }
+    }
+
+    /**
+     * Tempo em milissegundos desde o início da JVM até o primeiro PDF entregue, ou -1 se ainda não houve.
+     * Renderizações fora de requisições HTTP (treinamento, warm-up, benchmarks) não são consideradas.
+     */
+    public long getFirstPdfUptimeMillis() {
+        return firstPdfUptimeMillis.get();
+    }
+
+    /**
+     * Registra o tamanho do arquivo gerado e, para PDFs, o número de páginas.
+     */
+    public void recordOutput(String reportType, String format, long bytes, int pages) {
+        summary(OUTPUT_BYTES, "Tamanho dos arquivos gerados", "bytes", reportType, format).record(bytes);
+        if (pages > 0) {
+            summary(OUTPUT_PAGES, "Número de páginas dos PDFs gerados", "pages", reportType, format).record(pages);
+        }
+    }
+
+    /**
+     * Registra o volume de linhas e células das seções de tabela, incluindo seções aninhadas.
+     */
+    public void recordTableVolume(String reportType, String format, List<Section> sections) {
+        TableVolume volume = TableVolume.of(sections);
+        summary(TABLE_ROWS, "Linhas de tabela renderizadas por relatório", "rows", reportType, format).record(volume.rows());
+        summary(TABLE_CELLS, "Células de tabela renderizadas por relatório", "cells", reportType, format).record(volume.cells());
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    private DistributionSummary summary(String name, String description, String unit, String reportType, String format) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit(unit)
+                .tags(baseTags(reportType, true))
+                .tag("format", format)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    private Tags baseTags(String reportType, boolean success) {
+        return Tags.of(
+                "endpoint", currentEndpoint(),
+                "reportType", reportType != null && !reportType.isBlank() ? reportType : UNKNOWN,
+                "outcome", success ? "success" : "error");
+    }
+
+    /**
+     * Obtém o padrão do endpoint da requisição atual (ex: /pdf/generate).
+     * Fora de uma requisição HTTP (warm-up, benchmarks) retorna "none".
+     */
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            return pattern != null ? pattern.toString() : request.getRequestURI();
+        }
+        return NONE;
+    }
+}
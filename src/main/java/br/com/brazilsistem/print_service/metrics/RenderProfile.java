@@ -0,0 +1,128 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Perfil de renderização de uma requisição: tempo de relógio, tempo de CPU e bytes
+ * alocados para cada fase e seção do relatório.
+ */
+@Data
+@Schema(description = "Perfil de renderização de uma requisição")
+public class RenderProfile {
+
+    @Schema(description = "Identificador do perfil, gerado pelo servidor", example = "3f1c2a9e-5b7d-4c1e-9f0a-1b2c3d4e5f60")
+    private String id;
+
+    @Schema(description = "Identificador informado pelo cliente no cabeçalho X-Request-Id, apenas para correlação",
+            example = "pedido-4711")
+    private String requestId;
+
+    @Schema(description = "Tipo de relatório", example = "invoice")
+    private String reportType;
+
+    @Schema(description = "Medições de cada fase, na ordem de execução")
+    private List<Entry> entries = new ArrayList<>();
+
+    @Schema(description = "Medição total da requisição")
+    private Entry total;
+
+    /**
+     * Nomes já usados nas medições, com a última ocorrência atribuída a cada nome de fase.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient Map<String, Integer> occurrences = new HashMap<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "Medição de uma fase da renderização")
+    public static class Entry {
+        @Schema(description = "Nome da fase", example = "section.table")
+        private String name;
+
+        @Schema(description = "Tempo de relógio em nanossegundos")
+        private long wallNanos;
+
+        @Schema(description = "Tempo de CPU da thread em nanossegundos (-1 se indisponível)")
+        private long cpuNanos;
+
+        @Schema(description = "Bytes alocados pela thread (-1 se indisponível)")
+        private long allocatedBytes;
+    }
+
+    public RenderProfile(String id, String requestId) {
+        this.id = id;
+        this.requestId = requestId;
+    }
+
+    /**
+     * Adiciona uma medição, tornando o nome único quando a mesma fase se repete
+     * (ex: várias seções do tipo tabela).
+     */
+    void addEntry(String name, long wallNanos, long cpuNanos, long allocatedBytes) {
+        String uniqueName = name;
+        int occurrence = occurrences.getOrDefault(name, 0);
+        if (occurrence > 0) {
+            do {
+                uniqueName = name + "." + (++occurrence);
+            } while (occurrences.containsKey(uniqueName));
+            occurrences.putIfAbsent(uniqueName, 1);
+        }
+        occurrences.put(name, Math.max(occurrence, 1));
+        entries.add(new Entry(uniqueName, wallNanos, cpuNanos, allocatedBytes));
+    }
+
+    /**
+     * Formata o perfil para o cabeçalho HTTP Server-Timing.
+     * Exemplo: header;dur=12.300;desc="cpu=10.100ms alloc=1204KB"
+     */
+    public String toServerTiming() {
+        StringBuilder builder = new StringBuilder();
+        for (Entry entry : entries) {
+            appendServerTiming(builder, entry);
+        }
+        if (total != null) {
+            appendServerTiming(builder, total);
+        }
+        return builder.toString();
+    }
+
+    private void appendServerTiming(StringBuilder builder, Entry entry) {
+        if (!builder.isEmpty()) {
+            builder.append(", ");
+        }
+        builder.append(entry.getName())
+                .append(";dur=").append(millis(entry.getWallNanos()));
+
+        StringBuilder description = new StringBuilder();
+        if (entry.getCpuNanos() >= 0) {
+            description.append("cpu=").append(millis(entry.getCpuNanos())).append("ms");
+        }
+        if (entry.getAllocatedBytes() >= 0) {
+            if (!description.isEmpty()) {
+                description.append(' ');
+            }
+            description.append("alloc=").append(entry.getAllocatedBytes() / 1024).append("KB");
+        }
+        if (!description.isEmpty()) {
+            builder.append(";desc=\"").append(description).append('"');
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Finaliza o perfil de renderização pouco antes da escrita da resposta e publica o
+ * resultado nos cabeçalhos Server-Timing e {@value #PROFILE_ID_HEADER}.
+ * O detalhamento completo fica disponível em GET /profiles/{id}.
+ */
+@ControllerAdvice
+public class RenderProfileAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    public static final String PROFILE_ID_HEADER = "X-Render-Profile-Id";
+
+    private final RenderProfiler profiler;
+
+    @Autowired
+    public RenderProfileAdvice(RenderProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (profiler.current() != null) {
+            RenderProfile profile = profiler.finish();
+            response.getHeaders().add(SERVER_TIMING_HEADER, profile.toServerTiming());
+            response.getHeaders().add(PROFILE_ID_HEADER, profile.getId());
+        }
+        return body;
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Ativa o perfil de renderização para requisições que o solicitam pelo cabeçalho
+ * {@value #PROFILE_HEADER}. O perfil é iniciado antes do bind do JSON, para que
+ * a desserialização também seja medida.
+ */
+@Component
+public class RenderProfileInterceptor implements HandlerInterceptor {
+
+    public static final String PROFILE_HEADER = "X-Render-Profile";
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+
+    private static final int MAX_REQUEST_ID_LENGTH = 128;
+
+    private final RenderProfiler profiler;
+
+    @Autowired
+    public RenderProfileInterceptor(RenderProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (profiler.isEnabled() && "true".equalsIgnoreCase(request.getHeader(PROFILE_HEADER))) {
+            // O id do cliente serve só para correlação; o id do perfil é gerado pelo servidor
+            String requestId = request.getHeader(REQUEST_ID_HEADER);
+            boolean validRequestId = requestId != null && !requestId.isBlank() && requestId.length() <= MAX_REQUEST_ID_LENGTH;
+            profiler.begin(validRequestId ? requestId : null);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        // Garante que nenhum perfil fique preso à thread do pool em caso de erro
+        profiler.clear();
+    }
+}
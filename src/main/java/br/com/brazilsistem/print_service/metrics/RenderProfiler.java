@@ -0,0 +1,151 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Perfilador opcional, por requisição, da geração de relatórios.
+ * Quando a requisição não solicita perfil, o custo se resume a uma leitura de ThreadLocal
+ * por fase; os contadores de CPU e alocação da thread só são consultados para perfis ativos.
+ */
+@Component
+public class RenderProfiler {
+
+    private final ThreadLocal<RenderProfile> currentProfile = new ThreadLocal<>();
+    private final ThreadLocal<Mark> requestStart = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Map<String, RenderProfile> retainedProfiles;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final boolean cpuTimeSupported;
+    private final boolean allocationSupported;
+
+    /**
+     * Instante inicial de uma medição.
+     */
+    public record Mark(long wallNanos, long cpuNanos, long allocatedBytes) {
+    }
+
+    public RenderProfiler(
+            @Value("${print-service.profiling.enabled:true}") boolean enabled,
+            @Value("${print-service.profiling.retained-profiles:100}") int retainedProfiles) {
+        this.enabled = enabled;
+        this.retainedProfiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, RenderProfile> eldest) {
+                return size() > retainedProfiles;
+            }
+        };
+
+        this.cpuTimeSupported = threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+        this.allocationSupported = threadBean instanceof com.sun.management.ThreadMXBean sunBean
+                && sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Inicia o perfil da requisição atual. O identificador do perfil é sempre gerado aqui, para que
+     * um cliente não possa sobrescrever nem consultar o perfil de outra requisição.
+     *
+     * @param requestId Identificador informado pelo cliente, guardado apenas para correlação (pode ser null)
+     * @return Identificador do perfil
+     */
+    public String begin(String requestId) {
+        RenderProfile profile = new RenderProfile(UUID.randomUUID().toString(), requestId);
+        currentProfile.set(profile);
+        requestStart.set(mark());
+        return profile.getId();
+    }
+
+    /**
+     * Retorna o perfil ativo da thread atual, ou null quando a requisição não é perfilada.
+     */
+    public RenderProfile current() {
+        return currentProfile.get();
+    }
+
+    /**
+     * Captura o instante atual para uma fase, ou null quando não há perfil ativo.
+     */
+    public Mark start() {
+        return currentProfile.get() != null ? mark() : null;
+    }
+
+    /**
+     * Registra a fase iniciada em {@code mark} no perfil ativo.
+     */
+    public void record(Mark mark, String reportType, String name) {
+        RenderProfile profile = currentProfile.get();
+        if (mark == null || profile == null) {
+            return;
+        }
+        if (profile.getReportType() == null) {
+            profile.setReportType(reportType);
+        }
+        Mark end = mark();
+        profile.addEntry(name, end.wallNanos() - mark.wallNanos(),
+                delta(mark.cpuNanos(), end.cpuNanos()), delta(mark.allocatedBytes(), end.allocatedBytes()));
+    }
+
+    /**
+     * Finaliza o perfil ativo, calculando o total e guardando-o para consulta posterior.
+     *
+     * @return Perfil finalizado ou null se não havia perfil ativo
+     */
+    public RenderProfile finish() {
+        RenderProfile profile = currentProfile.get();
+        Mark start = requestStart.get();
+        clear();
+
+        if (profile == null || start == null) {
+            return null;
+        }
+
+        Mark end = mark();
+        profile.setTotal(new RenderProfile.Entry("total", end.wallNanos() - start.wallNanos(),
+                delta(start.cpuNanos(), end.cpuNanos()), delta(start.allocatedBytes(), end.allocatedBytes())));
+
+        synchronized (retainedProfiles) {
+            retainedProfiles.put(profile.getId(), profile);
+        }
+        return profile;
+    }
+
+    /**
+     * Descarta o perfil da thread atual sem guardá-lo.
+     */
+    public void clear() {
+        currentProfile.remove();
+        requestStart.remove();
+    }
+
+    /**
+     * Obtém um perfil finalizado pelo identificador.
+     */
+    public RenderProfile getProfile(String id) {
+        synchronized (retainedProfiles) {
+            return retainedProfiles.get(id);
+        }
+    }
+
+    private Mark mark() {
+        long cpu = cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : -1;
+        long allocated = allocationSupported
+                ? ((com.sun.management.ThreadMXBean) threadBean).getCurrentThreadAllocatedBytes() : -1;
+        return new Mark(System.nanoTime(), cpu, allocated);
+    }
+
+    private static long delta(long start, long end) {
+        return start < 0 || end < 0 ? -1 : end - start;
+    }
+}
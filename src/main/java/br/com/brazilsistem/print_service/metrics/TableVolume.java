@@ -0,0 +1,49 @@
+package br.com.brazilsistem.print_service.metrics;
+
+import br.com.brazilsistem.print_service.model.NestedSection;
+import br.com.brazilsistem.print_service.model.Section;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Volume de linhas e células das seções de tabela de um relatório, incluindo seções aninhadas.
+ *
+ * @param rows Total de linhas
+ * @param cells Total de células
+ */
+public record TableVolume(long rows, long cells) {
+
+    /**
+     * Calcula o volume das seções informadas.
+     */
+    public static TableVolume of(List<Section> sections) {
+        long rows = 0;
+        long cells = 0;
+
+        for (Section section : sections) {
+            if (section.getData() == null || section.getColumns() == null) {
+                continue;
+            }
+            int columnCount = section.getColumns().size();
+            for (Map<String, Object> row : section.getData()) {
+                if (row == null) {
+                    continue;
+                }
+                rows++;
+                cells += columnCount;
+
+                if (section.getNestedSections() != null) {
+                    for (NestedSection nested : section.getNestedSections()) {
+                        if (nested.getColumns() != null && row.get(nested.getSourceField()) instanceof List<?> nestedRows) {
+                            rows += nestedRows.size();
+                            cells += (long) nestedRows.size() * nested.getColumns().size();
+                        }
+                    }
+                }
+            }
+        }
+
+        return new TableVolume(rows, cells);
+    }
+}
@@ -0,0 +1,40 @@
+package br.com.brazilsistem.print_service.model;
+
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Perfis de compressão da saída do PDF: nível do deflate, compressão completa (objetos e tabela
+ * de referências em streams comprimidos) e modo inteligente (reutilização de recursos iguais
+ * copiados de outros documentos, como a faixa do cabeçalho e as páginas da pré-visualização).
+ */
+@Schema(description = "Perfil de compressão do PDF: FAST (menor uso de CPU), BALANCED ou SMALLEST (menor arquivo)")
+public enum CompressionProfile {
+
+    FAST(CompressionConstants.BEST_SPEED, false, false),
+    BALANCED(CompressionConstants.DEFAULT_COMPRESSION, true, true),
+    SMALLEST(CompressionConstants.BEST_COMPRESSION, true, true);
+
+    private final int compressionLevel;
+    private final boolean fullCompression;
+    private final boolean smartMode;
+
+    CompressionProfile(int compressionLevel, boolean fullCompression, boolean smartMode) {
+        this.compressionLevel = compressionLevel;
+        this.fullCompression = fullCompression;
+        this.smartMode = smartMode;
+    }
+
+    /**
+     * Aplica o perfil às propriedades do PdfWriter.
+     */
+    public WriterProperties apply(WriterProperties writerProperties) {
+        writerProperties.setCompressionLevel(compressionLevel);
+        writerProperties.setFullCompressionMode(fullCompression);
+        if (smartMode) {
+            writerProperties.useSmartMode();
+        }
+        return writerProperties;
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.brazilsistem.print_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import java.util.ArrayList;
@@ -50,11 +51,18 @@ public class NestedSection {
     @Schema(description = "Espaçamento entre colunas em pontos", example = "5.0")
     private Float columnGap = 5f;
 
+    @Schema(description = "Renderiza cada item como uma linha recuada da tabela principal, em vez de uma tabela " +
+            "dentro de uma única célula; indicado para muitos itens por linha", example = "false")
+    private Boolean flatRows = false; // Itens como linhas da tabela principal
+
     /**
      * Retorna a lista de identificadores de colunas (chaves do mapa).
+     * Não é serializada: a ordem das colunas já vai no próprio mapa {@code columns}, na ordem recebida,
+     * e é dele que a chave do {@code RenderCoalescer} e o hash dos templates a obtêm.
      *
      * @return Lista de identificadores de colunas
      */
+    @JsonIgnore
     public List<String> getColumnIds() {
         if (columns == null) {
             return new ArrayList<>();
@@ -67,6 +75,7 @@ public class NestedSection {
      *
      * @return Lista de títulos de colunas para exibição
      */
+    @JsonIgnore
     public List<String> getColumnTitles() {
         if (columns == null) {
             return new ArrayList<>();
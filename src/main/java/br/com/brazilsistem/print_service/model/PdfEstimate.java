@@ -0,0 +1,33 @@
+package br.com.brazilsistem.print_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Data
+@Schema(description = "Estimativa de páginas, tamanho e tempo de geração de um PDF")
+public class PdfEstimate {
+
+    @Schema(description = "Número estimado de páginas", example = "120")
+    private int pages;
+
+    @Schema(description = "Tamanho estimado do arquivo em bytes", example = "1048576")
+    private long bytes;
+
+    @Schema(description = "Tempo estimado de geração em milissegundos", example = "3500")
+    private long millis;
+
+    @Schema(description = "Total de linhas de tabela do relatório, incluindo seções aninhadas", example = "10000")
+    private long tableRows;
+
+    @Schema(description = "Total de células de tabela do relatório", example = "50000")
+    private long tableCells;
+
+    @Schema(description = "Indica se o layout foi feito sobre uma amostra das linhas e extrapolado", example = "true")
+    private boolean sampled;
+
+    @Schema(description = "Indica se tamanho e tempo foram calibrados com gerações reais do mesmo tipo de relatório", example = "true")
+    private boolean calibrated;
+
+    @Schema(description = "Tempo gasto para calcular a estimativa, em milissegundos", example = "40")
+    private long estimationMillis;
+}
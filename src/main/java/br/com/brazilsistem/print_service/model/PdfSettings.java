@@ -2,8 +2,10 @@ package br.com.brazilsistem.print_service.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @Schema(description = "Configurações do documento PDF")
 public class PdfSettings {
 
@@ -28,6 +30,10 @@ public class PdfSettings {
     @Schema(description = "Comprimir conteúdo do PDF", example = "true")
     private Boolean compressContent = true;
 
+    @Schema(description = "Perfil de compressão; sem perfil, usa o configurado para o reportType ou o padrão do serviço",
+            example = "BALANCED")
+    private CompressionProfile compressionProfile;
+
     @Schema(description = "Título do documento nos metadados", example = "Relatório de Vendas")
     private String documentTitle;
 
@@ -37,4 +43,23 @@ public class PdfSettings {
     @Schema(description = "Criador do documento nos metadados", example = "PDF Microservice")
     private String creator = "PDF Microservice";
 
+    /**
+     * Cria uma cópia das configurações. Novas propriedades devem ser incluídas aqui.
+     *
+     * @param other Configurações copiadas
+     */
+    public PdfSettings(PdfSettings other) {
+        this.pageSize = other.pageSize;
+        this.orientation = other.orientation;
+        this.marginLeft = other.marginLeft;
+        this.marginRight = other.marginRight;
+        this.marginTop = other.marginTop;
+        this.marginBottom = other.marginBottom;
+        this.compressContent = other.compressContent;
+        this.compressionProfile = other.compressionProfile;
+        this.documentTitle = other.documentTitle;
+        this.author = other.author;
+        this.creator = other.creator;
+    }
+
 }
\ No newline at end of file
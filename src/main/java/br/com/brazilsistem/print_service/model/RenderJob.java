@@ -0,0 +1,55 @@
+package br.com.brazilsistem.print_service.model;
+
+import lombok.Data;
+
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Job de renderização assíncrona, como gravado na fila.
+ * <p>
+ * O identificador começa pelo instante do envio, de modo que a ordem dos identificadores é a ordem
+ * de chegada: a fila em diretório compartilhado atende os jobs pela ordem dos nomes dos arquivos.
+ */
+@Data
+public class RenderJob {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\\d{13}-[0-9a-f]{8}");
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private String id;
+
+    /** Formato do documento: pdf ou xlsx. */
+    private String format;
+
+    private String filename;
+
+    /** Classe de prioridade pedida no envio (padrão: BULK). */
+    private String priority;
+
+    private String tenant;
+
+    /** Dados do relatório, já com o template resolvido. */
+    private ReportData reportData;
+
+    /** Execuções iniciadas, incluindo a atual. */
+    private int attempts;
+
+    private long submittedAt;
+
+    private String lastError;
+
+    public static String newId() {
+        byte[] random = new byte[4];
+        RANDOM.nextBytes(random);
+        return String.format("%013d-%s", System.currentTimeMillis(), HexFormat.of().formatHex(random));
+    }
+
+    /**
+     * Valida um identificador recebido na URL antes de usá-lo como nome de arquivo.
+     */
+    public static boolean isValidId(String id) {
+        return id != null && ID_PATTERN.matcher(id).matches();
+    }
+}
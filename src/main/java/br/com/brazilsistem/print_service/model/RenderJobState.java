@@ -0,0 +1,39 @@
+package br.com.brazilsistem.print_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Situação de um job de renderização assíncrona")
+public class RenderJobState {
+
+    @Schema(description = "Identificador do job", example = "1718900000000-9f2c4a1b")
+    private String id;
+
+    @Schema(description = "Formato do documento", example = "pdf", allowableValues = {"pdf", "xlsx"})
+    private String format;
+
+    @Schema(description = "Nome do arquivo gerado", example = "Relatorio_de_Vendas.pdf")
+    private String filename;
+
+    @Schema(description = "Situação do job")
+    private RenderJobStatus status;
+
+    @Schema(description = "Execuções iniciadas", example = "1")
+    private int attempts;
+
+    @Schema(description = "Erro da última execução que falhou (opcional)")
+    private String error;
+
+    @Schema(description = "Tamanho do documento em bytes, quando concluído", example = "1048576")
+    private Long resultSize;
+
+    public static RenderJobState of(RenderJob job, RenderJobStatus status, Long resultSize) {
+        return new RenderJobState(job.getId(), job.getFormat(), job.getFilename(), status, job.getAttempts(),
+                job.getLastError(), resultSize);
+    }
+}
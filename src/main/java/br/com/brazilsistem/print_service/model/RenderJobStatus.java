@@ -0,0 +1,16 @@
+package br.com.brazilsistem.print_service.model;
+
+/**
+ * Situação de um job de renderização.
+ */
+public enum RenderJobStatus {
+
+    /** Aguardando um nó livre. */
+    QUEUED,
+    /** Em renderização por um nó, com lease renovado por heartbeat. */
+    RUNNING,
+    /** Documento disponível em {@code GET /jobs/{id}/result}. */
+    DONE,
+    /** Falhou em todas as tentativas. */
+    FAILED
+}
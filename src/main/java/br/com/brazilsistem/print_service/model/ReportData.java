@@ -1,6 +1,7 @@
 package br.com.brazilsistem.print_service.model;
 
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Data;
 import java.util.List;
@@ -30,13 +31,13 @@ public class ReportData {
      * pertencentes a um único grupo com uma coluna.
      */
     @Schema(description = "Lista de seções individuais do relatório")
-    private List<Section> sections;
+    private List<@Valid Section> sections;
 
     /**
      * Grupos de seções que permitem layouts flexíveis, como múltiplas colunas
      */
     @Schema(description = "Grupos de seções que permitem layouts flexíveis, como múltiplas colunas")
-    private List<SectionGroup> sectionGroups;
+    private List<@Valid SectionGroup> sectionGroups;
 
     @Schema(description = "Dados adicionais específicos para cada tipo de relatório")
     private Map<String, Object> additionalData;
@@ -44,4 +45,12 @@ public class ReportData {
     // Configurações de aparência do PDF
     @Schema(description = "Configurações de aparência do PDF (tamanho de página, margens, etc.)")
     private PdfSettings pdfSettings;
+
+    /**
+     * Template de layout registrado no servidor. Quando informado, colunas, estilos, cabeçalho e
+     * configurações vêm do template e as seções do relatório trazem apenas os dados, na mesma
+     * ordem das seções do template.
+     */
+    @Schema(description = "Template de layout registrado no servidor; as seções trazem apenas os dados")
+    private TemplateReference template;
 }
\ No newline at end of file
@@ -1,21 +1,26 @@
 package br.com.brazilsistem.print_service.model;
 
 import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 @Data
+@NoArgsConstructor
 @Schema(description = "Seção de um relatório PDF")
 public class Section {
 
     @Schema(description = "Título da seção", example = "Lista de Produtos")
     private String title;
 
-    @Schema(description = "Tipo de conteúdo da seção", example = "table", allowableValues = {"table", "text", "chart", "image"})
-    private String type; // "table", "text", "chart", "image"
+    @Schema(description = "Tipo de conteúdo da seção", example = "table", allowableValues = {"table", "fasttable", "text", "chart", "image"})
+    private String type; // "table", "fasttable", "text", "chart", "image"
 
     @Schema(description = "Mapa de colunas onde a chave é o ID do campo e o valor é o título de exibição",
             example = "{\"codigo\": \"Código\", \"produto\": \"Produto\", \"quantidade\": \"Quantidade\", \"valor\": \"Valor\"}")
@@ -27,8 +32,9 @@ public class Section {
     @Schema(description = "Estilos para cada coluna")
     private Map<String, Style> columnStyles; // Estilos para cada coluna
 
-    @Schema(description = "Conteúdo para seções de texto", example = "Este é um texto de exemplo para a seção.")
-    private String content; // Para seções de texto
+    @Schema(description = "Conteúdo para seções de texto; nas seções de imagem, a imagem em base64 (ou data URI) ou asset:<id>",
+            example = "Este é um texto de exemplo para a seção.")
+    private String content; // Para seções de texto ou de imagem
 
     // Seções aninhadas
     @Schema(description = "Seções aninhadas, como itens de um pedido dentro da seção de pedido")
@@ -47,11 +53,65 @@ public class Section {
     @Schema(description = "Largura percentual da seção (0-100)", example = "50")
     private Float width; // Largura em percentual (0-100)
 
+    @Schema(description = "Tipo de gráfico das seções \"chart\": a primeira coluna é a categoria (eixo x) e as demais, as séries",
+            example = "line", allowableValues = {"line", "bar", "pie"})
+    private String chartType; // Padrão: "bar"
+
+    @Schema(description = "Altura do gráfico em pontos", example = "200")
+    private Float chartHeight;
+
+    @Schema(description = "Texto pré-formatado nas seções \"text\" (logs): fonte monoespaçada, com espaços e quebras de linha preservados",
+            example = "false")
+    private Boolean preformatted;
+
+    @Schema(description = "Colunas de agrupamento das tabelas, da mais externa para a mais interna. Os dados devem vir "
+            + "ordenados por elas: cada mudança de valor fecha o grupo, com cabeçalho e subtotal calculados pelo serviço",
+            example = "[\"cliente\"]")
+    private List<String> groupBy;
+
+    @Schema(description = "Agregações por coluna nos subtotais e no total geral: sum, count, avg, min ou max",
+            example = "{\"quantidade\": \"sum\", \"valor\": \"sum\"}")
+    private Map<String, @NotNull @Pattern(regexp = "(?i)\\s*(sum|count|avg|min|max)\\s*",
+            message = "Agregação inválida (valores aceitos: sum, count, avg, min, max)") String> aggregates;
+
+    @Schema(description = "Incluir a linha de total geral quando há agregações", example = "true")
+    private Boolean showGrandTotal = true;
+
+    /**
+     * Cópia rasa de outra seção: listas, mapas e estilos são compartilhados com o original.
+     * Propriedades novas da seção devem ser incluídas aqui, para que templates e amostras
+     * (estimativa e pré-visualização) as preservem.
+     *
+     * @param other Seção copiada
+     */
+    public Section(Section other) {
+        this.title = other.title;
+        this.type = other.type;
+        this.columns = other.columns;
+        this.data = other.data;
+        this.columnStyles = other.columnStyles;
+        this.content = other.content;
+        this.nestedSections = other.nestedSections;
+        this.titleStyle = other.titleStyle;
+        this.useAlternateRowColor = other.useAlternateRowColor;
+        this.alternateRowColor = other.alternateRowColor;
+        this.width = other.width;
+        this.chartType = other.chartType;
+        this.chartHeight = other.chartHeight;
+        this.preformatted = other.preformatted;
+        this.groupBy = other.groupBy;
+        this.aggregates = other.aggregates;
+        this.showGrandTotal = other.showGrandTotal;
+    }
+
     /**
      * Retorna a lista de identificadores de colunas (chaves do mapa).
+     * Não é serializada: a ordem das colunas já vai no próprio mapa {@code columns}, na ordem recebida,
+     * e é dele que a chave do {@code RenderCoalescer} e o hash dos templates a obtêm.
      *
      * @return Lista de identificadores de colunas
      */
+    @JsonIgnore
     public List<String> getColumnIds() {
         if (columns == null) {
             return new ArrayList<>();
@@ -64,6 +124,7 @@ public class Section {
      *
      * @return Lista de títulos de colunas para exibição
      */
+    @JsonIgnore
     public List<String> getColumnTitles() {
         if (columns == null) {
             return new ArrayList<>();
@@ -90,4 +151,14 @@ public class Section {
         }
         return this.titleStyle;
     }
+
+    /**
+     * Grava o estilo de título padrão quando nenhum foi informado, para que o getter deixe de criar
+     * um novo a cada chamada (usado na compilação dos templates).
+     */
+    public void applyDefaultTitleStyle() {
+        if (this.titleStyle == null) {
+            this.titleStyle = PdfStyleUtils.createDefaultTitleStyle();
+        }
+    }
 }
\ No newline at end of file
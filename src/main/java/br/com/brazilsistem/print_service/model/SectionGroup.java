@@ -2,6 +2,7 @@ package br.com.brazilsistem.print_service.model;
 
 import br.com.brazilsistem.print_service.util.PdfStyleUtils;
 import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
 import lombok.Data;
 import java.util.List;
 
@@ -17,7 +18,7 @@ public class SectionGroup {
      * Lista de seções que fazem parte deste grupo
      */
     @Schema(description = "Lista de seções que fazem parte deste grupo", required = true)
-    private List<Section> sections;
+    private List<@Valid Section> sections;
 
     /**
      * Número de colunas para exibir as seções.
@@ -72,4 +73,14 @@ public class SectionGroup {
         return this.titleStyle;
     }
 
+    /**
+     * Grava o estilo de título padrão quando nenhum foi informado, para que o getter deixe de criar
+     * um novo a cada chamada (usado na compilação dos templates).
+     */
+    public void applyDefaultTitleStyle() {
+        if (this.titleStyle == null) {
+            this.titleStyle = PdfStyleUtils.createDefaultTitleStyle();
+        }
+    }
+
 }
\ No newline at end of file
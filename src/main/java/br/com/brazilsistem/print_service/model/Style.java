@@ -15,6 +15,10 @@ public class Style {
     @Schema(description = "Texto em itálico", example = "false")
     private Boolean italic;
 
+    @Schema(description = "Família da fonte: uma fonte registrada no serviço ou Helvetica, Times-Roman, Courier. "
+            + "Sem família, usa Helvetica", example = "Open Sans")
+    private String fontFamily;
+
     @Schema(description = "Tamanho da fonte", example = "10.5")
     private Float fontSize;
 
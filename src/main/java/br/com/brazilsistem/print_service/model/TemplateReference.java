@@ -0,0 +1,19 @@
+package br.com.brazilsistem.print_service.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * Referência a um template de layout registrado no servidor para o {@code reportType} do relatório.
+ */
+@Data
+@Schema(description = "Referência a um template de layout registrado no servidor")
+public class TemplateReference {
+
+    @Schema(description = "Versão do template; se omitida, usa a versão mais recente", example = "3")
+    private Integer version;
+
+    @Schema(description = "Hash do template conhecido pelo cliente; se informado, usa a versão com este conteúdo",
+            example = "9f2c4e1a7b3d5f60")
+    private String hash;
+}
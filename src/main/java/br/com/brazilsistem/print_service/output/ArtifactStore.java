@@ -0,0 +1,290 @@
+package br.com.brazilsistem.print_service.output;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Documentos gerados recentemente, identificados pelo hash do conteúdo.
+ * <p>
+ * Cada documento gerado recebe como identificador o SHA-256 (128 bits, em hexadecimal) do seu
+ * conteúdo, usado como ETag forte. O hash é calculado pela própria saída enquanto o documento é
+ * escrito ({@link RenderOutput#getContentDigest()}), sem reler o documento ao final. Os documentos ficam disponíveis em {@code GET /artifacts/{id}}
+ * durante {@code ttl-seconds}, onde podem ser baixados de novo com {@code If-None-Match} (304) e por
+ * partes com {@code Range} (206): atualização da página, visualizadores como o PDF.js e downloads
+ * retomados em conexões ruins não renderizam nem transferem o documento inteiro outra vez.
+ * <p>
+ * O armazenamento reaproveita a saída da renderização (memória do pool ou arquivo temporário), com
+ * contagem de referências: um documento removido continua válido para as respostas em andamento.
+ * Os limites de memória e de disco são aplicados removendo os documentos usados há mais tempo; os
+ * documentos expirados são removidos por uma tarefa periódica, fora das requisições. Pré-visualizações
+ * recebem o identificador, mas não são mantidas ({@link #identify}).
+ */
+@Component
+public class ArtifactStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtifactStore.class);
+
+    private final boolean enabled;
+    private final long ttlNanos;
+    private final long maxMemoryBytes;
+    private final long maxSpooledBytes;
+    private final RenderOutputFactory renderOutputFactory;
+    private final ScheduledExecutorService evictor;
+
+    // Ordem de acesso: o primeiro é o usado há mais tempo
+    private final LinkedHashMap<String, Artifact> artifacts = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long spooledBytes;
+
+    /**
+     * Documento publicado.
+     */
+    private static final class Artifact {
+        private final SharedRenderOutput shared;
+        private final String contentType;
+        private final String filename;
+        private final long size;
+        private final boolean spooled;
+        private long expiresAtNanos;
+
+        private Artifact(SharedRenderOutput shared, String contentType, String filename, long size, boolean spooled) {
+            this.shared = shared;
+            this.contentType = contentType;
+            this.filename = filename;
+            this.size = size;
+            this.spooled = spooled;
+        }
+    }
+
+    /**
+     * Documento aberto para uma resposta; a saída deve ser fechada após o envio.
+     */
+    public record OpenedArtifact(RenderOutput output, String contentType, String filename) {
+    }
+
+    /**
+     * @param enabled Mantém os documentos para {@code GET /artifacts/{id}} (desligado, só o ETag é calculado)
+     * @param ttlSeconds Tempo de permanência de cada documento desde o último acesso
+     * @param maxMemoryBytes Limite dos documentos mantidos em memória
+     * @param maxSpooledBytes Limite dos documentos mantidos em arquivo temporário
+     * @param evictionIntervalMillis Intervalo da remoção dos documentos expirados
+     */
+    @Autowired
+    public ArtifactStore(
+            @Value("${print-service.artifacts.enabled:true}") boolean enabled,
+            @Value("${print-service.artifacts.ttl-seconds:600}") long ttlSeconds,
+            @Value("${print-service.artifacts.max-memory-bytes:134217728}") long maxMemoryBytes,
+            @Value("${print-service.artifacts.max-spooled-bytes:2147483648}") long maxSpooledBytes,
+            @Value("${print-service.artifacts.eviction-interval-ms:30000}") long evictionIntervalMillis,
+            RenderOutputFactory renderOutputFactory) {
+        this.enabled = enabled;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+        this.maxMemoryBytes = Math.max(0, maxMemoryBytes);
+        this.maxSpooledBytes = Math.max(0, maxSpooledBytes);
+        this.renderOutputFactory = renderOutputFactory;
+
+        if (enabled) {
+            long interval = Math.max(100, evictionIntervalMillis);
+            this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "artifact-eviction");
+                thread.setDaemon(true);
+                return thread;
+            });
+            evictor.scheduleWithFixedDelay(this::evictExpired, interval, interval, TimeUnit.MILLISECONDS);
+        } else {
+            this.evictor = null;
+        }
+    }
+
+    /**
+     * Calcula o identificador do documento gerado e o mantém para {@code GET /artifacts/{id}}.
+     * Se um documento com o mesmo conteúdo já está publicado, ele é reaproveitado e a saída
+     * informada é liberada.
+     *
+     * @param output Documento gerado, pertencente à requisição atual
+     * @param contentType Tipo do conteúdo
+     * @param filename Nome do arquivo
+     * @return Saída a ser enviada na resposta, com {@link RenderOutput#getArtifactId()} preenchido
+     */
+    public RenderOutput publish(RenderOutput output, String contentType, String filename) throws IOException {
+        return publish(output, contentType, filename, enabled);
+    }
+
+    /**
+     * Calcula o identificador do documento gerado, usado como ETag, sem mantê-lo para
+     * {@code GET /artifacts/{id}}. Usado nas pré-visualizações, que raramente são baixadas de novo e
+     * ocupariam o espaço dos documentos completos.
+     *
+     * @param output Documento gerado, pertencente à requisição atual
+     * @return Saída a ser enviada na resposta, com {@link RenderOutput#getArtifactId()} preenchido
+     */
+    public RenderOutput identify(RenderOutput output) throws IOException {
+        return publish(output, null, null, false);
+    }
+
+    private RenderOutput publish(RenderOutput output, String contentType, String filename, boolean keep)
+            throws IOException {
+        String id = output.getContentDigest();
+        if (id == null) {
+            id = hash(output);
+        }
+
+        RenderOutput handle;
+        boolean adopted = true;
+        synchronized (this) {
+            long now = System.nanoTime();
+            Artifact existing = keep ? live(id, now) : null;
+            if (existing != null) {
+                existing.expiresAtNanos = now + ttlNanos;
+                handle = existing.shared.retain();
+                adopted = false;
+            } else if (!keep || !fits(output)) {
+                handle = new SharedRenderOutput(output, 1, id).handle();
+            } else {
+                Artifact artifact = new Artifact(new SharedRenderOutput(output, 2, id), contentType, filename,
+                        output.size(), output.isSpooled());
+                artifact.expiresAtNanos = now + ttlNanos;
+                artifacts.put(id, artifact);
+                account(artifact, 1);
+                evictOverLimit();
+                handle = artifact.shared.handle();
+            }
+        }
+
+        if (adopted) {
+            // A saída original passa a ser liberada pelas referências
+            renderOutputFactory.detachFromRequest(output);
+        } else {
+            output.close();
+        }
+        renderOutputFactory.registerInRequest(handle);
+        return handle;
+    }
+
+    /**
+     * Abre um documento publicado para uma resposta. A saída é registrada na requisição atual e
+     * liberada ao final dela.
+     *
+     * @return O documento, ou {@code null} quando não existe ou expirou
+     */
+    public OpenedArtifact open(String id) {
+        RenderOutput handle;
+        Artifact artifact;
+        synchronized (this) {
+            long now = System.nanoTime();
+            artifact = live(id, now);
+            if (artifact == null) {
+                return null;
+            }
+            artifact.expiresAtNanos = now + ttlNanos;
+            handle = artifact.shared.retain();
+        }
+        renderOutputFactory.registerInRequest(handle);
+        return new OpenedArtifact(handle, artifact.contentType, artifact.filename);
+    }
+
+    public synchronized int size() {
+        return artifacts.size();
+    }
+
+    /**
+     * Documento publicado ainda não expirado. Um documento expirado que a tarefa periódica ainda
+     * não removeu é removido aqui.
+     */
+    private Artifact live(String id, long now) {
+        Artifact artifact = artifacts.get(id);
+        if (artifact != null && now - artifact.expiresAtNanos >= 0) {
+            artifacts.remove(id);
+            remove(artifact);
+            return null;
+        }
+        return artifact;
+    }
+
+    private boolean fits(RenderOutput output) {
+        return output.isSpooled() ? output.size() <= maxSpooledBytes : output.size() <= maxMemoryBytes;
+    }
+
+    private void account(Artifact artifact, int sign) {
+        if (artifact.spooled) {
+            spooledBytes += sign * artifact.size;
+        } else {
+            memoryBytes += sign * artifact.size;
+        }
+    }
+
+    /**
+     * Remove os documentos expirados. Executado periodicamente, fora das requisições.
+     */
+    synchronized void evictExpired() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Artifact>> iterator = artifacts.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Artifact artifact = iterator.next().getValue();
+            if (now - artifact.expiresAtNanos >= 0) {
+                iterator.remove();
+                remove(artifact);
+            }
+        }
+    }
+
+    private void evictOverLimit() {
+        Iterator<Map.Entry<String, Artifact>> iterator = artifacts.entrySet().iterator();
+        while ((memoryBytes > maxMemoryBytes || spooledBytes > maxSpooledBytes) && iterator.hasNext()) {
+            Map.Entry<String, Artifact> entry = iterator.next();
+            Artifact artifact = entry.getValue();
+            if (artifact.spooled ? spooledBytes > maxSpooledBytes : memoryBytes > maxMemoryBytes) {
+                iterator.remove();
+                remove(artifact);
+                logger.debug("Documento {} removido por limite de {}", entry.getKey(),
+                        artifact.spooled ? "disco" : "memória");
+            }
+        }
+    }
+
+    private void remove(Artifact artifact) {
+        account(artifact, -1);
+        // Respostas em andamento mantêm as suas referências
+        artifact.shared.release();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+    }
+
+    /**
+     * SHA-256 do conteúdo, lido da própria saída (memória ou arquivo), sem cópia para um array. Usado
+     * apenas para saídas que não calculam o hash durante a escrita.
+     */
+    private static String hash(RenderOutput output) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream target = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                output.transferTo(target);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
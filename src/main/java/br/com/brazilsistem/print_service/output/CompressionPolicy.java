@@ -0,0 +1,89 @@
+package br.com.brazilsistem.print_service.output;
+
+import br.com.brazilsistem.print_service.model.CompressionProfile;
+import br.com.brazilsistem.print_service.model.PdfSettings;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Escolhe o perfil de compressão de cada documento: o informado em
+ * {@code pdfSettings.compressionProfile}, senão o configurado para o {@code reportType},
+ * senão o perfil padrão. Sem nenhum deles, mantém o comportamento de {@code compressContent}
+ * (nível 9 quando verdadeiro, nível padrão do iText quando falso).
+ */
+@Component
+public class CompressionPolicy {
+
+    private static final Logger logger = LoggerFactory.getLogger(CompressionPolicy.class);
+
+    private final CompressionProfile defaultProfile;
+    private final Map<String, CompressionProfile> reportTypeProfiles;
+
+    /**
+     * @param defaultProfile Perfil padrão (vazio mantém o comportamento de compressContent)
+     * @param reportTypeProfiles Perfis por tipo de relatório, no formato {@code tipo=PERFIL,tipo=PERFIL}
+     */
+    @Autowired
+    public CompressionPolicy(
+            @Value("${print-service.compression.default-profile:}") String defaultProfile,
+            @Value("${print-service.compression.report-types:}") String reportTypeProfiles) {
+        this.defaultProfile = parse(defaultProfile);
+        this.reportTypeProfiles = new HashMap<>();
+        for (String entry : reportTypeProfiles.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            CompressionProfile profile = parse(entry.substring(separator + 1));
+            if (profile != null) {
+                this.reportTypeProfiles.put(entry.substring(0, separator).trim(), profile);
+            }
+        }
+    }
+
+    /**
+     * Perfil do documento, ou {@code null} quando nenhum perfil foi escolhido.
+     */
+    public CompressionProfile resolve(String reportType, PdfSettings settings) {
+        if (settings != null && settings.getCompressionProfile() != null) {
+            return settings.getCompressionProfile();
+        }
+        CompressionProfile profile = reportType != null ? reportTypeProfiles.get(reportType) : null;
+        return profile != null ? profile : defaultProfile;
+    }
+
+    /**
+     * Propriedades do PdfWriter para o documento.
+     */
+    public WriterProperties writerProperties(String reportType, PdfSettings settings) {
+        WriterProperties writerProperties = new WriterProperties();
+        CompressionProfile profile = resolve(reportType, settings);
+        if (profile != null) {
+            return profile.apply(writerProperties);
+        }
+        if (settings != null && Boolean.TRUE.equals(settings.getCompressContent())) {
+            writerProperties.setCompressionLevel(9);
+        }
+        return writerProperties;
+    }
+
+    private static CompressionProfile parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return CompressionProfile.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Perfil de compressão desconhecido ignorado: {}", value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.brazilsistem.print_service.output;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 do conteúdo de uma saída, atualizado a cada escrita: o identificador fica pronto quando o
+ * gerador termina, sem uma segunda leitura do documento inteiro.
+ */
+final class ContentDigest {
+
+    private final MessageDigest digest;
+    private String value;
+
+    ContentDigest() {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void update(int b) {
+        digest.update((byte) b);
+        value = null;
+    }
+
+    void update(byte[] b, int off, int len) {
+        digest.update(b, off, len);
+        value = null;
+    }
+
+    /**
+     * Identificador do conteúdo escrito até agora: os primeiros 128 bits do SHA-256, em hexadecimal.
+     */
+    String value() {
+        if (value == null) {
+            try {
+                // A cópia permite continuar a escrita depois da consulta
+                MessageDigest copy = (MessageDigest) digest.clone();
+                value = HexFormat.of().formatHex(copy.digest(), 0, 16);
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return value;
+    }
+}
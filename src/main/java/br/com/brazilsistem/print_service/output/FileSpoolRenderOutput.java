@@ -0,0 +1,144 @@
+package br.com.brazilsistem.print_service.output;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Saída gravada em arquivo temporário, usada para documentos grandes, que assim não ocupam o heap.
+ * <p>
+ * A escrita passa por um buffer sobre um {@link FileChannel}. O envio lê o arquivo em blocos para
+ * um segmento emprestado do {@link SegmentPool} e os escreve no destino: o stream da resposta do
+ * servlet não é um canal de arquivo nem de socket, então {@link FileChannel#transferTo} não evitaria
+ * a cópia para o heap (o JDK copiaria por um buffer temporário próprio). O documento nunca fica
+ * inteiro no heap, apenas um segmento por envio. O arquivo é removido no {@link #close()}.
+ */
+public class FileSpoolRenderOutput implements RenderOutput {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileSpoolRenderOutput.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final SegmentPool segmentPool;
+    private final CountingBufferedOutputStream outputStream;
+    private volatile boolean closed;
+
+    /**
+     * @param directory Diretório do arquivo temporário
+     * @param segmentPool Pool dos buffers usados no envio
+     */
+    public FileSpoolRenderOutput(Path directory, SegmentPool segmentPool) throws IOException {
+        this.segmentPool = segmentPool;
+        Files.createDirectories(directory);
+        this.file = Files.createTempFile(directory, "render-", ".spool");
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.outputStream = new CountingBufferedOutputStream(Channels.newOutputStream(channel));
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public long size() {
+        return outputStream.count;
+    }
+
+    @Override
+    public String getContentDigest() {
+        return outputStream.digest.value();
+    }
+
+    @Override
+    public boolean isSpooled() {
+        return true;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        outputStream.flush();
+        return Files.newInputStream(file);
+    }
+
+    @Override
+    public void transferTo(OutputStream target) throws IOException {
+        outputStream.flush();
+        byte[] segment = segmentPool.acquire();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(segment);
+            int read;
+            while ((read = channel.read(buffer.clear())) >= 0) {
+                target.write(segment, 0, read);
+            }
+        } finally {
+            segmentPool.release(segment);
+        }
+    }
+
+    @Override
+    public byte[] toByteArray() throws IOException {
+        outputStream.flush();
+        return Files.readAllBytes(file);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            outputStream.close();
+        } catch (IOException e) {
+            logger.debug("Erro ao fechar o arquivo temporário {}: {}", file, e.getMessage());
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Não foi possível remover o arquivo temporário {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Buffer de escrita que contabiliza os bytes gravados e calcula o hash do conteúdo.
+     */
+    private static class CountingBufferedOutputStream extends BufferedOutputStream {
+
+        private final ContentDigest digest = new ContentDigest();
+        private long count;
+
+        CountingBufferedOutputStream(OutputStream out) {
+            super(out, WRITE_BUFFER_SIZE);
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            super.write(b);
+            count++;
+            digest.update(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            count += len;
+            digest.update(b, off, len);
+        }
+    }
+}
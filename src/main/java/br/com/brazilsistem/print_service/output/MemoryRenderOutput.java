@@ -0,0 +1,89 @@
+package br.com.brazilsistem.print_service.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Saída mantida em um array contíguo, usada quando o pool de segmentos está desativado
+ * ({@code print-service.output.pool.enabled=false}).
+ */
+public class MemoryRenderOutput implements RenderOutput {
+
+    private final ExposedByteArrayOutputStream buffer;
+
+    public MemoryRenderOutput(int initialCapacity) {
+        this.buffer = new ExposedByteArrayOutputStream(Math.max(32, initialCapacity));
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return buffer;
+    }
+
+    @Override
+    public long size() {
+        return buffer.size();
+    }
+
+    @Override
+    public String getContentDigest() {
+        return buffer.digest.value();
+    }
+
+    @Override
+    public boolean isSpooled() {
+        return false;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        // Lê diretamente do buffer interno, sem copiar
+        return new ByteArrayInputStream(buffer.array(), 0, buffer.size());
+    }
+
+    @Override
+    public void transferTo(OutputStream target) throws IOException {
+        buffer.writeTo(target);
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return buffer.toByteArray();
+    }
+
+    @Override
+    public void close() {
+        buffer.reset();
+    }
+
+    /**
+     * ByteArrayOutputStream que expõe o array interno para leitura sem cópia e calcula o hash do conteúdo.
+     */
+    private static class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
+
+        private final ContentDigest digest = new ContentDigest();
+
+        ExposedByteArrayOutputStream(int size) {
+            super(size);
+        }
+
+        @Override
+        public synchronized void write(int b) {
+            super.write(b);
+            digest.update(b);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            digest.update(b, off, len);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
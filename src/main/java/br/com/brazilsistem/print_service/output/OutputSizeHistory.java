@@ -0,0 +1,54 @@
+package br.com.brazilsistem.print_service.output;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Média móvel exponencial do tamanho dos documentos gerados por tipo de relatório,
+ * usada como tamanho inicial das saídas em memória.
+ * <p>
+ * O número de tipos acompanhados é limitado, pois o reportType é informado pelo cliente.
+ */
+class OutputSizeHistory {
+
+    private final double weight;
+    private final int maxReportTypes;
+    private final Map<String, AtomicLong> averages = new ConcurrentHashMap<>();
+
+    /**
+     * @param weight Peso da amostra mais recente (entre 0 e 1)
+     * @param maxReportTypes Número máximo de tipos de relatório acompanhados
+     */
+    OutputSizeHistory(double weight, int maxReportTypes) {
+        this.weight = Math.min(1.0, Math.max(0.01, weight));
+        this.maxReportTypes = maxReportTypes;
+    }
+
+    /**
+     * Tamanho médio dos documentos do tipo informado, ou -1 se ainda não houver amostras.
+     */
+    long average(String reportType) {
+        AtomicLong average = averages.get(key(reportType));
+        return average != null ? average.get() : -1;
+    }
+
+    void record(String reportType, long size) {
+        if (size <= 0) {
+            return;
+        }
+        String key = key(reportType);
+        AtomicLong average = averages.get(key);
+        if (average == null) {
+            if (averages.size() >= maxReportTypes) {
+                return;
+            }
+            average = averages.computeIfAbsent(key, k -> new AtomicLong(-1));
+        }
+        average.updateAndGet(current -> current < 0 ? size : Math.round(current + weight * (size - current)));
+    }
+
+    private static String key(String reportType) {
+        return reportType != null ? reportType : "";
+    }
+}
@@ -0,0 +1,299 @@
+package br.com.brazilsistem.print_service.output;
+
+import com.itextpdf.kernel.pdf.CompressionConstants;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfStream;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.layout.LayoutArea;
+import com.itextpdf.layout.layout.LayoutResult;
+import com.itextpdf.layout.renderer.DocumentRenderer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+
+/**
+ * Compressão em paralelo dos content streams das páginas, enquanto o documento é renderizado.
+ * <p>
+ * O iText comprime cada stream na thread do documento, no momento em que a página é gravada. Com
+ * {@link #attach}, o documento passa a usar um {@link DocumentRenderer} que, em vez de gravar a página
+ * anterior assim que a seguinte começa, envia os seus content streams a um pool de threads e mantém
+ * abertas até {@code pending-pages} páginas concluídas. Quando a janela enche, a página mais antiga
+ * recebe os dados comprimidos (com o filtro {@code /FlateDecode}, que faz o iText gravá-los como estão)
+ * e é gravada, em ordem. Em {@link #finish} as páginas restantes são concluídas antes do fechamento.
+ * <p>
+ * A compressão usa o mesmo algoritmo e nível que o iText usaria, e os streams comprimidos devem ser
+ * idênticos, byte a byte, aos da compressão serial ({@code ParallelDeflaterTest}). O rodapé desenhado
+ * no fim de cada página ({@code PdfDocumentEvent.END_PAGE}) vai para um novo content stream, pequeno,
+ * comprimido pelo iText. O ganho de tempo depende do número de páginas e de processadores e não foi
+ * medido (ver {@code ParallelDeflateBenchmark}).
+ */
+@Component
+public class ParallelDeflater {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelDeflater.class);
+
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private final boolean enabled;
+    private final int pendingPages;
+    private final int minStreamBytes;
+    private final ExecutorService executor;
+
+    /**
+     * @param enabled Liga a compressão em paralelo
+     * @param threads Threads do pool (0 usa o número de processadores)
+     * @param pendingPages Páginas concluídas mantidas abertas enquanto são comprimidas (0 usa o dobro das threads)
+     * @param minStreamBytes Streams menores ficam para a serialização
+     */
+    @Autowired
+    public ParallelDeflater(
+            @Value("${print-service.compression.parallel.enabled:false}") boolean enabled,
+            @Value("${print-service.compression.parallel.threads:0}") int threads,
+            @Value("${print-service.compression.parallel.pending-pages:0}") int pendingPages,
+            @Value("${print-service.compression.parallel.min-stream-bytes:4096}") int minStreamBytes) {
+        this.enabled = enabled;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pendingPages = pendingPages > 0 ? pendingPages : 2 * poolSize;
+        this.minStreamBytes = Math.max(0, minStreamBytes);
+        this.executor = enabled ? Executors.newFixedThreadPool(poolSize, threadFactory()) : null;
+        if (enabled) {
+            logger.info("Compressão paralela dos content streams ativa com {} thread(s) e até {} página(s) pendente(s)",
+                    poolSize, this.pendingPages);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Passa a comprimir as páginas do documento à medida que são concluídas. Deve ser chamado antes
+     * de qualquer conteúdo ser adicionado, em documentos com gravação imediata. Não faz nada quando desativado.
+     */
+    public void attach(Document document) {
+        if (enabled) {
+            document.setRenderer(new DeflatingDocumentRenderer(document));
+        }
+    }
+
+    /**
+     * Conclui a compressão antes do fechamento: desenha o conteúdo pendente, aplica os resultados
+     * das páginas em andamento e comprime em paralelo as páginas ainda abertas. Deve ser chamado
+     * antes de {@code Document.close()}; não faz nada quando desativado.
+     *
+     * @return Número de streams comprimidos pelo pool no documento inteiro
+     */
+    public int finish(Document document) {
+        if (!enabled) {
+            return 0;
+        }
+        document.flush();
+        int deflated = 0;
+        if (document.getRenderer() instanceof DeflatingDocumentRenderer renderer) {
+            deflated = renderer.completeAll();
+        }
+
+        PdfDocument pdfDoc = document.getPdfDocument();
+        List<PendingPage> open = new ArrayList<>();
+        for (int pageNum = 1; pageNum <= pdfDoc.getNumberOfPages(); pageNum++) {
+            PdfPage page = pdfDoc.getPage(pageNum);
+            if (!page.isFlushed()) {
+                open.add(submit(page));
+            }
+        }
+        for (PendingPage page : open) {
+            deflated += page.complete();
+        }
+        return deflated;
+    }
+
+    /**
+     * Envia ao pool os content streams ainda não comprimidos da página. Os dados são copiados na
+     * thread do documento; o pool não acessa objetos do iText.
+     */
+    private PendingPage submit(PdfPage page) {
+        int documentLevel = page.getDocument().getWriter().getCompressionLevel();
+        PendingPage pending = new PendingPage(page);
+        for (int index = 0; index < page.getContentStreamCount(); index++) {
+            PdfStream stream = page.getContentStream(index);
+            int level = effectiveLevel(stream, documentLevel);
+            if (level == CompressionConstants.NO_COMPRESSION || !isPending(stream)) {
+                continue;
+            }
+            byte[] data = stream.getBytes(false);
+            if (data == null || data.length < minStreamBytes) {
+                continue;
+            }
+            pending.streams.add(stream);
+            pending.results.add(executor.submit(() -> deflate(data, level)));
+        }
+        return pending;
+    }
+
+    /**
+     * Página concluída cujos content streams estão sendo comprimidos.
+     */
+    private static final class PendingPage {
+        private final PdfPage page;
+        private final List<PdfStream> streams = new ArrayList<>();
+        private final List<Future<byte[]>> results = new ArrayList<>();
+
+        private PendingPage(PdfPage page) {
+            this.page = page;
+        }
+
+        /**
+         * Aguarda a compressão e grava os resultados nos streams, na thread do documento.
+         *
+         * @return Número de streams comprimidos
+         */
+        private int complete() {
+            try {
+                for (int i = 0; i < streams.size(); i++) {
+                    PdfStream stream = streams.get(i);
+                    stream.setData(results.get(i).get());
+                    stream.put(PdfName.Filter, PdfName.FlateDecode);
+                }
+            } catch (InterruptedException e) {
+                results.forEach(result -> result.cancel(true));
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Compressão dos content streams interrompida", e);
+            } catch (ExecutionException e) {
+                results.forEach(result -> result.cancel(true));
+                throw new IllegalStateException("Erro ao comprimir os content streams", e.getCause());
+            }
+            return streams.size();
+        }
+    }
+
+    /**
+     * Renderizador do documento que, ao começar uma página, envia a anterior para compressão em
+     * vez de gravá-la, e grava as páginas mais antigas quando a janela de páginas pendentes enche.
+     * <p>
+     * A página anterior está pronta nesse momento: é quando o próprio iText a gravaria com gravação
+     * imediata. O renderizador só desliga essa gravação durante {@link #updateCurrentArea}.
+     */
+    private final class DeflatingDocumentRenderer extends DocumentRenderer {
+
+        private final Deque<PendingPage> pending = new ArrayDeque<>();
+        private int lastSubmittedPage;
+        private int deflated;
+
+        private DeflatingDocumentRenderer(Document document) {
+            super(document, true);
+        }
+
+        @Override
+        protected LayoutArea updateCurrentArea(LayoutResult overflowResult) {
+            LayoutArea area;
+            immediateFlush = false;
+            try {
+                area = super.updateCurrentArea(overflowResult);
+            } finally {
+                immediateFlush = true;
+            }
+
+            PdfDocument pdfDoc = document.getPdfDocument();
+            for (int pageNum = lastSubmittedPage + 1; pageNum < area.getPageNumber(); pageNum++) {
+                PdfPage page = pdfDoc.getPage(pageNum);
+                if (!page.isFlushed()) {
+                    pending.addLast(submit(page));
+                }
+                lastSubmittedPage = pageNum;
+            }
+            while (pending.size() > pendingPages) {
+                flushOldest();
+            }
+            return area;
+        }
+
+        /**
+         * Aplica os resultados de todas as páginas pendentes, sem gravá-las: o fechamento do
+         * documento as grava, com os rodapés.
+         */
+        private int completeAll() {
+            while (!pending.isEmpty()) {
+                deflated += pending.removeFirst().complete();
+            }
+            return deflated;
+        }
+
+        private void flushOldest() {
+            PendingPage oldest = pending.removeFirst();
+            deflated += oldest.complete();
+            if (!oldest.page.isFlushed()) {
+                oldest.page.flush();
+            }
+        }
+    }
+
+    /**
+     * Comprime os dados como o {@code DeflaterOutputStream} do iText: zlib, no nível informado,
+     * sem flush intermediário.
+     */
+    static byte[] deflate(byte[] data, int level) {
+        Deflater deflater = new Deflater(level);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                output.write(buffer, 0, length);
+            }
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Nível usado pelo iText na serialização: o do stream, quando definido, senão o do documento.
+     */
+    private static int effectiveLevel(PdfStream stream, int documentLevel) {
+        int level = stream.getCompressionLevel();
+        return level == CompressionConstants.UNDEFINED_COMPRESSION ? documentLevel : level;
+    }
+
+    /**
+     * Streams já gravados ou que já têm filtro são deixados para o iText.
+     */
+    private static boolean isPending(PdfStream stream) {
+        return !stream.isFlushed() && !stream.containsKey(PdfName.Filter);
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "pdf-deflate-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
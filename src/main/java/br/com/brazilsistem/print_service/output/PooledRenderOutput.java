@@ -0,0 +1,164 @@
+package br.com.brazilsistem.print_service.output;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Saída em memória formada por segmentos obtidos de um {@link SegmentPool}.
+ * <p>
+ * Ao crescer, a saída apenas acrescenta segmentos, sem copiar o conteúdo já escrito; o envio
+ * escreve cada segmento diretamente na resposta, sem montar um array contíguo. Os segmentos
+ * voltam ao pool no {@link #close()}, e a saída não pode mais ser lida depois disso.
+ */
+public class PooledRenderOutput implements RenderOutput {
+
+    private final SegmentPool pool;
+    private final int segmentSize;
+    private final SegmentOutputStream outputStream = new SegmentOutputStream();
+    private final ContentDigest digest = new ContentDigest();
+
+    private volatile List<byte[]> segments;
+    private long size;
+
+    /**
+     * @param pool Pool de onde os segmentos são obtidos
+     * @param sizeHint Tamanho esperado do documento; os segmentos correspondentes são reservados na criação
+     */
+    public PooledRenderOutput(SegmentPool pool, long sizeHint) {
+        this.pool = pool;
+        this.segmentSize = pool.getSegmentSize();
+
+        int reserved = (int) Math.max(1, Math.min((sizeHint + segmentSize - 1) / segmentSize, 4096));
+        this.segments = new ArrayList<>(reserved);
+        for (int i = 0; i < reserved; i++) {
+            segments.add(pool.acquire());
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public String getContentDigest() {
+        return digest.value();
+    }
+
+    @Override
+    public boolean isSpooled() {
+        return false;
+    }
+
+    @Override
+    public InputStream getInputStream() {
+        List<byte[]> current = requireOpen();
+        List<InputStream> streams = new ArrayList<>(usedSegments());
+        long remaining = size;
+        for (int i = 0; remaining > 0; i++) {
+            int length = (int) Math.min(segmentSize, remaining);
+            streams.add(new ByteArrayInputStream(current.get(i), 0, length));
+            remaining -= length;
+        }
+        return new SequenceInputStream(Collections.enumeration(streams));
+    }
+
+    @Override
+    public void transferTo(OutputStream target) throws IOException {
+        List<byte[]> current = requireOpen();
+        long remaining = size;
+        for (int i = 0; remaining > 0; i++) {
+            int length = (int) Math.min(segmentSize, remaining);
+            target.write(current.get(i), 0, length);
+            remaining -= length;
+        }
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        List<byte[]> current = requireOpen();
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Documento grande demais para um array: " + size + " bytes");
+        }
+        byte[] result = new byte[(int) size];
+        int offset = 0;
+        for (int i = 0; offset < result.length; i++) {
+            int length = Math.min(segmentSize, result.length - offset);
+            System.arraycopy(current.get(i), 0, result, offset, length);
+            offset += length;
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (segments == null) {
+            return;
+        }
+        for (byte[] segment : segments) {
+            pool.release(segment);
+        }
+        segments = null;
+    }
+
+    private int usedSegments() {
+        return (int) ((size + segmentSize - 1) / segmentSize);
+    }
+
+    private List<byte[]> requireOpen() {
+        List<byte[]> current = segments;
+        if (current == null) {
+            throw new IllegalStateException("Saída já liberada");
+        }
+        return current;
+    }
+
+    /**
+     * Escreve nos segmentos, obtendo novos do pool à medida que os anteriores se enchem.
+     */
+    private class SegmentOutputStream extends OutputStream {
+
+        @Override
+        public void write(int b) {
+            byte[] segment = segmentFor(size);
+            segment[(int) (size % segmentSize)] = (byte) b;
+            size++;
+            digest.update(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            Objects.checkFromIndexSize(off, len, b.length);
+            digest.update(b, off, len);
+            while (len > 0) {
+                int position = (int) (size % segmentSize);
+                int length = Math.min(len, segmentSize - position);
+                System.arraycopy(b, off, segmentFor(size), position, length);
+                size += length;
+                off += length;
+                len -= length;
+            }
+        }
+
+        private byte[] segmentFor(long offset) {
+            List<byte[]> current = requireOpen();
+            int index = (int) (offset / segmentSize);
+            while (index >= current.size()) {
+                current.add(pool.acquire());
+            }
+            return current.get(index);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package br.com.brazilsistem.print_service.output;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Agrupa requisições idênticas simultâneas em uma única renderização.
+ * <p>
+ * A chave é o formato mais o SHA-256 do {@link ReportData} serializado de forma canônica: propriedades
+ * em ordem alfabética, sem nulos. Só as chaves das linhas de dados das seções (e das listas aninhadas
+ * nelas) são ordenadas, pois a ordem delas não aparece no documento; os demais mapas (colunas, dados do
+ * cabeçalho e do rodapé) mantêm a ordem recebida. Assim requisições que só diferem na ordem das chaves
+ * das linhas são agrupadas, mas as que mudam a ordem das colunas não. A primeira requisição renderiza; as que chegam com a mesma chave
+ * enquanto ela não termina aguardam e recebem o mesmo documento, cada uma com a sua referência
+ * ({@link SharedRenderOutput}). O documento só é liberado quando todas as respostas terminam, de modo
+ * que a desconexão de um cliente, inclusive o da primeira requisição, não afeta as demais. Se a
+ * renderização falha, todas as requisições agrupadas recebem o mesmo erro e a próxima requisição
+ * idêntica renderiza de novo.
+ */
+@Component
+public class RenderCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderCoalescer.class);
+
+    public static final String COALESCED_COUNTER = "print.render.coalesced";
+
+    private final boolean enabled;
+    private final long maxWaitMillis;
+    private final RenderOutputFactory renderOutputFactory;
+    private final MeterRegistry registry;
+    private final ObjectMapper canonicalMapper;
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Renderização de um documento a partir dos dados do relatório.
+     */
+    @FunctionalInterface
+    public interface Renderer {
+        RenderOutput render(ReportData reportData) throws IOException;
+    }
+
+    /**
+     * Renderização em andamento e o número de requisições que aguardam o seu resultado.
+     */
+    private static final class Flight {
+        private final CompletableFuture<SharedRenderOutput> result = new CompletableFuture<>();
+        // Alterado apenas dentro do compute do mapa, enquanto a renderização está registrada
+        private int participants = 1;
+    }
+
+    /**
+     * Linhas de dados das seções, serializadas com as chaves em ordem alfabética.
+     */
+    private abstract static class SortedRowsMixIn {
+        @JsonSerialize(using = SortedRowsSerializer.class)
+        List<Map<String, Object>> data;
+    }
+
+    /**
+     * Serializa as linhas com as chaves de cada mapa em ordem alfabética, inclusive nos mapas das
+     * listas aninhadas (dados das seções aninhadas). A ordem das chaves de uma linha não muda o
+     * documento; a ordem das colunas vem do mapa {@code columns}, serializado como recebido.
+     */
+    static final class SortedRowsSerializer extends StdSerializer<List<Map<String, Object>>> {
+
+        @SuppressWarnings("unchecked")
+        SortedRowsSerializer() {
+            super((Class<List<Map<String, Object>>>) (Class<?>) List.class);
+        }
+
+        @Override
+        public void serialize(List<Map<String, Object>> rows, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            writeSorted(rows, generator, provider);
+        }
+
+        private static void writeSorted(Object value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (value instanceof Map<?, ?> map) {
+                Object[] keys = map.keySet().toArray();
+                Arrays.sort(keys, (a, b) -> String.valueOf(a).compareTo(String.valueOf(b)));
+                generator.writeStartObject();
+                for (Object key : keys) {
+                    generator.writeFieldName(String.valueOf(key));
+                    writeSorted(map.get(key), generator, provider);
+                }
+                generator.writeEndObject();
+            } else if (value instanceof List<?> list) {
+                generator.writeStartArray();
+                for (Object element : list) {
+                    writeSorted(element, generator, provider);
+                }
+                generator.writeEndArray();
+            } else {
+                provider.defaultSerializeValue(value, generator);
+            }
+        }
+    }
+
+    /**
+     * @param enabled Liga o agrupamento
+     * @param maxWaitMillis Tempo máximo que uma requisição agrupada espera antes de renderizar sozinha
+     */
+    @Autowired
+    public RenderCoalescer(
+            @Value("${print-service.coalescing.enabled:true}") boolean enabled,
+            @Value("${print-service.coalescing.max-wait-ms:120000}") long maxWaitMillis,
+            RenderOutputFactory renderOutputFactory,
+            MeterRegistry registry) {
+        this.enabled = enabled;
+        this.maxWaitMillis = Math.max(0, maxWaitMillis);
+        this.renderOutputFactory = renderOutputFactory;
+        this.registry = registry;
+        this.canonicalMapper = JsonMapper.builder()
+                .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .addMixIn(Section.class, SortedRowsMixIn.class)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+    }
+
+    /**
+     * Renderiza o documento ou aguarda a renderização idêntica em andamento.
+     *
+     * @param format Formato do documento (pdf, xlsx)
+     * @param reportData Dados do relatório, já com o template resolvido
+     * @param renderer Renderização, executada apenas pela primeira requisição
+     * @return Documento gerado; quem chama é responsável por fechá-lo após enviá-lo
+     */
+    public RenderOutput render(String format, ReportData reportData, Renderer renderer) throws IOException {
+        if (!enabled) {
+            return renderer.render(reportData);
+        }
+
+        String key = format + ":" + hash(reportData);
+        Flight flight = new Flight();
+        Flight current = inFlight.compute(key, (k, existing) -> {
+            if (existing == null) {
+                return flight;
+            }
+            existing.participants++;
+            return existing;
+        });
+
+        return current == flight ? lead(key, flight, reportData, renderer) : follow(format, current, reportData, renderer);
+    }
+
+    private RenderOutput lead(String key, Flight flight, ReportData reportData, Renderer renderer) throws IOException {
+        RenderOutput output;
+        try {
+            output = renderer.render(reportData);
+        } catch (IOException | RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        }
+
+        // Retira a renderização do mapa: a partir daqui o número de participantes não muda mais
+        int[] participants = new int[1];
+        inFlight.computeIfPresent(key, (k, existing) -> {
+            if (existing == flight) {
+                participants[0] = existing.participants;
+                return null;
+            }
+            return existing;
+        });
+        if (participants[0] <= 1) {
+            flight.result.complete(null);
+            return output;
+        }
+
+        SharedRenderOutput shared = new SharedRenderOutput(output, participants[0]);
+        // A saída original pertence agora ao compartilhamento, e não mais à requisição que a criou
+        RenderOutput handle = shared.handle();
+        renderOutputFactory.detachFromRequest(output);
+        renderOutputFactory.registerInRequest(handle);
+        flight.result.complete(shared);
+        logger.debug("Documento {} entregue a {} requisições idênticas", key, participants[0]);
+        return handle;
+    }
+
+    private RenderOutput follow(String format, Flight flight, ReportData reportData, Renderer renderer)
+            throws IOException {
+        SharedRenderOutput shared;
+        try {
+            shared = flight.result.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // A referência reservada para esta requisição é liberada quando o documento ficar pronto
+            flight.result.thenAccept(SharedRenderOutput::release);
+            logger.warn("Tempo de espera pela renderização idêntica esgotado ({} ms); renderizando novamente", maxWaitMillis);
+            return renderer.render(reportData);
+        } catch (InterruptedException e) {
+            flight.result.thenAccept(SharedRenderOutput::release);
+            Thread.currentThread().interrupt();
+            throw new IOException("Espera pela renderização idêntica interrompida", e);
+        } catch (ExecutionException | CancellationException e) {
+            throw rethrow(e.getCause() != null ? e.getCause() : e);
+        }
+
+        Counter.builder(COALESCED_COUNTER)
+                .description("Requisições atendidas pela renderização de uma requisição idêntica simultânea")
+                .tag("format", format)
+                .register(registry)
+                .increment();
+        RenderOutput handle = shared.handle();
+        renderOutputFactory.registerInRequest(handle);
+        return handle;
+    }
+
+    /**
+     * Repassa o erro da primeira requisição às requisições agrupadas.
+     */
+    private static IOException rethrow(Throwable cause) {
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+
+    /**
+     * SHA-256 da serialização canônica, calculado sem montar o JSON em memória.
+     */
+    private String hash(ReportData reportData) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (OutputStream output = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+                canonicalMapper.writeValue(output, reportData);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
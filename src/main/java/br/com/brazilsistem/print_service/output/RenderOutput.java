@@ -0,0 +1,68 @@
+package br.com.brazilsistem.print_service.output;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Destino do documento gerado (PDF ou XLSX).
+ * <p>
+ * O gerador escreve em {@link #getOutputStream()} e fecha o stream ao terminar; em seguida o
+ * conteúdo pode ser enviado para a resposta com {@link #transferTo(OutputStream)}. O
+ * {@link #close()} libera os recursos (memória ou arquivo temporário) e pode ser chamado
+ * mais de uma vez.
+ */
+public interface RenderOutput extends Closeable {
+
+    /**
+     * Stream em que o documento é escrito.
+     */
+    OutputStream getOutputStream() throws IOException;
+
+    /**
+     * Quantidade de bytes escritos.
+     */
+    long size();
+
+    /**
+     * Indica se o conteúdo está em arquivo temporário (true) ou em memória (false).
+     */
+    boolean isSpooled();
+
+    /**
+     * Abre um stream para leitura do conteúdo escrito.
+     */
+    InputStream getInputStream() throws IOException;
+
+    /**
+     * Envia todo o conteúdo para o destino, evitando cópias intermediárias sempre que possível.
+     */
+    void transferTo(OutputStream target) throws IOException;
+
+    /**
+     * Copia o conteúdo para um array contíguo.
+     */
+    byte[] toByteArray() throws IOException;
+
+    /**
+     * Hash do conteúdo calculado durante a escrita, ou {@code null} quando a saída não o calcula.
+     */
+    default String getContentDigest() {
+        return null;
+    }
+
+    /**
+     * Identificador do conteúdo (hash) quando o documento foi publicado no {@link ArtifactStore},
+     * usado como ETag e no endereço {@code /artifacts/{id}}.
+     */
+    default String getArtifactId() {
+        return null;
+    }
+
+    /**
+     * Libera a memória ou remove o arquivo temporário.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,27 @@
+package br.com.brazilsistem.print_service.output;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.List;
+
+/**
+ * Libera as saídas criadas durante a requisição (memória ou arquivos temporários)
+ * após o envio da resposta, inclusive quando ocorre erro antes da escrita.
+ */
+@Component
+public class RenderOutputCleanupInterceptor implements HandlerInterceptor {
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object outputs = request.getAttribute(RenderOutputFactory.REQUEST_OUTPUTS_ATTRIBUTE);
+        if (outputs instanceof List<?> list) {
+            for (Object output : list) {
+                ((RenderOutput) output).close();
+            }
+            request.removeAttribute(RenderOutputFactory.REQUEST_OUTPUTS_ATTRIBUTE);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package br.com.brazilsistem.print_service.output;
+
+import br.com.brazilsistem.print_service.metrics.TableVolume;
+import br.com.brazilsistem.print_service.model.Section;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escolhe o destino do documento gerado: memória para documentos pequenos e médios,
+ * arquivo temporário quando o tamanho estimado ultrapassa o limite configurado.
+ * <p>
+ * As saídas em memória usam segmentos do {@link SegmentPool} e reservam, na criação, o tamanho
+ * médio dos últimos documentos completos em memória do mesmo tipo de relatório (ver {@link #recordSize}).
+ * Pré-visualizações e extrações de páginas, bem menores que o documento completo, informam o próprio
+ * tamanho inicial ({@link #memory(long)}).
+ * <p>
+ * As saídas criadas durante uma requisição HTTP são registradas na própria requisição e
+ * liberadas pelo {@link RenderOutputCleanupInterceptor} ao final, mesmo em caso de erro.
+ */
+@Component
+public class RenderOutputFactory {
+
+    static final String REQUEST_OUTPUTS_ATTRIBUTE = RenderOutputFactory.class.getName() + ".outputs";
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderOutputFactory.class);
+
+    private static final int DEFAULT_MEMORY_CAPACITY = 32 * 1024;
+
+    private final long spoolThresholdBytes;
+    private final Path spoolDirectory;
+    private final int bytesPerCell;
+    private final SegmentPool segmentPool;
+    private final boolean poolEnabled;
+    private final OutputSizeHistory sizeHistory;
+
+    @Autowired
+    public RenderOutputFactory(
+            @Value("${print-service.output.spool-threshold-bytes:16777216}") long spoolThresholdBytes,
+            @Value("${print-service.output.spool-directory:${java.io.tmpdir}/print-service}") String spoolDirectory,
+            @Value("${print-service.output.estimated-bytes-per-cell:48}") int bytesPerCell,
+            @Value("${print-service.output.pool.enabled:true}") boolean poolEnabled,
+            @Value("${print-service.output.size-history.weight:0.2}") double sizeHistoryWeight,
+            @Value("${print-service.metrics.max-report-types:100}") int maxReportTypes,
+            SegmentPool segmentPool) {
+        this.spoolThresholdBytes = spoolThresholdBytes;
+        this.spoolDirectory = Path.of(spoolDirectory);
+        this.bytesPerCell = bytesPerCell;
+        this.poolEnabled = poolEnabled;
+        this.segmentPool = segmentPool;
+        this.sizeHistory = new OutputSizeHistory(sizeHistoryWeight, maxReportTypes);
+    }
+
+    /**
+     * Cria a saída para um documento, escolhendo o modo pelo tamanho estimado.
+     *
+     * @param reportType Tipo do relatório
+     * @param estimatedSize Tamanho estimado do documento em bytes
+     * @return Saída em memória ou em arquivo temporário
+     */
+    public RenderOutput create(String reportType, long estimatedSize) throws IOException {
+        RenderOutput output;
+        if (spoolThresholdBytes >= 0 && estimatedSize >= spoolThresholdBytes) {
+            logger.debug("Relatório {} com tamanho estimado de {} bytes será gravado em arquivo temporário",
+                    reportType, estimatedSize);
+            output = new FileSpoolRenderOutput(spoolDirectory, segmentPool);
+        } else {
+            output = memory(reportType, estimatedSize);
+        }
+        registerInRequest(output);
+        return output;
+    }
+
+    /**
+     * Cria uma saída em memória, independentemente do tamanho. O tamanho inicial é a média
+     * dos documentos anteriores do mesmo tipo ou, sem histórico, o tamanho estimado.
+     */
+    public RenderOutput memory(String reportType, long estimatedSize) {
+        long average = sizeHistory.average(reportType);
+        return memory(average > 0 ? average : estimatedSize);
+    }
+
+    /**
+     * Cria uma saída em memória com o tamanho inicial informado, sem consultar o histórico do tipo
+     * de relatório.
+     *
+     * @param sizeHint Tamanho inicial em bytes (0 ou negativo usa o padrão de 32 KB)
+     */
+    public RenderOutput memory(long sizeHint) {
+        long hint = sizeHint > 0 ? sizeHint : DEFAULT_MEMORY_CAPACITY;
+        if (poolEnabled) {
+            return new PooledRenderOutput(segmentPool, hint);
+        }
+        return new MemoryRenderOutput((int) Math.min(hint, Integer.MAX_VALUE - 8));
+    }
+
+    /**
+     * Registra o tamanho de um documento completo gerado em memória, atualizando a média do tipo de
+     * relatório. Documentos gravados em arquivo temporário não entram na média, que só dimensiona
+     * saídas em memória.
+     */
+    public void recordSize(String reportType, long size) {
+        sizeHistory.record(reportType, size);
+    }
+
+    /**
+     * Estima o tamanho do documento a partir do número de células das tabelas.
+     */
+    public long estimateSize(List<Section> sections) {
+        return TableVolume.of(sections).cells() * bytesPerCell;
+    }
+
+    /**
+     * Registra a saída na requisição atual, para ser liberada ao final dela.
+     */
+    @SuppressWarnings("unchecked")
+    void registerInRequest(RenderOutput output) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return;
+        }
+        List<RenderOutput> outputs = (List<RenderOutput>) attributes.getAttribute(
+                REQUEST_OUTPUTS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (outputs == null) {
+            outputs = new ArrayList<>();
+            attributes.setAttribute(REQUEST_OUTPUTS_ATTRIBUTE, outputs, RequestAttributes.SCOPE_REQUEST);
+        }
+        outputs.add(output);
+    }
+
+    /**
+     * Remove a saída da requisição atual, quando a sua liberação passa a ser responsabilidade de outro
+     * (documento compartilhado entre requisições).
+     */
+    void detachFromRequest(RenderOutput output) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(REQUEST_OUTPUTS_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST) instanceof List<?> outputs) {
+            outputs.remove(output);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.brazilsistem.print_service.output;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Escreve documentos gerados na resposta diretamente a partir do {@link RenderOutput}:
+ * os segmentos em memória são escritos sem cópia e o arquivo temporário é lido em blocos por um
+ * segmento do pool, sem carregar o documento inteiro no heap. A saída é liberada após o envio.
+ */
+public class RenderOutputHttpMessageConverter extends AbstractHttpMessageConverter<RenderOutputResource> {
+
+    public RenderOutputHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return RenderOutputResource.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected RenderOutputResource readInternal(Class<? extends RenderOutputResource> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Leitura de documentos gerados não é suportada", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(RenderOutputResource resource, MediaType contentType) {
+        return resource.contentLength();
+    }
+
+    @Override
+    protected void writeInternal(RenderOutputResource resource, HttpOutputMessage outputMessage) throws IOException {
+        try {
+            resource.getOutput().transferTo(outputMessage.getBody());
+        } finally {
+            resource.getOutput().close();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.brazilsistem.print_service.output;
+
+import org.springframework.core.io.AbstractResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Expõe um {@link RenderOutput} como {@link org.springframework.core.io.Resource} de tamanho conhecido,
+ * para ser devolvido pelos endpoints e escrito pelo {@link RenderOutputHttpMessageConverter}.
+ */
+public class RenderOutputResource extends AbstractResource {
+
+    private final RenderOutput output;
+    private final String filename;
+
+    public RenderOutputResource(RenderOutput output, String filename) {
+        this.output = output;
+        this.filename = filename;
+    }
+
+    public RenderOutput getOutput() {
+        return output;
+    }
+
+    @Override
+    public String getFilename() {
+        return filename;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Documento gerado [" + filename + ", " + output.size() + " bytes]";
+    }
+
+    @Override
+    public long contentLength() {
+        return output.size();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return output.getInputStream();
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.brazilsistem.print_service.output;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Pool de segmentos de tamanho fixo reaproveitados entre requisições pelas saídas em memória.
+ * <p>
+ * O número de segmentos ociosos mantidos é limitado; segmentos devolvidos com o pool cheio
+ * são descartados e ficam para o GC. Quando o pool está vazio um novo segmento é alocado.
+ */
+@Component
+public class SegmentPool {
+
+    public static final String POOL_IDLE_GAUGE = "print.output.pool.idle.segments";
+    public static final String POOL_ALLOCATIONS = "print.output.pool.allocations";
+
+    private final int segmentSize;
+    private final ArrayBlockingQueue<byte[]> idle;
+    private final Counter allocations;
+
+    @Autowired
+    public SegmentPool(
+            @Value("${print-service.output.pool.segment-size-bytes:65536}") int segmentSize,
+            @Value("${print-service.output.pool.max-idle-segments:256}") int maxIdleSegments,
+            MeterRegistry registry) {
+        this.segmentSize = Math.max(1024, segmentSize);
+        this.idle = maxIdleSegments > 0 ? new ArrayBlockingQueue<>(maxIdleSegments) : null;
+
+        Gauge.builder(POOL_IDLE_GAUGE, this, pool -> pool.idleSegments())
+                .description("Segmentos ociosos no pool de buffers de saída")
+                .register(registry);
+        this.allocations = Counter.builder(POOL_ALLOCATIONS)
+                .description("Segmentos alocados por falta de segmentos ociosos no pool")
+                .register(registry);
+    }
+
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    /**
+     * Obtém um segmento do pool ou aloca um novo quando não houver segmentos ociosos.
+     * O conteúdo do segmento não é zerado.
+     */
+    public byte[] acquire() {
+        byte[] segment = idle != null ? idle.poll() : null;
+        if (segment == null) {
+            allocations.increment();
+            segment = new byte[segmentSize];
+        }
+        return segment;
+    }
+
+    /**
+     * Devolve um segmento ao pool; com o pool cheio o segmento é descartado.
+     */
+    public void release(byte[] segment) {
+        if (idle != null && segment != null && segment.length == segmentSize) {
+            idle.offer(segment);
+        }
+    }
+
+    public int idleSegments() {
+        return idle != null ? idle.size() : 0;
+    }
+}
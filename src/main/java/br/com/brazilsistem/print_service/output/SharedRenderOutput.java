@@ -0,0 +1,115 @@
+package br.com.brazilsistem.print_service.output;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Documento gerado entregue a várias requisições. Cada requisição recebe a sua própria referência
+ * ({@link #handle()}); a saída original só é liberada quando a última referência é fechada.
+ * As referências são somente leitura.
+ */
+class SharedRenderOutput {
+
+    private final RenderOutput delegate;
+    private final AtomicInteger references;
+    private final String artifactId;
+
+    /**
+     * @param delegate Saída já escrita e fechada pelo gerador
+     * @param references Número de referências que serão entregues
+     */
+    SharedRenderOutput(RenderOutput delegate, int references) {
+        this(delegate, references, delegate.getArtifactId());
+    }
+
+    /**
+     * @param delegate Saída já escrita e fechada pelo gerador
+     * @param references Número de referências que serão entregues
+     * @param artifactId Identificador do conteúdo
+     */
+    SharedRenderOutput(RenderOutput delegate, int references, String artifactId) {
+        this.delegate = delegate;
+        this.references = new AtomicInteger(references);
+        this.artifactId = artifactId;
+    }
+
+    /**
+     * Entrega uma das referências contadas na criação.
+     */
+    RenderOutput handle() {
+        return new Handle();
+    }
+
+    /**
+     * Cria uma referência adicional. Só pode ser chamado enquanto quem chama detém uma referência.
+     */
+    RenderOutput retain() {
+        references.incrementAndGet();
+        return new Handle();
+    }
+
+    /**
+     * Libera uma referência mantida sem handle (requisição que desistiu de esperar, artefato
+     * removido do {@link ArtifactStore}).
+     */
+    void release() {
+        if (references.decrementAndGet() == 0) {
+            delegate.close();
+        }
+    }
+
+    private class Handle implements RenderOutput {
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        @Override
+        public OutputStream getOutputStream() {
+            throw new UnsupportedOperationException("Documento compartilhado é somente leitura");
+        }
+
+        @Override
+        public long size() {
+            return delegate.size();
+        }
+
+        @Override
+        public boolean isSpooled() {
+            return delegate.isSpooled();
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return delegate.getInputStream();
+        }
+
+        @Override
+        public void transferTo(OutputStream target) throws IOException {
+            delegate.transferTo(target);
+        }
+
+        @Override
+        public byte[] toByteArray() throws IOException {
+            return delegate.toByteArray();
+        }
+
+        @Override
+        public String getContentDigest() {
+            return delegate.getContentDigest();
+        }
+
+        @Override
+        public String getArtifactId() {
+            return artifactId;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                release();
+            }
+        }
+    }
+}
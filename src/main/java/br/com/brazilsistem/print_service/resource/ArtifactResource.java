@@ -0,0 +1,103 @@
+package br.com.brazilsistem.print_service.resource;
+
+import br.com.brazilsistem.print_service.model.ResourceResponse;
+import br.com.brazilsistem.print_service.output.ArtifactStore;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import br.com.brazilsistem.print_service.output.RenderOutputResource;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/artifacts")
+@Tag(name = "Documentos gerados", description = "Download de documentos gerados recentemente, com ETag e Range")
+public class ArtifactResource {
+
+    public static final String PATH = "/artifacts/";
+
+    private final ArtifactStore artifactStore;
+
+    @Autowired
+    public ArtifactResource(ArtifactStore artifactStore) {
+        this.artifactStore = artifactStore;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Baixar documento gerado",
+            description = "Devolve um documento gerado recentemente pelo identificador informado nos cabeçalhos ETag e "
+                    + "Content-Location da geração. Suporta If-None-Match (304) e Range (206), para visualizadores "
+                    + "que leem o PDF por partes e para retomar downloads interrompidos."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Documento encontrado",
+                    content = {@Content(mediaType = "application/pdf"),
+                            @Content(mediaType = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")}
+            ),
+            @ApiResponse(responseCode = "206", description = "Parte do documento pedida no cabeçalho Range"),
+            @ApiResponse(responseCode = "304", description = "Documento igual ao informado em If-None-Match"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Documento não encontrado ou já descartado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<?> getArtifact(
+            @Parameter(description = "Identificador do documento (ETag sem aspas)", required = true)
+            @PathVariable String id) {
+        ArtifactStore.OpenedArtifact artifact = artifactStore.open(id);
+        if (artifact == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ResourceResponse.error("Documento não encontrado ou expirado: " + id));
+        }
+
+        // If-None-Match e Range são tratados pelo Spring MVC a partir do ETag e do corpo (Resource)
+        return ResponseEntity.ok()
+                .eTag(quote(id))
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .contentType(MediaType.parseMediaType(artifact.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.inline()
+                        .filename(artifact.filename()).build().toString())
+                .body(new RenderOutputResource(artifact.output(), artifact.filename()));
+    }
+
+    /**
+     * Cabeçalhos de um documento recém-gerado: ETag do conteúdo e endereço para baixá-lo de novo.
+     */
+    public static void addArtifactHeaders(HttpHeaders headers, RenderOutput output) {
+        String id = output.getArtifactId();
+        if (id != null) {
+            headers.setETag(quote(id));
+            headers.set(HttpHeaders.CONTENT_LOCATION, PATH + id);
+        }
+    }
+
+    /**
+     * Cabeçalho de um documento não mantido no armazenamento (pré-visualização): apenas o ETag.
+     */
+    public static void addETag(HttpHeaders headers, RenderOutput output) {
+        String id = output.getArtifactId();
+        if (id != null) {
+            headers.setETag(quote(id));
+        }
+    }
+
+    private static String quote(String id) {
+        return "\"" + id + "\"";
+    }
+}
@@ -1,9 +1,18 @@
 package br.com.brazilsistem.print_service.resource;
 
 import br.com.brazilsistem.print_service.exception.ExcelGenerationException;
+import br.com.brazilsistem.print_service.exception.RenderRejectedException;
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
 import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.output.ArtifactStore;
+import br.com.brazilsistem.print_service.output.RenderCoalescer;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import br.com.brazilsistem.print_service.output.RenderOutputResource;
 import br.com.brazilsistem.print_service.model.ResourceResponse;
+import br.com.brazilsistem.print_service.scheduling.RenderPriority;
+import br.com.brazilsistem.print_service.scheduling.RenderScheduler;
 import br.com.brazilsistem.print_service.service.ExcelGenerationService;
+import br.com.brazilsistem.print_service.template.ReportTemplateRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -34,11 +43,23 @@ public class ExcelResource {
 
     private static final Logger logger = LoggerFactory.getLogger(ExcelResource.class);
 
+    private static final String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
     private final ExcelGenerationService excelGenerationService;
+    private final ReportTemplateRegistry reportTemplateRegistry;
+    private final RenderScheduler renderScheduler;
+    private final RenderCoalescer renderCoalescer;
+    private final ArtifactStore artifactStore;
 
     @Autowired
-    public ExcelResource(ExcelGenerationService excelGenerationService) {
+    public ExcelResource(ExcelGenerationService excelGenerationService, ReportTemplateRegistry reportTemplateRegistry,
+                         RenderScheduler renderScheduler, RenderCoalescer renderCoalescer,
+                         ArtifactStore artifactStore) {
         this.excelGenerationService = excelGenerationService;
+        this.reportTemplateRegistry = reportTemplateRegistry;
+        this.renderScheduler = renderScheduler;
+        this.renderCoalescer = renderCoalescer;
+        this.artifactStore = artifactStore;
     }
 
     @PostMapping("/generate")
@@ -65,22 +86,43 @@ public class ExcelResource {
     })
     public ResponseEntity<?> generateExcel(
             @Parameter(description = "Dados do relatório para geração do Excel", required = true)
-            @Valid @RequestBody ReportData reportData) {
+            @Valid @RequestBody ReportData reportData,
+            @Parameter(description = "Classe de prioridade: INTERACTIVE, STANDARD ou BULK (padrão: BULK)")
+            @RequestHeader(value = RenderScheduler.PRIORITY_HEADER, required = false) String priority,
+            @Parameter(description = "Tenant da requisição, para o limite de renderizações simultâneas")
+            @RequestHeader(value = RenderScheduler.TENANT_HEADER, required = false) String tenant) {
+        // Layout do template registrado, quando referenciado (erros tratados pelo GlobalExceptionHandler)
+        reportData = reportTemplateRegistry.resolve(reportData);
+        RenderPriority renderPriority = renderScheduler.resolve(priority, reportData.getReportType(), RenderPriority.BULK);
+
         try {
             logger.info("Iniciando geração de Excel para relatório do tipo: {}", reportData.getReportType());
 
-            byte[] excelBytes = excelGenerationService.generateExcel(reportData);
+            // Define o nome do arquivo para download
+            String filename = URLEncoder.encode(reportData.getTitle().replaceAll("\\s+", "_"), StandardCharsets.UTF_8) + ".xlsx";
+
+            // Requisições idênticas simultâneas recebem o documento da primeira, que é a única a ocupar
+            // uma vaga de renderização pela classe de prioridade. O documento fica disponível em
+            // /artifacts/{id} (ETag, If-None-Match e Range)
+            RenderOutput excelOutput = renderCoalescer.render(RenderMetrics.FORMAT_EXCEL, reportData, data -> {
+                try (RenderScheduler.Permit permit = renderScheduler.acquire(renderPriority, tenant)) {
+                    return artifactStore.publish(excelGenerationService.generateExcelOutput(data), EXCEL_CONTENT_TYPE, filename);
+                }
+            });
 
             HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"));
+            headers.setContentType(MediaType.parseMediaType(EXCEL_CONTENT_TYPE));
+            headers.setContentLength(excelOutput.size());
 
-            // Define o nome do arquivo para download
-            String filename = URLEncoder.encode(reportData.getTitle().replaceAll("\\s+", "_"), StandardCharsets.UTF_8) + ".xlsx";
             headers.setContentDispositionFormData("attachment", filename);
+            ArtifactResource.addArtifactHeaders(headers, excelOutput);
 
-            logger.info("Excel gerado com sucesso: {} bytes", excelBytes.length);
+            logger.info("Excel gerado com sucesso: {} bytes{}", excelOutput.size(), excelOutput.isSpooled() ? " (arquivo temporário)" : "");
 
-            return new ResponseEntity<>(excelBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(new RenderOutputResource(excelOutput, filename), headers, HttpStatus.OK);
+        } catch (RenderRejectedException e) {
+            // Tratada pelo GlobalExceptionHandler (503)
+            throw e;
         } catch (ExcelGenerationException e) {
             logger.error("Erro no processo de geração do Excel", e);
             return ResponseEntity
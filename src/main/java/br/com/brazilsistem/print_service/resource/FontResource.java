@@ -0,0 +1,86 @@
+package br.com.brazilsistem.print_service.resource;
+
+import br.com.brazilsistem.print_service.exception.FontException;
+import br.com.brazilsistem.print_service.font.FontRegistry;
+import br.com.brazilsistem.print_service.model.ResourceResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/fonts")
+@Tag(name = "Fontes", description = "Administração das fontes TrueType/OpenType usadas pelos estilos")
+public class FontResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(FontResource.class);
+
+    private final FontRegistry fontRegistry;
+
+    @Autowired
+    public FontResource(FontRegistry fontRegistry) {
+        this.fontRegistry = fontRegistry;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Listar fontes",
+            description = "Lista as fontes registradas com nome, família e variante."
+    )
+    public ResponseEntity<ResourceResponse> listFonts() {
+        return ResponseEntity.ok(ResourceResponse.success("Fontes registradas", fontRegistry.list()));
+    }
+
+    @PutMapping(value = "/{name}", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "font/ttf", "font/otf"})
+    @Operation(
+            summary = "Registrar fonte",
+            description = "Registra ou substitui uma fonte a partir do arquivo TTF/OTF enviado no corpo. "
+                    + "A fonte pode ser usada em Style.fontFamily pelo nome de registro ou pela família declarada nela."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Fonte registrada",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Arquivo de fonte inválido",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> registerFont(
+            @Parameter(description = "Nome de registro da fonte", required = true)
+            @PathVariable String name,
+            @RequestBody byte[] program) {
+        try {
+            FontRegistry.RegisteredFont font = fontRegistry.register(name, program);
+            return ResponseEntity.ok(ResourceResponse.success("Fonte registrada", font.summary()));
+        } catch (FontException e) {
+            logger.warn("Fonte rejeitada: {}", e.getMessage());
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ResourceResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/reload")
+    @Operation(
+            summary = "Recarregar fontes",
+            description = "Recarrega as fontes do diretório configurado."
+    )
+    public ResponseEntity<ResourceResponse> reloadFonts() {
+        int loaded = fontRegistry.reload();
+        return ResponseEntity.ok(ResourceResponse.success(loaded + " fonte(s) carregada(s)", fontRegistry.list()));
+    }
+}
@@ -0,0 +1,230 @@
+package br.com.brazilsistem.print_service.resource;
+
+import br.com.brazilsistem.print_service.jobs.JobQueue;
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
+import br.com.brazilsistem.print_service.model.RenderJob;
+import br.com.brazilsistem.print_service.model.RenderJobState;
+import br.com.brazilsistem.print_service.model.RenderJobStatus;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.ResourceResponse;
+import br.com.brazilsistem.print_service.scheduling.RenderScheduler;
+import br.com.brazilsistem.print_service.template.ReportTemplateRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/jobs")
+@Validated
+@Tag(name = "Jobs de renderização", description = "Geração assíncrona de PDF e Excel, distribuída entre os nós")
+public class JobResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobResource.class);
+
+    private static final String EXCEL_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    private final JobQueue jobQueue;
+    private final ReportTemplateRegistry reportTemplateRegistry;
+
+    @Autowired
+    public JobResource(JobQueue jobQueue, ReportTemplateRegistry reportTemplateRegistry) {
+        this.jobQueue = jobQueue;
+        this.reportTemplateRegistry = reportTemplateRegistry;
+    }
+
+    @PostMapping("/pdf")
+    @Operation(
+            summary = "Enfileirar geração de PDF",
+            description = "Enfileira a geração de um PDF e retorna o identificador do job. O documento é gerado por "
+                    + "qualquer nó livre e baixado em GET /jobs/{id}/result."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Job enfileirado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Erro ao gravar o job na fila",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> submitPdf(
+            @Parameter(description = "Dados do relatório para geração do PDF", required = true)
+            @Valid @RequestBody ReportData reportData,
+            @Parameter(description = "Classe de prioridade: INTERACTIVE, STANDARD ou BULK (padrão: BULK)")
+            @RequestHeader(value = RenderScheduler.PRIORITY_HEADER, required = false) String priority,
+            @Parameter(description = "Tenant da requisição, para o limite de renderizações simultâneas")
+            @RequestHeader(value = RenderScheduler.TENANT_HEADER, required = false) String tenant) {
+        return submit(RenderMetrics.FORMAT_PDF, reportData, priority, tenant);
+    }
+
+    @PostMapping("/excel")
+    @Operation(
+            summary = "Enfileirar geração de Excel",
+            description = "Enfileira a geração de uma planilha Excel e retorna o identificador do job. A planilha é "
+                    + "gerada por qualquer nó livre e baixada em GET /jobs/{id}/result."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "Job enfileirado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Erro ao gravar o job na fila",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> submitExcel(
+            @Parameter(description = "Dados do relatório para geração do Excel", required = true)
+            @Valid @RequestBody ReportData reportData,
+            @Parameter(description = "Classe de prioridade: INTERACTIVE, STANDARD ou BULK (padrão: BULK)")
+            @RequestHeader(value = RenderScheduler.PRIORITY_HEADER, required = false) String priority,
+            @Parameter(description = "Tenant da requisição, para o limite de renderizações simultâneas")
+            @RequestHeader(value = RenderScheduler.TENANT_HEADER, required = false) String tenant) {
+        return submit(RenderMetrics.FORMAT_EXCEL, reportData, priority, tenant);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Consultar job",
+            description = "Retorna a situação do job: QUEUED, RUNNING, DONE ou FAILED."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Job encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Job não encontrado ou já descartado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> getJob(
+            @Parameter(description = "Identificador do job", required = true)
+            @PathVariable String id) {
+        try {
+            RenderJobState state = jobQueue.state(id);
+            if (state == null) {
+                return notFound(id);
+            }
+            return ResponseEntity.ok(ResourceResponse.success("Job " + state.getStatus(), state));
+        } catch (IOException e) {
+            logger.error("Erro ao consultar o job {}", id, e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ResourceResponse.error("Erro ao consultar o job: " + e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{id}/result")
+    @Operation(
+            summary = "Baixar documento do job",
+            description = "Baixa o documento gerado por um job concluído. Suporta Range (206)."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Documento gerado",
+                    content = {@Content(mediaType = "application/pdf"), @Content(mediaType = EXCEL_CONTENT_TYPE)}
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Job não encontrado ou já descartado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Job ainda não concluído ou com falha",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<?> getResult(
+            @Parameter(description = "Identificador do job", required = true)
+            @PathVariable String id) {
+        try {
+            RenderJobState state = jobQueue.state(id);
+            if (state == null) {
+                return notFound(id);
+            }
+            Resource result = state.getStatus() == RenderJobStatus.DONE ? jobQueue.openResult(id) : null;
+            if (result == null) {
+                return ResponseEntity
+                        .status(HttpStatus.CONFLICT)
+                        .body(new ResourceResponse("error", "Job " + state.getStatus(), state));
+            }
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(RenderMetrics.FORMAT_EXCEL.equals(state.getFormat())
+                    ? MediaType.parseMediaType(EXCEL_CONTENT_TYPE) : MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment", state.getFilename());
+            return new ResponseEntity<>(result, headers, HttpStatus.OK);
+        } catch (IOException e) {
+            logger.error("Erro ao abrir o resultado do job {}", id, e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ResourceResponse.error("Erro ao abrir o resultado do job: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<ResourceResponse> submit(String format, ReportData reportData, String priority,
+                                                    String tenant) {
+        // Layout do template registrado, resolvido no envio para que o erro chegue ao cliente
+        reportData = reportTemplateRegistry.resolve(reportData);
+
+        RenderJob job = new RenderJob();
+        job.setId(RenderJob.newId());
+        job.setFormat(format);
+        job.setFilename(URLEncoder.encode(reportData.getTitle().replaceAll("\\s+", "_"), StandardCharsets.UTF_8)
+                + "." + format);
+        job.setPriority(priority);
+        job.setTenant(tenant);
+        job.setReportData(reportData);
+        job.setSubmittedAt(System.currentTimeMillis());
+
+        try {
+            jobQueue.submit(job);
+            logger.info("Job {} enfileirado ({}, tipo {})", job.getId(), format, reportData.getReportType());
+            return ResponseEntity
+                    .accepted()
+                    .location(URI.create("/jobs/" + job.getId()))
+                    .body(ResourceResponse.success("Job enfileirado", RenderJobState.of(job, RenderJobStatus.QUEUED, null)));
+        } catch (IOException e) {
+            logger.error("Erro ao enfileirar job", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ResourceResponse.error("Erro ao enfileirar job: " + e.getMessage()));
+        }
+    }
+
+    private static ResponseEntity<ResourceResponse> notFound(String id) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(ResourceResponse.error("Job não encontrado ou expirado: " + id));
+    }
+}
@@ -1,9 +1,21 @@
 package br.com.brazilsistem.print_service.resource;
 
 import br.com.brazilsistem.print_service.exception.PdfGenerationException;
+import br.com.brazilsistem.print_service.exception.RenderRejectedException;
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
+import br.com.brazilsistem.print_service.model.PdfEstimate;
 import br.com.brazilsistem.print_service.model.ResourceResponse;
 import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.output.ArtifactStore;
+import br.com.brazilsistem.print_service.output.RenderCoalescer;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import br.com.brazilsistem.print_service.output.RenderOutputResource;
+import br.com.brazilsistem.print_service.scheduling.RenderPriority;
+import br.com.brazilsistem.print_service.scheduling.RenderScheduler;
+import br.com.brazilsistem.print_service.service.PdfEstimationService;
 import br.com.brazilsistem.print_service.service.PdfGenerationService;
+import br.com.brazilsistem.print_service.service.PdfPreviewService;
+import br.com.brazilsistem.print_service.template.ReportTemplateRegistry;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -35,10 +47,25 @@ public class PdfResource {
     private static final Logger logger = LoggerFactory.getLogger(PdfResource.class);
 
     private final PdfGenerationService pdfGenerationService;
+    private final PdfEstimationService pdfEstimationService;
+    private final PdfPreviewService pdfPreviewService;
+    private final ReportTemplateRegistry reportTemplateRegistry;
+    private final RenderScheduler renderScheduler;
+    private final RenderCoalescer renderCoalescer;
+    private final ArtifactStore artifactStore;
 
     @Autowired
-    public PdfResource(PdfGenerationService pdfGenerationService) {
+    public PdfResource(PdfGenerationService pdfGenerationService, PdfEstimationService pdfEstimationService,
+                       PdfPreviewService pdfPreviewService, ReportTemplateRegistry reportTemplateRegistry,
+                       RenderScheduler renderScheduler, RenderCoalescer renderCoalescer,
+                       ArtifactStore artifactStore) {
         this.pdfGenerationService = pdfGenerationService;
+        this.pdfEstimationService = pdfEstimationService;
+        this.pdfPreviewService = pdfPreviewService;
+        this.reportTemplateRegistry = reportTemplateRegistry;
+        this.renderScheduler = renderScheduler;
+        this.renderCoalescer = renderCoalescer;
+        this.artifactStore = artifactStore;
     }
 
     @PostMapping("/generate")
@@ -65,22 +92,43 @@ public class PdfResource {
     })
     public ResponseEntity<?> generatePdf(
             @Parameter(description = "Dados do relatório para geração do PDF", required = true)
-            @Valid @RequestBody ReportData reportData) {
+            @Valid @RequestBody ReportData reportData,
+            @Parameter(description = "Classe de prioridade: INTERACTIVE, STANDARD ou BULK (padrão: STANDARD)")
+            @RequestHeader(value = RenderScheduler.PRIORITY_HEADER, required = false) String priority,
+            @Parameter(description = "Tenant da requisição, para o limite de renderizações simultâneas")
+            @RequestHeader(value = RenderScheduler.TENANT_HEADER, required = false) String tenant) {
+        // Layout do template registrado, quando referenciado (erros tratados pelo GlobalExceptionHandler)
+        reportData = reportTemplateRegistry.resolve(reportData);
+        RenderPriority renderPriority = renderScheduler.resolve(priority, reportData.getReportType(), RenderPriority.STANDARD);
+
         try {
             logger.info("Iniciando geração de PDF para relatório do tipo: {}", reportData.getReportType());
 
-            byte[] pdfBytes = pdfGenerationService.generatePdf(reportData);
+            // Define o nome do arquivo para download
+            String filename = URLEncoder.encode(reportData.getTitle().replaceAll("\\s+", "_"), StandardCharsets.UTF_8) + ".pdf";
+
+            // Requisições idênticas simultâneas recebem o documento da primeira, que é a única a ocupar
+            // uma vaga de renderização pela classe de prioridade. O documento fica disponível em
+            // /artifacts/{id} (ETag, If-None-Match e Range)
+            RenderOutput pdfOutput = renderCoalescer.render(RenderMetrics.FORMAT_PDF, reportData, data -> {
+                try (RenderScheduler.Permit permit = renderScheduler.acquire(renderPriority, tenant)) {
+                    return artifactStore.publish(pdfGenerationService.generatePdfOutput(data), MediaType.APPLICATION_PDF_VALUE, filename);
+                }
+            });
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentLength(pdfOutput.size());
 
-            // Define o nome do arquivo para download
-            String filename = URLEncoder.encode(reportData.getTitle().replaceAll("\\s+", "_"), StandardCharsets.UTF_8) + ".pdf";
             headers.setContentDispositionFormData("attachment", filename);
+            ArtifactResource.addArtifactHeaders(headers, pdfOutput);
 
-            logger.info("PDF gerado com sucesso: {} bytes", pdfBytes.length);
+            logger.info("PDF gerado com sucesso: {} bytes{}", pdfOutput.size(), pdfOutput.isSpooled() ? " (arquivo temporário)" : "");
 
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(new RenderOutputResource(pdfOutput, filename), headers, HttpStatus.OK);
+        } catch (RenderRejectedException e) {
+            // Tratada pelo GlobalExceptionHandler (503)
+            throw e;
         } catch (PdfGenerationException e) {
             logger.error("Erro no processo de geração do PDF", e);
             return ResponseEntity
@@ -102,7 +150,9 @@ public class PdfResource {
     @PostMapping("/preview")
     @Operation(
             summary = "Visualizar PDF no navegador",
-            description = "Gera um documento PDF baseado nos dados de relatório fornecidos e exibe no navegador."
+            description = "Gera um documento PDF baseado nos dados de relatório fornecidos e exibe no navegador. "
+                    + "Com os parâmetros pages e/ou maxRows, gera apenas as páginas pedidas, interrompendo o layout "
+                    + "assim que elas estão preenchidas; o rodapé indica a pré-visualização e o total estimado de páginas."
     )
     @ApiResponses(value = {
             @ApiResponse(
@@ -123,21 +173,40 @@ public class PdfResource {
     })
     public ResponseEntity<?> previewPdf(
             @Parameter(description = "Dados do relatório para pré-visualização do PDF", required = true)
-            @Valid @RequestBody ReportData reportData) {
+            @Valid @RequestBody ReportData reportData,
+            @Parameter(description = "Intervalo de páginas a ser gerado", example = "1-3")
+            @RequestParam(required = false) String pages,
+            @Parameter(description = "Número máximo de linhas por tabela", example = "100")
+            @RequestParam(required = false) Integer maxRows,
+            @Parameter(description = "Classe de prioridade: INTERACTIVE, STANDARD ou BULK (padrão: INTERACTIVE)")
+            @RequestHeader(value = RenderScheduler.PRIORITY_HEADER, required = false) String priority,
+            @Parameter(description = "Tenant da requisição, para o limite de renderizações simultâneas")
+            @RequestHeader(value = RenderScheduler.TENANT_HEADER, required = false) String tenant) {
+        // Layout do template registrado, quando referenciado (erros tratados pelo GlobalExceptionHandler)
+        reportData = reportTemplateRegistry.resolve(reportData);
+        // Vaga de renderização pela classe de prioridade (recusa tratada pelo GlobalExceptionHandler)
+        RenderScheduler.Permit permit = renderScheduler.acquire(
+                renderScheduler.resolve(priority, reportData.getReportType(), RenderPriority.INTERACTIVE), tenant);
+
         try {
             logger.info("Iniciando geração de PDF para pré-visualização, tipo: {}", reportData.getReportType());
 
-            byte[] pdfBytes = pdfGenerationService.generatePdf(reportData);
+            // Pré-visualizações recebem o ETag, mas não são mantidas em /artifacts
+            RenderOutput pdfOutput = artifactStore.identify(pages == null && maxRows == null
+                    ? pdfGenerationService.generatePdfOutput(reportData)
+                    : pdfPreviewService.generatePreview(reportData, pages, maxRows));
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentLength(pdfOutput.size());
 
             // Configurando para exibir inline no navegador
             headers.add(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"preview.pdf\"");
+            ArtifactResource.addETag(headers, pdfOutput);
 
-            logger.info("PDF para pré-visualização gerado com sucesso: {} bytes", pdfBytes.length);
+            logger.info("PDF para pré-visualização gerado com sucesso: {} bytes", pdfOutput.size());
 
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+            return new ResponseEntity<>(new RenderOutputResource(pdfOutput, "preview.pdf"), headers, HttpStatus.OK);
         } catch (PdfGenerationException e) {
             logger.error("Erro no processo de geração do PDF para pré-visualização", e);
             return ResponseEntity
@@ -153,6 +222,67 @@ public class PdfResource {
             return ResponseEntity
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ResourceResponse.error("Erro inesperado: " + e.getMessage()));
+        } finally {
+            permit.close();
+        }
+    }
+
+    @PostMapping("/estimate")
+    @Operation(
+            summary = "Estimar geração do PDF",
+            description = "Estima o número de páginas, o tamanho do arquivo e o tempo de geração do PDF sem gerá-lo. "
+                    + "Executa apenas o layout do relatório, sobre uma amostra das linhas quando as tabelas são grandes."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Estimativa calculada com sucesso",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Dados de entrada inválidos",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "Erro interno do servidor",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> estimatePdf(
+            @Parameter(description = "Dados do relatório a ser estimado", required = true)
+            @Valid @RequestBody ReportData reportData,
+            @Parameter(description = "Classe de prioridade: INTERACTIVE, STANDARD ou BULK (padrão: INTERACTIVE)")
+            @RequestHeader(value = RenderScheduler.PRIORITY_HEADER, required = false) String priority,
+            @Parameter(description = "Tenant da requisição, para o limite de renderizações simultâneas")
+            @RequestHeader(value = RenderScheduler.TENANT_HEADER, required = false) String tenant) {
+        // Layout do template registrado, quando referenciado (erros tratados pelo GlobalExceptionHandler)
+        reportData = reportTemplateRegistry.resolve(reportData);
+        // Vaga de renderização pela classe de prioridade (recusa tratada pelo GlobalExceptionHandler)
+        RenderScheduler.Permit permit = renderScheduler.acquire(
+                renderScheduler.resolve(priority, reportData.getReportType(), RenderPriority.INTERACTIVE), tenant);
+
+        try {
+            PdfEstimate estimate = pdfEstimationService.estimate(reportData);
+
+            logger.info("Estimativa para relatório do tipo {}: {} páginas, {} bytes, {} ms (calculada em {} ms)",
+                    reportData.getReportType(), estimate.getPages(), estimate.getBytes(), estimate.getMillis(),
+                    estimate.getEstimationMillis());
+
+            return ResponseEntity.ok(ResourceResponse.success("Estimativa de geração do PDF", estimate));
+        } catch (PdfGenerationException e) {
+            logger.error("Erro ao estimar a geração do PDF", e);
+            return ResponseEntity
+                    .status(HttpStatus.BAD_REQUEST)
+                    .body(ResourceResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao estimar a geração do PDF", e);
+            return ResponseEntity
+                    .status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ResourceResponse.error("Erro ao estimar a geração do PDF: " + e.getMessage()));
+        } finally {
+            permit.close();
         }
     }
 
@@ -0,0 +1,58 @@
+package br.com.brazilsistem.print_service.resource;
+
+import br.com.brazilsistem.print_service.metrics.RenderProfile;
+import br.com.brazilsistem.print_service.metrics.RenderProfiler;
+import br.com.brazilsistem.print_service.model.ResourceResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/profiles")
+@Tag(name = "Perfil de renderização", description = "Consulta de perfis de renderização por requisição")
+public class ProfileResource {
+
+    private final RenderProfiler renderProfiler;
+
+    @Autowired
+    public ProfileResource(RenderProfiler renderProfiler) {
+        this.renderProfiler = renderProfiler;
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Consultar perfil de renderização",
+            description = "Retorna o detalhamento (tempo, CPU e alocação por fase) de uma requisição enviada com o cabeçalho X-Render-Profile: true."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Perfil encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Perfil não encontrado ou já descartado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> getProfile(
+            @Parameter(description = "Identificador retornado no cabeçalho X-Render-Profile-Id", required = true)
+            @PathVariable String id) {
+        RenderProfile profile = renderProfiler.getProfile(id);
+        if (profile == null) {
+            return ResponseEntity
+                    .status(HttpStatus.NOT_FOUND)
+                    .body(ResourceResponse.error("Perfil não encontrado: " + id));
+        }
+        return ResponseEntity.ok(ResourceResponse.success("Perfil de renderização", profile));
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.brazilsistem.print_service.resource;
+
+import br.com.brazilsistem.print_service.exception.TemplateException;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.ResourceResponse;
+import br.com.brazilsistem.print_service.template.ReportTemplate;
+import br.com.brazilsistem.print_service.template.ReportTemplateRegistry;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/templates")
+@Tag(name = "Templates de relatório", description = "Administração dos templates de layout por tipo de relatório")
+public class TemplateResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(TemplateResource.class);
+
+    private final ReportTemplateRegistry reportTemplateRegistry;
+
+    @Autowired
+    public TemplateResource(ReportTemplateRegistry reportTemplateRegistry) {
+        this.reportTemplateRegistry = reportTemplateRegistry;
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Listar templates",
+            description = "Lista os templates registrados com tipo de relatório, versão e hash."
+    )
+    public ResponseEntity<ResourceResponse> listTemplates() {
+        return ResponseEntity.ok(ResourceResponse.success("Templates registrados", reportTemplateRegistry.list()));
+    }
+
+    @GetMapping("/{reportType}")
+    @Operation(
+            summary = "Consultar template",
+            description = "Retorna o layout de um template. Sem versão, retorna a versão mais recente."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Template encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Template não encontrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> getTemplate(
+            @Parameter(description = "Tipo de relatório", required = true)
+            @PathVariable String reportType,
+            @Parameter(description = "Versão do template", example = "3")
+            @RequestParam(required = false) Integer version) {
+        ReportTemplate template = reportTemplateRegistry.get(reportType, version, null);
+        return ResponseEntity.ok(ResourceResponse.success("Template " + reportType + " v" + template.version(),
+                template.layout()));
+    }
+
+    @PutMapping
+    @Operation(
+            summary = "Registrar template",
+            description = "Registra uma versão de template a partir de um relatório de referência, sem dados. "
+                    + "Sem template.version, a versão é a seguinte à mais recente. Versões existentes não podem ser alteradas."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Template registrado",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Template inválido ou versão já registrada com outro conteúdo",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResourceResponse.class))
+            )
+    })
+    public ResponseEntity<ResourceResponse> registerTemplate(
+            @Parameter(description = "Relatório de referência do template", required = true)
+            @RequestBody ReportData layout) {
+        try {
+            ReportTemplate template = reportTemplateRegistry.register(layout);
+            return ResponseEntity.ok(ResourceResponse.success("Template registrado", template.summary()));
+        } catch (TemplateException e) {
+            logger.warn("Template rejeitado: {}", e.getMessage());
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ResourceResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/reload")
+    @Operation(
+            summary = "Recarregar templates",
+            description = "Recarrega os templates do diretório configurado."
+    )
+    public ResponseEntity<ResourceResponse> reloadTemplates() {
+        int loaded = reportTemplateRegistry.reload();
+        return ResponseEntity.ok(ResourceResponse.success(loaded + " template(s) carregado(s)", reportTemplateRegistry.list()));
+    }
+}
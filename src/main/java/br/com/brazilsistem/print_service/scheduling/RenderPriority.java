@@ -0,0 +1,33 @@
+package br.com.brazilsistem.print_service.scheduling;
+
+import java.util.Locale;
+
+/**
+ * Classes de prioridade das renderizações. Cada classe recebe uma fração das vagas de renderização
+ * proporcional ao seu peso enquanto houver fila; vagas não usadas por uma classe ficam com as outras.
+ */
+public enum RenderPriority {
+
+    /** Pré-visualizações e documentos curtos esperados por um usuário (ex.: telas do PDV). */
+    INTERACTIVE,
+    /** Geração de documentos comuns para download. */
+    STANDARD,
+    /** Exportações grandes, que podem esperar pela capacidade livre. */
+    BULK;
+
+    /**
+     * Converte o nome da classe, sem diferenciar maiúsculas.
+     *
+     * @return A classe, ou {@code null} quando o valor é vazio ou desconhecido
+     */
+    public static RenderPriority parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package br.com.brazilsistem.print_service.scheduling;
+
+import br.com.brazilsistem.print_service.exception.RenderRejectedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fila justa ponderada na frente das renderizações.
+ * <p>
+ * As renderizações continuam executando na thread da requisição, mas só depois de obter uma das
+ * vagas ({@code slots}) do serviço. Enquanto houver fila, as vagas liberadas são distribuídas entre
+ * as classes de prioridade na proporção dos seus pesos (cada classe avança {@code 1 / peso} no tempo
+ * virtual a cada vaga, e a de menor tempo virtual ao término é atendida); dentro de uma classe, a ordem
+ * é de chegada.
+ * Parte das vagas pode ser reservada para {@link RenderPriority#INTERACTIVE}, de modo que uma
+ * pré-visualização nunca espera o fim de uma exportação grande. Cada tenant pode ter um limite de
+ * renderizações simultâneas; requisições de um tenant no limite não bloqueiam as dos outros.
+ * <p>
+ * Cada requisição em espera ocupa uma thread do Tomcat. Por isso as classes STANDARD e BULK juntas
+ * não passam de {@code max-queued-total} requisições em espera, limitado à metade de
+ * {@code server.tomcat.threads.max}: uma exportação em massa não consegue ocupar todas as threads e
+ * sempre sobram threads para as pré-visualizações chegarem à fila INTERACTIVE, que tem apenas o
+ * limite por classe.
+ */
+@Component
+public class RenderScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(RenderScheduler.class);
+
+    public static final String QUEUE_WAIT_TIMER = "print.render.queue.wait";
+    public static final String QUEUE_SIZE_GAUGE = "print.render.queue.size";
+    public static final String RUNNING_GAUGE = "print.render.running";
+
+    public static final String PRIORITY_HEADER = "X-Render-Priority";
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+    public static final String DEFAULT_TENANT = "default";
+
+    private final boolean enabled;
+    private final int slots;
+    private final int reservedInteractiveSlots;
+    private final int maxQueued;
+    private final int maxQueuedTotal;
+    private final long maxWaitNanos;
+    private final int tenantMaxConcurrent;
+    private final Map<String, Integer> tenantLimits;
+    private final Map<String, RenderPriority> reportTypePriorities;
+    private final EnumMap<RenderPriority, Double> weights = new EnumMap<>(RenderPriority.class);
+    private final MeterRegistry registry;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final EnumMap<RenderPriority, ArrayDeque<Waiter>> queues = new EnumMap<>(RenderPriority.class);
+    // Tempo virtual de início da próxima vaga de cada classe
+    private final EnumMap<RenderPriority, Double> pass = new EnumMap<>(RenderPriority.class);
+    private final Map<String, Integer> runningByTenant = new HashMap<>();
+    private double virtualTime;
+    private int running;
+
+    /**
+     * Vaga obtida no escalonador; deve ser fechada ao fim da renderização.
+     */
+    public interface Permit extends AutoCloseable {
+
+        RenderPriority priority();
+
+        @Override
+        void close();
+    }
+
+    private final class Waiter implements Permit {
+        private final RenderPriority priority;
+        private final String tenant;
+        private final Condition granted;
+        private boolean admitted;
+        private boolean released;
+
+        private Waiter(RenderPriority priority, String tenant) {
+            this.priority = priority;
+            this.tenant = tenant;
+            this.granted = lock.newCondition();
+        }
+
+        @Override
+        public RenderPriority priority() {
+            return priority;
+        }
+
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+
+    /**
+     * @param enabled Liga o escalonamento (desligado, todas as requisições renderizam imediatamente)
+     * @param slots Renderizações simultâneas (0 usa o número de processadores)
+     * @param reservedInteractiveSlots Vagas que só renderizações interativas podem ocupar
+     * @param maxQueued Requisições em espera por classe antes de recusar novas (0 sem limite)
+     * @param maxQueuedTotal Requisições STANDARD e BULK em espera, somadas (0 usa a metade das threads do Tomcat)
+     * @param requestThreads Threads de requisição do Tomcat ({@code server.tomcat.threads.max})
+     * @param maxWaitMillis Tempo máximo de espera por uma vaga
+     * @param weights Pesos das classes, no formato {@code CLASSE=peso,CLASSE=peso}
+     * @param tenantMaxConcurrent Renderizações simultâneas por tenant (0 sem limite)
+     * @param tenantLimits Limites específicos por tenant, no formato {@code tenant=n,tenant=n}
+     * @param reportTypePriorities Classes por tipo de relatório, no formato {@code tipo=CLASSE,tipo=CLASSE}
+     */
+    @Autowired
+    public RenderScheduler(
+            MeterRegistry registry,
+            @Value("${print-service.scheduling.enabled:true}") boolean enabled,
+            @Value("${print-service.scheduling.slots:0}") int slots,
+            @Value("${print-service.scheduling.reserved-interactive-slots:1}") int reservedInteractiveSlots,
+            @Value("${print-service.scheduling.max-queued:50}") int maxQueued,
+            @Value("${print-service.scheduling.max-queued-total:0}") int maxQueuedTotal,
+            @Value("${server.tomcat.threads.max:200}") int requestThreads,
+            @Value("${print-service.scheduling.max-wait-ms:30000}") long maxWaitMillis,
+            @Value("${print-service.scheduling.weights:INTERACTIVE=8,STANDARD=3,BULK=1}") String weights,
+            @Value("${print-service.scheduling.tenant-max-concurrent:0}") int tenantMaxConcurrent,
+            @Value("${print-service.scheduling.tenant-limits:}") String tenantLimits,
+            @Value("${print-service.scheduling.report-types:}") String reportTypePriorities) {
+        this.registry = registry;
+        this.enabled = enabled;
+        this.slots = slots > 0 ? slots : Runtime.getRuntime().availableProcessors();
+        // Ao menos uma vaga fica para as demais classes
+        this.reservedInteractiveSlots = Math.max(0, Math.min(reservedInteractiveSlots, this.slots - 1));
+        this.maxQueued = Math.max(0, maxQueued);
+        int queueBound = Math.max(1, requestThreads / 2);
+        if (maxQueuedTotal > queueBound) {
+            logger.warn("print-service.scheduling.max-queued-total={} reduzido para {} (metade das {} threads do Tomcat)",
+                    maxQueuedTotal, queueBound, requestThreads);
+        }
+        this.maxQueuedTotal = maxQueuedTotal > 0 ? Math.min(maxQueuedTotal, queueBound) : queueBound;
+        if (this.maxQueued == 0 || this.slots + this.maxQueuedTotal + this.maxQueued >= requestThreads) {
+            logger.warn("Vagas ({}) e filas ({} + {} INTERACTIVE) podem ocupar todas as {} threads do Tomcat",
+                    this.slots, this.maxQueuedTotal, this.maxQueued == 0 ? "sem limite" : this.maxQueued,
+                    requestThreads);
+        }
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.tenantMaxConcurrent = Math.max(0, tenantMaxConcurrent);
+
+        for (RenderPriority priority : RenderPriority.values()) {
+            this.weights.put(priority, 1.0);
+            this.queues.put(priority, new ArrayDeque<>());
+            this.pass.put(priority, 0.0);
+        }
+        parseEntries(weights).forEach((key, value) -> {
+            RenderPriority priority = RenderPriority.parse(key);
+            Double weight = parseNumber(value);
+            if (priority != null && weight != null && weight > 0) {
+                this.weights.put(priority, weight);
+            } else {
+                logger.warn("Peso de prioridade ignorado: {}={}", key, value);
+            }
+        });
+
+        this.tenantLimits = new HashMap<>();
+        parseEntries(tenantLimits).forEach((tenant, value) -> {
+            Double limit = parseNumber(value);
+            if (limit != null && limit >= 0) {
+                this.tenantLimits.put(tenant, limit.intValue());
+            }
+        });
+
+        this.reportTypePriorities = new HashMap<>();
+        parseEntries(reportTypePriorities).forEach((reportType, value) -> {
+            RenderPriority priority = RenderPriority.parse(value);
+            if (priority != null) {
+                this.reportTypePriorities.put(reportType, priority);
+            } else {
+                logger.warn("Prioridade desconhecida para o reportType {}: {}", reportType, value);
+            }
+        });
+
+        registerGauges();
+        if (enabled) {
+            logger.info("Escalonamento de renderizações: {} vaga(s), {} reservada(s) para INTERACTIVE, "
+                            + "até {} STANDARD/BULK em espera, pesos {}",
+                    this.slots, this.reservedInteractiveSlots, this.maxQueuedTotal, this.weights);
+        }
+    }
+
+    /**
+     * Classe de prioridade de uma requisição: a informada no cabeçalho, senão a configurada para o
+     * {@code reportType}, senão a padrão do endpoint.
+     *
+     * @param header Valor do cabeçalho de prioridade (pode ser nulo)
+     * @param reportType Tipo do relatório
+     * @param endpointDefault Classe padrão do endpoint
+     */
+    public RenderPriority resolve(String header, String reportType, RenderPriority endpointDefault) {
+        RenderPriority priority = RenderPriority.parse(header);
+        if (priority != null) {
+            return priority;
+        }
+        priority = reportType != null ? reportTypePriorities.get(reportType) : null;
+        return priority != null ? priority : endpointDefault;
+    }
+
+    /**
+     * Aguarda uma vaga de renderização.
+     *
+     * @param priority Classe de prioridade
+     * @param tenant Tenant da requisição (nulo ou vazio usa {@value #DEFAULT_TENANT})
+     * @return Vaga obtida, a ser fechada ao fim da renderização
+     * @throws RenderRejectedException Quando a fila da classe (ou, fora de INTERACTIVE, a soma das filas
+     *                                  STANDARD e BULK) está cheia, ou a espera excede o limite
+     */
+    public Permit acquire(RenderPriority priority, String tenant) {
+        String tenantKey = tenant == null || tenant.isBlank() ? DEFAULT_TENANT : tenant.trim();
+        Waiter waiter = new Waiter(priority, tenantKey);
+        if (!enabled) {
+            waiter.admitted = true;
+            waiter.released = true;
+            return waiter;
+        }
+
+        long start = System.nanoTime();
+        lock.lock();
+        try {
+            ArrayDeque<Waiter> queue = queues.get(priority);
+            if (maxQueued > 0 && queue.size() >= maxQueued) {
+                throw new RenderRejectedException(String.format(
+                        "Fila de renderização %s cheia (%d requisições)", priority, queue.size()), 1);
+            }
+            if (priority != RenderPriority.INTERACTIVE) {
+                int queuedBackground = queues.get(RenderPriority.STANDARD).size() + queues.get(RenderPriority.BULK).size();
+                if (queuedBackground >= maxQueuedTotal) {
+                    throw new RenderRejectedException(String.format(
+                            "Filas de renderização STANDARD e BULK cheias (%d requisições)", queuedBackground), 1);
+                }
+            }
+            if (queue.isEmpty()) {
+                // Classe que volta a ter fila não acumula crédito pelo tempo em que ficou ociosa
+                pass.put(priority, Math.max(pass.get(priority), virtualTime));
+            }
+            queue.addLast(waiter);
+            dispatch();
+
+            long remaining = maxWaitNanos;
+            while (!waiter.admitted) {
+                if (remaining <= 0) {
+                    queue.remove(waiter);
+                    throw new RenderRejectedException(String.format(
+                            "Tempo de espera por uma vaga de renderização esgotado (%d ms, prioridade %s)",
+                            TimeUnit.NANOSECONDS.toMillis(maxWaitNanos), priority),
+                            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(maxWaitNanos) / 2));
+                }
+                remaining = waiter.granted.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            if (waiter.admitted) {
+                releaseLocked(waiter);
+            } else {
+                queues.get(priority).remove(waiter);
+            }
+            Thread.currentThread().interrupt();
+            throw new RenderRejectedException("Espera por uma vaga de renderização interrompida", 1);
+        } finally {
+            lock.unlock();
+        }
+
+        Timer.builder(QUEUE_WAIT_TIMER)
+                .description("Tempo de espera por uma vaga de renderização")
+                .tag("priority", priority.name())
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return waiter;
+    }
+
+    private void release(Waiter waiter) {
+        lock.lock();
+        try {
+            releaseLocked(waiter);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocked(Waiter waiter) {
+        if (waiter.released) {
+            return;
+        }
+        waiter.released = true;
+        running--;
+        runningByTenant.computeIfPresent(waiter.tenant, (tenant, count) -> count > 1 ? count - 1 : null);
+        dispatch();
+    }
+
+    /**
+     * Distribui as vagas livres entre as requisições em espera. Chamado com o lock obtido.
+     */
+    private void dispatch() {
+        while (running < slots) {
+            RenderPriority chosen = null;
+            Waiter next = null;
+            for (RenderPriority priority : RenderPriority.values()) {
+                if (chosen != null && finish(priority) >= finish(chosen)) {
+                    continue;
+                }
+                Waiter candidate = firstEligible(priority);
+                if (candidate != null) {
+                    chosen = priority;
+                    next = candidate;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+
+            queues.get(chosen).remove(next);
+            virtualTime = pass.get(chosen);
+            pass.put(chosen, finish(chosen));
+            running++;
+            runningByTenant.merge(next.tenant, 1, Integer::sum);
+            next.admitted = true;
+            next.granted.signal();
+        }
+    }
+
+    /**
+     * Tempo virtual ao fim da próxima renderização da classe.
+     */
+    private double finish(RenderPriority priority) {
+        return pass.get(priority) + 1.0 / weights.get(priority);
+    }
+
+    /**
+     * Primeira requisição da classe que pode ocupar uma vaga agora: fora das vagas reservadas
+     * (exceto INTERACTIVE) e com o tenant abaixo do limite.
+     */
+    private Waiter firstEligible(RenderPriority priority) {
+        if (priority != RenderPriority.INTERACTIVE && running >= slots - reservedInteractiveSlots) {
+            return null;
+        }
+        Iterator<Waiter> iterator = queues.get(priority).iterator();
+        while (iterator.hasNext()) {
+            Waiter waiter = iterator.next();
+            int limit = tenantLimits.getOrDefault(waiter.tenant, tenantMaxConcurrent);
+            if (limit <= 0 || runningByTenant.getOrDefault(waiter.tenant, 0) < limit) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private void registerGauges() {
+        for (RenderPriority priority : RenderPriority.values()) {
+            Gauge.builder(QUEUE_SIZE_GAUGE, this, scheduler -> scheduler.queued(priority))
+                    .description("Requisições aguardando uma vaga de renderização")
+                    .tag("priority", priority.name())
+                    .register(registry);
+        }
+        Gauge.builder(RUNNING_GAUGE, this, RenderScheduler::running)
+                .description("Renderizações em execução")
+                .register(registry);
+    }
+
+    public int queued(RenderPriority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int running() {
+        lock.lock();
+        try {
+            return running;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static Map<String, String> parseEntries(String value) {
+        Map<String, String> entries = new HashMap<>();
+        if (value == null) {
+            return entries;
+        }
+        for (String entry : value.split(",")) {
+            int separator = entry.indexOf('=');
+            if (separator > 0) {
+                entries.put(entry.substring(0, separator).trim(), entry.substring(separator + 1).trim());
+            }
+        }
+        return entries;
+    }
+
+    private static Double parseNumber(String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
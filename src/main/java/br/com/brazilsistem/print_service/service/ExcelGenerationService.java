@@ -1,17 +1,23 @@
 package br.com.brazilsistem.print_service.service;
 
 import br.com.brazilsistem.print_service.exception.ExcelGenerationException;
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
 import br.com.brazilsistem.print_service.model.ReportData;
 import br.com.brazilsistem.print_service.model.Section;
 import br.com.brazilsistem.print_service.model.SectionGroup;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import br.com.brazilsistem.print_service.output.RenderOutputFactory;
+import br.com.brazilsistem.print_service.util.TableGrouping;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -24,6 +30,15 @@ public class ExcelGenerationService {
 
     private static final Logger logger = LoggerFactory.getLogger(ExcelGenerationService.class);
 
+    private final RenderMetrics renderMetrics;
+    private final RenderOutputFactory renderOutputFactory;
+
+    @Autowired
+    public ExcelGenerationService(RenderMetrics renderMetrics, RenderOutputFactory renderOutputFactory) {
+        this.renderMetrics = renderMetrics;
+        this.renderOutputFactory = renderOutputFactory;
+    }
+
     /**
      * Gera um arquivo Excel simples a partir dos dados de relatório.
      *
@@ -32,35 +47,91 @@ public class ExcelGenerationService {
      * @throws IOException Em caso de erro na geração do arquivo
      */
     public byte[] generateExcel(ReportData reportData) throws IOException {
+        try (RenderOutput output = renderOutputFactory.memory(reportData.getReportType(), 0)) {
+            renderExcel(reportData, collectSections(reportData), output);
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Gera um arquivo Excel em uma saída escolhida pelo tamanho estimado do relatório:
+     * memória para planilhas menores ou arquivo temporário para planilhas grandes.
+     * Quem chama é responsável por fechar a saída após enviá-la.
+     *
+     * @param reportData Dados do relatório
+     * @return Saída contendo o arquivo Excel
+     * @throws IOException Em caso de erro na geração do arquivo
+     */
+    public RenderOutput generateExcelOutput(ReportData reportData) throws IOException {
+        List<Section> allSections = collectSections(reportData);
+        RenderOutput output = renderOutputFactory.create(reportData.getReportType(),
+                renderOutputFactory.estimateSize(allSections));
+        try {
+            renderExcel(reportData, allSections, output);
+            return output;
+        } catch (RuntimeException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Monta o workbook e o grava na saída informada.
+     */
+    private void renderExcel(ReportData reportData, List<Section> allSections, RenderOutput output) {
+        String reportType = reportData.getReportType();
+        long start = System.nanoTime();
+        boolean success = false;
+
         try (Workbook workbook = new XSSFWorkbook()) {
-            // Processa seções individuais
-            if (reportData.getSections() != null && !reportData.getSections().isEmpty()) {
-                processSections(workbook, reportData.getSections());
-            }
+            renderMetrics.timePhase(reportType, RenderMetrics.PHASE_EXCEL_BUILD, null, () -> {
+                processSections(workbook, allSections);
 
-            // Processa grupos de seções
-            if (reportData.getSectionGroups() != null && !reportData.getSectionGroups().isEmpty()) {
-                for (SectionGroup group : reportData.getSectionGroups()) {
-                    if (group.getSections() != null && !group.getSections().isEmpty()) {
-                        processSections(workbook, group.getSections());
-                    }
-                }
-            }
+                // Ajusta tamanho das colunas
+                applyAutoSizeToAllSheets(workbook);
+            });
 
-            // Ajusta tamanho das colunas
-            applyAutoSizeToAllSheets(workbook);
+            // Grava o workbook na saída
+            try (OutputStream outputStream = output.getOutputStream()) {
+                renderMetrics.timePhase(reportType, RenderMetrics.PHASE_EXCEL_WRITE, null, () -> workbook.write(outputStream));
+            }
 
-            // Converte o workbook para um array de bytes
-            try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                workbook.write(baos);
-                return baos.toByteArray();
+            renderMetrics.recordOutput(reportType, RenderMetrics.FORMAT_EXCEL, output.size(), 0);
+            if (!output.isSpooled()) {
+                renderOutputFactory.recordSize(reportType, output.size());
             }
+            renderMetrics.recordTableVolume(reportType, RenderMetrics.FORMAT_EXCEL, allSections);
+            success = true;
         } catch (Exception e) {
             logger.error("Erro ao gerar arquivo Excel", e);
             throw new ExcelGenerationException("Erro ao gerar arquivo Excel: " + e.getMessage(), e);
+        } finally {
+            renderMetrics.recordRender(reportType, RenderMetrics.FORMAT_EXCEL, System.nanoTime() - start, success);
         }
     }
 
+    /**
+     * Reúne as seções individuais e as seções dos grupos.
+     */
+    private List<Section> collectSections(ReportData reportData) {
+        List<Section> allSections = new ArrayList<>();
+
+        // Processa seções individuais
+        if (reportData.getSections() != null && !reportData.getSections().isEmpty()) {
+            allSections.addAll(reportData.getSections());
+        }
+
+        // Processa grupos de seções
+        if (reportData.getSectionGroups() != null && !reportData.getSectionGroups().isEmpty()) {
+            for (SectionGroup group : reportData.getSectionGroups()) {
+                if (group.getSections() != null && !group.getSections().isEmpty()) {
+                    allSections.addAll(group.getSections());
+                }
+            }
+        }
+        return allSections;
+    }
+
     /**
      * Processa as seções para adicionar ao workbook.
      *
@@ -69,8 +140,9 @@ public class ExcelGenerationService {
      */
     private void processSections(Workbook workbook, List<Section> sections) {
         for (Section section : sections) {
-            // Processa apenas seções do tipo tabela que contenham dados
-            if ("table".equalsIgnoreCase(section.getType()) && section.getData() != null && !section.getData().isEmpty()) {
+            // Processa apenas seções do tipo tabela (table ou fasttable) que contenham dados
+            if (("table".equalsIgnoreCase(section.getType()) || "fasttable".equalsIgnoreCase(section.getType()))
+                    && section.getData() != null && !section.getData().isEmpty()) {
                 addSectionToWorkbook(workbook, section);
             }
         }
@@ -106,9 +178,26 @@ public class ExcelGenerationService {
             cell.setCellValue(columnTitle);
         }
 
-        // Adiciona os dados a partir da segunda linha
+        // Adiciona os dados a partir da segunda linha, com os cabeçalhos de grupo, subtotais e total
+        // geral quando a seção tem groupBy ou aggregates
         int rowNum = 1;
-        for (Map<String, Object> dataRow : section.getData()) {
+        CellStyle summaryStyle = null;
+        int[] groupStartRows = new int[section.getGroupBy() != null ? section.getGroupBy().size() + 1 : 1];
+        for (TableGrouping.GroupedRow groupedRow : TableGrouping.rows(section)) {
+            if (groupedRow.kind() == TableGrouping.RowKind.GROUP_HEADER) {
+                summaryStyle = summaryStyle != null ? summaryStyle : createSummaryStyle(workbook);
+                Cell cell = sheet.createRow(rowNum++).createCell(0);
+                cell.setCellValue(groupedRow.label());
+                cell.setCellStyle(summaryStyle);
+                groupStartRows[groupedRow.level()] = rowNum;
+                continue;
+            }
+            if (groupedRow.kind() == TableGrouping.RowKind.SUBTOTAL && rowNum > groupStartRows[groupedRow.level()]) {
+                // Linhas do grupo recolhíveis no Excel, com o subtotal abaixo delas
+                sheet.groupRow(groupStartRows[groupedRow.level()], rowNum - 1);
+            }
+
+            Map<String, Object> dataRow = groupedRow.values();
             if (dataRow == null) continue;
 
             Row row = sheet.createRow(rowNum++);
@@ -117,10 +206,28 @@ public class ExcelGenerationService {
                 Cell cell = row.createCell(i);
                 Object value = dataRow.get(columnId);
                 setCellValueBasedOnType(cell, value);
+                if (groupedRow.kind() != TableGrouping.RowKind.DATA) {
+                    summaryStyle = summaryStyle != null ? summaryStyle : createSummaryStyle(workbook);
+                    cell.setCellStyle(summaryStyle);
+                }
             }
         }
     }
 
+    /**
+     * Cria o estilo em negrito dos cabeçalhos de grupo e dos subtotais.
+     *
+     * @param workbook Workbook do Excel
+     * @return Estilo em negrito
+     */
+    private CellStyle createSummaryStyle(Workbook workbook) {
+        Font font = workbook.createFont();
+        font.setBold(true);
+        CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+        return style;
+    }
+
     /**
      * Define o valor da célula com base no tipo do objeto.
      *
@@ -0,0 +1,100 @@
+package br.com.brazilsistem.print_service.service;
+
+import br.com.brazilsistem.print_service.metrics.RenderCostModel;
+import br.com.brazilsistem.print_service.metrics.TableVolume;
+import br.com.brazilsistem.print_service.model.PdfEstimate;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.util.ReportSampler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Serviço de estimativa de páginas, tamanho e tempo de geração de PDFs, sem gerar o documento.
+ * <p>
+ * Executa somente o layout do relatório com os mesmos renderizadores da geração real. Quando alguma
+ * tabela tem mais linhas que a amostra configurada, o layout é feito duas vezes, com as primeiras
+ * {@code N} e {@code N/2} linhas de cada tabela, e a altura ocupada por linha é extrapolada para o
+ * total de linhas. Tamanho e tempo vêm do {@link RenderCostModel}, calibrado pelas gerações reais.
+ */
+@Service
+public class PdfEstimationService {
+
+    private final PdfGenerationService pdfGenerationService;
+    private final RenderCostModel renderCostModel;
+    private final int sampleRows;
+
+    @Autowired
+    public PdfEstimationService(
+            PdfGenerationService pdfGenerationService,
+            RenderCostModel renderCostModel,
+            @Value("${print-service.estimate.sample-rows:200}") int sampleRows) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.renderCostModel = renderCostModel;
+        this.sampleRows = Math.max(2, sampleRows);
+    }
+
+    /**
+     * Estima a geração do PDF para os dados do relatório.
+     *
+     * @param reportData Dados do relatório
+     * @return Estimativa de páginas, bytes e milissegundos
+     * @throws IOException Se ocorrer erro durante o layout
+     */
+    public PdfEstimate estimate(ReportData reportData) throws IOException {
+        long start = System.nanoTime();
+        String reportType = reportData.getReportType();
+        TableVolume volume = TableVolume.of(pdfGenerationService.collectSections(reportData));
+
+        PdfEstimate estimate = new PdfEstimate();
+        long layoutNanos;
+        if (!exceedsSample(reportData)) {
+            PdfGenerationService.LayoutResult layout = pdfGenerationService.layout(reportData);
+            estimate.setPages(layout.pages());
+            layoutNanos = layout.nanos();
+        } else {
+            ReportData fullSample = ReportSampler.limitRows(reportData, sampleRows);
+            ReportData halfSample = ReportSampler.limitRows(reportData, sampleRows / 2);
+            TableVolume fullVolume = TableVolume.of(pdfGenerationService.collectSections(fullSample));
+            TableVolume halfVolume = TableVolume.of(pdfGenerationService.collectSections(halfSample));
+            PdfGenerationService.LayoutResult half = pdfGenerationService.layout(halfSample);
+            PdfGenerationService.LayoutResult full = pdfGenerationService.layout(fullSample);
+
+            // Altura fixa (cabeçalho, títulos, textos) + altura por linha de tabela
+            long sampledRowDelta = Math.max(1, fullVolume.rows() - halfVolume.rows());
+            double heightPerRow = (full.contentHeight() - half.contentHeight()) / sampledRowDelta;
+            double fixedHeight = full.contentHeight() - heightPerRow * fullVolume.rows();
+            double totalHeight = fixedHeight + heightPerRow * volume.rows();
+            estimate.setPages((int) Math.max(full.pages(), Math.ceil(totalHeight / full.pageContentHeight())));
+
+            // Tempo de layout proporcional ao número de células
+            layoutNanos = fullVolume.cells() > 0
+                    ? Math.round((double) full.nanos() * volume.cells() / fullVolume.cells())
+                    : full.nanos();
+            estimate.setSampled(true);
+        }
+
+        estimate.setTableRows(volume.rows());
+        estimate.setTableCells(volume.cells());
+        estimate.setBytes(renderCostModel.estimateBytes(reportType, estimate.getPages(), volume.cells()));
+        estimate.setMillis(renderCostModel.estimateMillis(reportType, volume.cells(), layoutNanos));
+        estimate.setCalibrated(renderCostModel.isCalibrated(reportType));
+        estimate.setEstimationMillis((System.nanoTime() - start) / 1_000_000);
+        return estimate;
+    }
+
+    /**
+     * Verifica se alguma seção tem mais linhas que a amostra.
+     */
+    private boolean exceedsSample(ReportData reportData) {
+        for (Section section : pdfGenerationService.collectSections(reportData)) {
+            if (section.getData() != null && section.getData().size() > sampleRows) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
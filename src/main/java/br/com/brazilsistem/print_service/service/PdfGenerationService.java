@@ -1,11 +1,21 @@
 package br.com.brazilsistem.print_service.service;
 
+import br.com.brazilsistem.print_service.exception.PdfGenerationException;
+import br.com.brazilsistem.print_service.font.FontRegistry;
 import br.com.brazilsistem.print_service.interfaces.FooterRenderer;
 import br.com.brazilsistem.print_service.interfaces.HeaderRenderer;
 import br.com.brazilsistem.print_service.interfaces.SectionRenderer;
 import br.com.brazilsistem.print_service.interfaces.impl.DefaultSectionRenderer;
+import br.com.brazilsistem.print_service.metrics.RenderCostModel;
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
+import br.com.brazilsistem.print_service.metrics.TableVolume;
 import br.com.brazilsistem.print_service.model.*;
+import br.com.brazilsistem.print_service.output.CompressionPolicy;
+import br.com.brazilsistem.print_service.output.ParallelDeflater;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import br.com.brazilsistem.print_service.output.RenderOutputFactory;
 import br.com.brazilsistem.print_service.util.PdfStyleUtils;
+import br.com.brazilsistem.print_service.util.ReportSampler;
 import br.com.brazilsistem.print_service.util.TableStyleHelper;
 import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
@@ -14,23 +24,28 @@ import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.geom.PageSize;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfDocumentInfo;
+import com.itextpdf.kernel.pdf.PdfReader;
 import com.itextpdf.kernel.pdf.PdfWriter;
-import com.itextpdf.kernel.pdf.WriterProperties;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.layout.LayoutArea;
 import com.itextpdf.layout.properties.BorderCollapsePropertyValue;
 import com.itextpdf.layout.properties.UnitValue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.ObjectUtils;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Serviço para geração de PDF com suporte a layouts em colunas.
@@ -38,69 +53,381 @@ import java.util.List;
 @Service
 public class PdfGenerationService {
 
+    // Margem inferior das páginas, reservada ao rodapé
+    private static final float FOOTER_MARGIN = 20f;
+
     private final HeaderRenderer headerRenderer;
     private final SectionRenderer sectionRenderer;
     private final DefaultSectionRenderer defaultSectionRenderer;
     private final FooterRenderer footerRenderer;
+    private final RenderMetrics renderMetrics;
+    private final RenderOutputFactory renderOutputFactory;
+    private final RenderCostModel renderCostModel;
+    private final FontRegistry fontRegistry;
+    private final CompressionPolicy compressionPolicy;
+    private final ParallelDeflater parallelDeflater;
+    private final float previewMinRowHeight;
+    private final float previewMinCharWidth;
+
+    /**
+     * Resultado de um layout sem serialização do PDF.
+     *
+     * @param pages Número de páginas
+     * @param contentHeight Altura total ocupada pelo conteúdo, somando todas as páginas, em pontos
+     * @param pageContentHeight Altura útil de cada página (sem as margens), em pontos
+     * @param nanos Tempo gasto no layout
+     */
+    public record LayoutResult(int pages, float contentHeight, float pageContentHeight, long nanos) {
+    }
+
+    /**
+     * Limites de uma pré-visualização.
+     *
+     * @param firstPage Primeira página a ser devolvida (a partir de 1)
+     * @param lastPage Última página a ser devolvida
+     * @param maxRows Máximo de linhas por tabela, ou null para limitar apenas pelas páginas
+     * @param estimatedTotalPages Total estimado de páginas do relatório completo, exibido no rodapé
+     */
+    public record PreviewLimits(int firstPage, int lastPage, Integer maxRows, int estimatedTotalPages) {
+    }
+
+    /**
+     * Estado de uma pré-visualização durante a renderização do corpo do relatório.
+     */
+    private static class PreviewState {
+        final PreviewLimits limits;
+        final float pageContentHeight;
+        final float minRowHeight;
+        final float minCharWidth;
+        // Seções como foram renderizadas, já limitadas à pré-visualização
+        final List<Section> sections = new ArrayList<>();
+        boolean truncated;
+
+        PreviewState(PreviewLimits limits, float pageContentHeight, float minRowHeight, float minCharWidth) {
+            this.limits = limits;
+            this.pageContentHeight = pageContentHeight;
+            this.minRowHeight = minRowHeight;
+            this.minCharWidth = minCharWidth;
+        }
+    }
 
     @Autowired
     public PdfGenerationService(
             HeaderRenderer headerRenderer,
             SectionRenderer sectionRenderer,
             DefaultSectionRenderer defaultSectionRenderer,
-            FooterRenderer footerRenderer) {
+            FooterRenderer footerRenderer,
+            RenderMetrics renderMetrics,
+            RenderOutputFactory renderOutputFactory,
+            RenderCostModel renderCostModel,
+            FontRegistry fontRegistry,
+            CompressionPolicy compressionPolicy,
+            ParallelDeflater parallelDeflater,
+            @Value("${print-service.preview.min-row-height:6}") float previewMinRowHeight,
+            @Value("${print-service.preview.min-char-width:2}") float previewMinCharWidth) {
         this.headerRenderer = headerRenderer;
         this.sectionRenderer = sectionRenderer;
         this.defaultSectionRenderer = defaultSectionRenderer;
         this.footerRenderer = footerRenderer;
+        this.renderMetrics = renderMetrics;
+        this.renderOutputFactory = renderOutputFactory;
+        this.renderCostModel = renderCostModel;
+        this.fontRegistry = fontRegistry;
+        this.compressionPolicy = compressionPolicy;
+        this.parallelDeflater = parallelDeflater;
+        this.previewMinRowHeight = Math.max(1f, previewMinRowHeight);
+        this.previewMinCharWidth = Math.max(0.5f, previewMinCharWidth);
     }
 
     /**
      * Gera um documento PDF a partir dos dados do relatório.
      */
     public byte[] generatePdf(ReportData reportData) throws IOException {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (RenderOutput output = renderOutputFactory.memory(reportData.getReportType(), 0)) {
+            renderPdf(reportData, output);
+            return output.toByteArray();
+        }
+    }
+
+    /**
+     * Gera um documento PDF em uma saída escolhida pelo tamanho estimado do relatório:
+     * memória para documentos menores ou arquivo temporário para documentos grandes.
+     * Quem chama é responsável por fechar a saída após enviá-la.
+     */
+    public RenderOutput generatePdfOutput(ReportData reportData) throws IOException {
+        RenderOutput output = renderOutputFactory.create(reportData.getReportType(),
+                renderOutputFactory.estimateSize(collectSections(reportData)));
+        try {
+            renderPdf(reportData, output);
+            return output;
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Executa apenas o layout do relatório (cabeçalho e seções), sem desenhar o conteúdo das
+     * páginas nem serializar o PDF. O rodapé não é incluído.
+     *
+     * @param reportData Dados do relatório
+     * @return Páginas e altura ocupada pelo conteúdo
+     */
+    public LayoutResult layout(ReportData reportData) throws IOException {
+        long start = System.nanoTime();
+
+        try (PdfDocument pdfDoc = configurePdfDocument(new PdfWriter(OutputStream.nullOutputStream()), reportData)) {
+            // Sem gravação imediata: as páginas não são desenhadas, apenas diagramadas
+            Document document = configureDocument(pdfDoc, documentSettings(reportData), false);
+            renderBody(document, reportData, null);
+
+            int pages = Math.max(1, pdfDoc.getNumberOfPages());
+            float pageHeight = pdfDoc.getDefaultPageSize().getHeight();
+            float contentTop = pageHeight - document.getTopMargin();
+            float pageContentHeight = contentTop - document.getBottomMargin();
+            LayoutArea area = document.getRenderer().getCurrentArea();
+            float usedOnLastPage = area != null ? contentTop - area.getBBox().getTop() : 0f;
+
+            // Só o PdfDocument é fechado: o fechamento do Document desenharia o conteúdo pendente das páginas
+            return new LayoutResult(pages, (pages - 1) * pageContentHeight + usedOnLastPage,
+                    pageContentHeight, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Gera uma pré-visualização com apenas as páginas pedidas do relatório.
+     * <p>
+     * A renderização para assim que as páginas pedidas estão preenchidas: seções que começariam depois
+     * da última página são ignoradas e as tabelas recebem apenas as linhas que ainda podem caber, de modo
+     * que o tempo não depende do tamanho do relatório. O rodapé indica a pré-visualização e o total
+     * estimado de páginas. Quem chama é responsável por fechar a saída após enviá-la.
+     */
+    public RenderOutput generatePreviewOutput(ReportData reportData, PreviewLimits limits) throws IOException {
+        String reportType = reportData.getReportType();
+        long start = System.nanoTime();
+        boolean success = false;
+        // Apenas as páginas até a última pedida são renderizadas: a média do documento completo superestimaria
+        RenderOutput output = renderOutputFactory.memory(renderCostModel.estimateBytes(reportType, limits.lastPage(), 0));
+
+        try {
+            int numberOfPages;
+
+            try (PdfWriter writer = configurePdfWriter(output.getOutputStream(), reportType, reportData.getPdfSettings());
+                 PdfDocument pdfDoc = configurePdfDocument(writer, reportData)) {
+
+                Document document = configureDocument(pdfDoc, documentSettings(reportData), true);
+                footerRenderer.startPreviewPageFooter(document, limits.estimatedTotalPages());
+                float pageContentHeight = pdfDoc.getDefaultPageSize().getHeight()
+                        - document.getTopMargin() - document.getBottomMargin();
+                PreviewState preview = new PreviewState(limits, pageContentHeight, previewMinRowHeight, previewMinCharWidth);
+                renderBody(document, reportData, preview);
+
+                // Os dados do rodapé ficam no fim do relatório, que não é alcançado quando ele foi interrompido
+                Map<String, String> footerData = preview.truncated ? null : reportData.getFooterData();
+                renderMetrics.timePhase(reportType, RenderMetrics.PHASE_FOOTER, null,
+                        () -> footerRenderer.renderFooter(document, footerData));
+                numberOfPages = pdfDoc.getNumberOfPages();
+
+                renderMetrics.timePhase(reportType, RenderMetrics.PHASE_CLOSE, null, () -> closeDocument(document));
+                // Volume efetivamente renderizado: limitado pelas páginas pedidas, não pelo tamanho do relatório
+                renderMetrics.recordTableVolume(reportType, RenderMetrics.FORMAT_PDF, preview.sections);
+            }
 
-        reportData.getPdfSettings().setMarginBottom(20f);
-        try (PdfWriter writer = configurePdfWriter(baos, reportData.getPdfSettings());
-             PdfDocument pdfDoc = configurePdfDocument(writer, reportData);
-             Document document = configureDocument(pdfDoc, reportData.getPdfSettings())) {
+            if (limits.firstPage() > 1 || numberOfPages > limits.lastPage()) {
+                RenderOutput pages = extractPages(output, reportType, reportData.getPdfSettings(), limits.firstPage(),
+                        Math.min(limits.lastPage(), numberOfPages));
+                output.close();
+                output = pages;
+            }
+            success = true;
+            return output;
+        } catch (IOException | RuntimeException e) {
+            output.close();
+            throw e;
+        } finally {
+            renderMetrics.recordRender(reportType, RenderMetrics.FORMAT_PDF, System.nanoTime() - start, success);
+        }
+    }
 
-            renderDefaultReport(document, reportData);
+    /**
+     * Copia um intervalo de páginas do PDF renderizado para uma nova saída.
+     */
+    private RenderOutput extractPages(RenderOutput source, String reportType, PdfSettings settings,
+                                      int firstPage, int lastPage)
+            throws IOException {
+        RenderOutput target = renderOutputFactory.memory(source.size() * (lastPage - firstPage + 1) / Math.max(1, lastPage));
+        try (InputStream input = source.getInputStream();
+             PdfDocument sourceDoc = new PdfDocument(new PdfReader(input));
+             PdfDocument targetDoc = new PdfDocument(new PdfWriter(target.getOutputStream(),
+                     compressionPolicy.writerProperties(reportType, settings)))) {
+            int last = Math.min(lastPage, sourceDoc.getNumberOfPages());
+            if (firstPage > last) {
+                throw new PdfGenerationException(String.format(
+                        "O relatório tem %d página(s); não é possível pré-visualizar a partir da página %d",
+                        sourceDoc.getNumberOfPages(), firstPage));
+            }
+            sourceDoc.copyPagesTo(firstPage, last, targetDoc);
+            return target;
+        } catch (IOException | RuntimeException e) {
+            target.close();
+            throw e;
         }
+    }
+
+    /**
+     * Renderiza o PDF na saída informada.
+     */
+    private void renderPdf(ReportData reportData, RenderOutput output) throws IOException {
+        String reportType = reportData.getReportType();
+        long start = System.nanoTime();
+        boolean success = false;
+
+        try {
+            int numberOfPages;
+
+            try (PdfWriter writer = configurePdfWriter(output.getOutputStream(), reportType, reportData.getPdfSettings());
+                 PdfDocument pdfDoc = configurePdfDocument(writer, reportData)) {
 
-        byte[] result = baos.toByteArray();
-        baos.close(); // Não é estritamente necessário, mas segue boas práticas
-        return result;
+                Document document = configureDocument(pdfDoc, documentSettings(reportData), true);
+                renderDefaultReport(document, reportData);
+                numberOfPages = pdfDoc.getNumberOfPages();
+
+                // O fechamento do Document grava o conteúdo pendente e serializa o PDF
+                renderMetrics.timePhase(reportType, RenderMetrics.PHASE_CLOSE, null, () -> closeDocument(document));
+            }
+
+            renderMetrics.recordOutput(reportType, RenderMetrics.FORMAT_PDF, output.size(), numberOfPages);
+            if (!output.isSpooled()) {
+                renderOutputFactory.recordSize(reportType, output.size());
+            }
+            List<Section> sections = collectSections(reportData);
+            renderMetrics.recordTableVolume(reportType, RenderMetrics.FORMAT_PDF, sections);
+            renderCostModel.record(reportType, numberOfPages, TableVolume.of(sections).cells(),
+                    output.size(), System.nanoTime() - start);
+            success = true;
+        } finally {
+            renderMetrics.recordRender(reportType, RenderMetrics.FORMAT_PDF, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Fecha o documento. Com a compressão paralela ativa, as páginas ainda abertas são comprimidas
+     * pelo pool antes, restando ao fechamento a serialização.
+     */
+    private void closeDocument(Document document) {
+        parallelDeflater.finish(document);
+        document.close();
     }
 
     /**
      * Renderiza um relatório padrão quando não há um renderizador específico.
      */
     private void renderDefaultReport(Document document, ReportData reportData) throws IOException {
+        footerRenderer.startPageFooter(document);
+        renderBody(document, reportData, null);
+
+        renderMetrics.timePhase(reportData.getReportType(), RenderMetrics.PHASE_FOOTER, null,
+                () -> footerRenderer.renderFooter(document, reportData.getFooterData()));
+    }
+
+    /**
+     * Renderiza o cabeçalho e as seções do relatório.
+     *
+     * @param preview Estado da pré-visualização, ou null para renderizar o relatório inteiro
+     */
+    private void renderBody(Document document, ReportData reportData, PreviewState preview) throws IOException {
+        String reportType = reportData.getReportType();
+
         // Adiciona o cabeçalho do relatório
-        headerRenderer.renderHeader(document, reportData);
+        renderMetrics.timePhase(reportType, RenderMetrics.PHASE_HEADER, null,
+                () -> headerRenderer.renderHeader(document, reportData));
 
         // Verifica o modo de renderização (grupos ou seções individuais)
         if (reportData.getSectionGroups() != null && !reportData.getSectionGroups().isEmpty()) {
             for (SectionGroup group : reportData.getSectionGroups()) {
-                renderSectionGroup(document, group);
+                if (pastPreview(document, preview)) {
+                    break;
+                }
+                renderSectionGroup(document, group, reportType, preview);
             }
         } else if (reportData.getSections() != null && !reportData.getSections().isEmpty()) {
             for (Section section : reportData.getSections()) {
-                sectionRenderer.renderSection(document, section);
+                if (pastPreview(document, preview)) {
+                    break;
+                }
+                renderSection(document, previewSection(document, section, preview), reportType);
             }
         }
+    }
 
+    private void renderSection(Document document, Section section, String reportType) throws IOException {
+        renderMetrics.timePhase(reportType, RenderMetrics.PHASE_SECTION, section.getType(),
+                () -> sectionRenderer.renderSection(document, section));
+    }
+
+    /**
+     * Verifica se o layout já passou da última página da pré-visualização. As seções seguintes
+     * não podem aparecer nela e deixam de ser renderizadas.
+     */
+    private boolean pastPreview(Document document, PreviewState preview) {
+        if (preview == null) {
+            return false;
+        }
+        LayoutArea area = document.getRenderer().getCurrentArea();
+        if (area != null && area.getPageNumber() > preview.limits.lastPage()) {
+            preview.truncated = true;
+        }
+        return preview.truncated;
+    }
 
-        footerRenderer.renderFooter(document, reportData.getFooterData());
+    /**
+     * Limita a seção ao que ainda pode aparecer na pré-visualização. As linhas de tabela ficam no máximo
+     * pedido e no espaço restante até a última página dividido pela menor altura possível de uma linha.
+     * O texto fica no número de linhas que cabe nesse espaço vezes o máximo de caracteres por linha,
+     * calculado com a menor largura possível de um caractere.
+     */
+    private Section previewSection(Document document, Section section, PreviewState preview) {
+        if (preview == null) {
+            return section;
+        }
+        LayoutArea area = document.getRenderer().getCurrentArea();
+        long fittingLines = Long.MAX_VALUE;
+        if (area != null) {
+            float remainingHeight = (preview.limits.lastPage() - area.getPageNumber()) * preview.pageContentHeight
+                    + area.getBBox().getHeight();
+            fittingLines = (long) Math.ceil(remainingHeight / preview.minRowHeight) + 1;
+
+            String content = section.getContent();
+            long charsPerLine = (long) Math.ceil(area.getBBox().getWidth() / preview.minCharWidth);
+            if (content != null && fittingLines * charsPerLine < content.length()) {
+                // O restante do texto e as seções seguintes ficariam depois da última página
+                section = ReportSampler.limitContent(section, (int) (fittingLines * charsPerLine));
+                preview.truncated = true;
+            }
+        }
 
+        if (section.getData() == null) {
+            return section;
+        }
+        int rows = section.getData().size();
+        if (preview.limits.maxRows() != null) {
+            rows = Math.min(rows, preview.limits.maxRows());
+        }
+        if (fittingLines < rows) {
+            rows = (int) fittingLines;
+            // As linhas restantes e as seções seguintes ficariam depois da última página
+            preview.truncated = true;
+        }
+        Section limited = ReportSampler.limitRows(section, rows);
+        preview.sections.add(limited);
+        return limited;
     }
 
     /**
      * Renderiza um grupo de seções, aplicando o layout em colunas se configurado.
      */
-    private void renderSectionGroup(Document document, SectionGroup group) throws IOException {
+    private void renderSectionGroup(Document document, SectionGroup group, String reportType, PreviewState preview)
+            throws IOException {
         if (group.getSections() == null || group.getSections().isEmpty()) {
             return;
         }
@@ -115,20 +442,32 @@ public class PdfGenerationService {
         if (columns == null || columns <= 1) {
             // Layout tradicional: cada seção ocupa 100% da largura
             for (Section section : group.getSections()) {
-                sectionRenderer.renderSection(document, section);
+                if (pastPreview(document, preview)) {
+                    break;
+                }
+                renderSection(document, previewSection(document, section, preview), reportType);
             }
         } else {
             // Layout em colunas: distribuir seções em uma tabela
-            createColumnLayout(document, group);
+            createColumnLayout(document, group, reportType, preview);
         }
     }
 
     /**
      * Cria um layout em colunas para as seções do grupo.
      */
-    private void createColumnLayout(Document document, SectionGroup group) throws IOException {
+    private void createColumnLayout(Document document, SectionGroup group, String reportType, PreviewState preview)
+            throws IOException {
         int numColumns = group.getColumns();
         List<Section> sections = group.getSections();
+        if (preview != null) {
+            // Todas as colunas começam na mesma altura e têm o mesmo espaço restante
+            List<Section> limited = new ArrayList<>(sections.size());
+            for (Section section : sections) {
+                limited.add(previewSection(document, section, preview));
+            }
+            sections = limited;
+        }
         float columnGap = group.getColumnGap() != null ? group.getColumnGap() : TableStyleHelper.DEFAULT_COLUMN_GAP;
 
         // Criar uma tabela para o layout em colunas
@@ -159,7 +498,9 @@ public class PdfGenerationService {
                 if (sectionIndex < sections.size()) {
                     // Criar célula e renderizar seção
                     Cell cell = new Cell().setBorder(Border.NO_BORDER).setPadding(0);
-                    defaultSectionRenderer.renderSectionInCell(cell, sections.get(sectionIndex++));
+                    Section section = sections.get(sectionIndex++);
+                    renderMetrics.timePhase(reportType, RenderMetrics.PHASE_SECTION, section.getType(),
+                            () -> defaultSectionRenderer.renderSectionInCell(cell, section));
                     columnsTable.addCell(cell);
                 } else {
                     // Adicionar célula vazia para completar a tabela
@@ -171,6 +512,23 @@ public class PdfGenerationService {
         document.add(columnsTable);
     }
 
+    /**
+     * Reúne todas as seções do relatório, sejam individuais ou organizadas em grupos.
+     */
+    public List<Section> collectSections(ReportData reportData) {
+        List<Section> sections = new ArrayList<>();
+        if (reportData.getSectionGroups() != null && !reportData.getSectionGroups().isEmpty()) {
+            for (SectionGroup group : reportData.getSectionGroups()) {
+                if (group.getSections() != null) {
+                    sections.addAll(group.getSections());
+                }
+            }
+        } else if (reportData.getSections() != null) {
+            sections.addAll(reportData.getSections());
+        }
+        return sections;
+    }
+
     /**
      * Renderiza o título do grupo.
      */
@@ -186,14 +544,10 @@ public class PdfGenerationService {
     }
 
     /**
-     * Configura o PdfWriter com base nas configurações do relatório.
+     * Configura o PdfWriter com base nas configurações do relatório e no perfil de compressão.
      */
-    private PdfWriter configurePdfWriter(ByteArrayOutputStream baos, PdfSettings settings) {
-        WriterProperties writerProperties = new WriterProperties();
-        if (settings != null && Boolean.TRUE.equals(settings.getCompressContent())) {
-            writerProperties.setCompressionLevel(9);
-        }
-        return new PdfWriter(baos, writerProperties);
+    private PdfWriter configurePdfWriter(OutputStream outputStream, String reportType, PdfSettings settings) {
+        return new PdfWriter(outputStream, compressionPolicy.writerProperties(reportType, settings));
     }
 
     /**
@@ -213,24 +567,52 @@ public class PdfGenerationService {
         return pdfDoc;
     }
 
+    /**
+     * Configurações do relatório com a margem inferior reservada ao rodapé. As configurações recebidas
+     * não são alteradas, pois podem ser compartilhadas (templates, amostras da estimativa).
+     */
+    private static PdfSettings documentSettings(ReportData reportData) {
+        if (reportData.getPdfSettings() == null) {
+            return null;
+        }
+        PdfSettings settings = new PdfSettings(reportData.getPdfSettings());
+        settings.setMarginBottom(FOOTER_MARGIN);
+        return settings;
+    }
+
     /**
      * Configura o Document com base nas configurações do relatório.
+     *
+     * @param immediateFlush Grava cada página assim que a seguinte começa, liberando o seu conteúdo (e as
+     *                       linhas já descarregadas das tabelas grandes); o rodapé de página é desenhado
+     *                       quando a página é concluída ({@link FooterRenderer#startPageFooter}). Com a
+     *                       compressão paralela ativa, as páginas concluídas são comprimidas pelo pool
+     *                       antes de gravadas ({@link ParallelDeflater#attach})
      */
-    private Document configureDocument(PdfDocument pdfDoc, PdfSettings settings) {
+    private Document configureDocument(PdfDocument pdfDoc, PdfSettings settings, boolean immediateFlush) {
         if (settings == null) {
-            return new Document(pdfDoc);
+            Document document = new Document(pdfDoc, pdfDoc.getDefaultPageSize(), immediateFlush);
+            fontRegistry.apply(document);
+            if (immediateFlush) {
+                parallelDeflater.attach(document);
+            }
+            return document;
         }
 
         PageSize pageSize = getPageSize(settings.getPageSize(), settings.getOrientation());
         pdfDoc.setDefaultPageSize(pageSize);
 
-        Document document = new Document(pdfDoc, pageSize, false);
+        Document document = new Document(pdfDoc, pageSize, immediateFlush);
+        fontRegistry.apply(document);
         document.setMargins(
                 settings.getMarginTop(),
                 settings.getMarginRight(),
                 settings.getMarginBottom(),
                 settings.getMarginLeft()
         );
+        if (immediateFlush) {
+            parallelDeflater.attach(document);
+        }
 
         return document;
     }
@@ -0,0 +1,81 @@
+package br.com.brazilsistem.print_service.service;
+
+import br.com.brazilsistem.print_service.exception.PdfGenerationException;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+
+/**
+ * Serviço de pré-visualização de PDFs com um intervalo de páginas e/ou um número máximo de linhas por tabela.
+ * <p>
+ * O total de páginas exibido no rodapé vem do {@link PdfEstimationService}, que faz o layout de uma
+ * amostra das linhas; assim nem a estimativa nem a renderização dependem do tamanho do relatório.
+ */
+@Service
+public class PdfPreviewService {
+
+    private final PdfGenerationService pdfGenerationService;
+    private final PdfEstimationService pdfEstimationService;
+    private final int maxPages;
+
+    @Autowired
+    public PdfPreviewService(
+            PdfGenerationService pdfGenerationService,
+            PdfEstimationService pdfEstimationService,
+            @Value("${print-service.preview.max-pages:20}") int maxPages) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.pdfEstimationService = pdfEstimationService;
+        this.maxPages = Math.max(1, maxPages);
+    }
+
+    /**
+     * Gera a pré-visualização do relatório.
+     *
+     * @param reportData Dados do relatório
+     * @param pages Intervalo de páginas ("1-3") ou página única ("2"); null para começar na primeira página
+     * @param maxRows Máximo de linhas por tabela, ou null
+     * @return Saída com as páginas da pré-visualização; quem chama é responsável por fechá-la
+     * @throws IOException Se ocorrer erro durante a geração
+     */
+    public RenderOutput generatePreview(ReportData reportData, String pages, Integer maxRows) throws IOException {
+        int[] range = parsePages(pages);
+        if (maxRows != null && maxRows < 1) {
+            throw new PdfGenerationException("O parâmetro maxRows deve ser maior que zero");
+        }
+
+        int estimatedTotalPages = pdfEstimationService.estimate(reportData).getPages();
+        return pdfGenerationService.generatePreviewOutput(reportData,
+                new PdfGenerationService.PreviewLimits(range[0], range[1], maxRows, estimatedTotalPages));
+    }
+
+    /**
+     * Interpreta o intervalo de páginas, limitado ao máximo configurado.
+     */
+    private int[] parsePages(String pages) {
+        if (pages == null || pages.isBlank()) {
+            return new int[]{1, maxPages};
+        }
+        try {
+            String[] parts = pages.trim().split("-", -1);
+            if (parts.length > 2) {
+                throw new NumberFormatException(pages);
+            }
+            int first = Integer.parseInt(parts[0].trim());
+            int last = parts.length == 2 ? Integer.parseInt(parts[1].trim()) : first;
+            if (first < 1 || last < first) {
+                throw new PdfGenerationException("Intervalo de páginas inválido: " + pages);
+            }
+            if (last - first + 1 > maxPages) {
+                throw new PdfGenerationException(String.format(
+                        "A pré-visualização permite no máximo %d páginas; intervalo pedido: %s", maxPages, pages));
+            }
+            return new int[]{first, last};
+        } catch (NumberFormatException e) {
+            throw new PdfGenerationException("Intervalo de páginas inválido: " + pages, e);
+        }
+    }
+}
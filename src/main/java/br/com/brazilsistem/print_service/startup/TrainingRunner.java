@@ -0,0 +1,109 @@
+package br.com.brazilsistem.print_service.startup;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.service.ExcelGenerationService;
+import br.com.brazilsistem.print_service.service.PdfGenerationService;
+import br.com.brazilsistem.print_service.util.SyntheticReportGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Execução de treinamento usada na geração do arquivo de classes (AppCDS) da imagem JVM.
+ * <p>
+ * Quando {@code print-service.startup.training-run} está ativo, renderiza relatórios sintéticos
+ * em PDF e XLSX (incluindo a serialização JSON) para que as classes do iText, POI, Jackson e dos
+ * renderizadores sejam carregadas, e encerra a aplicação em seguida. A JVM iniciada com
+ * {@code -XX:ArchiveClassesAtExit} grava então o arquivo de classes ao sair.
+ * <p>
+ * A verificação é feita em tempo de execução (e não por {@code @Profile}) porque com o
+ * processamento AOT do Spring as condições de perfil são avaliadas no build.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TrainingRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrainingRunner.class);
+
+    private final PdfGenerationService pdfGenerationService;
+    private final ExcelGenerationService excelGenerationService;
+    private final ObjectMapper objectMapper;
+    private final ConfigurableApplicationContext context;
+    private final boolean enabled;
+
+    @Autowired
+    public TrainingRunner(
+            PdfGenerationService pdfGenerationService,
+            ExcelGenerationService excelGenerationService,
+            ObjectMapper objectMapper,
+            ConfigurableApplicationContext context,
+            @Value("${print-service.startup.training-run:false}") boolean enabled) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.excelGenerationService = excelGenerationService;
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!enabled) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        for (SyntheticReportGenerator.Spec spec : trainingSpecs()) {
+            // Passa pelo JSON para carregar também os desserializadores usados nas requisições
+            byte[] json = objectMapper.writeValueAsBytes(SyntheticReportGenerator.generate(spec));
+            ReportData reportData = objectMapper.readValue(json, ReportData.class);
+
+            pdfGenerationService.generatePdf(reportData);
+            excelGenerationService.generateExcel(reportData);
+        }
+        logger.info("Execução de treinamento concluída em {} ms, encerrando a aplicação",
+                (System.nanoTime() - start) / 1_000_000);
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    /**
+     * Relatórios que cobrem as variações de layout suportadas: seções simples,
+     * grupos em colunas e tabelas com seções aninhadas.
+     */
+    static List<SyntheticReportGenerator.Spec> trainingSpecs() {
+        List<SyntheticReportGenerator.Spec> specs = new ArrayList<>();
+
+        SyntheticReportGenerator.Spec simple = new SyntheticReportGenerator.Spec();
+        simple.setReportType("training");
+        simple.setRows(200);
+        specs.add(simple);
+
+        SyntheticReportGenerator.Spec grouped = new SyntheticReportGenerator.Spec();
+        grouped.setReportType("training");
+        grouped.setSections(4);
+        grouped.setGroups(2);
+        grouped.setRows(50);
+        grouped.setColumns(8);
+        specs.add(grouped);
+
+        SyntheticReportGenerator.Spec nested = new SyntheticReportGenerator.Spec();
+        nested.setReportType("training");
+        nested.setRows(100);
+        nested.setNestedSections(2);
+        specs.add(nested);
+
+        return specs;
+    }
+}
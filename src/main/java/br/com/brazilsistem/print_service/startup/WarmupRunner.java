@@ -0,0 +1,201 @@
+package br.com.brazilsistem.print_service.startup;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.service.ExcelGenerationService;
+import br.com.brazilsistem.print_service.service.PdfGenerationService;
+import br.com.brazilsistem.print_service.util.SyntheticReportGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aquecimento (warm-up) do JIT antes de a aplicação receber tráfego.
+ * <p>
+ * Renderiza relatórios sintéticos em PDF e XLSX pelos serviços reais, passando pelo JSON,
+ * até que a latência das iterações sucessivas se estabilize. O objetivo é que o TableSectionRenderer,
+ * o motor de layout do iText e os desserializadores do Jackson já tenham sido compilados pelo JIT,
+ * e as métricas das fontes padrão carregadas, quando chegam as primeiras requisições. O efeito na
+ * latência das primeiras requisições não foi medido; as métricas do aquecimento mostram quando ele
+ * se estabilizou.
+ * <p>
+ * O aquecimento é executado de forma síncrona como {@link ApplicationRunner}: o Spring Boot
+ * só publica {@link ReadinessState#ACCEPTING_TRAFFIC} (readiness UP) após todos os runners,
+ * então o probe de prontidão permanece fora do ar até o aquecimento terminar.
+ */
+@Component
+@Order(WarmupRunner.ORDER)
+public class WarmupRunner implements ApplicationRunner {
+
+    public static final int ORDER = 100;
+
+    public static final String DURATION_GAUGE = "print.warmup.duration";
+    public static final String ITERATIONS_GAUGE = "print.warmup.iterations";
+    public static final String LAST_LATENCY_GAUGE = "print.warmup.last.latency";
+    public static final String STABLE_GAUGE = "print.warmup.stable";
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private final PdfGenerationService pdfGenerationService;
+    private final ExcelGenerationService excelGenerationService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext context;
+
+    private final boolean enabled;
+    private final int minIterations;
+    private final int maxIterations;
+    private final int window;
+    private final double stabilityThreshold;
+    private final long maxDurationMillis;
+    private final int rows;
+
+    // Resultados expostos como métricas (em nanossegundos / contagem)
+    private final AtomicLong durationNanos = new AtomicLong();
+    private final AtomicLong iterations = new AtomicLong();
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+    private final AtomicLong stable = new AtomicLong();
+
+    @Autowired
+    public WarmupRunner(
+            PdfGenerationService pdfGenerationService,
+            ExcelGenerationService excelGenerationService,
+            ObjectMapper objectMapper,
+            ApplicationContext context,
+            MeterRegistry registry,
+            @Value("${print-service.warmup.enabled:true}") boolean enabled,
+            @Value("${print-service.warmup.min-iterations:5}") int minIterations,
+            @Value("${print-service.warmup.max-iterations:50}") int maxIterations,
+            @Value("${print-service.warmup.window:3}") int window,
+            @Value("${print-service.warmup.stability-threshold:0.10}") double stabilityThreshold,
+            @Value("${print-service.warmup.max-duration-ms:60000}") long maxDurationMillis,
+            @Value("${print-service.warmup.rows:200}") int rows) {
+        this.pdfGenerationService = pdfGenerationService;
+        this.excelGenerationService = excelGenerationService;
+        this.objectMapper = objectMapper;
+        this.context = context;
+        this.enabled = enabled;
+        this.minIterations = Math.max(1, minIterations);
+        this.maxIterations = Math.max(this.minIterations, maxIterations);
+        this.window = Math.max(2, window);
+        this.stabilityThreshold = stabilityThreshold;
+        this.maxDurationMillis = maxDurationMillis;
+        this.rows = rows;
+
+        Gauge.builder(DURATION_GAUGE, durationNanos, value -> value.get() / 1e9)
+                .description("Duração do aquecimento executado antes da prontidão")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder(ITERATIONS_GAUGE, iterations, AtomicLong::get)
+                .description("Iterações executadas no aquecimento")
+                .register(registry);
+        Gauge.builder(LAST_LATENCY_GAUGE, lastLatencyNanos, value -> value.get() / 1e9)
+                .description("Latência da última iteração do aquecimento")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder(STABLE_GAUGE, stable, AtomicLong::get)
+                .description("1 se a latência do aquecimento se estabilizou, 0 se terminou pelo limite")
+                .register(registry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        // Explicita a recusa de tráfego enquanto o aquecimento é executado
+        AvailabilityChangeEvent.publish(context, ReadinessState.REFUSING_TRAFFIC);
+
+        List<byte[]> payloads = warmupPayloads();
+        List<Long> latencies = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + maxDurationMillis * 1_000_000;
+        boolean stabilized = false;
+
+        try {
+            while (latencies.size() < maxIterations && System.nanoTime() < deadline) {
+                long iterationStart = System.nanoTime();
+                for (byte[] payload : payloads) {
+                    ReportData reportData = objectMapper.readValue(payload, ReportData.class);
+                    pdfGenerationService.generatePdf(reportData);
+                    excelGenerationService.generateExcel(reportData);
+                }
+                long latency = System.nanoTime() - iterationStart;
+                latencies.add(latency);
+                lastLatencyNanos.set(latency);
+                iterations.set(latencies.size());
+
+                if (latencies.size() >= minIterations && isStable(latencies)) {
+                    stabilized = true;
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // O aquecimento é apenas uma otimização: falhas não impedem a aplicação de subir
+            logger.warn("Falha no aquecimento, a aplicação seguirá sem aquecimento completo: {}", e.getMessage(), e);
+        }
+
+        durationNanos.set(System.nanoTime() - start);
+        stable.set(stabilized ? 1 : 0);
+
+        logger.info("Aquecimento concluído em {} ms: {} iterações, última iteração {} ms ({})",
+                durationNanos.get() / 1_000_000, latencies.size(), lastLatencyNanos.get() / 1_000_000,
+                stabilized ? "latência estável" : "limite atingido");
+    }
+
+    /**
+     * Considera a latência estável quando a variação entre a maior e a menor das últimas
+     * {@code window} iterações não ultrapassa o limite relativo configurado.
+     */
+    boolean isStable(List<Long> latencies) {
+        if (latencies.size() < window) {
+            return false;
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = latencies.size() - window; i < latencies.size(); i++) {
+            min = Math.min(min, latencies.get(i));
+            max = Math.max(max, latencies.get(i));
+        }
+        return min > 0 && (double) (max - min) / min <= stabilityThreshold;
+    }
+
+    /**
+     * Gera os relatórios do aquecimento já serializados em JSON, para que cada iteração
+     * exercite também a desserialização feita nas requisições.
+     */
+    private List<byte[]> warmupPayloads() {
+        List<byte[]> payloads = new ArrayList<>();
+        try {
+            SyntheticReportGenerator.Spec table = new SyntheticReportGenerator.Spec();
+            table.setReportType("warmup");
+            table.setRows(rows);
+            payloads.add(objectMapper.writeValueAsBytes(SyntheticReportGenerator.generate(table)));
+
+            SyntheticReportGenerator.Spec nested = new SyntheticReportGenerator.Spec();
+            nested.setReportType("warmup");
+            nested.setSections(2);
+            nested.setGroups(1);
+            nested.setRows(Math.max(1, rows / 4));
+            nested.setNestedSections(1);
+            payloads.add(objectMapper.writeValueAsBytes(SyntheticReportGenerator.generate(nested)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Erro ao gerar os relatórios de aquecimento", e);
+        }
+        return payloads;
+    }
+}
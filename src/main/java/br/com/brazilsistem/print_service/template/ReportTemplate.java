@@ -0,0 +1,32 @@
+package br.com.brazilsistem.print_service.template;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Template de layout compilado: o relatório de referência já validado e normalizado, compartilhado
+ * (somente leitura) por todas as requisições que o referenciam.
+ *
+ * @param reportType Tipo de relatório
+ * @param version Versão do template
+ * @param hash Hash do conteúdo normalizado; muda sempre que o layout muda
+ * @param layout Relatório de referência (colunas, estilos, cabeçalho e configurações)
+ * @param sections Seções do layout na ordem em que recebem os dados, incluindo as de grupos
+ * @param registeredAt Momento do registro
+ */
+public record ReportTemplate(String reportType, int version, String hash, ReportData layout,
+                             List<Section> sections, Instant registeredAt) {
+
+    /**
+     * Resumo do template, sem o layout.
+     */
+    public record Summary(String reportType, int version, String hash, int sections, Instant registeredAt) {
+    }
+
+    public Summary summary() {
+        return new Summary(reportType, version, hash, sections.size(), registeredAt);
+    }
+}
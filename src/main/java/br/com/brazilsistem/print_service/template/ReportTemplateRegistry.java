@@ -0,0 +1,373 @@
+package br.com.brazilsistem.print_service.template;
+
+import br.com.brazilsistem.print_service.exception.TemplateException;
+import br.com.brazilsistem.print_service.exception.TemplateNotFoundException;
+import br.com.brazilsistem.print_service.interfaces.SectionTypeRenderer;
+import br.com.brazilsistem.print_service.model.*;
+import br.com.brazilsistem.print_service.util.TableGrouping;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Registro de templates de layout por {@code reportType} e versão.
+ * <p>
+ * Os templates são relatórios de referência (o mesmo JSON de {@link ReportData}, com a versão em
+ * {@code template.version}) carregados dos arquivos {@code *.json} do diretório configurado e
+ * atualizáveis pelo endpoint administrativo. No registro, cada template é validado, normalizado e
+ * mantido em memória já desserializado; as requisições enviam apenas a referência ao template, os
+ * dados das seções e os valores do cabeçalho. As versões são imutáveis e identificadas também pelo
+ * hash do conteúdo, de modo que caches de clientes podem ser invalidados com segurança.
+ */
+@Component
+public class ReportTemplateRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportTemplateRegistry.class);
+
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper canonicalMapper;
+    private final Set<String> sectionTypes;
+    private final Path directory;
+    private final boolean persist;
+    private final int maxVersions;
+    private final Map<String, ConcurrentSkipListMap<Integer, ReportTemplate>> templates = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ReportTemplateRegistry(
+            ObjectMapper objectMapper,
+            Map<String, SectionTypeRenderer> sectionTypeRenderers,
+            @Value("${print-service.templates.directory:}") String directory,
+            @Value("${print-service.templates.persist:true}") boolean persist,
+            @Value("${print-service.templates.max-versions:10}") int maxVersions) {
+        this.objectMapper = objectMapper;
+        // Propriedades em ordem alfabética; a ordem das entradas dos mapas (colunas) faz parte do layout
+        this.canonicalMapper = JsonMapper.builder()
+                .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .build();
+        this.sectionTypes = Set.copyOf(sectionTypeRenderers.keySet());
+        this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+        this.persist = persist;
+        this.maxVersions = Math.max(1, maxVersions);
+        reload();
+    }
+
+    /**
+     * Recarrega os templates do diretório configurado. Versões já registradas são substituídas
+     * pelas dos arquivos, que são a origem dos templates.
+     *
+     * @return Número de templates carregados
+     */
+    public int reload() {
+        if (directory == null || !Files.isDirectory(directory)) {
+            return 0;
+        }
+
+        int loaded = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".json")).sorted().toList()) {
+                try {
+                    ReportData layout = objectMapper.readValue(file.toFile(), ReportData.class);
+                    put(compile(layout, layout.getTemplate() != null ? layout.getTemplate().getVersion() : null), true);
+                    loaded++;
+                } catch (IOException | TemplateException e) {
+                    logger.error("Template inválido ignorado: {}", file, e);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Erro ao listar templates em {}", directory, e);
+        }
+
+        logger.info("{} template(s) carregado(s) de {}", loaded, directory);
+        return loaded;
+    }
+
+    /**
+     * Registra uma nova versão de template. Sem versão informada, usa a seguinte à mais recente.
+     * Registrar novamente uma versão existente só é permitido com o mesmo conteúdo.
+     *
+     * @param layout Relatório de referência
+     * @return Template compilado
+     */
+    public ReportTemplate register(ReportData layout) {
+        Integer version = layout.getTemplate() != null ? layout.getTemplate().getVersion() : null;
+        if (version == null && layout.getReportType() != null) {
+            ConcurrentSkipListMap<Integer, ReportTemplate> versions = templates.get(layout.getReportType());
+            version = versions != null && !versions.isEmpty() ? versions.lastKey() + 1 : 1;
+        }
+
+        ReportTemplate template = put(compile(layout, version), false);
+        if (persist && directory != null) {
+            write(template);
+        }
+        return template;
+    }
+
+    /**
+     * Obtém um template registrado.
+     *
+     * @param reportType Tipo de relatório
+     * @param version Versão, ou null para a mais recente
+     * @param hash Hash do conteúdo, ou null; quando informado, identifica a versão
+     */
+    public ReportTemplate get(String reportType, Integer version, String hash) {
+        ConcurrentSkipListMap<Integer, ReportTemplate> versions = templates.get(reportType);
+        if (versions == null || versions.isEmpty()) {
+            throw new TemplateNotFoundException("Nenhum template registrado para o tipo de relatório: " + reportType);
+        }
+
+        if (hash != null) {
+            for (ReportTemplate template : versions.descendingMap().values()) {
+                if (template.hash().equals(hash) && (version == null || template.version() == version)) {
+                    return template;
+                }
+            }
+            throw new TemplateNotFoundException(String.format(
+                    "Template do tipo %s com hash %s não encontrado; a versão atual é %d (hash %s)",
+                    reportType, hash, versions.lastKey(), versions.lastEntry().getValue().hash()));
+        }
+
+        ReportTemplate template = version != null ? versions.get(version) : versions.lastEntry().getValue();
+        if (template == null) {
+            throw new TemplateNotFoundException(String.format(
+                    "Versão %d do template do tipo %s não encontrada", version, reportType));
+        }
+        return template;
+    }
+
+    /**
+     * Lista os templates registrados, por tipo de relatório e versão.
+     */
+    public List<ReportTemplate.Summary> list() {
+        List<ReportTemplate.Summary> summaries = new ArrayList<>();
+        new TreeMap<>(templates).values().forEach(versions ->
+                versions.values().forEach(template -> summaries.add(template.summary())));
+        return summaries;
+    }
+
+    /**
+     * Monta o relatório completo a partir do template referenciado e dos dados da requisição.
+     * Relatórios sem referência a template são devolvidos sem alterações.
+     * <p>
+     * As seções da requisição correspondem, na ordem, às seções do template (incluindo as de grupos)
+     * e fornecem {@code data}, {@code content} e, opcionalmente, {@code title}. Os dados do cabeçalho
+     * e do rodapé, os dados adicionais e as configurações do PDF da requisição têm precedência sobre
+     * os do template.
+     */
+    public ReportData resolve(ReportData request) {
+        TemplateReference reference = request.getTemplate();
+        if (reference == null) {
+            return request;
+        }
+
+        ReportTemplate template = get(request.getReportType(), reference.getVersion(), reference.getHash());
+        ReportData layout = template.layout();
+        List<Section> values = request.getSections() != null ? request.getSections() : List.of();
+        if (values.size() > template.sections().size()) {
+            throw new TemplateException(String.format(
+                    "O template %s v%d tem %d seção(ões), mas a requisição enviou %d",
+                    template.reportType(), template.version(), template.sections().size(), values.size()));
+        }
+
+        ReportData report = new ReportData();
+        report.setReportType(request.getReportType());
+        report.setTitle(request.getTitle() != null ? request.getTitle() : layout.getTitle());
+        report.setHeaderConfig(mergeHeader(layout.getHeaderConfig(), request.getHeaderConfig()));
+        report.setFooterData(request.getFooterData() != null ? request.getFooterData() : layout.getFooterData());
+        report.setAdditionalData(request.getAdditionalData() != null ? request.getAdditionalData() : layout.getAdditionalData());
+        // Cópia: a geração ajusta as margens das configurações recebidas
+        report.setPdfSettings(request.getPdfSettings() != null ? request.getPdfSettings() : new PdfSettings(layout.getPdfSettings()));
+        report.setTemplate(reference);
+
+        Iterator<Section> data = values.iterator();
+        if (layout.getSectionGroups() != null && !layout.getSectionGroups().isEmpty()) {
+            List<SectionGroup> groups = new ArrayList<>(layout.getSectionGroups().size());
+            for (SectionGroup group : layout.getSectionGroups()) {
+                SectionGroup merged = new SectionGroup();
+                merged.setSections(mergeSections(group.getSections(), data));
+                merged.setColumns(group.getColumns());
+                merged.setColumnGap(group.getColumnGap());
+                merged.setGroupId(group.getGroupId());
+                merged.setTitle(group.getTitle());
+                merged.setTitleStyle(group.getTitleStyle());
+                merged.setMarginTop(group.getMarginTop());
+                merged.setMarginBottom(group.getMarginBottom());
+                groups.add(merged);
+            }
+            report.setSectionGroups(groups);
+        } else {
+            report.setSections(mergeSections(layout.getSections(), data));
+        }
+        return report;
+    }
+
+    /**
+     * Valida e normaliza o relatório de referência e calcula o hash do conteúdo.
+     */
+    private ReportTemplate compile(ReportData layout, Integer version) {
+        if (layout.getReportType() == null || layout.getReportType().isBlank()) {
+            throw new TemplateException("O template deve informar o reportType");
+        }
+        if (version == null || version < 1) {
+            throw new TemplateException("Versão inválida do template " + layout.getReportType() + ": " + version);
+        }
+
+        // Valores padrão materializados uma única vez, em vez de a cada requisição
+        if (layout.getPdfSettings() == null) {
+            layout.setPdfSettings(new PdfSettings());
+        }
+        List<Section> sections = new ArrayList<>();
+        if (layout.getSectionGroups() != null && !layout.getSectionGroups().isEmpty()) {
+            layout.setSections(null);
+            for (SectionGroup group : layout.getSectionGroups()) {
+                group.applyDefaultTitleStyle();
+                if (group.getSections() != null) {
+                    sections.addAll(group.getSections());
+                }
+            }
+        } else if (layout.getSections() != null) {
+            sections.addAll(layout.getSections());
+        }
+
+        for (Section section : sections) {
+            validate(layout.getReportType(), section);
+            section.setType(section.getType().toLowerCase());
+            section.applyDefaultTitleStyle();
+        }
+
+        // A referência ao template não faz parte do conteúdo
+        layout.setTemplate(null);
+        String hash = hash(layout);
+        TemplateReference reference = new TemplateReference();
+        reference.setVersion(version);
+        reference.setHash(hash);
+        layout.setTemplate(reference);
+
+        return new ReportTemplate(layout.getReportType(), version, hash, layout, List.copyOf(sections), Instant.now());
+    }
+
+    private void validate(String reportType, Section section) {
+        if (section.getType() == null || !sectionTypes.contains(section.getType().toLowerCase())) {
+            throw new TemplateException(String.format("Tipo de seção desconhecido no template %s: %s",
+                    reportType, section.getType()));
+        }
+        String aggregateError = TableGrouping.validateAggregates(section.getAggregates());
+        if (aggregateError != null) {
+            throw new TemplateException(String.format("%s no template %s", aggregateError, reportType));
+        }
+        if (section.getColumnStyles() != null && section.getColumns() != null) {
+            for (String column : section.getColumnStyles().keySet()) {
+                if (!section.getColumns().containsKey(column)) {
+                    throw new TemplateException(String.format(
+                            "Estilo definido para coluna inexistente no template %s: %s", reportType, column));
+                }
+            }
+        }
+    }
+
+    private ReportTemplate put(ReportTemplate template, boolean replace) {
+        ConcurrentSkipListMap<Integer, ReportTemplate> versions =
+                templates.computeIfAbsent(template.reportType(), k -> new ConcurrentSkipListMap<>());
+        synchronized (versions) {
+            ReportTemplate existing = versions.get(template.version());
+            if (existing != null && !replace) {
+                if (existing.hash().equals(template.hash())) {
+                    return existing;
+                }
+                throw new TemplateException(String.format(
+                        "A versão %d do template %s já existe com outro conteúdo (hash %s)",
+                        template.version(), template.reportType(), existing.hash()));
+            }
+            versions.put(template.version(), template);
+            while (versions.size() > maxVersions) {
+                versions.pollFirstEntry();
+            }
+        }
+        logger.info("Template registrado: {} v{} (hash {})", template.reportType(), template.version(), template.hash());
+        return template;
+    }
+
+    private void write(ReportTemplate template) {
+        String name = template.reportType().replaceAll("[^A-Za-z0-9_.-]", "_") + "-v" + template.version() + ".json";
+        try {
+            Files.createDirectories(directory);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve(name).toFile(), template.layout());
+        } catch (IOException e) {
+            // O template continua registrado em memória; apenas não sobrevive a um reinício
+            logger.error("Erro ao gravar o template {} em {}", name, directory, e);
+        }
+    }
+
+    private String hash(ReportData layout) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonicalMapper.writeValueAsBytes(layout));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new TemplateException("Não foi possível calcular o hash do template " + layout.getReportType(), e);
+        }
+    }
+
+    private static List<Section> mergeSections(List<Section> sections, Iterator<Section> data) {
+        if (sections == null) {
+            return null;
+        }
+        List<Section> merged = new ArrayList<>(sections.size());
+        for (Section section : sections) {
+            merged.add(data.hasNext() ? mergeSection(section, data.next()) : section);
+        }
+        return merged;
+    }
+
+    /**
+     * Cria uma cópia rasa da seção do template com os dados da requisição.
+     */
+    private static Section mergeSection(Section section, Section values) {
+        if (values == null) {
+            return section;
+        }
+        Section merged = new Section(section);
+        merged.setTitle(values.getTitle() != null ? values.getTitle() : section.getTitle());
+        merged.setData(values.getData() != null ? values.getData() : section.getData());
+        merged.setContent(values.getContent() != null ? values.getContent() : section.getContent());
+        return merged;
+    }
+
+    private static HeaderConfig mergeHeader(HeaderConfig header, HeaderConfig values) {
+        if (header == null) {
+            return values;
+        }
+        if (values == null || values.getData() == null) {
+            return header;
+        }
+        HeaderConfig merged = new HeaderConfig();
+        merged.setData(values.getData());
+        merged.setStyles(header.getStyles());
+        merged.setColumns(header.getColumns());
+        merged.setLabelFormat(header.getLabelFormat());
+        merged.setBoldKeys(header.getBoldKeys());
+        merged.setPaddingTop(header.getPaddingTop());
+        merged.setPaddingRight(header.getPaddingRight());
+        merged.setPaddingBottom(header.getPaddingBottom());
+        merged.setPaddingLeft(header.getPaddingLeft());
+        merged.setUseBackground(header.getUseBackground());
+        merged.setBackgroundColor(header.getBackgroundColor());
+        return merged;
+    }
+}
@@ -0,0 +1,115 @@
+package br.com.brazilsistem.print_service.util;
+
+import com.itextpdf.io.font.constants.StandardFonts;
+import com.itextpdf.kernel.font.PdfFont;
+import com.itextpdf.kernel.font.PdfFontFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Tabelas de largura de glifos das fontes Helvetica (padrão dos PDFs), calculadas uma única vez.
+ * <p>
+ * Permite medir e truncar textos sem consultar o {@link PdfFont} a cada caractere. As variantes
+ * oblíquas têm as mesmas larguras das retas, por isso há apenas duas tabelas (normal e negrito).
+ * Os caracteres cobertos são os da codificação WinAnsi, usada pelas fontes padrão; os demais
+ * não são desenhados pelo iText e contam como largura zero.
+ */
+public final class HelveticaMetrics {
+
+    // Maior caractere Unicode presente na codificação WinAnsi (™)
+    private static final int MAX_CHAR = 0x2122;
+
+    public static final char ELLIPSIS = '…';
+
+    private static final short[] REGULAR = loadWidths(StandardFonts.HELVETICA);
+    private static final short[] BOLD = loadWidths(StandardFonts.HELVETICA_BOLD);
+
+    private HelveticaMetrics() {
+        // Classe utilitária - construtor privado
+    }
+
+    /**
+     * Largura do texto em pontos.
+     *
+     * @param text Texto a ser medido
+     * @param bold Se a fonte é negrito
+     * @param fontSize Tamanho da fonte
+     * @return Largura do texto
+     */
+    public static float getWidth(String text, boolean bold, float fontSize) {
+        short[] widths = bold ? BOLD : REGULAR;
+        int total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            total += charWidth(widths, text.charAt(i));
+        }
+        return total * fontSize / 1000f;
+    }
+
+    /**
+     * Largura de um caractere em pontos.
+     *
+     * @param c Caractere
+     * @param bold Se a fonte é negrito
+     * @param fontSize Tamanho da fonte
+     * @return Largura do caractere
+     */
+    public static float getWidth(char c, boolean bold, float fontSize) {
+        return charWidth(bold ? BOLD : REGULAR, c) * fontSize / 1000f;
+    }
+
+    /**
+     * Trunca o texto para caber na largura informada, terminando com reticências.
+     * Se o texto já couber, é devolvido sem alterações.
+     *
+     * @param text Texto a ser truncado
+     * @param bold Se a fonte é negrito
+     * @param fontSize Tamanho da fonte
+     * @param maxWidth Largura disponível em pontos
+     * @return Texto que cabe na largura, possivelmente vazio
+     */
+    public static String truncate(String text, boolean bold, float fontSize, float maxWidth) {
+        short[] widths = bold ? BOLD : REGULAR;
+        int available = (int) (maxWidth * 1000f / fontSize);
+        int total = 0;
+        for (int i = 0; i < text.length(); i++) {
+            total += charWidth(widths, text.charAt(i));
+        }
+        if (total <= available) {
+            return text;
+        }
+
+        int limit = available - charWidth(widths, ELLIPSIS);
+        if (limit < 0) {
+            return "";
+        }
+        int used = 0;
+        int end = 0;
+        while (end < text.length()) {
+            int width = charWidth(widths, text.charAt(end));
+            if (used + width > limit) {
+                break;
+            }
+            used += width;
+            end++;
+        }
+        return text.substring(0, end) + ELLIPSIS;
+    }
+
+    private static int charWidth(short[] widths, char c) {
+        return c <= MAX_CHAR ? widths[c] : 0;
+    }
+
+    private static short[] loadWidths(String fontName) {
+        try {
+            PdfFont font = PdfFontFactory.createFont(fontName);
+            short[] widths = new short[MAX_CHAR + 1];
+            for (int c = 0; c <= MAX_CHAR; c++) {
+                widths[c] = (short) font.getWidth(c);
+            }
+            return widths;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível carregar as métricas da fonte " + fontName, e);
+        }
+    }
+}
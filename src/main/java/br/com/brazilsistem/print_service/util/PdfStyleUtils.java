@@ -8,6 +8,7 @@ import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.font.PdfFont;
 import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.ElementPropertyContainer;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
 import com.itextpdf.layout.element.Cell;
@@ -103,8 +104,12 @@ public final class PdfStyleUtils {
                 effectiveStyle.getPadding() : DEFAULT_PADDING);
 
         // Fonte e estilo de fonte
-        PdfFont font = determineFont(effectiveStyle.getBold(), effectiveStyle.getItalic());
-        cell.setFont(font);
+        if (hasFontFamily(effectiveStyle)) {
+            applyFontFamily(cell, effectiveStyle);
+        } else {
+            PdfFont font = determineFont(effectiveStyle.getBold(), effectiveStyle.getItalic());
+            cell.setFont(font);
+        }
 
         // Borda
         String borderStyle = effectiveStyle.getBorder() != null ?
@@ -151,11 +156,36 @@ public final class PdfStyleUtils {
         }
 
         // Fonte e estilo de fonte
-        PdfFont font = determineFont(effectiveStyle.getBold(), effectiveStyle.getItalic());
-        paragraph.setFont(font);
+        if (hasFontFamily(effectiveStyle)) {
+            applyFontFamily(paragraph, effectiveStyle);
+        } else {
+            PdfFont font = determineFont(effectiveStyle.getBold(), effectiveStyle.getItalic());
+            paragraph.setFont(font);
+        }
         paragraph.setProperty(Property.NO_SOFT_WRAP_INLINE, true);
     }
 
+    /**
+     * Verifica se o estilo define uma família de fonte.
+     */
+    public static boolean hasFontFamily(Style style) {
+        return style != null && style.getFontFamily() != null && !style.getFontFamily().isBlank();
+    }
+
+    /**
+     * Aplica a família de fonte do estilo, resolvida no layout pelo provedor de fontes do documento
+     * (fontes registradas no FontRegistry), com peso e estilo para a escolha da variante.
+     */
+    public static void applyFontFamily(ElementPropertyContainer<?> element, Style style) {
+        element.setFontFamily(style.getFontFamily().trim());
+        if (Boolean.TRUE.equals(style.getBold())) {
+            element.setProperty(Property.FONT_WEIGHT, "bold");
+        }
+        if (Boolean.TRUE.equals(style.getItalic())) {
+            element.setProperty(Property.FONT_STYLE, "italic");
+        }
+    }
+
     /**
      * Aplica estilos de título a um documento adicionando um parágrafo estilizado.
      * Útil para aplicar estilos de título diretamente ao documento.
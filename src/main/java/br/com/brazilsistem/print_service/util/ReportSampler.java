@@ -0,0 +1,95 @@
+package br.com.brazilsistem.print_service.util;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.SectionGroup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cria cópias rasas de relatórios e seções com um número limitado de linhas de tabela (ou de
+ * caracteres de texto), usadas nas estimativas e nas pré-visualizações. As demais propriedades são compartilhadas
+ * com o original.
+ */
+public final class ReportSampler {
+
+    private ReportSampler() {
+        // Classe utilitária - construtor privado
+    }
+
+    /**
+     * Cria uma cópia do relatório em que cada seção tem no máximo {@code rows} linhas.
+     */
+    public static ReportData limitRows(ReportData reportData, int rows) {
+        ReportData copy = new ReportData();
+        copy.setReportType(reportData.getReportType());
+        copy.setTitle(reportData.getTitle());
+        copy.setHeaderConfig(reportData.getHeaderConfig());
+        copy.setFooterData(reportData.getFooterData());
+        copy.setAdditionalData(reportData.getAdditionalData());
+        copy.setPdfSettings(reportData.getPdfSettings());
+        copy.setSections(limitRows(reportData.getSections(), rows));
+
+        if (reportData.getSectionGroups() != null) {
+            List<SectionGroup> groups = new ArrayList<>(reportData.getSectionGroups().size());
+            for (SectionGroup group : reportData.getSectionGroups()) {
+                SectionGroup groupCopy = new SectionGroup();
+                groupCopy.setSections(limitRows(group.getSections(), rows));
+                groupCopy.setColumns(group.getColumns());
+                groupCopy.setColumnGap(group.getColumnGap());
+                groupCopy.setGroupId(group.getGroupId());
+                groupCopy.setTitle(group.getTitle());
+                groupCopy.setTitleStyle(group.getTitleStyle());
+                groupCopy.setMarginTop(group.getMarginTop());
+                groupCopy.setMarginBottom(group.getMarginBottom());
+                groups.add(groupCopy);
+            }
+            copy.setSectionGroups(groups);
+        }
+        return copy;
+    }
+
+    /**
+     * Limita as linhas de cada seção da lista.
+     */
+    public static List<Section> limitRows(List<Section> sections, int rows) {
+        if (sections == null) {
+            return null;
+        }
+        List<Section> limited = new ArrayList<>(sections.size());
+        for (Section section : sections) {
+            limited.add(limitRows(section, rows));
+        }
+        return limited;
+    }
+
+    /**
+     * Devolve a própria seção, se ela tiver até {@code rows} linhas, ou uma cópia com as primeiras {@code rows} linhas.
+     */
+    public static Section limitRows(Section section, int rows) {
+        if (section.getData() == null || section.getData().size() <= rows) {
+            return section;
+        }
+        Section copy = new Section(section);
+        copy.setData(section.getData().subList(0, Math.max(0, rows)));
+        return copy;
+    }
+
+    /**
+     * Devolve a própria seção, se o texto tiver até {@code chars} caracteres, ou uma cópia com o texto cortado.
+     */
+    public static Section limitContent(Section section, int chars) {
+        String content = section.getContent();
+        if (content == null || content.length() <= chars) {
+            return section;
+        }
+        int end = Math.max(0, chars);
+        if (end > 0 && Character.isHighSurrogate(content.charAt(end - 1))) {
+            end--;
+        }
+        Section copy = new Section(section);
+        copy.setContent(content.substring(0, end));
+        return copy;
+    }
+}
@@ -0,0 +1,122 @@
+package br.com.brazilsistem.print_service.util;
+
+import java.util.Arrays;
+
+/**
+ * Redução de séries de gráficos à resolução de impressão, antes do desenho.
+ * <p>
+ * Séries com mais pontos do que a largura do gráfico comporta geram caminhos enormes no PDF sem
+ * diferença visível. O LTTB (Largest-Triangle-Three-Buckets) escolhe, em cada intervalo, o ponto
+ * que preserva a forma da linha; o agrupamento mín/máx preserva os extremos de cada intervalo,
+ * usado nos gráficos de barras.
+ */
+public final class SeriesDecimation {
+
+    private SeriesDecimation() {
+        // Classe utilitária - construtor privado
+    }
+
+    /**
+     * Seleciona até {@code threshold} pontos da série pelo algoritmo LTTB. O primeiro e o último
+     * ponto são sempre mantidos. Pontos com valor NaN são ignorados.
+     *
+     * @param x Coordenadas x, em ordem crescente
+     * @param y Valores
+     * @param threshold Número máximo de pontos (mínimo 3)
+     * @return Índices dos pontos selecionados, em ordem
+     */
+    public static int[] lttb(double[] x, double[] y, int threshold) {
+        int[] valid = validIndices(y);
+        int count = valid.length;
+        if (threshold < 3 || count <= threshold) {
+            return valid;
+        }
+
+        int[] selected = new int[threshold];
+        int selectedCount = 0;
+        selected[selectedCount++] = valid[0];
+
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int a = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Média do próximo intervalo (o último ponto, no caso do último intervalo)
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min(count, (int) Math.floor((bucket + 2) * bucketSize) + 1);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[valid[i]];
+                avgY += y[valid[i]];
+            }
+            int nextLength = Math.max(1, nextEnd - nextStart);
+            avgX /= nextLength;
+            avgY /= nextLength;
+
+            // Ponto do intervalo atual que forma o maior triângulo com o ponto anterior e a média
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double ax = x[valid[a]];
+            double ay = y[valid[a]];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (y[valid[i]] - ay) - (ax - x[valid[i]]) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            selected[selectedCount++] = valid[chosen];
+            a = chosen;
+        }
+
+        selected[selectedCount++] = valid[count - 1];
+        return selectedCount == selected.length ? selected : Arrays.copyOf(selected, selectedCount);
+    }
+
+    /**
+     * Agrupa a série em {@code buckets} intervalos consecutivos com o mesmo número de pontos,
+     * devolvendo o mínimo e o máximo de cada intervalo. Intervalos só com NaN ficam com NaN.
+     *
+     * @param y Valores
+     * @param buckets Número de intervalos
+     * @return {@code [mínimos, máximos]}, cada um com {@code min(buckets, y.length)} posições
+     */
+    public static double[][] minMax(double[] y, int buckets) {
+        int count = Math.max(1, Math.min(buckets, y.length));
+        double[] min = new double[count];
+        double[] max = new double[count];
+        for (int bucket = 0; bucket < count; bucket++) {
+            int start = (int) ((long) bucket * y.length / count);
+            int end = (int) ((long) (bucket + 1) * y.length / count);
+            double bucketMin = Double.NaN;
+            double bucketMax = Double.NaN;
+            for (int i = start; i < end; i++) {
+                double value = y[i];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                if (Double.isNaN(bucketMin) || value < bucketMin) {
+                    bucketMin = value;
+                }
+                if (Double.isNaN(bucketMax) || value > bucketMax) {
+                    bucketMax = value;
+                }
+            }
+            min[bucket] = bucketMin;
+            max[bucket] = bucketMax;
+        }
+        return new double[][]{min, max};
+    }
+
+    private static int[] validIndices(double[] y) {
+        int[] indices = new int[y.length];
+        int count = 0;
+        for (int i = 0; i < y.length; i++) {
+            if (!Double.isNaN(y[i])) {
+                indices[count++] = i;
+            }
+        }
+        return count == indices.length ? indices : Arrays.copyOf(indices, count);
+    }
+}
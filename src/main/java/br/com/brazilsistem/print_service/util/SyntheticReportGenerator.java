@@ -0,0 +1,247 @@
+package br.com.brazilsistem.print_service.util;
+
+import br.com.brazilsistem.print_service.model.HeaderConfig;
+import br.com.brazilsistem.print_service.model.NestedSection;
+import br.com.brazilsistem.print_service.model.PdfSettings;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.SectionGroup;
+import br.com.brazilsistem.print_service.model.Style;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Gerador determinístico de relatórios sintéticos.
+ * Usado por benchmarks, testes de carga e aquecimento (warm-up) para produzir relatórios
+ * de tamanho e complexidade controlados. A mesma especificação sempre gera o mesmo relatório.
+ */
+public final class SyntheticReportGenerator {
+
+    private static final String[] FORMATS = {null, "INTEGER", "CURRENCY", "NUMBER", "PERCENTAGE"};
+    private static final String[] ALIGNMENTS = {"LEFT", "RIGHT", "CENTER"};
+    private static final String[] FONT_COLORS = {"#000000", "#333333", "#1F4E79", "#7F0000"};
+    private static final String[] BACKGROUND_COLORS = {null, "#F5F5F5", "#E2EFDA", "#FFF2CC"};
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789çãéõ".toCharArray();
+
+    private SyntheticReportGenerator() {
+        // Classe utilitária - construtor privado
+    }
+
+    /**
+     * Especificação do relatório sintético.
+     */
+    @Data
+    public static class Spec {
+        // Tipo do relatório gerado
+        private String reportType = "synthetic";
+
+        // Número de seções de tabela
+        private int sections = 1;
+
+        // Tipo das seções de tabela ("table" ou "fasttable")
+        private String sectionType = "table";
+
+        // Número de grupos de seções (0 = seções individuais, sem grupos)
+        private int groups = 0;
+
+        // Linhas por seção
+        private int rows = 100;
+
+        // Colunas por seção
+        private int columns = 5;
+
+        // Quantidade de seções aninhadas (irmãs, com um único nível) em cada linha
+        private int nestedSections = 0;
+
+        // Linhas em cada seção aninhada
+        private int nestedRows = 3;
+
+        // Se as seções aninhadas são renderizadas como linhas da tabela principal
+        private boolean flatNestedRows = false;
+
+        // Quantidade de estilos distintos aplicados às colunas (1 = todas iguais)
+        private int styleVariety = 3;
+
+        // Tamanho médio dos textos gerados
+        private int stringLength = 16;
+
+        // Semente do gerador pseudoaleatório
+        private long seed = 42L;
+    }
+
+    /**
+     * Gera um relatório a partir da especificação informada.
+     *
+     * @param spec Especificação do relatório
+     * @return Relatório sintético
+     */
+    public static ReportData generate(Spec spec) {
+        Random random = new Random(spec.getSeed());
+
+        List<Section> sections = new ArrayList<>(spec.getSections());
+        for (int i = 0; i < spec.getSections(); i++) {
+            sections.add(tableSection(spec, random, i));
+        }
+
+        ReportData reportData = new ReportData();
+        reportData.setReportType(spec.getReportType());
+        reportData.setTitle("Relatório Sintético - " + spec.getRows() + " linhas");
+        reportData.setHeaderConfig(headerConfig(spec, random));
+        reportData.setFooterData(Map.of(
+                "Seções", String.valueOf(spec.getSections()),
+                "Linhas por seção", String.valueOf(spec.getRows())));
+        reportData.setPdfSettings(new PdfSettings());
+
+        if (spec.getGroups() > 0) {
+            List<SectionGroup> groups = new ArrayList<>(spec.getGroups());
+            for (int g = 0; g < spec.getGroups(); g++) {
+                SectionGroup group = new SectionGroup();
+                group.setGroupId("grupo-" + g);
+                group.setTitle("Grupo " + (g + 1));
+                group.setColumns(1);
+                group.setSections(new ArrayList<>());
+                groups.add(group);
+            }
+            for (int i = 0; i < sections.size(); i++) {
+                groups.get(i % groups.size()).getSections().add(sections.get(i));
+            }
+            reportData.setSectionGroups(groups);
+        } else {
+            reportData.setSections(sections);
+        }
+
+        return reportData;
+    }
+
+    private static Section tableSection(Spec spec, Random random, int sectionIndex) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        Map<String, Style> columnStyles = new LinkedHashMap<>();
+        float width = 100f / Math.max(1, spec.getColumns());
+
+        for (int c = 0; c < spec.getColumns(); c++) {
+            String columnId = "col" + c;
+            columns.put(columnId, "Coluna " + (c + 1));
+            columnStyles.put(columnId, columnStyle(spec, c, width));
+        }
+
+        List<Map<String, Object>> data = new ArrayList<>(spec.getRows());
+        for (int r = 0; r < spec.getRows(); r++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int c = 0; c < spec.getColumns(); c++) {
+                row.put("col" + c, cellValue(spec, random, columnStyles.get("col" + c), r));
+            }
+            for (int n = 0; n < spec.getNestedSections(); n++) {
+                row.put(nestedField(n), nestedRows(spec, random));
+            }
+            data.add(row);
+        }
+
+        Section section = new Section();
+        section.setTitle("Seção " + (sectionIndex + 1));
+        section.setType(spec.getSectionType());
+        section.setColumns(columns);
+        section.setColumnStyles(columnStyles);
+        section.setUseAlternateRowColor(true);
+        section.setData(data);
+
+        if (spec.getNestedSections() > 0) {
+            List<NestedSection> nestedSections = new ArrayList<>(spec.getNestedSections());
+            for (int n = 0; n < spec.getNestedSections(); n++) {
+                nestedSections.add(nestedSection(n, spec.isFlatNestedRows()));
+            }
+            section.setNestedSections(nestedSections);
+        }
+
+        return section;
+    }
+
+    private static Style columnStyle(Spec spec, int columnIndex, float width) {
+        int variant = columnIndex % Math.max(1, spec.getStyleVariety());
+
+        Style style = new Style();
+        style.setWidth(width);
+        style.setFormat(FORMATS[columnIndex % FORMATS.length]);
+        style.setAlignment(style.getFormat() != null ? "RIGHT" : ALIGNMENTS[variant % ALIGNMENTS.length]);
+        style.setBold(variant % 2 == 1);
+        style.setFontColor(FONT_COLORS[variant % FONT_COLORS.length]);
+        style.setBackgroundColor(BACKGROUND_COLORS[variant % BACKGROUND_COLORS.length]);
+        return style;
+    }
+
+    private static Object cellValue(Spec spec, Random random, Style style, int rowIndex) {
+        String format = style.getFormat();
+        if (format == null) {
+            return randomString(random, spec.getStringLength());
+        }
+        return switch (format) {
+            case "INTEGER" -> rowIndex + 1;
+            case "PERCENTAGE" -> random.nextDouble() * 100;
+            default -> random.nextDouble() * 10_000;
+        };
+    }
+
+    private static List<Map<String, Object>> nestedRows(Spec spec, Random random) {
+        List<Map<String, Object>> rows = new ArrayList<>(spec.getNestedRows());
+        for (int i = 0; i < spec.getNestedRows(); i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("codigo", "SKU-" + random.nextInt(100_000));
+            row.put("descricao", randomString(random, spec.getStringLength()));
+            row.put("valor", random.nextDouble() * 1_000);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static NestedSection nestedSection(int index, boolean flatRows) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("codigo", "Código");
+        columns.put("descricao", "Descrição");
+        columns.put("valor", "Valor");
+
+        Style valueStyle = new Style();
+        valueStyle.setFormat("CURRENCY");
+        valueStyle.setAlignment("RIGHT");
+
+        NestedSection nestedSection = new NestedSection();
+        nestedSection.setSourceField(nestedField(index));
+        nestedSection.setColumns(columns);
+        nestedSection.setColumnStyles(Map.of("valor", valueStyle));
+        nestedSection.setShowHeaders(true);
+        nestedSection.setUseAlternateRowColor(true);
+        nestedSection.setIndentation(20);
+        nestedSection.setFlatRows(flatRows);
+        return nestedSection;
+    }
+
+    private static HeaderConfig headerConfig(Spec spec, Random random) {
+        Map<String, String> data = new LinkedHashMap<>();
+        data.put("Cliente", randomString(random, spec.getStringLength()));
+        data.put("Data", "01/01/2023");
+        data.put("Número", String.valueOf(random.nextInt(1_000_000)));
+        data.put("Vendedor", randomString(random, spec.getStringLength()));
+
+        HeaderConfig headerConfig = new HeaderConfig();
+        headerConfig.setData(data);
+        headerConfig.setColumns(2);
+        return headerConfig;
+    }
+
+    private static String nestedField(int index) {
+        return "itens" + index;
+    }
+
+    private static String randomString(Random random, int averageLength) {
+        // Varia o tamanho entre 50% e 150% da média para simular textos reais
+        int length = Math.max(1, averageLength / 2 + random.nextInt(Math.max(1, averageLength + 1)));
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+}
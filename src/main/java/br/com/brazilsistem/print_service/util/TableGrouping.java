@@ -0,0 +1,375 @@
+package br.com.brazilsistem.print_service.util;
+
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.Style;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Agrupamento e subtotais das seções de tabela ({@code groupBy} e {@code aggregates}).
+ * <p>
+ * As linhas são percorridas uma única vez, na ordem recebida: os dados devem vir ordenados pelas
+ * colunas de {@code groupBy}, e cada mudança de valor fecha o grupo (quebra de controle), como nos
+ * relatórios com subtotais. Ao fechar um grupo são emitidas as linhas de subtotal dos níveis mais
+ * internos até o nível que mudou e, em seguida, os cabeçalhos dos novos grupos. Ao final vem a linha
+ * de total geral.
+ * <p>
+ * Os acumuladores são arrays primitivos por nível e por coluna (soma compensada, contagem, mínimo e
+ * máximo); a linha só é somada no nível mais interno e os totais sobem para o nível de cima quando o
+ * grupo fecha. Não há mapa de grupos nem valores boxed por linha, e a memória não depende do número
+ * de linhas nem de grupos.
+ * <p>
+ * O tipo dos valores agregados vem do formato declarado para a coluna em {@code columnStyles}, e não
+ * dos dados: coluna com formato {@code INTEGER} tem soma, mínimo e máximo como {@code Long}; nas
+ * demais saem como {@code Double}, e a formatação da coluna decide como são exibidos. Assim o tipo é
+ * o mesmo em todos os subtotais sem percorrer as linhas antes do agrupamento.
+ */
+public final class TableGrouping {
+
+    /**
+     * Tipo de linha da tabela agrupada.
+     */
+    public enum RowKind {
+        /** Linha de dados original (valores {@code null} para linha vazia). */
+        DATA,
+        /** Cabeçalho de um grupo, com o título da coluna e o valor. */
+        GROUP_HEADER,
+        /** Subtotal de um grupo. */
+        SUBTOTAL,
+        /** Total geral da tabela. */
+        GRAND_TOTAL
+    }
+
+    /**
+     * Linha da tabela agrupada.
+     *
+     * @param kind Tipo da linha
+     * @param level Nível do grupo (1 = primeira coluna de {@code groupBy}; 0 no total geral e nas linhas de dados)
+     * @param values Valores por coluna: a linha original, ou os valores agregados com o rótulo na
+     *               primeira coluna sem agregação
+     * @param label Texto do cabeçalho ou rótulo do subtotal
+     */
+    public record GroupedRow(RowKind kind, int level, Map<String, Object> values, String label) {
+    }
+
+    private enum Function {
+        SUM, COUNT, AVG, MIN, MAX
+    }
+
+    private TableGrouping() {
+        // Classe utilitária - construtor privado
+    }
+
+    /**
+     * Valida as funções de agregação, para que a requisição seja recusada antes da renderização.
+     *
+     * @return Mensagem de erro da primeira agregação inválida, ou null se todas forem válidas
+     */
+    public static String validateAggregates(Map<String, String> aggregates) {
+        if (aggregates == null) {
+            return null;
+        }
+        for (Map.Entry<String, String> aggregate : aggregates.entrySet()) {
+            try {
+                Grouping.parseFunction(aggregate.getKey(), aggregate.getValue());
+            } catch (IllegalArgumentException e) {
+                return e.getMessage();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Verifica se a seção tem agrupamento ou agregações.
+     */
+    public static boolean isGrouped(Section section) {
+        return (section.getGroupBy() != null && !section.getGroupBy().isEmpty())
+                || (section.getAggregates() != null && !section.getAggregates().isEmpty());
+    }
+
+    /**
+     * Linhas da seção com os cabeçalhos de grupo, subtotais e total geral, calculadas à medida que
+     * são percorridas.
+     *
+     * @throws IllegalArgumentException Quando uma agregação não é sum, count, avg, min ou max
+     */
+    public static Iterable<GroupedRow> rows(Section section) {
+        Grouping grouping = new Grouping(section);
+        return () -> grouping.new RowIterator();
+    }
+
+    /**
+     * Configuração resolvida da seção, validada antes da primeira linha.
+     */
+    private static final class Grouping {
+        private final List<Map<String, Object>> data;
+        private final String[] groupColumns;
+        private final String[] groupTitles;
+        private final String[] aggregateColumns;
+        private final Function[] functions;
+        // Coluna com formato INTEGER: soma, mínimo e máximo saem como Long
+        private final boolean[] integral;
+        private final String labelColumn;
+        private final boolean grandTotal;
+
+        private Grouping(Section section) {
+            this.data = section.getData() != null ? section.getData() : List.of();
+            this.groupColumns = section.getGroupBy() != null
+                    ? section.getGroupBy().toArray(new String[0]) : new String[0];
+            this.groupTitles = new String[groupColumns.length];
+            for (int i = 0; i < groupColumns.length; i++) {
+                groupTitles[i] = section.getColumnTitle(groupColumns[i]);
+            }
+
+            Map<String, String> aggregates = section.getAggregates() != null ? section.getAggregates() : Map.of();
+            this.aggregateColumns = aggregates.keySet().toArray(new String[0]);
+            this.functions = new Function[aggregateColumns.length];
+            for (int i = 0; i < aggregateColumns.length; i++) {
+                functions[i] = parseFunction(aggregateColumns[i], aggregates.get(aggregateColumns[i]));
+            }
+
+            this.integral = new boolean[aggregateColumns.length];
+            for (int c = 0; c < aggregateColumns.length; c++) {
+                Style style = TableStyleHelper.getColumnStyle(section.getColumnStyles(), aggregateColumns[c]);
+                integral[c] = style != null && "INTEGER".equalsIgnoreCase(style.getFormat());
+            }
+
+            String label = null;
+            for (String columnId : section.getColumnIds()) {
+                if (!aggregates.containsKey(columnId)) {
+                    label = columnId;
+                    break;
+                }
+            }
+            this.labelColumn = label;
+            this.grandTotal = aggregateColumns.length > 0 && !Boolean.FALSE.equals(section.getShowGrandTotal());
+        }
+
+        private static Function parseFunction(String column, String function) {
+            try {
+                return Function.valueOf(Objects.requireNonNull(function).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Agregação inválida na coluna " + column + ": " + function
+                        + " (valores aceitos: sum, count, avg, min, max)");
+            }
+        }
+
+        /**
+         * Percorre as linhas emitindo os cabeçalhos e subtotais. Cada iteração tem os seus acumuladores.
+         */
+        private final class RowIterator implements Iterator<GroupedRow> {
+
+            // Índice 0: total geral; índice l: grupo de nível l
+            private final double[][] sums;
+            private final double[][] compensations;
+            private final double[][] mins;
+            private final double[][] maxs;
+            private final long[][] counts;
+            private final long[][] numericCounts;
+
+            private final Object[] currentKeys = new Object[groupColumns.length];
+            private final ArrayDeque<GroupedRow> pending = new ArrayDeque<>();
+            private int next;
+            private boolean started;
+            private boolean finished;
+
+            private RowIterator() {
+                int levels = groupColumns.length + 1;
+                int columns = aggregateColumns.length;
+                sums = new double[levels][columns];
+                compensations = new double[levels][columns];
+                mins = new double[levels][columns];
+                maxs = new double[levels][columns];
+                counts = new long[levels][columns];
+                numericCounts = new long[levels][columns];
+                for (int level = 0; level < levels; level++) {
+                    reset(level);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                while (pending.isEmpty() && !finished) {
+                    advance();
+                }
+                return !pending.isEmpty();
+            }
+
+            @Override
+            public GroupedRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return pending.poll();
+            }
+
+            private void advance() {
+                if (next >= data.size()) {
+                    finished = true;
+                    if (started) {
+                        closeGroups(0);
+                        if (grandTotal) {
+                            pending.add(new GroupedRow(RowKind.GRAND_TOTAL, 0, totals(0, "Total geral"), "Total geral"));
+                        }
+                    }
+                    return;
+                }
+
+                Map<String, Object> row = data.get(next++);
+                if (row == null) {
+                    // Linha vazia (espaçamento) não participa dos grupos
+                    pending.add(new GroupedRow(RowKind.DATA, 0, null, null));
+                    return;
+                }
+
+                int changed = groupColumns.length;
+                for (int i = 0; i < groupColumns.length; i++) {
+                    if (!started || !Objects.equals(row.get(groupColumns[i]), currentKeys[i])) {
+                        changed = i;
+                        break;
+                    }
+                }
+                if (started) {
+                    closeGroups(changed);
+                }
+                for (int i = changed; i < groupColumns.length; i++) {
+                    currentKeys[i] = row.get(groupColumns[i]);
+                    reset(i + 1);
+                    pending.add(new GroupedRow(RowKind.GROUP_HEADER, i + 1, null,
+                            groupTitles[i] + ": " + keyText(currentKeys[i])));
+                }
+                started = true;
+
+                accumulate(groupColumns.length, row);
+                pending.add(new GroupedRow(RowKind.DATA, 0, row, null));
+            }
+
+            /**
+             * Fecha os grupos abaixo de {@code changed}, do mais interno para o mais externo.
+             */
+            private void closeGroups(int changed) {
+                for (int level = groupColumns.length; level > changed; level--) {
+                    if (aggregateColumns.length > 0) {
+                        String label = "Total " + keyText(currentKeys[level - 1]);
+                        pending.add(new GroupedRow(RowKind.SUBTOTAL, level, totals(level, label), label));
+                    }
+                    mergeInto(level, level - 1);
+                }
+            }
+
+            private void accumulate(int level, Map<String, Object> row) {
+                for (int c = 0; c < aggregateColumns.length; c++) {
+                    Object value = row.get(aggregateColumns[c]);
+                    if (value == null || "".equals(value)) {
+                        continue;
+                    }
+                    counts[level][c]++;
+
+                    double number;
+                    if (value instanceof Number n) {
+                        number = n.doubleValue();
+                    } else {
+                        number = parse(value.toString());
+                        if (Double.isNaN(number)) {
+                            // Texto não numérico: entra apenas na contagem
+                            continue;
+                        }
+                    }
+                    add(level, c, number);
+                    numericCounts[level][c]++;
+                    if (number < mins[level][c]) {
+                        mins[level][c] = number;
+                    }
+                    if (number > maxs[level][c]) {
+                        maxs[level][c] = number;
+                    }
+                }
+            }
+
+            private double parse(String text) {
+                try {
+                    return Double.parseDouble(text.trim());
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+
+            /**
+             * Soma compensada (Kahan-Babuska/Neumaier): valores monetários somados em milhares de
+             * linhas não acumulam erro de arredondamento visível no subtotal.
+             */
+            private void add(int level, int column, double value) {
+                double sum = sums[level][column];
+                double total = sum + value;
+                compensations[level][column] += Math.abs(sum) >= Math.abs(value)
+                        ? (sum - total) + value
+                        : (value - total) + sum;
+                sums[level][column] = total;
+            }
+
+            private void mergeInto(int from, int to) {
+                for (int c = 0; c < aggregateColumns.length; c++) {
+                    add(to, c, sums[from][c]);
+                    add(to, c, compensations[from][c]);
+                    counts[to][c] += counts[from][c];
+                    numericCounts[to][c] += numericCounts[from][c];
+                    mins[to][c] = Math.min(mins[to][c], mins[from][c]);
+                    maxs[to][c] = Math.max(maxs[to][c], maxs[from][c]);
+                }
+            }
+
+            private void reset(int level) {
+                Arrays.fill(sums[level], 0);
+                Arrays.fill(compensations[level], 0);
+                Arrays.fill(mins[level], Double.POSITIVE_INFINITY);
+                Arrays.fill(maxs[level], Double.NEGATIVE_INFINITY);
+                Arrays.fill(counts[level], 0);
+                Arrays.fill(numericCounts[level], 0);
+            }
+
+            private Map<String, Object> totals(int level, String label) {
+                Map<String, Object> values = new LinkedHashMap<>();
+                if (labelColumn != null) {
+                    values.put(labelColumn, label);
+                }
+                for (int c = 0; c < aggregateColumns.length; c++) {
+                    values.put(aggregateColumns[c], value(level, c));
+                }
+                return values;
+            }
+
+            private Object value(int level, int column) {
+                if (functions[column] == Function.COUNT) {
+                    return counts[level][column];
+                }
+                long numeric = numericCounts[level][column];
+                if (numeric == 0) {
+                    return null;
+                }
+                double result = switch (functions[column]) {
+                    case SUM -> sums[level][column] + compensations[level][column];
+                    case AVG -> (sums[level][column] + compensations[level][column]) / numeric;
+                    case MIN -> mins[level][column];
+                    case MAX -> maxs[level][column];
+                    case COUNT -> throw new IllegalStateException();
+                };
+                if (integral[column] && functions[column] != Function.AVG) {
+                    return Math.round(result);
+                }
+                return result;
+            }
+        }
+
+        private static String keyText(Object key) {
+            return key == null || "".equals(key) ? "(vazio)" : key.toString();
+        }
+    }
+}
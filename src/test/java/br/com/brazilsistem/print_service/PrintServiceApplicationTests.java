@@ -3,7 +3,7 @@ package br.com.brazilsistem.print_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "print-service.warmup.enabled=false")
 class PrintServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,32 @@
+package br.com.brazilsistem.print_service.config;
+
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Verifica que os tipos de relatório acima do limite são agrupados em reportType=other, em todas as
+ * métricas de renderização, em vez de descartados.
+ */
+class MetricsConfigTest {
+
+    @Test
+    void reportTypesBeyondTheLimitAreRecordedAsOther() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig().reportTypeCardinalityFilter(2));
+
+        registry.counter(RenderMetrics.RENDER_TIMER, "reportType", "vendas").increment();
+        registry.counter(RenderMetrics.PHASE_TIMER, "reportType", "estoque").increment();
+        registry.counter(RenderMetrics.OUTPUT_PAGES, "reportType", "financeiro").increment();
+        registry.counter(RenderMetrics.TABLE_ROWS, "reportType", "fiscal").increment();
+        registry.counter(RenderMetrics.RENDER_TIMER, "reportType", "vendas").increment();
+
+        assertEquals(2.0, registry.get(RenderMetrics.RENDER_TIMER).tag("reportType", "vendas").counter().count());
+        assertNotNull(registry.get(RenderMetrics.PHASE_TIMER).tag("reportType", "estoque").counter());
+        assertEquals(1.0, registry.get(RenderMetrics.OUTPUT_PAGES).tag("reportType", "other").counter().count());
+        assertEquals(1.0, registry.get(RenderMetrics.TABLE_ROWS).tag("reportType", "other").counter().count());
+    }
+}
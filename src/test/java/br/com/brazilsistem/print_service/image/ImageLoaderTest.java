@@ -0,0 +1,127 @@
+package br.com.brazilsistem.print_service.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica a redução, a rotação EXIF e o limite de pixels das imagens, decodificadas e codificadas
+ * sem AWT.
+ */
+class ImageLoaderTest {
+
+    // 72 dpi: a largura alvo em pixels é igual à largura de exibição em pontos
+    private final ImageLoader loader = new ImageLoader(72, 0.8f, 65536, 1_000_000, "", 1 << 20);
+
+    @Test
+    void downscalesJpegToDisplayWidth() throws IOException {
+        byte[] jpeg = JpegEncoder.encode(gradient(400, 200, 3), 0.9f);
+
+        ProcessedImage image = loader.load(base64(jpeg), 100);
+
+        assertEquals(100, image.width());
+        assertEquals(50, image.height());
+        JpegDecoder decoded = new JpegDecoder(image.bytes());
+        assertEquals(100, decoded.getWidth());
+        assertEquals(50, decoded.getHeight());
+        assertSame(image, loader.load(base64(jpeg), 100));
+    }
+
+    @Test
+    void decodesItsOwnJpegCloseToTheSource() throws IOException {
+        RasterImage source = gradient(64, 48, 3);
+        JpegDecoder decoder = new JpegDecoder(JpegEncoder.encode(source, 0.95f));
+        ImageScaler scaler = new ImageScaler(64, 48, 3, 64, 48);
+        decoder.decode(1, scaler);
+
+        byte[] pixels = scaler.result().pixels();
+        long error = 0;
+        for (int i = 0; i < pixels.length; i++) {
+            error += Math.abs((pixels[i] & 0xFF) - (source.pixels()[i] & 0xFF));
+        }
+        // Inclui a perda da subamostragem 4:2:0 da crominância
+        assertTrue(error / (double) pixels.length < 6, "Erro médio por amostra: " + error / (double) pixels.length);
+    }
+
+    @Test
+    void appliesExifOrientation() throws IOException {
+        byte[] jpeg = withOrientation(JpegEncoder.encode(gradient(300, 100, 3), 0.8f), 6);
+
+        ProcessedImage image = loader.load(base64(jpeg), 50);
+
+        // Orientação 6: girada 90 graus, a altura original passa a ser a largura exibida
+        assertEquals(50, image.width());
+        assertEquals(150, image.height());
+    }
+
+    @Test
+    void keepsTransparencyAsPng() throws IOException {
+        byte[] png = PngEncoder.encode(gradient(300, 150, 4));
+
+        ProcessedImage image = loader.load("data:image/png;base64," + base64(png), 100);
+
+        assertTrue(PngDecoder.isPng(image.bytes()));
+        PngDecoder decoded = new PngDecoder(image.bytes());
+        assertEquals(100, decoded.getWidth());
+        assertEquals(4, decoded.getComponents());
+    }
+
+    @Test
+    void rejectsImagesLargerThanMaxPixelsBeforeDecoding() {
+        // Cabeçalho de 20000x20000 sem dados de imagem válidos: a recusa vem das dimensões
+        byte[] png = PngEncoder.encode(new RasterImage(1, 1, 1, new byte[1]));
+        png[16] = 0;
+        png[17] = 0;
+        png[18] = 0x4E;
+        png[19] = 0x20;
+        png[20] = 0;
+        png[21] = 0;
+        png[22] = 0x4E;
+        png[23] = 0x20;
+
+        IOException error = assertThrows(IOException.class, () -> loader.load(base64(png), 100));
+        assertTrue(error.getMessage().contains("20000x20000"), error.getMessage());
+    }
+
+    private static RasterImage gradient(int width, int height, int components) {
+        byte[] pixels = new byte[width * height * components];
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                for (int c = 0; c < components; c++) {
+                    pixels[i++] = (byte) (c == 3 ? 128 + x % 128 : (x * 255 / width + y * c) & 0xFF);
+                }
+            }
+        }
+        return new RasterImage(width, height, components, pixels);
+    }
+
+    /**
+     * Insere um segmento APP1 (EXIF, little-endian) com a tag de orientação logo após o SOI.
+     */
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] exif = {'E', 'x', 'i', 'f', 0, 0, 'I', 'I', 42, 0, 8, 0, 0, 0,
+                1, 0, 0x12, 0x01, 3, 0, 1, 0, 0, 0, (byte) orientation, 0, 0, 0, 0, 0, 0, 0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0xFF);
+        out.write(0xD8);
+        out.write(0xFF);
+        out.write(0xE1);
+        out.write((exif.length + 2) >> 8);
+        out.write((exif.length + 2) & 0xFF);
+        out.writeBytes(exif);
+        out.write(jpeg, 2, jpeg.length - 2);
+        return out.toByteArray();
+    }
+
+    private static String base64(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,155 @@
+package br.com.brazilsistem.print_service.jobs;
+
+import br.com.brazilsistem.print_service.model.RenderJob;
+import br.com.brazilsistem.print_service.model.RenderJobStatus;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.output.MemoryRenderOutput;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simula vários nós sobre o mesmo diretório: cada job é executado por um único nó, um job com lease
+ * expirado é retomado por outro nó e o job falho após todas as tentativas fica em FAILED.
+ */
+class SharedDirectoryJobQueueTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void eachJobIsClaimedByOneNode() throws Exception {
+        JobQueue submitter = queue(30000, 3);
+        int jobs = 40;
+        for (int i = 0; i < jobs; i++) {
+            submitter.submit(job("relatorio " + i));
+        }
+
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?>[] nodes = new Future<?>[4];
+            for (int n = 0; n < nodes.length; n++) {
+                JobQueue node = queue(30000, 3);
+                String owner = "node-" + n;
+                nodes[n] = executor.submit(() -> {
+                    JobLease lease;
+                    while ((lease = node.claim(owner)) != null) {
+                        assertTrue(claimed.add(lease.job().getId()), "Job retirado por dois nós");
+                        try (RenderOutput output = output(lease.job().getId())) {
+                            assertTrue(node.complete(lease, output));
+                        }
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> node : nodes) {
+                node.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(jobs, claimed.size());
+        for (String id : claimed) {
+            assertEquals(RenderJobStatus.DONE, submitter.state(id).getStatus());
+            assertArrayEquals(id.getBytes(StandardCharsets.UTF_8),
+                    submitter.openResult(id).getInputStream().readAllBytes());
+        }
+    }
+
+    @Test
+    void expiredLeaseIsRetriedByAnotherNode() throws Exception {
+        JobQueue first = queue(100, 3);
+        JobQueue second = queue(100, 3);
+        RenderJob job = job("lease");
+        first.submit(job);
+
+        JobLease stale = first.claim("node-1");
+        assertNotNull(stale);
+        assertEquals(RenderJobStatus.RUNNING, second.state(job.getId()).getStatus());
+        assertNull(second.claim("node-2"));
+
+        // Sem heartbeat, o lease expira e o job volta para a fila
+        Thread.sleep(250);
+        JobLease retry = second.claim("node-2");
+        assertNotNull(retry);
+        assertEquals(2, retry.job().getAttempts());
+
+        // O nó original perdeu o lease: o documento dele é descartado
+        assertFalse(first.heartbeat(stale));
+        try (RenderOutput output = output("antigo")) {
+            assertFalse(first.complete(stale, output));
+        }
+        try (RenderOutput output = output("novo")) {
+            assertTrue(second.complete(retry, output));
+        }
+        assertArrayEquals("novo".getBytes(StandardCharsets.UTF_8),
+                first.openResult(job.getId()).getInputStream().readAllBytes());
+    }
+
+    @Test
+    void jobFailsAfterMaxAttempts() throws IOException {
+        JobQueue queue = queue(30000, 2);
+        RenderJob job = job("falha");
+        queue.submit(job);
+
+        queue.fail(queue.claim("node-1"), "erro 1");
+        assertEquals(RenderJobStatus.QUEUED, queue.state(job.getId()).getStatus());
+
+        // Recusa por falta de vaga não conta como tentativa
+        queue.requeue(queue.claim("node-1"));
+        assertEquals(1, queue.state(job.getId()).getAttempts());
+
+        queue.fail(queue.claim("node-1"), "erro 2");
+        assertEquals(RenderJobStatus.FAILED, queue.state(job.getId()).getStatus());
+        assertEquals("erro 2", queue.state(job.getId()).getError());
+        assertNull(queue.claim("node-1"));
+        assertNull(queue.openResult(job.getId()));
+        assertNull(queue.state("../pending/x"));
+    }
+
+    private JobQueue queue(long leaseMillis, int maxAttempts) throws IOException {
+        return new SharedDirectoryJobQueue(directory, leaseMillis, maxAttempts, 60000, objectMapper);
+    }
+
+    private static RenderJob job(String title) {
+        ReportData reportData = new ReportData();
+        reportData.setReportType("jobs");
+        reportData.setTitle(title);
+
+        RenderJob job = new RenderJob();
+        job.setId(RenderJob.newId());
+        job.setFormat("pdf");
+        job.setFilename(title + ".pdf");
+        job.setReportData(reportData);
+        job.setSubmittedAt(System.currentTimeMillis());
+        return job;
+    }
+
+    private static RenderOutput output(String content) throws IOException {
+        RenderOutput output = new MemoryRenderOutput(32);
+        output.getOutputStream().write(content.getBytes(StandardCharsets.UTF_8));
+        return output;
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.brazilsistem.print_service.output;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica o identificador pelo conteúdo, o reaproveitamento de documentos iguais, que um documento
+ * removido do armazenamento continua válido para as respostas em andamento e que pré-visualizações
+ * não são mantidas.
+ */
+class ArtifactStoreTest {
+
+    @Test
+    void identicalContentIsPublishedOnce() throws IOException {
+        ArtifactStore store = new ArtifactStore(true, 600, 1024, 1024, 30000, factory());
+        AtomicBoolean firstClosed = new AtomicBoolean();
+        AtomicBoolean secondClosed = new AtomicBoolean();
+
+        RenderOutput first = store.publish(output("documento", firstClosed), "application/pdf", "a.pdf");
+        RenderOutput second = store.publish(output("documento", secondClosed), "application/pdf", "a.pdf");
+        RenderOutput other = store.publish(output("outro", new AtomicBoolean()), "application/pdf", "b.pdf");
+
+        assertNotNull(first.getArtifactId());
+        assertEquals(first.getArtifactId(), second.getArtifactId());
+        assertNotEquals(first.getArtifactId(), other.getArtifactId());
+        assertEquals(2, store.size());
+        // A segunda saída, igual à primeira, é liberada imediatamente
+        assertTrue(secondClosed.get());
+
+        first.close();
+        second.close();
+        assertFalse(firstClosed.get());
+
+        ArtifactStore.OpenedArtifact opened = store.open(first.getArtifactId());
+        assertNotNull(opened);
+        assertEquals("a.pdf", opened.filename());
+        assertArrayEquals("documento".getBytes(StandardCharsets.UTF_8), opened.output().toByteArray());
+        opened.output().close();
+        assertNull(store.open("inexistente"));
+    }
+
+    @Test
+    void evictedArtifactStaysValidForOpenResponses() throws IOException {
+        ArtifactStore store = new ArtifactStore(true, 600, 12, 0, 30000, factory());
+        AtomicBoolean closed = new AtomicBoolean();
+
+        RenderOutput first = store.publish(output("primeiro", closed), "application/pdf", "a.pdf");
+        // Ultrapassa o limite de memória: o primeiro documento sai do armazenamento
+        RenderOutput second = store.publish(output("segundo", new AtomicBoolean()), "application/pdf", "b.pdf");
+
+        assertNull(store.open(first.getArtifactId()));
+        assertEquals(1, store.size());
+        assertFalse(closed.get());
+        assertArrayEquals("primeiro".getBytes(StandardCharsets.UTF_8), first.toByteArray());
+        first.close();
+        assertTrue(closed.get());
+        second.close();
+    }
+
+    @Test
+    void disabledStoreOnlyComputesTheIdentifier() throws IOException {
+        ArtifactStore store = new ArtifactStore(false, 600, 1024, 1024, 30000, factory());
+        AtomicBoolean closed = new AtomicBoolean();
+
+        RenderOutput output = store.publish(output("documento", closed), "application/pdf", "a.pdf");
+        assertNotNull(output.getArtifactId());
+        assertNull(store.open(output.getArtifactId()));
+        assertEquals(0, store.size());
+        output.close();
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void previewIsIdentifiedButNotKept() throws Exception {
+        ArtifactStore store = new ArtifactStore(true, 600, 1024, 1024, 30000, factory());
+        AtomicBoolean closed = new AtomicBoolean();
+
+        RenderOutput output = store.identify(output("prévia", closed));
+        // Identificador calculado durante a escrita: SHA-256 do conteúdo, 128 bits
+        byte[] sha256 = MessageDigest.getInstance("SHA-256").digest("prévia".getBytes(StandardCharsets.UTF_8));
+        assertEquals(HexFormat.of().formatHex(sha256, 0, 16), output.getArtifactId());
+        assertNull(store.open(output.getArtifactId()));
+        assertEquals(0, store.size());
+        output.close();
+        assertTrue(closed.get());
+        store.shutdown();
+    }
+
+    private static RenderOutput output(String content, AtomicBoolean closed) throws IOException {
+        RenderOutput output = new MemoryRenderOutput(32) {
+            @Override
+            public void close() {
+                closed.set(true);
+                super.close();
+            }
+        };
+        output.getOutputStream().write(content.getBytes(StandardCharsets.UTF_8));
+        return output;
+    }
+
+    private static RenderOutputFactory factory() {
+        return new RenderOutputFactory(-1, System.getProperty("java.io.tmpdir"), 48, false, 0.2, 100,
+                new SegmentPool(65536, 0, new SimpleMeterRegistry()));
+    }
+}
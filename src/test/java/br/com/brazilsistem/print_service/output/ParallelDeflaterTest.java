@@ -0,0 +1,84 @@
+package br.com.brazilsistem.print_service.output;
+
+import br.com.brazilsistem.print_service.interfaces.impl.TableSectionRenderer;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.util.SyntheticReportGenerator;
+import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfName;
+import com.itextpdf.kernel.pdf.PdfPage;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.layout.Document;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que os content streams comprimidos em paralelo, página a página durante a renderização,
+ * são idênticos, byte a byte, aos comprimidos pelo iText na gravação, no mesmo nível.
+ */
+class ParallelDeflaterTest {
+
+    @Test
+    void parallelDeflateMatchesSerialCompression() throws IOException {
+        for (int level : new int[]{1, -1, 9}) {
+            byte[] serial = render(level, null);
+            // Janela de 2 páginas: as demais são gravadas durante a renderização
+            ParallelDeflater deflater = new ParallelDeflater(true, 4, 2, 0);
+            try {
+                byte[] parallel = render(level, deflater);
+                assertSameContentStreams(serial, parallel);
+            } finally {
+                deflater.shutdown();
+            }
+        }
+    }
+
+    private static byte[] render(int level, ParallelDeflater deflater) throws IOException {
+        SyntheticReportGenerator.Spec spec = new SyntheticReportGenerator.Spec();
+        spec.setRows(2000);
+        Section section = SyntheticReportGenerator.generate(spec).getSections().get(0);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PdfDocument pdfDoc = new PdfDocument(new PdfWriter(output, new WriterProperties().setCompressionLevel(level)));
+        Document document = new Document(pdfDoc, PageSize.A4, true);
+        if (deflater != null) {
+            deflater.attach(document);
+        }
+        new TableSectionRenderer().renderSectionContent(document, section);
+        if (deflater != null) {
+            // Todas as páginas passam pelo pool, não só as abertas no fechamento
+            int pages = pdfDoc.getNumberOfPages();
+            assertTrue(pages > 2);
+            assertTrue(deflater.finish(document) >= pages);
+        }
+        document.close();
+        return output.toByteArray();
+    }
+
+    private static void assertSameContentStreams(byte[] expected, byte[] actual) throws IOException {
+        try (PdfDocument expectedDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(expected)));
+             PdfDocument actualDoc = new PdfDocument(new PdfReader(new ByteArrayInputStream(actual)))) {
+            assertEquals(expectedDoc.getNumberOfPages(), actualDoc.getNumberOfPages());
+            for (int pageNum = 1; pageNum <= expectedDoc.getNumberOfPages(); pageNum++) {
+                PdfPage expectedPage = expectedDoc.getPage(pageNum);
+                PdfPage actualPage = actualDoc.getPage(pageNum);
+                assertEquals(expectedPage.getContentStreamCount(), actualPage.getContentStreamCount());
+                for (int index = 0; index < expectedPage.getContentStreamCount(); index++) {
+                    assertEquals(PdfName.FlateDecode, actualPage.getContentStream(index).getAsName(PdfName.Filter));
+                    assertArrayEquals(expectedPage.getContentStream(index).getBytes(false),
+                            actualPage.getContentStream(index).getBytes(false),
+                            "página " + pageNum + ", stream " + index);
+                }
+            }
+        }
+    }
+}
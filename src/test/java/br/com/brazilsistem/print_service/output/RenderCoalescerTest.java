@@ -0,0 +1,212 @@
+package br.com.brazilsistem.print_service.output;
+
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que requisições idênticas simultâneas compartilham uma única renderização, que o documento
+ * só é liberado após a última resposta e que o erro da primeira requisição chega às demais.
+ */
+class RenderCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RenderCoalescer coalescer = new RenderCoalescer(true, 10000, factory(), registry);
+
+    @Test
+    void identicalConcurrentRequestsShareOneRender() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        AtomicBoolean closed = new AtomicBoolean();
+        RenderCoalescer.Renderer renderer = data -> {
+            renders.incrementAndGet();
+            await(release);
+            return output("documento", closed);
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            CompletableFuture<RenderOutput> leader = submit(executor, report("a"), renderer);
+            awaitTrue(() -> renders.get() == 1);
+            CompletableFuture<RenderOutput> follower1 = submit(executor, report("a"), renderer);
+            CompletableFuture<RenderOutput> follower2 = submit(executor, report("a"), renderer);
+            // Dá tempo para as requisições idênticas se juntarem à primeira
+            Thread.sleep(100);
+            release.countDown();
+
+            RenderOutput first = leader.get(5, TimeUnit.SECONDS);
+            RenderOutput second = follower1.get(5, TimeUnit.SECONDS);
+            RenderOutput third = follower2.get(5, TimeUnit.SECONDS);
+            assertEquals(1, renders.get());
+            assertArrayEquals(first.toByteArray(), second.toByteArray());
+            assertArrayEquals(first.toByteArray(), third.toByteArray());
+            assertEquals(2.0, registry.get(RenderCoalescer.COALESCED_COUNTER).counter().count());
+
+            // A primeira resposta termina (ou o cliente desconecta) antes das demais
+            first.close();
+            second.close();
+            assertFalse(closed.get());
+            assertArrayEquals("documento".getBytes(StandardCharsets.UTF_8), third.toByteArray());
+            third.close();
+            assertTrue(closed.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void leaderFailureReachesFollowersAndIsNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("falha");
+        RenderCoalescer.Renderer failing = data -> {
+            renders.incrementAndGet();
+            await(release);
+            throw failure;
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<RenderOutput> leader = submit(executor, report("b"), failing);
+            awaitTrue(() -> renders.get() == 1);
+            CompletableFuture<RenderOutput> follower = submit(executor, report("b"), failing);
+            Thread.sleep(100);
+            release.countDown();
+
+            Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertSame(failure, leaderError.getCause());
+            assertSame(failure, followerError.getCause());
+            assertEquals(1, renders.get());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        AtomicBoolean closed = new AtomicBoolean();
+        try (RenderOutput output = coalescer.render("pdf", report("b"), data -> output("novo", closed))) {
+            assertArrayEquals("novo".getBytes(StandardCharsets.UTF_8), output.toByteArray());
+        }
+    }
+
+    @Test
+    void rowKeyOrderIsIgnoredButColumnOrderIsNot() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger renders = new AtomicInteger();
+        RenderCoalescer.Renderer renderer = data -> {
+            renders.incrementAndGet();
+            await(release);
+            return output(data.getSections().get(0).getColumnIds().toString(), new AtomicBoolean());
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            CompletableFuture<RenderOutput> leader = submit(executor, table("c", List.of("a", "b"), List.of("a", "b")), renderer);
+            awaitTrue(() -> renders.get() == 1);
+            // Mesmas linhas com as chaves em outra ordem: mesmo documento
+            CompletableFuture<RenderOutput> sameRows = submit(executor, table("c", List.of("a", "b"), List.of("b", "a")), renderer);
+            // Colunas em outra ordem: documento diferente
+            CompletableFuture<RenderOutput> otherColumns = submit(executor, table("c", List.of("b", "a"), List.of("a", "b")), renderer);
+            awaitTrue(() -> renders.get() == 2);
+            Thread.sleep(100);
+            release.countDown();
+
+            try (RenderOutput first = leader.get(5, TimeUnit.SECONDS);
+                 RenderOutput second = sameRows.get(5, TimeUnit.SECONDS);
+                 RenderOutput third = otherColumns.get(5, TimeUnit.SECONDS)) {
+                assertEquals(2, renders.get());
+                assertArrayEquals(first.toByteArray(), second.toByteArray());
+                assertArrayEquals("[b, a]".getBytes(StandardCharsets.UTF_8), third.toByteArray());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<RenderOutput> submit(ExecutorService executor, ReportData reportData,
+                                                   RenderCoalescer.Renderer renderer) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return coalescer.render("pdf", reportData, renderer);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }, executor);
+    }
+
+    private static ReportData report(String title) {
+        ReportData reportData = new ReportData();
+        reportData.setReportType("coalescing");
+        reportData.setTitle(title);
+        return reportData;
+    }
+
+    private static ReportData table(String title, List<String> columnOrder, List<String> rowKeyOrder) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columnOrder.forEach(column -> columns.put(column, column.toUpperCase()));
+        Map<String, Object> row = new LinkedHashMap<>();
+        rowKeyOrder.forEach(column -> row.put(column, column + "1"));
+
+        Section section = new Section();
+        section.setType("table");
+        section.setColumns(columns);
+        section.setData(List.of(row));
+        ReportData reportData = report(title);
+        reportData.setSections(List.of(section));
+        return reportData;
+    }
+
+    private static RenderOutput output(String content, AtomicBoolean closed) throws IOException {
+        RenderOutput output = new MemoryRenderOutput(32) {
+            @Override
+            public void close() {
+                closed.set(true);
+                super.close();
+            }
+        };
+        output.getOutputStream().write(content.getBytes(StandardCharsets.UTF_8));
+        return output;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static RenderOutputFactory factory() {
+        return new RenderOutputFactory(-1, System.getProperty("java.io.tmpdir"), 48, false, 0.2, 100,
+                new SegmentPool(65536, 0, new SimpleMeterRegistry()));
+    }
+}
@@ -0,0 +1,163 @@
+package br.com.brazilsistem.print_service.scheduling;
+
+import br.com.brazilsistem.print_service.exception.RenderRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica a reserva de vagas para renderizações interativas, a divisão das vagas pelos pesos,
+ * o limite por tenant e que exportações em massa não ocupam todas as threads de requisição.
+ */
+class RenderSchedulerTest {
+
+    @Test
+    void interactiveUsesReservedSlotWhileBulkWaits() throws Exception {
+        RenderScheduler scheduler = scheduler(2, 1, "", 200);
+        try (RenderScheduler.Permit bulk = scheduler.acquire(RenderPriority.BULK, "a")) {
+            CompletableFuture<RenderScheduler.Permit> waitingBulk =
+                    CompletableFuture.supplyAsync(() -> scheduler.acquire(RenderPriority.BULK, "a"));
+            awaitQueued(scheduler, RenderPriority.BULK, 1);
+
+            try (RenderScheduler.Permit interactive = scheduler.acquire(RenderPriority.INTERACTIVE, "a")) {
+                assertEquals(2, scheduler.running());
+                assertFalse(waitingBulk.isDone());
+            }
+            assertFalse(waitingBulk.isDone());
+
+            bulk.close();
+            waitingBulk.get(5, TimeUnit.SECONDS).close();
+        }
+        assertEquals(0, scheduler.running());
+    }
+
+    @Test
+    void freedSlotsFollowClassWeights() throws Exception {
+        RenderScheduler scheduler = scheduler(1, 0, "", 200);
+        RenderScheduler.Permit holder = scheduler.acquire(RenderPriority.STANDARD, "a");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<RenderPriority> order = new ArrayList<>();
+        List<CompletableFuture<Void>> waiting = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            for (RenderPriority priority : new RenderPriority[]{RenderPriority.BULK, RenderPriority.INTERACTIVE}) {
+                waiting.add(CompletableFuture.runAsync(() -> {
+                    try (RenderScheduler.Permit permit = scheduler.acquire(priority, "a")) {
+                        synchronized (order) {
+                            order.add(permit.priority());
+                        }
+                    }
+                }, executor));
+            }
+        }
+        awaitQueued(scheduler, RenderPriority.BULK, 4);
+        awaitQueued(scheduler, RenderPriority.INTERACTIVE, 4);
+
+        holder.close();
+        CompletableFuture.allOf(waiting.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Peso 8 contra 1: as interativas são atendidas antes das exportações em espera
+        assertEquals(List.of(RenderPriority.INTERACTIVE, RenderPriority.INTERACTIVE, RenderPriority.INTERACTIVE,
+                RenderPriority.INTERACTIVE, RenderPriority.BULK, RenderPriority.BULK, RenderPriority.BULK,
+                RenderPriority.BULK), order);
+    }
+
+    @Test
+    void tenantLimitDoesNotBlockOtherTenants() throws Exception {
+        RenderScheduler scheduler = scheduler(4, 0, "a=1", 200);
+        try (RenderScheduler.Permit first = scheduler.acquire(RenderPriority.STANDARD, "a")) {
+            CompletableFuture<RenderScheduler.Permit> second =
+                    CompletableFuture.supplyAsync(() -> scheduler.acquire(RenderPriority.STANDARD, "a"));
+            awaitQueued(scheduler, RenderPriority.STANDARD, 1);
+
+            try (RenderScheduler.Permit other = scheduler.acquire(RenderPriority.STANDARD, "b")) {
+                assertEquals(2, scheduler.running());
+            }
+            first.close();
+            second.get(5, TimeUnit.SECONDS).close();
+        }
+    }
+
+    @Test
+    void rejectsWhenWaitExpires() {
+        RenderScheduler scheduler = new RenderScheduler(new SimpleMeterRegistry(), true, 1, 0, 200, 0, 200, 50,
+                "", 0, "", "");
+        try (RenderScheduler.Permit holder = scheduler.acquire(RenderPriority.BULK, "a")) {
+            assertThrows(RenderRejectedException.class, () -> scheduler.acquire(RenderPriority.BULK, "a"));
+            assertEquals(0, scheduler.queued(RenderPriority.BULK));
+        }
+    }
+
+    @Test
+    void saturatedBulkLeavesRequestThreadsForInteractive() throws Exception {
+        // 8 threads de requisição, como um Tomcat pequeno: no máximo 4 STANDARD/BULK em espera
+        RenderScheduler scheduler = new RenderScheduler(new SimpleMeterRegistry(), true, 2, 1, 200, 0, 8, 10000,
+                "INTERACTIVE=8,STANDARD=3,BULK=1", 0, "", "");
+        ExecutorService requestThreads = Executors.newFixedThreadPool(8);
+        CountDownLatch finishBulk = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        try {
+            for (int i = 0; i < 20; i++) {
+                requestThreads.submit(() -> {
+                    try (RenderScheduler.Permit permit = scheduler.acquire(RenderPriority.BULK, "a")) {
+                        finishBulk.await(10, TimeUnit.SECONDS);
+                    } catch (RenderRejectedException e) {
+                        rejected.incrementAndGet();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+            // Uma exportação renderizando, 4 em espera e as demais recusadas, liberando as threads
+            awaitQueued(scheduler, RenderPriority.BULK, 4);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (rejected.get() < 15 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(15, rejected.get());
+
+            long start = System.nanoTime();
+            Future<Long> interactive = requestThreads.submit(() -> {
+                try (RenderScheduler.Permit permit = scheduler.acquire(RenderPriority.INTERACTIVE, "b")) {
+                    return System.nanoTime() - start;
+                }
+            });
+            long latency = interactive.get(5, TimeUnit.SECONDS);
+            assertTrue(latency < TimeUnit.SECONDS.toNanos(1), "Latência da pré-visualização: " + latency + " ns");
+            assertEquals(4, scheduler.queued(RenderPriority.BULK));
+        } finally {
+            finishBulk.countDown();
+            requestThreads.shutdown();
+            requestThreads.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static RenderScheduler scheduler(int slots, int reserved, String tenantLimits, int maxQueued) {
+        return new RenderScheduler(new SimpleMeterRegistry(), true, slots, reserved, maxQueued, 0, 200, 10000,
+                "INTERACTIVE=8,STANDARD=3,BULK=1", 0, tenantLimits, "");
+    }
+
+    private static void awaitQueued(RenderScheduler scheduler, RenderPriority priority, int count)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.queued(priority) < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, scheduler.queued(priority));
+    }
+}
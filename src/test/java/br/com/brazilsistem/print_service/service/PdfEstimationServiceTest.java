@@ -0,0 +1,93 @@
+package br.com.brazilsistem.print_service.service;
+
+import br.com.brazilsistem.print_service.metrics.RenderCostModel;
+import br.com.brazilsistem.print_service.metrics.TableVolume;
+import br.com.brazilsistem.print_service.model.PdfEstimate;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.util.SyntheticReportGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Verifica a extrapolação de páginas do {@link PdfEstimationService} a partir do layout das amostras.
+ * O layout é simulado com uma altura fixa mais uma altura por linha de tabela, de modo que o número
+ * de páginas esperado é conhecido.
+ */
+@ExtendWith(MockitoExtension.class)
+class PdfEstimationServiceTest {
+
+    private static final float FIXED_HEIGHT = 100f;
+    private static final float ROW_HEIGHT = 12f;
+    private static final float PAGE_CONTENT_HEIGHT = 800f;
+
+    @Mock
+    private PdfGenerationService pdfGenerationService;
+
+    private PdfEstimationService pdfEstimationService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(pdfGenerationService.collectSections(any())).thenCallRealMethod();
+        when(pdfGenerationService.layout(any())).thenAnswer(invocation -> {
+            ReportData sample = invocation.getArgument(0);
+            long rows = TableVolume.of(sample.getSections()).rows();
+            float height = FIXED_HEIGHT + ROW_HEIGHT * rows;
+            int pages = (int) Math.ceil(height / PAGE_CONTENT_HEIGHT);
+            return new PdfGenerationService.LayoutResult(pages, height, PAGE_CONTENT_HEIGHT, 1_000_000L);
+        });
+        // Modelo de custo próprio do teste, sem calibração
+        RenderCostModel renderCostModel = new RenderCostModel(48, 2048, 1.5, 0.2, 100);
+        pdfEstimationService = new PdfEstimationService(pdfGenerationService, renderCostModel, 200);
+    }
+
+    @Test
+    void smallReportIsLaidOutOnceWithoutSampling() throws IOException {
+        PdfEstimate estimate = pdfEstimationService.estimate(report(150));
+
+        // 100 + 12 x 150 = 1900 pontos
+        assertEquals(3, estimate.getPages());
+        assertFalse(estimate.isSampled());
+        verify(pdfGenerationService, times(1)).layout(any());
+    }
+
+    @Test
+    void largeReportExtrapolatesPagesFromTwoSamples() throws IOException {
+        PdfEstimate estimate = pdfEstimationService.estimate(report(10000));
+
+        // 100 + 12 x 10000 = 120100 pontos
+        assertEquals(151, estimate.getPages());
+        assertTrue(estimate.isSampled());
+        assertEquals(10000, estimate.getTableRows());
+        assertEquals(151 * 2048 + 10000 * 5 * 48, estimate.getBytes());
+        assertFalse(estimate.isCalibrated());
+
+        ArgumentCaptor<ReportData> samples = ArgumentCaptor.forClass(ReportData.class);
+        verify(pdfGenerationService, times(2)).layout(samples.capture());
+        List<Long> sampledRows = samples.getAllValues().stream()
+                .map(sample -> TableVolume.of(sample.getSections()).rows())
+                .toList();
+        assertEquals(List.of(100L, 200L), sampledRows);
+    }
+
+    private static ReportData report(int rows) {
+        SyntheticReportGenerator.Spec spec = new SyntheticReportGenerator.Spec();
+        spec.setReportType("estimate-test");
+        spec.setRows(rows);
+        return SyntheticReportGenerator.generate(spec);
+    }
+}
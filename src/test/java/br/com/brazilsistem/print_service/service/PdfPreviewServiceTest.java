@@ -0,0 +1,148 @@
+package br.com.brazilsistem.print_service.service;
+
+import br.com.brazilsistem.print_service.exception.PdfGenerationException;
+import br.com.brazilsistem.print_service.metrics.RenderMetrics;
+import br.com.brazilsistem.print_service.model.ReportData;
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.TemplateReference;
+import br.com.brazilsistem.print_service.output.RenderOutput;
+import br.com.brazilsistem.print_service.template.ReportTemplateRegistry;
+import br.com.brazilsistem.print_service.util.SyntheticReportGenerator;
+import com.itextpdf.kernel.pdf.PdfDocument;
+import com.itextpdf.kernel.pdf.PdfReader;
+import com.itextpdf.kernel.pdf.canvas.parser.PdfTextExtractor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica que a pré-visualização devolve apenas as páginas pedidas, com o rodapé de pré-visualização,
+ * e que as linhas renderizadas não crescem com o tamanho do relatório.
+ */
+@SpringBootTest(properties = "print-service.warmup.enabled=false")
+class PdfPreviewServiceTest {
+
+    @Autowired
+    private PdfPreviewService pdfPreviewService;
+
+    @Autowired
+    private ReportTemplateRegistry reportTemplateRegistry;
+
+    @Autowired
+    private RenderMetrics renderMetrics;
+
+    @Test
+    void returnsOnlyRequestedPages() throws IOException {
+        try (RenderOutput output = pdfPreviewService.generatePreview(report(5000), "2-3", null);
+             InputStream input = output.getInputStream();
+             PdfDocument pdfDoc = new PdfDocument(new PdfReader(input))) {
+            assertEquals(2, pdfDoc.getNumberOfPages());
+            String footer = PdfTextExtractor.getTextFromPage(pdfDoc.getPage(1));
+            assertTrue(footer.contains("Pré-visualização - Página 2 de"), footer);
+            // O total estimado é um XObject compartilhado, extraído separadamente do rótulo da página
+            Matcher total = Pattern.compile("~(\\d+)").matcher(footer);
+            assertTrue(total.find(), footer);
+            assertTrue(Integer.parseInt(total.group(1)) >= 3, footer);
+        }
+    }
+
+    @Test
+    void limitsRowsPerTable() throws IOException {
+        try (RenderOutput output = pdfPreviewService.generatePreview(report(5000), null, 10);
+             InputStream input = output.getInputStream();
+             PdfDocument pdfDoc = new PdfDocument(new PdfReader(input))) {
+            assertEquals(1, pdfDoc.getNumberOfPages());
+        }
+    }
+
+    @Test
+    void renderedRowsDoNotDependOnReportSize() throws IOException {
+        double small = renderedRows("preview-rows-small", 1000);
+        double large = renderedRows("preview-rows-large", 50000);
+
+        // As duas páginas pedidas já não comportam as 1000 linhas; o restante não chega a ser renderizado
+        assertTrue(small > 0 && small < 1000, "linhas renderizadas: " + small);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void rejectsInvalidRange() {
+        assertThrows(PdfGenerationException.class, () -> pdfPreviewService.generatePreview(report(10), "3-1", null));
+    }
+
+    @Test
+    void templateGroupingSurvivesResolveAndSampling() throws IOException {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("cliente", "Cliente");
+        columns.put("valor", "Valor");
+
+        Section layoutSection = new Section();
+        layoutSection.setType("table");
+        layoutSection.setColumns(columns);
+        layoutSection.setGroupBy(List.of("cliente"));
+        layoutSection.setAggregates(Map.of("valor", "sum"));
+
+        ReportData layout = new ReportData();
+        layout.setReportType("preview-grouping-test");
+        layout.setTitle("Vendas por cliente");
+        layout.setSections(List.of(layoutSection));
+        reportTemplateRegistry.register(layout);
+
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            data.add(Map.of("cliente", i < 50 ? "A" : "B", "valor", 1));
+        }
+        Section values = new Section();
+        values.setData(data);
+
+        ReportData request = new ReportData();
+        request.setReportType("preview-grouping-test");
+        request.setTemplate(new TemplateReference());
+        request.setSections(List.of(values));
+
+        // Template resolvido e amostra de 10 linhas: agrupamento e agregações preservados nas duas cópias
+        ReportData resolved = reportTemplateRegistry.resolve(request);
+        assertEquals(List.of("cliente"), resolved.getSections().get(0).getGroupBy());
+
+        try (RenderOutput output = pdfPreviewService.generatePreview(resolved, "1", 10);
+             InputStream input = output.getInputStream();
+             PdfDocument pdfDoc = new PdfDocument(new PdfReader(input))) {
+            String text = PdfTextExtractor.getTextFromPage(pdfDoc.getPage(1));
+            assertTrue(text.contains("Cliente: A"), text);
+            assertTrue(text.contains("Total A"), text);
+            assertTrue(text.contains("Total geral"), text);
+        }
+    }
+
+    /**
+     * Linhas de tabela renderizadas na pré-visualização das duas primeiras páginas, lidas da métrica.
+     */
+    private double renderedRows(String reportType, int rows) throws IOException {
+        ReportData report = report(rows);
+        report.setReportType(reportType);
+        try (RenderOutput ignored = pdfPreviewService.generatePreview(report, "1-2", null)) {
+            return renderMetrics.getRegistry().get(RenderMetrics.TABLE_ROWS)
+                    .tag("reportType", reportType).summary().totalAmount();
+        }
+    }
+
+    private static ReportData report(int rows) {
+        SyntheticReportGenerator.Spec spec = new SyntheticReportGenerator.Spec();
+        spec.setReportType("preview-test");
+        spec.setRows(rows);
+        return SyntheticReportGenerator.generate(spec);
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.brazilsistem.print_service.util;
+
+import br.com.brazilsistem.print_service.model.Section;
+import br.com.brazilsistem.print_service.model.Style;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifica a ordem das linhas emitidas (cabeçalhos, dados, subtotais e total geral) e os valores
+ * agregados em dois níveis de agrupamento.
+ */
+class TableGroupingTest {
+
+    @Test
+    void emitsHeadersSubtotalsAndGrandTotalInOnePass() {
+        Section section = section(List.of("cliente", "mes"), Map.of("quantidade", "sum", "valor", "avg"));
+        section.setColumnStyles(Map.of("quantidade", integerFormat()));
+        section.setData(Arrays.asList(
+                row("A", "jan", 1, 10.0),
+                row("A", "jan", 2, 20.0),
+                row("A", "fev", 3, 30.0),
+                null,
+                row("B", "jan", 4, 40.0)));
+
+        List<String> kinds = new ArrayList<>();
+        List<TableGrouping.GroupedRow> rows = new ArrayList<>();
+        for (TableGrouping.GroupedRow row : TableGrouping.rows(section)) {
+            kinds.add(row.kind() + (row.level() > 0 ? "" + row.level() : ""));
+            rows.add(row);
+        }
+
+        assertEquals(List.of(
+                "GROUP_HEADER1", "GROUP_HEADER2", "DATA", "DATA", "SUBTOTAL2",
+                "GROUP_HEADER2", "DATA", "DATA", "SUBTOTAL2", "SUBTOTAL1",
+                "GROUP_HEADER1", "GROUP_HEADER2", "DATA", "SUBTOTAL2", "SUBTOTAL1",
+                "GRAND_TOTAL"), kinds);
+
+        assertEquals("Cliente: A", rows.get(0).label());
+        // Subtotal de A/jan: quantidade com formato INTEGER sai como Long, e o rótulo ocupa a primeira coluna sem agregação
+        Map<String, Object> janA = rows.get(4).values();
+        assertEquals(3L, janA.get("quantidade"));
+        assertEquals(15.0, janA.get("valor"));
+        assertEquals("Total jan", janA.get("cliente"));
+
+        Map<String, Object> clientA = rows.get(9).values();
+        assertEquals(6L, clientA.get("quantidade"));
+        assertEquals(20.0, clientA.get("valor"));
+
+        Map<String, Object> total = rows.get(15).values();
+        assertEquals(10L, total.get("quantidade"));
+        assertEquals(25.0, total.get("valor"));
+        assertEquals("Total geral", total.get("cliente"));
+    }
+
+    @Test
+    void countsNonNumericValuesAndSumsWithoutRoundingDrift() {
+        Section section = section(List.of(), Map.of("valor", "sum", "mes", "count"));
+        List<Map<String, Object>> data = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            data.add(row("A", i % 2 == 0 ? "jan" : "", 0, 0.1));
+        }
+        section.setData(data);
+
+        TableGrouping.GroupedRow last = null;
+        for (TableGrouping.GroupedRow row : TableGrouping.rows(section)) {
+            last = row;
+        }
+
+        assertEquals(TableGrouping.RowKind.GRAND_TOTAL, last.kind());
+        assertEquals(1000.0, last.values().get("valor"));
+        // Valores vazios não entram na contagem
+        assertEquals(5000L, last.values().get("mes"));
+    }
+
+    @Test
+    void groupingWithoutAggregatesEmitsOnlyHeaders() {
+        Section section = section(List.of("cliente"), null);
+        section.setData(List.of(row("A", "jan", 1, 1.0), row("B", "jan", 2, 2.0)));
+
+        List<TableGrouping.RowKind> kinds = new ArrayList<>();
+        TableGrouping.rows(section).forEach(row -> kinds.add(row.kind()));
+
+        assertEquals(List.of(TableGrouping.RowKind.GROUP_HEADER, TableGrouping.RowKind.DATA,
+                TableGrouping.RowKind.GROUP_HEADER, TableGrouping.RowKind.DATA), kinds);
+    }
+
+    @Test
+    void rejectsUnknownAggregate() {
+        Section section = section(List.of(), Map.of("valor", "median"));
+        section.setData(List.of(row("A", "jan", 1, 1.0)));
+
+        assertThrows(IllegalArgumentException.class, () -> TableGrouping.rows(section));
+        assertEquals("Agregação inválida na coluna valor: median (valores aceitos: sum, count, avg, min, max)",
+                TableGrouping.validateAggregates(section.getAggregates()));
+        assertNull(TableGrouping.validateAggregates(Map.of("valor", " SUM ")));
+    }
+
+    @Test
+    void columnTypeComesFromTheColumnFormat() {
+        Section section = section(List.of("cliente"), Map.of("quantidade", "sum"));
+        Map<String, Object> decimal = row("B", "jan", 0, 0.0);
+        decimal.put("quantidade", 2.5);
+        section.setData(List.of(row("A", "jan", 1, 0.0), row("A", "jan", 2, 0.0), decimal));
+
+        List<Object> subtotals = new ArrayList<>();
+        for (TableGrouping.GroupedRow row : TableGrouping.rows(section)) {
+            if (row.kind() != TableGrouping.RowKind.DATA && row.kind() != TableGrouping.RowKind.GROUP_HEADER) {
+                subtotals.add(row.values().get("quantidade"));
+            }
+        }
+
+        // Sem formato INTEGER a coluna é agregada como Double em todos os subtotais
+        assertEquals(List.of(3.0, 2.5, 5.5), subtotals);
+    }
+
+    @Test
+    void sectionWithoutGroupingKeepsRows() {
+        Section section = section(null, null);
+        section.setData(List.of(row("A", "jan", 1, 1.0)));
+
+        List<TableGrouping.GroupedRow> rows = new ArrayList<>();
+        TableGrouping.rows(section).forEach(rows::add);
+
+        assertEquals(1, rows.size());
+        assertEquals(TableGrouping.RowKind.DATA, rows.get(0).kind());
+        assertNull(rows.get(0).label());
+    }
+
+    private static Section section(List<String> groupBy, Map<String, String> aggregates) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("cliente", "Cliente");
+        columns.put("mes", "Mês");
+        columns.put("quantidade", "Quantidade");
+        columns.put("valor", "Valor");
+
+        Section section = new Section();
+        section.setType("table");
+        section.setColumns(columns);
+        section.setGroupBy(groupBy);
+        section.setAggregates(aggregates);
+        return section;
+    }
+
+    private static Style integerFormat() {
+        Style style = new Style();
+        style.setFormat("INTEGER");
+        return style;
+    }
+
+    private static Map<String, Object> row(String client, String month, int quantity, double value) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("cliente", client);
+        row.put("mes", month);
+        row.put("quantidade", quantity);
+        row.put("valor", value);
+        return row;
+    }
+}